@@ -11,7 +11,9 @@ package io.pravega.client;
 
 import com.google.common.annotations.Beta;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import io.pravega.client.stream.impl.Credentials;
+import io.pravega.shared.protocol.netty.NettyConfig;
 import java.io.Serializable;
 import java.net.URI;
 import java.util.Collections;
@@ -35,6 +37,7 @@ import lombok.extern.slf4j.Slf4j;
 public class ClientConfig implements Serializable {
 
     private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_SEGMENT_STORE = 10;
 
     /** controllerURI The controller rpc URI. This can be of 2 types
      1. tcp://ip1:port1,ip2:port2,...
@@ -60,6 +63,24 @@ public class ClientConfig implements Serializable {
      */
     private boolean validateHostName;
 
+    /**
+     * The maximum number of connections to open to each Segment Store. The Segment readers and writers that talk to the
+     * same Segment Store share these connections. A value of 0 gives each of them a dedicated connection instead.
+     */
+    private int maxConnectionsPerSegmentStore;
+
+    /**
+     * Whether the connections to the Segment Stores (if shared, see {@link #maxConnectionsPerSegmentStore}) are kept open
+     * while none of the Segment readers and writers use them, rather than closed and re-established when next needed.
+     * This suits clients that issue many short-lived requests, such as the Controller.
+     */
+    private boolean retainIdleConnections;
+
+    /**
+     * The event loop thread count, allocator and channel options to use for the connections to the Segment Stores.
+     */
+    private NettyConfig nettyConfig;
+
     public boolean isEnableTls() {
         return this.controllerURI.getScheme().equals("tls") || this.controllerURI.getScheme().equals("ssl")
                 || this.controllerURI.getScheme().equals("pravegas");
@@ -85,6 +106,8 @@ public class ClientConfig implements Serializable {
         private static final String AUTH_PROPS_PREFIX_ENV = "pravega_client_auth_";
 
         private boolean validateHostName = true;
+        private int maxConnectionsPerSegmentStore = DEFAULT_MAX_CONNECTIONS_PER_SEGMENT_STORE;
+        private NettyConfig nettyConfig = NettyConfig.DEFAULT;
 
         public ClientConfig build() {
             if (controllerURI == null) {
@@ -94,7 +117,10 @@ public class ClientConfig implements Serializable {
             if (credentials == null) {
                 log.warn("The credentials are not specified or could not be extracted.");
             }
-            return new ClientConfig(controllerURI, credentials, trustStore, validateHostName);
+            Preconditions.checkArgument(maxConnectionsPerSegmentStore >= 0, "maxConnectionsPerSegmentStore must be a non-negative integer.");
+            Preconditions.checkNotNull(nettyConfig, "nettyConfig");
+            return new ClientConfig(controllerURI, credentials, trustStore, validateHostName, maxConnectionsPerSegmentStore,
+                    retainIdleConnections, nettyConfig);
         }
 
         /**
@@ -9,38 +9,56 @@
  */
 package io.pravega.client.netty.impl;
 
+import com.google.common.annotations.VisibleForTesting;
 import io.pravega.common.ExponentialMovingAverage;
 import io.pravega.common.MathHelpers;
 import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
 
 /**
  * See {@link AppendBatchSizeTracker}.
- * 
- * This implementation tracks three things:
+ *
+ * This implementation tracks four things:
  * 1. The time between appends
  * 2. The size of each append
  * 3. The number of unackedAppends there are outstanding
- * 
+ * 4. The time it takes for appends to be acked
+ *
  * If the number of unacked appends is <= 1 batching is disabled. This improves latency for low volume and synchronus writers.
- * Otherwise the batch size is set to the amount of data that will be written in the next {@link #TARGET_BATCH_TIME_MILLIS}
+ * Otherwise the batch size is set to the amount of data that will be written in the time it takes for an append to be
+ * acked (as batching for that long adds little latency on top of what the writer already sees), capped by the
+ * {@link AppendBatchingPolicy}.
  */
 class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
-    private static final int MAX_BATCH_TIME_MILLIS = 100;
-    private static final int TARGET_BATCH_TIME_MILLIS = 10;
-    private static final int MAX_BATCH_SIZE = 32 * 1024;
+    private static final long INITIAL_ACK_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
 
+    private final AppendBatchingPolicy policy;
     private final Supplier<Long> clock;
     private final AtomicLong lastAppendNumber;
     private final AtomicLong lastAppendTime;
     private final AtomicLong lastAckNumber;
+    private final AtomicReference<AppendSample> latencySample = new AtomicReference<>();
     private final ExponentialMovingAverage eventSize = new ExponentialMovingAverage(1024, 0.1, true);
-    private final ExponentialMovingAverage millisBetweenAppends = new ExponentialMovingAverage(10, 0.1, false);
+    private final ExponentialMovingAverage nanosBetweenAppends = new ExponentialMovingAverage(TimeUnit.MILLISECONDS.toNanos(10), 0.1, false);
+    private final ExponentialMovingAverage ackLatencyNanos = new ExponentialMovingAverage(INITIAL_ACK_LATENCY_NANOS, 0.1, false);
 
     AppendBatchSizeTrackerImpl() {
-        clock = System::currentTimeMillis;
+        this(AppendBatchingPolicy.DEFAULT);
+    }
+
+    AppendBatchSizeTrackerImpl(AppendBatchingPolicy policy) {
+        this(policy, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    AppendBatchSizeTrackerImpl(AppendBatchingPolicy policy, Supplier<Long> clock) {
+        this.policy = policy;
+        this.clock = clock;
         lastAppendTime = new AtomicLong(clock.get());
         lastAckNumber = new AtomicLong(0);
         lastAppendNumber = new AtomicLong(0);
@@ -51,17 +69,26 @@ class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
         long now = Math.max(lastAppendTime.get(), clock.get());
         long last = lastAppendTime.getAndSet(now);
         lastAppendNumber.set(eventNumber);
-        millisBetweenAppends.addNewSample(now - last);
+        nanosBetweenAppends.addNewSample(now - last);
         eventSize.addNewSample(size);
+        if (latencySample.get() == null) {
+            // Only one append at a time is timed, which is enough to follow the ack latency.
+            latencySample.compareAndSet(null, new AppendSample(eventNumber, now));
+        }
     }
 
     @Override
     public void recordAck(long eventNumber) {
         lastAckNumber.getAndSet(eventNumber);
+        AppendSample sample = latencySample.get();
+        if (sample != null && eventNumber >= sample.eventNumber && latencySample.compareAndSet(sample, null)) {
+            ackLatencyNanos.addNewSample(Math.max(0, clock.get() - sample.time));
+        }
     }
 
     /**
-     * Returns a block size that in an estimate of how much data will be written in the next {@link #TARGET_BATCH_TIME_MILLIS}
+     * Returns a block size that in an estimate of how much data will be written in the time it takes for an append to
+     * be acked (but no longer than the maximum linger time), within the limits of the {@link AppendBatchingPolicy}.
      */
     @Override
     public int getAppendBlockSize() {
@@ -69,12 +96,26 @@ class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
         if (numInflight <= 1) {
             return 0;
         }
-        return (int) MathHelpers.minMax((long) (TARGET_BATCH_TIME_MILLIS / millisBetweenAppends.getCurrentValue()
-                * eventSize.getCurrentValue()), 0, MAX_BATCH_SIZE);
+        double targetNanos = Math.min(ackLatencyNanos.getCurrentValue(),
+                TimeUnit.MILLISECONDS.toNanos(policy.getMaxBatchLingerMillis()));
+        double size = eventSize.getCurrentValue();
+        double events = Math.min(targetNanos / Math.max(1.0, nanosBetweenAppends.getCurrentValue()), policy.getMaxBatchEvents());
+        return (int) MathHelpers.minMax((long) (events * size), 0, policy.getMaxBatchSizeBytes());
     }
 
     @Override
     public int getBatchTimeout() {
-        return MAX_BATCH_TIME_MILLIS;
+        return policy.getMaxBatchLingerMillis();
+    }
+
+    @VisibleForTesting
+    double getAckLatencyNanos() {
+        return ackLatencyNanos.getCurrentValue();
+    }
+
+    @RequiredArgsConstructor
+    private static final class AppendSample {
+        private final long eventNumber;
+        private final long time;
     }
 }
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import com.google.common.base.Preconditions;
+import io.pravega.shared.protocol.netty.WireCommands;
+import lombok.Data;
+
+/**
+ * Limits on how a writer's appends are batched into append blocks. Within these limits, the size of the blocks is
+ * decided by an {@link AppendBatchSizeTrackerImpl} based on the rate at which the writer appends and on how long its
+ * appends take to be acknowledged.
+ */
+@Data
+public class AppendBatchingPolicy {
+    /**
+     * The largest block size that may be configured. Each block is sent as a single wire command.
+     */
+    public static final int MAX_BATCH_SIZE_LIMIT = WireCommands.MAX_WIRECOMMAND_SIZE / 2;
+    public static final AppendBatchingPolicy DEFAULT = new AppendBatchingPolicy(32 * 1024, 100, Integer.MAX_VALUE);
+
+    /**
+     * The maximum number of bytes in an append block.
+     */
+    private final int maxBatchSizeBytes;
+    /**
+     * The maximum amount of time that an append may wait in an append block that is not yet full.
+     */
+    private final int maxBatchLingerMillis;
+    /**
+     * The (approximate) maximum number of events in an append block.
+     */
+    private final int maxBatchEvents;
+
+    /**
+     * Creates a new instance of the AppendBatchingPolicy class.
+     *
+     * @param maxBatchSizeBytes    The maximum number of bytes in an append block.
+     * @param maxBatchLingerMillis The maximum amount of time that an append may wait in an append block that is not yet full.
+     * @param maxBatchEvents       The (approximate) maximum number of events in an append block.
+     */
+    public AppendBatchingPolicy(int maxBatchSizeBytes, int maxBatchLingerMillis, int maxBatchEvents) {
+        Preconditions.checkArgument(maxBatchSizeBytes >= 0 && maxBatchSizeBytes <= MAX_BATCH_SIZE_LIMIT,
+                "maxBatchSizeBytes must be a non-negative number no larger than %s.", MAX_BATCH_SIZE_LIMIT);
+        Preconditions.checkArgument(maxBatchLingerMillis > 0, "maxBatchLingerMillis must be a positive number.");
+        Preconditions.checkArgument(maxBatchEvents > 0, "maxBatchEvents must be a positive number.");
+        this.maxBatchSizeBytes = maxBatchSizeBytes;
+        this.maxBatchLingerMillis = maxBatchLingerMillis;
+        this.maxBatchEvents = maxBatchEvents;
+    }
+}
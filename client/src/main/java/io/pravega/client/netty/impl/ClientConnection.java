@@ -12,7 +12,10 @@ package io.pravega.client.netty.impl;
 import io.pravega.shared.protocol.netty.Append;
 import io.pravega.shared.protocol.netty.ConnectionFailedException;
 import io.pravega.shared.protocol.netty.WireCommand;
+import io.pravega.shared.protocol.netty.WireCommands;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A connection object. Represents the TCP connection in the client process that connects to the
@@ -38,6 +41,46 @@ public interface ClientConnection extends AutoCloseable {
      */
     void send(Append append) throws ConnectionFailedException;
     
+    /**
+     * Sets the limits on how the appends of the given writer are batched. This should be done before the writer is set
+     * up on this connection (i.e. before its SetupAppend is sent); until then, its appends are batched using defaults.
+     *
+     * @param writerId The id of the writer.
+     * @param policy   The AppendBatchingPolicy to use for the writer's appends.
+     */
+    default void setAppendBatchingPolicy(UUID writerId, AppendBatchingPolicy policy) {
+    }
+
+    /**
+     * Discards the AppendBatchingPolicy of the given writer (see {@link #setAppendBatchingPolicy}), once the writer is no
+     * longer going to use this connection.
+     *
+     * @param writerId The id of the writer.
+     */
+    default void removeAppendBatchingPolicy(UUID writerId) {
+    }
+
+    /**
+     * Releases the state held for the given writer by this connection (and, if it supports it, by the server), once the
+     * writer is done with the given Segment: all of its appends on this connection have been acknowledged or failed, and
+     * it is not going to send any more. The writer may be set up again afterwards.
+     *
+     * @param removeWriter The RemoveWriter command identifying the writer and the Segment.
+     */
+    default void removeWriter(WireCommands.RemoveWriter removeWriter) {
+    }
+
+    /**
+     * Gets the highest wire version (see {@link WireCommands#WIRE_VERSION}) that the server supports, which is known
+     * once its Hello has been received. Commands that were added in later versions must not be sent to it.
+     * The default implementation assumes the oldest compatible version.
+     *
+     * @return A future with the version, which fails if the connection is dropped before it is known.
+     */
+    default CompletableFuture<Integer> getServerWireVersion() {
+        return CompletableFuture.completedFuture(WireCommands.OLDEST_COMPATIBLE_VERSION);
+    }
+
     /**
      * Sends a wire command asynchronously.
      *
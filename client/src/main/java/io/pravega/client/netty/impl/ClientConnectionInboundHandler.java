@@ -29,7 +29,10 @@ import io.pravega.shared.protocol.netty.ReplyProcessor;
 import io.pravega.shared.protocol.netty.WireCommand;
 import io.pravega.shared.protocol.netty.WireCommands;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -47,7 +50,9 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
     private final AtomicReference<ScheduledFuture<?>> keepAliveFuture = new AtomicReference<>();
     private final AtomicBoolean recentMessage = new AtomicBoolean(false);
     private final AppendBatchSizeTracker batchSizeTracker;
+    private final Map<UUID, AppendBatchSizeTracker> writerBatchSizeTrackers = new ConcurrentHashMap<>();
     private final ReusableFutureLatch<Void> registeredFutureLatch = new ReusableFutureLatch<>();
+    private final CompletableFuture<Integer> serverWireVersion = new CompletableFuture<>();
 
     ClientConnectionInboundHandler(String connectionName, ReplyProcessor processor, AppendBatchSizeTracker batchSizeTracker) {
         Preconditions.checkNotNull(processor);
@@ -83,6 +88,7 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
             future.cancel(false);
         }
         channel.set(null);
+        serverWireVersion.completeExceptionally(new ConnectionFailedException("Connection to " + connectionName + " dropped."));
         processor.connectionDropped();
         super.channelUnregistered(ctx);
     }
@@ -92,7 +98,10 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
         Reply cmd = (Reply) msg;
         log.debug(connectionName + " processing reply: {}", cmd);
         if (cmd instanceof WireCommands.DataAppended) {
-            batchSizeTracker.recordAck(((WireCommands.DataAppended) cmd).getEventNumber());
+            WireCommands.DataAppended dataAppended = (WireCommands.DataAppended) cmd;
+            getBatchSizeTracker(dataAppended.getWriterId()).recordAck(dataAppended.getEventNumber());
+        } else if (cmd instanceof WireCommands.Hello) {
+            serverWireVersion.complete(((WireCommands.Hello) cmd).getHighVersion());
         }
         try {
             processor.process(cmd);
@@ -115,10 +124,52 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
     @Override
     public void send(Append append) throws ConnectionFailedException {
         recentMessage.set(true);
-        batchSizeTracker.recordAppend(append.getEventNumber(), append.getData().readableBytes());
+        getBatchSizeTracker(append.getWriterId()).recordAppend(append.getEventNumber(), append.getData().readableBytes());
         Futures.getAndHandleExceptions(getChannel().writeAndFlush(append), ConnectionFailedException::new);
     }
 
+    @Override
+    public void setAppendBatchingPolicy(UUID writerId, AppendBatchingPolicy policy) {
+        writerBatchSizeTrackers.put(writerId, new AppendBatchSizeTrackerImpl(policy));
+    }
+
+    @Override
+    public void removeAppendBatchingPolicy(UUID writerId) {
+        writerBatchSizeTrackers.remove(writerId);
+    }
+
+    @Override
+    public void removeWriter(WireCommands.RemoveWriter removeWriter) {
+        Channel ch = channel.get();
+        if (ch == null) {
+            // The server drops all writers along with the connection.
+            return;
+        }
+        if (Futures.isSuccessful(serverWireVersion) && serverWireVersion.join() >= WireCommands.WRITER_REMOVAL_VERSION) {
+            recentMessage.set(true);
+            ch.writeAndFlush(removeWriter, ch.voidPromise());
+        } else {
+            // Older servers only drop writers along with the connection, but the encoder state can still be released.
+            ch.writeAndFlush(new WireCommands.ReleaseWriter(removeWriter.getWriterId(), removeWriter.getSegment()), ch.voidPromise());
+        }
+    }
+
+    /**
+     * Gets the AppendBatchSizeTracker to use for the given writer: its own one if it has set an AppendBatchingPolicy,
+     * or the connection-wide one otherwise.
+     *
+     * @param writerId The id of the writer.
+     * @return The AppendBatchSizeTracker.
+     */
+    AppendBatchSizeTracker getBatchSizeTracker(UUID writerId) {
+        return writerBatchSizeTrackers.getOrDefault(writerId, batchSizeTracker);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getServerWireVersion() {
+        return serverWireVersion;
+    }
+
     @Override
     public void sendAsync(WireCommand cmd) throws ConnectionFailedException {
         recentMessage.set(true);
@@ -142,7 +193,7 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
         }
         PromiseCombiner combiner = new PromiseCombiner();
         for (Append append : appends) {
-            batchSizeTracker.recordAppend(append.getEventNumber(), append.getData().readableBytes());
+            getBatchSizeTracker(append.getWriterId()).recordAppend(append.getEventNumber(), append.getData().readableBytes());
             combiner.add(ch.write(append));
         }
         ch.flush();
@@ -159,6 +210,7 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
     
     @Override
     public void close() {
+        writerBatchSizeTrackers.clear();
         Channel ch = channel.get();
         if (ch != null) {
             ch.close();
@@ -30,6 +30,21 @@ public interface ConnectionFactory extends AutoCloseable {
      */
     CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, ReplyProcessor rp);
 
+    /**
+     * Establishes a connection for exchanging commands pertaining to a single Segment. The returned connection may be
+     * multiplexed with others over a connection that is shared with other Segment readers and writers talking to the
+     * same server; closing it does not affect any of the others.
+     * The default implementation establishes a dedicated connection.
+     *
+     * @param endpoint The Pravega Node URI.
+     * @param segment  The fully qualified name of the Segment that the connection will be used for.
+     * @param rp       Reply Processor instance. It will only be handed the replies that pertain to this connection.
+     * @return An instance of client connection.
+     */
+    default CompletableFuture<ClientConnection> establishSharedConnection(PravegaNodeUri endpoint, String segment, ReplyProcessor rp) {
+        return establishConnection(endpoint, rp);
+    }
+
     /**
      * Get the internal executor which is used by the client.
      * @return A ScheduledExecutorService.
@@ -14,11 +14,11 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.epoll.EpollEventLoopGroup;
@@ -42,6 +42,7 @@ import io.pravega.shared.protocol.netty.CommandDecoder;
 import io.pravega.shared.protocol.netty.CommandEncoder;
 import io.pravega.shared.protocol.netty.ConnectionFailedException;
 import io.pravega.shared.protocol.netty.ExceptionLoggingHandler;
+import io.pravega.shared.protocol.netty.NettyConfig;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
 import io.pravega.shared.protocol.netty.ReplyProcessor;
 import io.pravega.shared.protocol.netty.WireCommands;
@@ -61,9 +62,12 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
     private EventLoopGroup group;
     private boolean nio = false;
     private final ClientConfig clientConfig;
+    private final NettyConfig nettyConfig;
+    private final ByteBufAllocator allocator;
     private final AtomicBoolean closed = new AtomicBoolean(false);
     private final ScheduledExecutorService executor;
     private final ChannelGroup allChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final ConnectionPool connectionPool;
 
     /**
      * Actual implementation of ConnectionFactory interface.
@@ -77,12 +81,17 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
     public ConnectionFactoryImpl(ClientConfig clientConfig, Integer numThreadsInPool) {
         executor = ExecutorServiceHelpers.newScheduledThreadPool(getNumThreads(numThreadsInPool), "clientInternal");
         this.clientConfig = clientConfig;
+        int maxSharedConnections = clientConfig.getMaxConnectionsPerSegmentStore();
+        this.connectionPool = maxSharedConnections > 0 ? new ConnectionPool(maxSharedConnections,
+                clientConfig.isRetainIdleConnections(), this::establishConnection) : null;
+        this.nettyConfig = clientConfig.getNettyConfig();
+        this.allocator = this.nettyConfig.createAllocator();
         try {
-            this.group = new EpollEventLoopGroup();
+            this.group = new EpollEventLoopGroup(this.nettyConfig.getEventLoopThreads());
         } catch (ExceptionInInitializerError | UnsatisfiedLinkError | NoClassDefFoundError e) {
             log.warn("Epoll not available. Falling back on NIO.");
             nio = true;
-            this.group = new NioEventLoopGroup();
+            this.group = new NioEventLoopGroup(this.nettyConfig.getEventLoopThreads());
         }
     }
 
@@ -122,9 +131,9 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
         AppendBatchSizeTracker batchSizeTracker = new AppendBatchSizeTrackerImpl();
         ClientConnectionInboundHandler handler = new ClientConnectionInboundHandler(location.getEndpoint(), rp, batchSizeTracker);
         Bootstrap b = new Bootstrap();
+        nettyConfig.applyTo(b, allocator);
         b.group(group)
          .channel(nio ? NioSocketChannel.class : EpollSocketChannel.class)
-         .option(ChannelOption.TCP_NODELAY, true)
          .handler(new ChannelInitializer<SocketChannel>() {
              @Override
              public void initChannel(SocketChannel ch) throws Exception {
@@ -142,7 +151,7 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
                  }
                  // p.addLast(new LoggingHandler(LogLevel.INFO));
                  p.addLast(new ExceptionLoggingHandler(location.getEndpoint()),
-                         new CommandEncoder(batchSizeTracker),
+                         CommandEncoder.perWriter(handler::getBatchSizeTracker),
                          new LengthFieldBasedFrameDecoder(WireCommands.MAX_WIRECOMMAND_SIZE, 4, 4),
                          new CommandDecoder(),
                          handler);
@@ -177,6 +186,16 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
         return connectionComplete.thenCombine(channelRegisteredFuture, (clientConnection, v) -> clientConnection);
     }
 
+    @Override
+    public CompletableFuture<ClientConnection> establishSharedConnection(PravegaNodeUri location, String segment, ReplyProcessor rp) {
+        if (connectionPool == null) {
+            return establishConnection(location, rp);
+        }
+        Preconditions.checkNotNull(location);
+        Exceptions.checkNotClosed(closed.get(), this);
+        return connectionPool.getConnection(location, segment, rp);
+    }
+
     @Override
     public ScheduledExecutorService getInternalExecutor() {
         return executor;
@@ -186,6 +205,9 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
     public void close() {
         log.info("Shutting down connection factory");
         if (closed.compareAndSet(false, true)) {
+            if (connectionPool != null) {
+                connectionPool.close();
+            }
             // Shut down the event loop to terminate all threads.
             group.shutdownGracefully();
             ExecutorServiceHelpers.shutdown(executor);
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import io.pravega.shared.protocol.netty.ReplyProcessor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A pool of SharedConnections, keyed by the Pravega node they connect to.
+ *
+ * Up to a configured number of connections are opened to each node; once that many exist, new Sessions are put on the
+ * connection that has the fewest Sessions. Connections are closed once the last of their Sessions is closed (unless
+ * the pool is configured to keep idle connections open) or once they fail, and are re-established as needed afterwards.
+ */
+@Slf4j
+@ThreadSafe
+class ConnectionPool implements AutoCloseable {
+    private final int maxConnectionsPerEndpoint;
+    private final boolean retainIdleConnections;
+    private final BiFunction<PravegaNodeUri, ReplyProcessor, CompletableFuture<ClientConnection>> connector;
+    @GuardedBy("connections")
+    private final Map<PravegaNodeUri, List<SharedConnection>> connections = new HashMap<>();
+
+    /**
+     * Creates a new instance of the ConnectionPool class which closes idle connections.
+     *
+     * @param maxConnectionsPerEndpoint The maximum number of connections to open to each Pravega node.
+     * @param connector                 A function that establishes a dedicated connection to a Pravega node, handing all
+     *                                  replies to the given ReplyProcessor.
+     */
+    ConnectionPool(int maxConnectionsPerEndpoint, BiFunction<PravegaNodeUri, ReplyProcessor, CompletableFuture<ClientConnection>> connector) {
+        this(maxConnectionsPerEndpoint, false, connector);
+    }
+
+    /**
+     * Creates a new instance of the ConnectionPool class.
+     *
+     * @param maxConnectionsPerEndpoint The maximum number of connections to open to each Pravega node.
+     * @param retainIdleConnections     Whether to keep connections open once none of their Sessions are open anymore.
+     *                                  This avoids re-establishing connections for clients that only ever have short-lived
+     *                                  Sessions (such as one per request).
+     * @param connector                 A function that establishes a dedicated connection to a Pravega node, handing all
+     *                                  replies to the given ReplyProcessor.
+     */
+    ConnectionPool(int maxConnectionsPerEndpoint, boolean retainIdleConnections,
+                   BiFunction<PravegaNodeUri, ReplyProcessor, CompletableFuture<ClientConnection>> connector) {
+        Preconditions.checkArgument(maxConnectionsPerEndpoint > 0, "maxConnectionsPerEndpoint must be a positive integer.");
+        this.maxConnectionsPerEndpoint = maxConnectionsPerEndpoint;
+        this.retainIdleConnections = retainIdleConnections;
+        this.connector = Preconditions.checkNotNull(connector, "connector");
+    }
+
+    /**
+     * Creates a new Session for the given Segment over one of the connections to the given endpoint.
+     *
+     * @param endpoint  The Pravega node to connect to.
+     * @param segment   The Segment the Session will be used for.
+     * @param processor The ReplyProcessor to hand replies pertaining to the Session to.
+     * @return A CompletableFuture that will be completed with the Session once its connection is established.
+     */
+    CompletableFuture<ClientConnection> getConnection(PravegaNodeUri endpoint, String segment, ReplyProcessor processor) {
+        while (true) {
+            SharedConnection connection;
+            boolean isNew = false;
+            synchronized (this.connections) {
+                List<SharedConnection> existing = this.connections.computeIfAbsent(endpoint, e -> new ArrayList<>());
+                if (existing.size() < this.maxConnectionsPerEndpoint) {
+                    connection = null;
+                } else {
+                    connection = existing.stream().min(Comparator.comparingInt(SharedConnection::getSessionCount)).get();
+                }
+
+                if (connection == null) {
+                    connection = new SharedConnection(endpoint, this.connector, this::remove, !this.retainIdleConnections);
+                    if (!connection.isClosed()) {
+                        // It may have failed right away, in which case there's no point in keeping it around.
+                        existing.add(connection);
+                    }
+                    isNew = true;
+                }
+            }
+
+            if (isNew) {
+                log.debug("Opened shared connection to {}.", endpoint);
+            }
+
+            CompletableFuture<ClientConnection> result = connection.createSession(segment, processor);
+            if (result != null) {
+                return result;
+            }
+
+            // The connection got closed in the meantime (and it will have removed itself from the pool). Try again.
+            log.debug("Shared connection to {} closed while creating a session; retrying.", endpoint);
+        }
+    }
+
+    /**
+     * Gets the number of connections currently open to the given endpoint.
+     */
+    @VisibleForTesting
+    int getConnectionCount(PravegaNodeUri endpoint) {
+        synchronized (this.connections) {
+            List<SharedConnection> existing = this.connections.get(endpoint);
+            return existing == null ? 0 : existing.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        List<SharedConnection> toClose = new ArrayList<>();
+        synchronized (this.connections) {
+            this.connections.values().forEach(toClose::addAll);
+            this.connections.clear();
+        }
+
+        toClose.forEach(SharedConnection::close);
+    }
+
+    private void remove(SharedConnection connection) {
+        synchronized (this.connections) {
+            List<SharedConnection> existing = this.connections.get(connection.getEndpoint());
+            if (existing != null && existing.remove(connection) && existing.isEmpty()) {
+                this.connections.remove(connection.getEndpoint());
+            }
+        }
+    }
+}
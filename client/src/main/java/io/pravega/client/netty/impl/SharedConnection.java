@@ -0,0 +1,693 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.shared.protocol.netty.Append;
+import io.pravega.shared.protocol.netty.ConnectionFailedException;
+import io.pravega.shared.protocol.netty.FailingReplyProcessor;
+import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import io.pravega.shared.protocol.netty.Reply;
+import io.pravega.shared.protocol.netty.ReplyProcessor;
+import io.pravega.shared.protocol.netty.Request;
+import io.pravega.shared.protocol.netty.WireCommand;
+import io.pravega.shared.protocol.netty.WireCommands;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A connection to a Pravega node that is shared by multiple Sessions, each of which is used by a single Segment reader
+ * or writer (or other client of a single Segment).
+ *
+ * Commands sent over a Session go out on the shared connection as-is. Replies are handed to the Sessions they pertain to:
+ * * Replies that identify a writer (such as DataAppended) go to the Session that set up that writer.
+ * * Replies that identify a Segment go to the Session for that Segment that has an outstanding request with the
+ * reply's request id or, if there is none, to all the Sessions for that Segment (these are replies such as
+ * SegmentIsSealed or WrongHost, which apply to all of them).
+ * * Any other replies go to the Session that has an outstanding request with the reply's request id.
+ * Request ids are chosen by the clients of the Sessions (reads even use the offset they read from), so several Sessions
+ * may have outstanding requests with the same id; each reply then goes to the one that sent its request first, so that
+ * each of them gets one reply per request.
+ * Connection-wide events (such as the connection being dropped) are delivered to all the Sessions.
+ * A Session that sends requests involving other Segments (such as a CreateSegments batch, or a MergeSegments) is
+ * treated as a Session for each of those Segments from then on, so that it gets the replies about any of them.
+ *
+ * The server (and the connection's encoder) keep some state for each writer set up on the connection, which is released
+ * (see {@link ClientConnection#removeWriter}) once the Session that set it up is closed and all of the writer's appends
+ * have been acknowledged or failed. A writer whose Session is closed before that is kept until it is, so that only this
+ * writer (and not the whole connection) is affected: it may not be set up again over the same connection in the
+ * meantime (the server would still be processing its appends), and attempting to do so fails as if the connection was
+ * not established, so that it is retried.
+ */
+@Slf4j
+@ThreadSafe
+class SharedConnection {
+    //region Members
+
+    @Getter
+    private final PravegaNodeUri endpoint;
+    private final Consumer<SharedConnection> onClose;
+    private final boolean closeWhenIdle;
+    private final Demultiplexer demultiplexer = new Demultiplexer();
+    private final CompletableFuture<ClientConnection> connection;
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private final Map<String, List<Session>> segmentSessions = new HashMap<>();
+    @GuardedBy("lock")
+    private final Map<UUID, Writer> writers = new HashMap<>();
+    @GuardedBy("lock")
+    private final Map<Long, List<Session>> outstandingRequests = new HashMap<>();
+    @GuardedBy("lock")
+    private int sessionCount;
+    @GuardedBy("lock")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the SharedConnection class and begins establishing the connection.
+     *
+     * @param endpoint      The Pravega node to connect to.
+     * @param connector     A function that establishes a dedicated connection to the given endpoint, handing all replies
+     *                      to the given ReplyProcessor.
+     * @param onClose       A callback to invoke once this connection has been closed (or has failed to establish).
+     * @param closeWhenIdle Whether to close this connection once it has no more Sessions. If false, it is kept open
+     *                      (to be reused by future Sessions) until it is closed explicitly or fails.
+     */
+    SharedConnection(PravegaNodeUri endpoint, BiFunction<PravegaNodeUri, ReplyProcessor, CompletableFuture<ClientConnection>> connector,
+                     Consumer<SharedConnection> onClose, boolean closeWhenIdle) {
+        this.endpoint = Preconditions.checkNotNull(endpoint, "endpoint");
+        this.onClose = Preconditions.checkNotNull(onClose, "onClose");
+        this.closeWhenIdle = closeWhenIdle;
+        this.connection = connector.apply(endpoint, this.demultiplexer);
+        Futures.exceptionListener(this.connection, ex -> {
+            log.warn("Unable to establish shared connection to {}.", endpoint, ex);
+            // The Sessions find out about this from the futures returned by createSession().
+            closeInternal(false);
+        });
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Creates a new Session for the given Segment.
+     *
+     * @param segment   The Segment the Session will be used for.
+     * @param processor The ReplyProcessor to hand replies pertaining to the Session to.
+     * @return A CompletableFuture that will be completed with the Session once the shared connection is established (or
+     * failed, if it could not be established). If this connection has already been closed for any other reason, null is
+     * returned instead.
+     */
+    CompletableFuture<ClientConnection> createSession(String segment, ReplyProcessor processor) {
+        Session session = new Session(segment, processor);
+        synchronized (this.lock) {
+            if (this.closed) {
+                return this.connection.isCompletedExceptionally() ? this.connection.thenApply(c -> session) : null;
+            }
+
+            this.segmentSessions.computeIfAbsent(segment, s -> new ArrayList<>(1)).add(session);
+            this.sessionCount++;
+        }
+
+        return this.connection.thenApply(c -> session);
+    }
+
+    /**
+     * Gets a value indicating whether this connection has been closed.
+     */
+    boolean isClosed() {
+        synchronized (this.lock) {
+            return this.closed;
+        }
+    }
+
+    /**
+     * Gets the number of Sessions that currently use this connection.
+     */
+    int getSessionCount() {
+        synchronized (this.lock) {
+            return this.sessionCount;
+        }
+    }
+
+    /**
+     * Closes the underlying connection. All the Sessions that still use it are notified that it has been dropped.
+     */
+    void close() {
+        closeInternal(true);
+    }
+
+    @VisibleForTesting
+    ReplyProcessor getReplyProcessor() {
+        return this.demultiplexer;
+    }
+
+    private void closeInternal(boolean notifySessions) {
+        Set<Session> sessions;
+        synchronized (this.lock) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            sessions = new LinkedHashSet<>();
+            this.segmentSessions.values().forEach(sessions::addAll);
+            this.segmentSessions.clear();
+            this.writers.clear();
+            this.outstandingRequests.clear();
+            this.sessionCount = 0;
+        }
+
+        closeConnection();
+        if (notifySessions) {
+            sessions.forEach(Session::connectionDropped);
+        }
+    }
+
+    private void closeConnection() {
+        this.onClose.accept(this);
+        if (Futures.isSuccessful(this.connection)) {
+            this.connection.join().close();
+        }
+    }
+
+    /**
+     * Detaches the given Session from this connection. If no more Sessions use this connection (and it is not to be kept
+     * open when idle), it is closed. The writers set up over the Session are released, except for those that still have
+     * unacknowledged appends, which are released once these have been acknowledged (or failed).
+     */
+    private void detach(Session session) {
+        List<Writer> releasedWriters = new ArrayList<>();
+        boolean idle = false;
+        List<UUID> batchingPolicyWriters;
+        synchronized (this.lock) {
+            List<Session> sessions = this.segmentSessions.get(session.segment);
+            if (sessions == null || !sessions.remove(session)) {
+                // Already detached (i.e., this connection has been closed).
+                return;
+            }
+
+            if (sessions.isEmpty()) {
+                this.segmentSessions.remove(session.segment);
+            }
+
+            for (String segment : session.otherSegments) {
+                List<Session> batchSessions = this.segmentSessions.get(segment);
+                if (batchSessions != null && batchSessions.remove(session) && batchSessions.isEmpty()) {
+                    this.segmentSessions.remove(segment);
+                }
+            }
+
+            Iterator<Writer> writerIterator = this.writers.values().iterator();
+            while (writerIterator.hasNext()) {
+                Writer w = writerIterator.next();
+                if (w.session == session) {
+                    if (w.isDrained()) {
+                        writerIterator.remove();
+                        releasedWriters.add(w);
+                    } else {
+                        log.debug("{} closed with unacknowledged appends from writer {}; removing it once they complete.",
+                                session, w.writerId);
+                        w.closing = true;
+                    }
+                }
+            }
+
+            this.outstandingRequests.values().removeIf(l -> l.remove(session) && l.isEmpty());
+            batchingPolicyWriters = new ArrayList<>(session.batchingPolicyWriters);
+            this.sessionCount--;
+            if (this.sessionCount == 0 && this.closeWhenIdle) {
+                // Nobody else is using this connection; no point in keeping it open. Mark it as closed while still holding
+                // the lock so that no new Sessions are created for it.
+                this.closed = true;
+                idle = true;
+            }
+        }
+
+        if (Futures.isSuccessful(this.connection)) {
+            ClientConnection c = this.connection.join();
+            batchingPolicyWriters.forEach(c::removeAppendBatchingPolicy);
+        }
+
+        if (idle) {
+            closeConnection();
+        } else {
+            release(releasedWriters);
+        }
+    }
+
+    /**
+     * Releases the state held for the given writers (which are no longer tracked) by the underlying connection.
+     */
+    private void release(List<Writer> releasedWriters) {
+        if (releasedWriters.isEmpty() || !Futures.isSuccessful(this.connection)) {
+            return;
+        }
+
+        ClientConnection c = this.connection.join();
+        for (Writer w : releasedWriters) {
+            try {
+                c.removeWriter(new WireCommands.RemoveWriter(w.requestId, w.writerId, w.segment));
+            } catch (Exception ex) {
+                // The server drops all writers along with the connection anyway.
+                log.debug("Unable to remove writer {} from shared connection to {}.", w.writerId, this.endpoint, ex);
+            }
+        }
+    }
+
+    private void track(Session session, WireCommand cmd) throws ConnectionFailedException {
+        synchronized (this.lock) {
+            if (cmd instanceof WireCommands.SetupAppend) {
+                WireCommands.SetupAppend setup = (WireCommands.SetupAppend) cmd;
+                Writer existing = this.writers.get(setup.getWriterId());
+                if (existing != null && existing.closing) {
+                    throw new ConnectionFailedException(String.format("Writer %s is still being removed from the connection to %s.",
+                            setup.getWriterId(), this.endpoint));
+                }
+                this.writers.put(setup.getWriterId(), new Writer(session, setup));
+            }
+            if (cmd instanceof WireCommands.CreateSegments) {
+                ((WireCommands.CreateSegments) cmd).getSegments().forEach(r -> trackRequest(session, r.getRequestId(), r.getSegment()));
+            } else if (cmd instanceof WireCommands.SealSegments) {
+                ((WireCommands.SealSegments) cmd).getSegments().forEach(r -> trackRequest(session, r.getRequestId(), r.getSegment()));
+            } else if (cmd instanceof WireCommands.DeleteSegments) {
+                ((WireCommands.DeleteSegments) cmd).getSegments().forEach(r -> trackRequest(session, r.getRequestId(), r.getSegment()));
+            } else if (cmd instanceof WireCommands.MergeSegments) {
+                // The reply may be about either of the two Segments (such as NoSuchSegment for the source).
+                WireCommands.MergeSegments merge = (WireCommands.MergeSegments) cmd;
+                trackRequest(session, merge.getRequestId(), merge.getTarget());
+                addSegment(session, merge.getSource());
+            } else if (cmd instanceof WireCommands.MergeSegmentsBatch) {
+                ((WireCommands.MergeSegmentsBatch) cmd).getMerges().forEach(merge -> {
+                    trackRequest(session, merge.getRequestId(), merge.getTarget());
+                    addSegment(session, merge.getSource());
+                });
+            } else if (cmd instanceof Request) {
+                this.outstandingRequests.computeIfAbsent(((Request) cmd).getRequestId(), id -> new ArrayList<>(1)).add(session);
+            }
+        }
+    }
+
+    @GuardedBy("lock")
+    private void trackRequest(Session session, long requestId, String segment) {
+        addSegment(session, segment);
+        this.outstandingRequests.computeIfAbsent(requestId, id -> new ArrayList<>(1)).add(session);
+    }
+
+    /**
+     * Makes the given Session (also) a Session for the given Segment, if it isn't already.
+     */
+    @GuardedBy("lock")
+    private void addSegment(Session session, String segment) {
+        if (!segment.equals(session.segment) && session.otherSegments.add(segment)) {
+            this.segmentSessions.computeIfAbsent(segment, s -> new ArrayList<>(1)).add(session);
+        }
+    }
+
+    private void trackAppends(Session session, List<Append> appends) {
+        synchronized (this.lock) {
+            for (Append append : appends) {
+                Writer writer = this.writers.get(append.getWriterId());
+                if (writer != null && writer.session == session) {
+                    writer.lastEventNumberSent = Math.max(writer.lastEventNumberSent, append.getEventNumber());
+                }
+            }
+        }
+    }
+
+    //endregion
+
+    //region Demultiplexing
+
+    /**
+     * Determines which Sessions a reply needs to be handed to.
+     *
+     * @param reply           The reply.
+     * @param releasedWriters A list to add the writers that are no longer tracked as a result of this reply to. These
+     *                        need to be released (see release()).
+     */
+    private List<Session> getTargets(Reply reply, List<Writer> releasedWriters) {
+        synchronized (this.lock) {
+            List<Session> requesters = this.outstandingRequests.getOrDefault(reply.getRequestId(), Collections.emptyList());
+            UUID writerId = getWriterId(reply);
+            String segment = getSegment(reply);
+            Session requester;
+            List<Session> result = new ArrayList<>(1);
+            if (writerId != null) {
+                Writer writer = this.writers.get(writerId);
+                requester = writer == null ? null : writer.session;
+                if (writer != null) {
+                    writer.acknowledged(reply);
+                    result.add(writer.session);
+                    if (writer.closing && writer.isDrained()) {
+                        this.writers.remove(writerId);
+                        releasedWriters.add(writer);
+                    }
+                }
+            } else if (segment == null) {
+                requester = requesters.isEmpty() ? null : requesters.get(0);
+                if (requester != null) {
+                    result.add(requester);
+                }
+            } else {
+                List<Session> segmentSessions = this.segmentSessions.getOrDefault(segment, Collections.emptyList());
+                requester = requesters.stream().filter(segmentSessions::contains).findFirst().orElse(null);
+                if (requester != null) {
+                    result.add(requester);
+                } else {
+                    result.addAll(segmentSessions);
+                }
+
+                if (isWriterFailure(reply)) {
+                    Iterator<Writer> writerIterator = this.writers.values().iterator();
+                    while (writerIterator.hasNext()) {
+                        Writer w = writerIterator.next();
+                        if (w.failed(reply, segment) && w.closing) {
+                            writerIterator.remove();
+                            releasedWriters.add(w);
+                        }
+                    }
+                }
+            }
+
+            // Each reply completes the (earliest) request it answers.
+            if (requester != null && requesters.remove(requester) && requesters.isEmpty()) {
+                this.outstandingRequests.remove(reply.getRequestId());
+            }
+
+            return result;
+        }
+    }
+
+    private static UUID getWriterId(Reply reply) {
+        if (reply instanceof WireCommands.AppendSetup) {
+            return ((WireCommands.AppendSetup) reply).getWriterId();
+        } else if (reply instanceof WireCommands.DataAppended) {
+            return ((WireCommands.DataAppended) reply).getWriterId();
+        } else if (reply instanceof WireCommands.ConditionalCheckFailed) {
+            return ((WireCommands.ConditionalCheckFailed) reply).getWriterId();
+        } else if (reply instanceof WireCommands.InvalidEventNumber) {
+            return ((WireCommands.InvalidEventNumber) reply).getWriterId();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Whether the given reply may be the failure of a SetupAppend or an append, after which the server no longer keeps
+     * any state for the writer that sent it.
+     */
+    private static boolean isWriterFailure(Reply reply) {
+        return reply instanceof WireCommands.SegmentIsSealed
+                || reply instanceof WireCommands.NoSuchSegment
+                || reply instanceof WireCommands.WrongHost;
+    }
+
+    private static String getSegment(Reply reply) {
+        if (reply instanceof WireCommands.WrongHost) {
+            return ((WireCommands.WrongHost) reply).getSegment();
+        } else if (reply instanceof WireCommands.SegmentIsSealed) {
+            return ((WireCommands.SegmentIsSealed) reply).getSegment();
+        } else if (reply instanceof WireCommands.SegmentIsTruncated) {
+            return ((WireCommands.SegmentIsTruncated) reply).getSegment();
+        } else if (reply instanceof WireCommands.SegmentAlreadyExists) {
+            return ((WireCommands.SegmentAlreadyExists) reply).getSegment();
+        } else if (reply instanceof WireCommands.NoSuchSegment) {
+            return ((WireCommands.NoSuchSegment) reply).getSegment();
+        } else if (reply instanceof WireCommands.SegmentRead) {
+            return ((WireCommands.SegmentRead) reply).getSegment();
+        } else if (reply instanceof WireCommands.StreamSegmentInfo) {
+            return ((WireCommands.StreamSegmentInfo) reply).getSegmentName();
+        } else if (reply instanceof WireCommands.SegmentCreated) {
+            return ((WireCommands.SegmentCreated) reply).getSegment();
+        } else if (reply instanceof WireCommands.SegmentPolicyUpdated) {
+            return ((WireCommands.SegmentPolicyUpdated) reply).getSegment();
+        } else if (reply instanceof WireCommands.SegmentsMerged) {
+            return ((WireCommands.SegmentsMerged) reply).getTarget();
+        } else if (reply instanceof WireCommands.SegmentSealed) {
+            return ((WireCommands.SegmentSealed) reply).getSegment();
+        } else if (reply instanceof WireCommands.SegmentTruncated) {
+            return ((WireCommands.SegmentTruncated) reply).getSegment();
+        } else if (reply instanceof WireCommands.SegmentDeleted) {
+            return ((WireCommands.SegmentDeleted) reply).getSegment();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Receives all the replies from the underlying connection and hands them to the appropriate Sessions.
+     */
+    private class Demultiplexer extends FailingReplyProcessor {
+        @Override
+        public void process(Reply reply) {
+            if (reply instanceof WireCommands.KeepAlive) {
+                return;
+            } else if (reply instanceof WireCommands.Hello) {
+                super.hello((WireCommands.Hello) reply);
+                return;
+            } else if (reply instanceof WireCommands.SegmentsRead) {
+                ((WireCommands.SegmentsRead) reply).getReads().forEach(this::process);
+                return;
+            }
+
+            List<Writer> releasedWriters = new ArrayList<>();
+            List<Session> targets = getTargets(reply, releasedWriters);
+            if (targets.isEmpty()) {
+                log.debug("No session on shared connection to {} for reply {}; ignoring.", endpoint, reply);
+            }
+
+            targets.forEach(s -> s.deliver(reply));
+            release(releasedWriters);
+        }
+
+        @Override
+        public void authTokenCheckFailed(WireCommands.AuthTokenCheckFailed authTokenCheckFailed) {
+            process(authTokenCheckFailed);
+        }
+
+        @Override
+        public void connectionDropped() {
+            closeInternal(true);
+        }
+
+        @Override
+        public void processingFailure(Exception error) {
+            log.warn("Processing failure on shared connection to {}.", endpoint, error);
+            closeInternal(true);
+        }
+    }
+
+    //endregion
+
+    //region Session
+
+    /**
+     * A ClientConnection that is multiplexed over the shared connection.
+     */
+    private class Session implements ClientConnection {
+        private final String segment;
+        private final ReplyProcessor processor;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        @GuardedBy("lock")
+        private final Set<String> otherSegments = new HashSet<>();
+        @GuardedBy("lock")
+        private final Set<UUID> batchingPolicyWriters = new HashSet<>();
+
+        Session(String segment, ReplyProcessor processor) {
+            this.segment = Preconditions.checkNotNull(segment, "segment");
+            this.processor = Preconditions.checkNotNull(processor, "processor");
+        }
+
+        @Override
+        public void send(WireCommand cmd) throws ConnectionFailedException {
+            ClientConnection c = getConnection();
+            track(this, cmd);
+            c.send(cmd);
+        }
+
+        @Override
+        public void send(Append append) throws ConnectionFailedException {
+            ClientConnection c = getConnection();
+            trackAppends(this, Collections.singletonList(append));
+            c.send(append);
+        }
+
+        @Override
+        public void setAppendBatchingPolicy(UUID writerId, AppendBatchingPolicy policy) {
+            ClientConnection c = connection.getNow(null);
+            if (c != null) {
+                synchronized (lock) {
+                    // If closed, the subsequent SetupAppend will fail anyway. Otherwise the policy is removed once this
+                    // Session is closed (see detach()).
+                    if (!this.closed.get()) {
+                        this.batchingPolicyWriters.add(writerId);
+                        c.setAppendBatchingPolicy(writerId, policy);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public CompletableFuture<Integer> getServerWireVersion() {
+            return connection.thenCompose(ClientConnection::getServerWireVersion);
+        }
+
+        @Override
+        public void sendAsync(WireCommand cmd) throws ConnectionFailedException {
+            ClientConnection c = getConnection();
+            track(this, cmd);
+            c.sendAsync(cmd);
+        }
+
+        @Override
+        public void sendAsync(List<Append> appends, CompletedCallback callback) {
+            ClientConnection c;
+            try {
+                c = getConnection();
+            } catch (ConnectionFailedException e) {
+                callback.complete(e);
+                return;
+            }
+
+            trackAppends(this, appends);
+            c.sendAsync(appends, callback);
+        }
+
+        @Override
+        public void close() {
+            if (this.closed.compareAndSet(false, true)) {
+                detach(this);
+            }
+        }
+
+        void deliver(Reply reply) {
+            if (this.closed.get()) {
+                return;
+            }
+
+            try {
+                this.processor.process(reply);
+            } catch (Exception e) {
+                this.processor.processingFailure(e);
+            }
+        }
+
+        void connectionDropped() {
+            if (this.closed.compareAndSet(false, true)) {
+                this.processor.connectionDropped();
+            }
+        }
+
+        private ClientConnection getConnection() throws ConnectionFailedException {
+            ClientConnection c = this.closed.get() ? null : connection.getNow(null);
+            if (c == null) {
+                throw new ConnectionFailedException("Connection to " + endpoint + " is not established.");
+            }
+            return c;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Session[%s, %s]", segment, endpoint);
+        }
+    }
+
+    //endregion
+
+    //region Writer
+
+    /**
+     * Keeps track of the appends of a writer that has been set up over a Session.
+     */
+    private static class Writer {
+        final Session session;
+        final long requestId;
+        final UUID writerId;
+        final String segment;
+        long lastEventNumberSent = Long.MIN_VALUE;
+        long lastEventNumberAcked = Long.MIN_VALUE;
+        boolean setUp;
+        boolean closing;
+
+        Writer(Session session, WireCommands.SetupAppend setup) {
+            this.session = session;
+            this.requestId = setup.getRequestId();
+            this.writerId = setup.getWriterId();
+            this.segment = setup.getSegment();
+        }
+
+        /**
+         * Gets a value indicating whether the server is done with the SetupAppend and all the appends of this writer.
+         */
+        boolean isDrained() {
+            return this.setUp && this.lastEventNumberAcked >= this.lastEventNumberSent;
+        }
+
+        /**
+         * Records the given failure reply about the given Segment if it is the failure of this writer's SetupAppend or
+         * of one of its appends (whose event number is used as the request id). The server fails all of the writer's
+         * subsequent appends along with it.
+         *
+         * @return True if the reply was a failure of this writer.
+         */
+        boolean failed(Reply reply, String segment) {
+            long requestId = reply.getRequestId();
+            if (!this.segment.equals(segment)
+                    || (requestId != this.requestId && (requestId <= this.lastEventNumberAcked || requestId > this.lastEventNumberSent))) {
+                return false;
+            }
+
+            this.setUp = true;
+            this.lastEventNumberAcked = this.lastEventNumberSent;
+            return true;
+        }
+
+        void acknowledged(Reply reply) {
+            long eventNumber;
+            if (reply instanceof WireCommands.AppendSetup) {
+                this.setUp = true;
+                eventNumber = ((WireCommands.AppendSetup) reply).getLastEventNumber();
+            } else if (reply instanceof WireCommands.DataAppended) {
+                eventNumber = ((WireCommands.DataAppended) reply).getEventNumber();
+            } else if (reply instanceof WireCommands.ConditionalCheckFailed) {
+                eventNumber = ((WireCommands.ConditionalCheckFailed) reply).getEventNumber();
+            } else {
+                return;
+            }
+
+            this.lastEventNumberAcked = Math.max(this.lastEventNumberAcked, eventNumber);
+        }
+    }
+
+    //endregion
+}
@@ -52,6 +52,7 @@ class AsyncSegmentInputStreamImpl extends AsyncSegmentInputStream {
     private final AtomicBoolean closed = new AtomicBoolean(false);
     private final Controller controller;
     private final String delegationToken;
+    private final SegmentReadBatcher readBatcher;
 
     private final class ResponseProcessor extends FailingReplyProcessor {
 
@@ -133,6 +134,22 @@ class AsyncSegmentInputStreamImpl extends AsyncSegmentInputStream {
     }
 
     public AsyncSegmentInputStreamImpl(Controller controller, ConnectionFactory connectionFactory, Segment segment, String delegationToken) {
+        this(controller, connectionFactory, segment, delegationToken, null);
+    }
+
+    /**
+     * Creates a new instance of the AsyncSegmentInputStreamImpl class.
+     *
+     * @param controller        The Controller to use.
+     * @param connectionFactory The ConnectionFactory to use.
+     * @param segment           The Segment to read from.
+     * @param delegationToken   The delegation token to use.
+     * @param readBatcher       (Optional) A SegmentReadBatcher to issue all reads through. If provided, this instance
+     *                          will not set up its own connection and will instead share the SegmentReadBatcher's
+     *                          connection with all other Segments (that use it) that are owned by the same Segment Store.
+     */
+    AsyncSegmentInputStreamImpl(Controller controller, ConnectionFactory connectionFactory, Segment segment, String delegationToken,
+                                SegmentReadBatcher readBatcher) {
         super(segment);
         this.delegationToken = delegationToken;
         Preconditions.checkNotNull(controller);
@@ -140,13 +157,21 @@ class AsyncSegmentInputStreamImpl extends AsyncSegmentInputStream {
         Preconditions.checkNotNull(segment);
         this.controller = controller;
         this.connectionFactory = connectionFactory;
+        this.readBatcher = readBatcher;
+        if (readBatcher != null) {
+            readBatcher.register();
+        }
     }
 
     @Override
     public void close() {
         log.info("Closing reader for {}", segmentId);
         if (closed.compareAndSet(false, true)) {
-            closeConnection(new ConnectionClosedException());
+            if (readBatcher != null) {
+                readBatcher.unregister();
+            } else {
+                closeConnection(new ConnectionClosedException());
+            }
         }
     }
 
@@ -165,6 +190,11 @@ class AsyncSegmentInputStreamImpl extends AsyncSegmentInputStream {
             log.warn("Exception while reading from Segment : {}", segmentId, ex);
             return ex instanceof Exception && !(ex instanceof ConnectionClosedException) && !(ex instanceof SegmentTruncatedException);
         }).runAsync(() -> {
+            if (readBatcher != null) {
+                return controller.getEndpointForSegment(segmentId.getScopedName())
+                                 .thenCompose(uri -> readBatcher.read(uri, request));
+            }
+
             return getConnection()
                     .whenComplete((connection, ex) -> {
                         if (ex != null) {
@@ -221,7 +251,7 @@ class AsyncSegmentInputStreamImpl extends AsyncSegmentInputStream {
         return controller.getEndpointForSegment(segmentId.getScopedName()).thenCompose((PravegaNodeUri uri) -> {
             synchronized (lock) {
                 if (connection == null) {
-                    connection = connectionFactory.establishConnection(uri, responseProcessor);
+                    connection = connectionFactory.establishSharedConnection(uri, segmentId.getScopedName(), responseProcessor);
                 }
                 return connection;
             }
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.segment.impl;
+
+import com.google.common.base.Preconditions;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Tracks the events of a writer that have been assigned an event number but not yet acknowledged.
+ *
+ * Event numbers are assigned sequentially (starting at 1) and acknowledgements always cover a prefix of them, so the
+ * inflight events are always the ones numbered (ackLevel, lastEventNumber]. They are kept in a ring buffer indexed by
+ * event number, which is grown (never shrunk) whenever it is full.
+ *
+ * There may only be one thread adding events at any given time (the caller must ensure that); acknowledgements and
+ * queries may happen concurrently with that and with each other, and none of them require any locking:
+ * * Slots are only (re)written by the adding thread, and only for event numbers that have already been acknowledged.
+ * * Events are published by updating lastEventNumber after their slot (and the buffer, if grown) has been written.
+ * * Acknowledgements claim their events by atomically advancing ackLevel, which is done after reading them (until then,
+ * their slots may not be rewritten).
+ *
+ * @param <T> Type of the events.
+ */
+@ThreadSafe
+class InflightEvents<T> {
+    //region Members
+
+    private static final int INITIAL_CAPACITY = 64;
+    private volatile AtomicReferenceArray<T> slots;
+    private volatile long lastEventNumber;
+    private final AtomicLong ackLevel = new AtomicLong();
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the InflightEvents class.
+     */
+    InflightEvents() {
+        this.slots = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Assigns the next event number to the given event and adds it. Must not be invoked concurrently with itself.
+     *
+     * @param event The event to add.
+     * @return The event number of the event.
+     */
+    long add(T event) {
+        Preconditions.checkNotNull(event, "event");
+        long eventNumber = this.lastEventNumber + 1;
+        AtomicReferenceArray<T> slots = this.slots;
+        if (eventNumber - this.ackLevel.get() > slots.length()) {
+            slots = grow(slots, eventNumber);
+        }
+
+        slots.set(index(slots, eventNumber), event);
+        this.lastEventNumber = eventNumber;
+        return eventNumber;
+    }
+
+    /**
+     * Removes (acknowledges) all the events with event numbers up to (and including) the given one.
+     *
+     * @param eventNumber The event number to acknowledge up to.
+     * @return The events that were acknowledged by this call, in order.
+     */
+    List<T> removeUpTo(long eventNumber) {
+        while (true) {
+            long previousLevel = this.ackLevel.get();
+            long newLevel = Math.min(eventNumber, this.lastEventNumber);
+            if (newLevel <= previousLevel) {
+                return Collections.emptyList();
+            }
+
+            // Read the events before claiming them, as their slots may be reused as soon as the ack level is advanced.
+            AtomicReferenceArray<T> slots = this.slots;
+            List<T> result = new ArrayList<>((int) (newLevel - previousLevel));
+            for (long n = previousLevel + 1; n <= newLevel; n++) {
+                result.add(slots.get(index(slots, n)));
+            }
+
+            if (this.ackLevel.compareAndSet(previousLevel, newLevel)) {
+                // Clear the slots so that the events can be garbage collected (unless they have been reused meanwhile).
+                for (int i = 0; i < result.size(); i++) {
+                    long n = previousLevel + 1 + i;
+                    slots.compareAndSet(index(slots, n), result.get(i), null);
+                }
+
+                return result;
+            }
+
+            // Someone else acknowledged some of these events at the same time. Try again.
+        }
+    }
+
+    /**
+     * Gets the highest event number that is inflight and not greater than the given one.
+     *
+     * @param eventNumber The event number to compare to.
+     * @return The event number, or null if no event with an event number up to the given one is inflight.
+     */
+    Long floorEventNumber(long eventNumber) {
+        long ackLevel = this.ackLevel.get();
+        long floor = Math.min(eventNumber, this.lastEventNumber);
+        return floor > ackLevel ? floor : null;
+    }
+
+    /**
+     * Gets a snapshot of the inflight events, along with their event numbers, in order.
+     */
+    List<Map.Entry<Long, T>> getAll() {
+        long firstEventNumber = this.ackLevel.get() + 1;
+        long lastEventNumber = this.lastEventNumber;
+        AtomicReferenceArray<T> slots = this.slots;
+        List<Map.Entry<Long, T>> result = new ArrayList<>((int) Math.max(0, lastEventNumber - firstEventNumber + 1));
+        for (long n = firstEventNumber; n <= lastEventNumber; n++) {
+            result.add(new AbstractMap.SimpleImmutableEntry<>(n, slots.get(index(slots, n))));
+        }
+
+        // Anything that got acknowledged while reading may have had its slot reused; leave those out.
+        long ackLevel = this.ackLevel.get();
+        result.removeIf(e -> e.getKey() <= ackLevel || e.getValue() == null);
+        return result;
+    }
+
+    /**
+     * Gets the number of inflight events.
+     */
+    int size() {
+        return (int) Math.max(0, this.lastEventNumber - this.ackLevel.get());
+    }
+
+    /**
+     * Gets a value indicating whether there are no inflight events.
+     */
+    boolean isEmpty() {
+        // The ack level can never exceed the last event number, so reading it first means a positive result is never stale.
+        long ackLevel = this.ackLevel.get();
+        return this.lastEventNumber <= ackLevel;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InflightEvents(ackLevel=%d, lastEventNumber=%d)", this.ackLevel.get(), this.lastEventNumber);
+    }
+
+    private AtomicReferenceArray<T> grow(AtomicReferenceArray<T> slots, long eventNumber) {
+        int newCapacity = slots.length();
+        long firstEventNumber = this.ackLevel.get() + 1;
+        while (eventNumber - firstEventNumber >= newCapacity) {
+            newCapacity *= 2;
+        }
+
+        AtomicReferenceArray<T> newSlots = new AtomicReferenceArray<>(newCapacity);
+        for (long n = firstEventNumber; n < eventNumber; n++) {
+            newSlots.set(index(newSlots, n), slots.get(index(slots, n)));
+        }
+
+        this.slots = newSlots;
+        return newSlots;
+    }
+
+    private static int index(AtomicReferenceArray<?> slots, long eventNumber) {
+        return (int) (eventNumber % slots.length());
+    }
+
+    //endregion
+}
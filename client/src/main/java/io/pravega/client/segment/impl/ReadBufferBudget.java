@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.segment.impl;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+
+/**
+ * Bounds the memory that a set of SegmentInputStreams (typically all the ones created by one ClientFactory) may use for
+ * their read-ahead buffers.
+ *
+ * Every stream is always entitled to a buffer of {@link #MIN_BUFFER_SIZE}. Beyond that, streams may only grow their
+ * buffers up to their fair share of the budget (the budget divided evenly among the registered streams, but never more
+ * than {@link #MAX_BUFFER_SIZE}), and only as long as the budget as a whole is not exhausted.
+ */
+@ThreadSafe
+public class ReadBufferBudget {
+    //region Members
+
+    /**
+     * The default maximum number of bytes to use for read buffers.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+    static final int MIN_BUFFER_SIZE = 64 * 1024;
+    static final int MAX_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    @Getter
+    private final long maxBytes;
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final AtomicInteger streamCount = new AtomicInteger();
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the ReadBufferBudget class.
+     *
+     * @param maxBytes The maximum number of bytes to use for read buffers.
+     */
+    public ReadBufferBudget(long maxBytes) {
+        Preconditions.checkArgument(maxBytes > 0, "maxBytes must be a positive number.");
+        this.maxBytes = maxBytes;
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Registers a new stream and reserves the minimum buffer size for it.
+     *
+     * @return The size of the buffer the stream should start out with (which is already reserved).
+     */
+    int register() {
+        this.streamCount.incrementAndGet();
+        this.reservedBytes.addAndGet(MIN_BUFFER_SIZE);
+        int initialSize = Math.min(SegmentInputStreamImpl.DEFAULT_BUFFER_SIZE, getFairShare());
+        if (initialSize > MIN_BUFFER_SIZE && tryReserve(initialSize - MIN_BUFFER_SIZE)) {
+            return initialSize;
+        }
+        return MIN_BUFFER_SIZE;
+    }
+
+    /**
+     * Unregisters a stream, releasing its buffer.
+     *
+     * @param bufferSize The size of the stream's buffer.
+     */
+    void unregister(int bufferSize) {
+        release(bufferSize);
+        this.streamCount.decrementAndGet();
+    }
+
+    /**
+     * Gets the buffer size each registered stream may grow to.
+     */
+    int getFairShare() {
+        long share = this.maxBytes / Math.max(1, this.streamCount.get());
+        return (int) Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, share));
+    }
+
+    /**
+     * Attempts to reserve the given number of bytes.
+     *
+     * @param bytes The number of bytes to reserve.
+     * @return True if they were reserved, false if that would exceed the budget.
+     */
+    boolean tryReserve(int bytes) {
+        while (true) {
+            long reserved = this.reservedBytes.get();
+            if (reserved + bytes > this.maxBytes) {
+                return false;
+            }
+            if (this.reservedBytes.compareAndSet(reserved, reserved + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases the given number of previously reserved bytes.
+     *
+     * @param bytes The number of bytes to release.
+     */
+    void release(int bytes) {
+        this.reservedBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * Gets the number of bytes currently reserved.
+     */
+    long getReservedBytes() {
+        return this.reservedBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReadBufferBudget(reserved=%d, max=%d, streams=%d)", this.reservedBytes.get(), this.maxBytes,
+                this.streamCount.get());
+    }
+
+    //endregion
+}
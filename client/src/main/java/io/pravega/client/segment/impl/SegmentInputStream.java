@@ -12,6 +12,7 @@ package io.pravega.client.segment.impl;
 import io.pravega.client.stream.EventStreamWriter;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Defines a InputStream for a single segment.
@@ -76,6 +77,16 @@ public interface SegmentInputStream extends AutoCloseable {
      */
     public abstract void fillBuffer();
     
+    /**
+     * Issue a request to asynchronously fill the buffer, and return a future that completes once the next event can be
+     * read without blocking. That is, once the buffer contains a complete event (or is full, if the event is larger than
+     * it), or once a call to {@link #read()} would fail (for example, because the end of the segment has been reached).
+     * Calling this multiple times is harmless.
+     *
+     * @return A CompletableFuture that completes once the next event can be read without blocking.
+     */
+    public abstract CompletableFuture<Void> fillBufferAsync();
+
     /**
      * Closes this InputStream. No further methods may be called after close.
      * This will free any resources associated with the InputStream.
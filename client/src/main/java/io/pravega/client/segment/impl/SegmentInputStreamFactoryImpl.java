@@ -10,45 +10,84 @@
 package io.pravega.client.segment.impl;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import io.pravega.client.netty.impl.ConnectionFactory;
 import io.pravega.client.stream.impl.Controller;
 import io.pravega.common.Exceptions;
 import io.pravega.common.concurrent.Futures;
 import java.util.concurrent.ExecutionException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @VisibleForTesting
-@RequiredArgsConstructor
 public class SegmentInputStreamFactoryImpl implements SegmentInputStreamFactory {
 
     private final Controller controller;
     private final ConnectionFactory cf;
+    private final SegmentReadBatcher readBatcher;
+    private final ReadBufferBudget bufferBudget;
+
+    public SegmentInputStreamFactoryImpl(Controller controller, ConnectionFactory cf) {
+        this(controller, cf, false);
+    }
+
+    /**
+     * Creates a new instance of the SegmentInputStreamFactoryImpl class.
+     *
+     * @param controller The Controller to use.
+     * @param cf         The ConnectionFactory to use.
+     * @param batchReads If true, all the SegmentInputStreams created by this factory will share one connection per
+     *                   Segment Store and reads that they issue at about the same time will be sent together.
+     */
+    public SegmentInputStreamFactoryImpl(Controller controller, ConnectionFactory cf, boolean batchReads) {
+        this(controller, cf, batchReads, new ReadBufferBudget(ReadBufferBudget.DEFAULT_MAX_BYTES));
+    }
+
+    /**
+     * Creates a new instance of the SegmentInputStreamFactoryImpl class.
+     *
+     * @param controller   The Controller to use.
+     * @param cf           The ConnectionFactory to use.
+     * @param batchReads   If true, all the SegmentInputStreams created by this factory will share one connection per
+     *                     Segment Store and reads that they issue at about the same time will be sent together.
+     * @param bufferBudget The ReadBufferBudget that the buffers of the SegmentInputStreams created by this factory (other
+     *                     than the ones with an explicit buffer size) are sized within. May be shared with other factories.
+     */
+    public SegmentInputStreamFactoryImpl(Controller controller, ConnectionFactory cf, boolean batchReads,
+                                         ReadBufferBudget bufferBudget) {
+        this.controller = controller;
+        this.cf = cf;
+        this.readBatcher = batchReads ? new SegmentReadBatcher(cf) : null;
+        this.bufferBudget = Preconditions.checkNotNull(bufferBudget, "bufferBudget");
+    }
     
     @Override
     public SegmentInputStream createInputStreamForSegment(Segment segment) {
-        return createInputStreamForSegment(segment, SegmentInputStreamImpl.DEFAULT_BUFFER_SIZE);
+        return createInputStreamForSegment(segment, Long.MAX_VALUE);
     }
 
     @Override
     public SegmentInputStream createInputStreamForSegment(Segment segment, long endOffset) {
-        return getSegmentInputStream(segment, endOffset, SegmentInputStreamImpl.DEFAULT_BUFFER_SIZE);
+        AsyncSegmentInputStreamImpl async = getAsyncSegmentInputStream(segment);
+        return new SegmentInputStreamImpl(async, 0, endOffset, bufferBudget);
     }
 
     @Override
     public SegmentInputStream createInputStreamForSegment(Segment segment, int bufferSize) {
-        return getSegmentInputStream(segment, Long.MAX_VALUE, bufferSize);
+        AsyncSegmentInputStreamImpl async = getAsyncSegmentInputStream(segment);
+        return new SegmentInputStreamImpl(async, 0, Long.MAX_VALUE, bufferSize);
     }
 
-    private SegmentInputStream getSegmentInputStream(Segment segment, long endOffset, int bufferSize) {
+    private AsyncSegmentInputStreamImpl getAsyncSegmentInputStream(Segment segment) {
         String delegationToken = Futures.getAndHandleExceptions(controller.getOrRefreshDelegationTokenFor(segment.getScope(), segment.getStream().getStreamName()), RuntimeException::new);
-        AsyncSegmentInputStreamImpl result = new AsyncSegmentInputStreamImpl(controller, cf, segment, delegationToken);
-        try {
-            Exceptions.handleInterrupted(() -> result.getConnection().get());
-        } catch (ExecutionException e) {
-            log.warn("Initial connection attempt failure. Suppressing.", e);
+        AsyncSegmentInputStreamImpl result = new AsyncSegmentInputStreamImpl(controller, cf, segment, delegationToken, readBatcher);
+        if (readBatcher == null) {
+            try {
+                Exceptions.handleInterrupted(() -> result.getConnection().get());
+            } catch (ExecutionException e) {
+                log.warn("Initial connection attempt failure. Suppressing.", e);
+            }
         }
-        return new SegmentInputStreamImpl(result, 0, endOffset,  bufferSize);
+        return result;
     }
 }
@@ -9,6 +9,7 @@
  */
 package io.pravega.client.segment.impl;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
 import io.pravega.common.concurrent.Futures;
@@ -40,9 +41,11 @@ class SegmentInputStreamImpl implements SegmentInputStream {
     private static final long UNBOUNDED_END_OFFSET = Long.MAX_VALUE;
 
     private final AsyncSegmentInputStream asyncInput;
-    private final int readLength;
+    private final ReadBufferBudget budget;
     @GuardedBy("$lock")
-    private final CircularBuffer buffer;
+    private int readLength;
+    @GuardedBy("$lock")
+    private CircularBuffer buffer;
     @GuardedBy("$lock")
     private final ByteBuffer headerReadingBuffer = ByteBuffer.allocate(WireCommands.TYPE_PLUS_LENGTH_SIZE);
     @GuardedBy("$lock")
@@ -55,12 +58,37 @@ class SegmentInputStreamImpl implements SegmentInputStream {
     private boolean receivedTruncated = false;
     @GuardedBy("$lock")
     private CompletableFuture<SegmentRead> outstandingRequest = null;
+    @GuardedBy("$lock")
+    private int outstandingRequestLength;
+    @GuardedBy("$lock")
+    private boolean outstandingRequestMeasured;
+    @GuardedBy("$lock")
+    private boolean closed = false;
 
     SegmentInputStreamImpl(AsyncSegmentInputStream asyncInput, long startOffset) {
         this(asyncInput, startOffset, UNBOUNDED_END_OFFSET, DEFAULT_BUFFER_SIZE);
     }
 
     SegmentInputStreamImpl(AsyncSegmentInputStream asyncInput, long startOffset, long endOffset, int bufferSize) {
+        this(asyncInput, startOffset, endOffset, bufferSize, null);
+    }
+
+    /**
+     * Creates a new instance of the SegmentInputStreamImpl class whose buffer is sized adaptively: it is grown while the
+     * reader is catching up (reads come back full and not at the tail of the Segment) and shrunk while the reader is at
+     * the tail, within the limits imposed by the given budget.
+     *
+     * @param asyncInput  The AsyncSegmentInputStream to read from.
+     * @param startOffset The offset to start reading at.
+     * @param endOffset   The offset to read up to.
+     * @param budget      The ReadBufferBudget to reserve buffer space from.
+     */
+    SegmentInputStreamImpl(AsyncSegmentInputStream asyncInput, long startOffset, long endOffset, ReadBufferBudget budget) {
+        this(asyncInput, startOffset, endOffset, 0, Preconditions.checkNotNull(budget, "budget"));
+    }
+
+    private SegmentInputStreamImpl(AsyncSegmentInputStream asyncInput, long startOffset, long endOffset, int bufferSize,
+                                   ReadBufferBudget budget) {
         Preconditions.checkArgument(startOffset >= 0);
         Preconditions.checkNotNull(asyncInput);
         Preconditions.checkNotNull(endOffset, "endOffset");
@@ -69,6 +97,7 @@ class SegmentInputStreamImpl implements SegmentInputStream {
         this.asyncInput = asyncInput;
         this.offset = startOffset;
         this.endOffset = endOffset;
+        this.budget = budget;
         /*
          * The logic for determining the read length and buffer size are as follows.
          * If we are reading a single event, then we set the read length to be the size
@@ -78,9 +107,17 @@ class SegmentInputStreamImpl implements SegmentInputStream {
          * we set the read length to be equal to the max write size and the buffer
          * size to be twice that. We do it so that we can have at least two events
          * buffered for next event reads.
+         *
+         * If a budget is given, the buffer starts out at whatever size the budget allows
+         * and is resized as we go (see resizeBufferIfNeeded).
          */
-        this.readLength = Math.min(DEFAULT_READ_LENGTH, bufferSize);
-        this.buffer = new CircularBuffer(Math.max(bufferSize, readLength + 1));
+        if (budget == null) {
+            this.readLength = Math.min(DEFAULT_READ_LENGTH, bufferSize);
+            this.buffer = new CircularBuffer(Math.max(bufferSize, readLength + 1));
+        } else {
+            this.buffer = new CircularBuffer(budget.register());
+            this.readLength = adaptiveReadLength(this.buffer.getCapacity());
+        }
         issueRequestIfNeeded();
     }
 
@@ -186,6 +223,10 @@ class SegmentInputStreamImpl implements SegmentInputStream {
             throw e;
         }
         verifyIsAtCorrectOffset(segmentRead);
+        if (budget != null && !outstandingRequestMeasured) {
+            outstandingRequestMeasured = true;
+            resizeBufferIfNeeded(segmentRead);
+        }
         if (segmentRead.getData().hasRemaining()) {
             buffer.fill(segmentRead.getData());
         }
@@ -215,9 +256,62 @@ class SegmentInputStreamImpl implements SegmentInputStream {
         int updatedReadLength = computeReadLength(offset + buffer.dataAvailable(), readLength);
         if (!receivedEndOfSegment && !receivedTruncated && updatedReadLength > 0 && buffer.capacityAvailable() >= updatedReadLength && outstandingRequest == null) {
             outstandingRequest = asyncInput.read(offset + buffer.dataAvailable(), updatedReadLength);
+            outstandingRequestLength = updatedReadLength;
+            outstandingRequestMeasured = false;
         }
     }
 
+    /**
+     * Resizes the (adaptive) buffer based on the outcome of a read:
+     *  - reads that come back full and not at the tail mean the reader is behind, so the buffer is doubled (which makes
+     *  the reads twice as long too), up to the fair share of the budget.
+     *  - reads at the tail mean the reader is keeping up, so the buffer is halved, down to the minimum size.
+     * The buffer is also shrunk whenever it exceeds the fair share, which goes down as more streams share the budget.
+     */
+    @GuardedBy("$lock")
+    private void resizeBufferIfNeeded(SegmentRead segmentRead) {
+        int capacity = buffer.getCapacity();
+        int fairShare = budget.getFairShare();
+        int target = capacity;
+        if (segmentRead.isAtTail()) {
+            target = Math.max(capacity / 2, ReadBufferBudget.MIN_BUFFER_SIZE);
+        } else if (outstandingRequestLength == readLength && segmentRead.getData().remaining() >= outstandingRequestLength) {
+            target = Math.max(capacity, Math.min(capacity * 2, fairShare));
+        }
+        target = Math.min(target, fairShare);
+        if (target > capacity) {
+            if (!budget.tryReserve(target - capacity)) {
+                return;
+            }
+        } else if (target == capacity || buffer.dataAvailable() > target) {
+            // Not shrinking below what is already buffered; this will be retried on the next read.
+            return;
+        } else {
+            budget.release(capacity - target);
+        }
+
+        log.trace("Resizing buffer for segment {} from {} to {}", asyncInput.getSegmentId(), capacity, target);
+        ByteBuffer data = ByteBuffer.allocate(buffer.dataAvailable());
+        buffer.read(data);
+        data.flip();
+        buffer = new CircularBuffer(target);
+        buffer.fill(data);
+        readLength = adaptiveReadLength(target);
+    }
+
+    /**
+     * Adaptive buffers issue reads of a quarter of their size, so that the next read can be issued before they are drained.
+     */
+    private static int adaptiveReadLength(int bufferSize) {
+        return bufferSize / 4;
+    }
+
+    @VisibleForTesting
+    @Synchronized
+    int getBufferSize() {
+        return buffer.getCapacity();
+    }
+
     /**
      * Compute the read length based on the current fetch offset and the configured end offset.
      */
@@ -235,6 +329,10 @@ class SegmentInputStreamImpl implements SegmentInputStream {
     @Synchronized
     public void close() {
         log.trace("Closing {}", this);
+        if (budget != null && !closed) {
+            budget.unregister(buffer.getCapacity());
+        }
+        closed = true;
         if (outstandingRequest != null) {
             log.trace("Cancel outstanding read request for segment {}", asyncInput.getSegmentId());
             outstandingRequest.cancel(true);
@@ -257,6 +355,47 @@ class SegmentInputStreamImpl implements SegmentInputStream {
         }
     }
     
+    @Override
+    @Synchronized
+    public CompletableFuture<Void> fillBufferAsync() {
+        log.trace("Filling buffer asynchronously {}", this);
+        Exceptions.checkNotClosed(asyncInput.isClosed(), this);
+        try {
+            issueRequestIfNeeded();
+            while (dataWaitingToGoInBuffer()) {
+                handleRequest();
+            }
+        } catch (SegmentTruncatedException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (outstandingRequest == null || isEventAvailable()) {
+            // Either there is an event to read or there is nothing to wait for (so a read would not wait either).
+            return CompletableFuture.completedFuture(null);
+        }
+        return outstandingRequest.handle((r, e) -> null);
+    }
+
+    /**
+     * Returns true if the next event is in the buffer (or the buffer is full), or if a read would fail right away.
+     */
+    @GuardedBy("$lock")
+    private boolean isEventAvailable() {
+        if (receivedTruncated || offset >= endOffset) {
+            return true;
+        }
+        int dataAvailable = buffer.dataAvailable();
+        if (dataAvailable < WireCommands.TYPE_PLUS_LENGTH_SIZE) {
+            return dataAvailable == 0 && receivedEndOfSegment;
+        }
+        headerReadingBuffer.clear();
+        buffer.peek(headerReadingBuffer);
+        headerReadingBuffer.flip();
+        headerReadingBuffer.getInt();
+        int length = headerReadingBuffer.getInt();
+        // Events with invalid lengths fail to be read, which is no reason to wait either.
+        return length < 0 || dataAvailable >= Math.min((long) length + WireCommands.TYPE_PLUS_LENGTH_SIZE, buffer.getCapacity());
+    }
+
     @Override
     @Synchronized
     public boolean canReadWithoutBlocking() {
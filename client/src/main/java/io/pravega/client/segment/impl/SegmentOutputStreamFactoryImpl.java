@@ -10,6 +10,7 @@
 package io.pravega.client.segment.impl;
 
 import com.google.common.annotations.VisibleForTesting;
+import io.pravega.client.netty.impl.AppendBatchingPolicy;
 import io.pravega.client.netty.impl.ConnectionFactory;
 import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.client.stream.impl.Controller;
@@ -34,13 +35,15 @@ public class SegmentOutputStreamFactoryImpl implements SegmentOutputStreamFactor
     public SegmentOutputStream createOutputStreamForTransaction(Segment segment, UUID txId, Consumer<Segment> segmentSealedCallback,
                                                                 EventWriterConfig config, String delegationToken) {
         return new SegmentOutputStreamImpl(StreamSegmentNameUtils.getTransactionNameFromId(segment.getScopedName(), txId), controller, cf,
-                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config), delegationToken);
+                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config), getBatchingPolicyFromConfig(config),
+                delegationToken);
     }
 
     @Override
     public SegmentOutputStream createOutputStreamForSegment(Segment segment, Consumer<Segment> segmentSealedCallback, EventWriterConfig config, String delegationToken) {
         SegmentOutputStreamImpl result = new SegmentOutputStreamImpl(segment.getScopedName(), controller, cf,
-                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config), delegationToken);
+                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config), getBatchingPolicyFromConfig(config),
+                delegationToken);
         try {
             result.getConnection();
         } catch (RetriesExhaustedException | SegmentSealedException | NoSuchSegmentException e) {
@@ -53,4 +56,9 @@ public class SegmentOutputStreamFactoryImpl implements SegmentOutputStreamFactor
         return Retry.withExpBackoff(config.getInitalBackoffMillis(), config.getBackoffMultiple(),
                                     config.getRetryAttempts(), config.getMaxBackoffMillis());
     }
+
+    private AppendBatchingPolicy getBatchingPolicyFromConfig(EventWriterConfig config) {
+        return new AppendBatchingPolicy(config.getMaxBatchSizeBytes(), config.getMaxBatchLingerMillis(),
+                                        config.getMaxBatchEvents());
+    }
 }
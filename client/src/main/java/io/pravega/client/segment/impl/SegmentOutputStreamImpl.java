@@ -12,6 +12,7 @@ package io.pravega.client.segment.impl;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.netty.buffer.Unpooled;
+import io.pravega.client.netty.impl.AppendBatchingPolicy;
 import io.pravega.client.netty.impl.ClientConnection;
 import io.pravega.client.netty.impl.ConnectionFactory;
 import io.pravega.client.stream.impl.Controller;
@@ -36,14 +37,11 @@ import io.pravega.shared.protocol.netty.WireCommands.NoSuchSegment;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentIsSealed;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.WrongHost;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentNavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
@@ -79,18 +77,27 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
     private final State state = new State();
     private final ResponseProcessor responseProcessor = new ResponseProcessor();
     private final RetryWithBackoff retrySchedule;
+    private final AppendBatchingPolicy batchingPolicy;
     private final Object writeOrderLock = new Object();
     private final String delegationToken;
 
+    SegmentOutputStreamImpl(String segmentName, Controller controller, ConnectionFactory connectionFactory, UUID writerId,
+                            Consumer<Segment> resendToSuccessorsCallback, RetryWithBackoff retrySchedule, String delegationToken) {
+        this(segmentName, controller, connectionFactory, writerId, resendToSuccessorsCallback, retrySchedule,
+             AppendBatchingPolicy.DEFAULT, delegationToken);
+    }
+
     /**
      * Internal object that tracks the state of the connection.
-     * All mutations of data occur inside of this class. All operations are protected by the lock object.
+     * All mutations of data occur inside of this class. All operations on the connection are protected by the lock
+     * object. Inflight events are tracked without it (see InflightEvents); writes and acks only need it when inflight
+     * becomes empty or stops being so, in order to keep waitingInflight consistent with it.
      * No calls to external classes occur. No network calls occur via any methods in this object.
      * Note: In a failure scenario SegmentOutputStreamImpl.State#failConnection can be invoked before
      * SegmentOutputStreamImpl.State#newConnection is invoked as we do not want connection setup and teardown to occur
      * within the scope of the lock.
      */
-    @ToString(of = {"closed", "exception", "eventNumber"})
+    @ToString(of = {"closed", "exception", "inflight"})
     private final class State {
         private final Object lock = new Object();
         @GuardedBy("lock")
@@ -101,10 +108,7 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
         private CompletableFuture<Void> connectionSetupCompleted;
         @GuardedBy("lock")
         private Throwable exception = null;
-        @GuardedBy("lock")
-        private final ConcurrentSkipListMap<Long, PendingEvent> inflight = new ConcurrentSkipListMap<>();
-        @GuardedBy("lock")
-        private long eventNumber = 0;
+        private final InflightEvents<PendingEvent> inflight = new InflightEvents<>();
         private final ReusableFutureLatch<ClientConnection> setupConnection = new ReusableFutureLatch<>();
         private final ReusableLatch waitingInflight = new ReusableLatch(true);
         private final AtomicBoolean needSuccessors = new AtomicBoolean();
@@ -123,9 +127,7 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
         }
 
         private int getNumInflight() {
-            synchronized (lock) {
-                return inflight.size();
-            }
+            return inflight.size();
         }
 
         private void connectionSetupComplete(ClientConnection connection) {
@@ -207,58 +209,58 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
         }
 
         /**
-         * Add event to the infight
+         * Add event to the infight. Must only be invoked while holding writeOrderLock.
          * @return The EventNumber for the event.
          */
+        @GuardedBy("writeOrderLock")
         private long addToInflight(PendingEvent event) {
-            synchronized (lock) {
-                eventNumber++;
-                log.trace("Adding event {} to inflight on writer {}", eventNumber, writerId);
-                inflight.put(eventNumber, event);
-                if (!needSuccessors.get()) {
-                    waitingInflight.reset();
+            long eventNumber = inflight.add(event);
+            log.trace("Added event {} to inflight on writer {}", eventNumber, writerId);
+            if (!needSuccessors.get() && waitingInflight.isReleased()) {
+                // Inflight was empty before this event. The latch is only released while holding the lock (and only once
+                // inflight is empty), so checking again under it ensures the event has not been acked in the meantime.
+                synchronized (lock) {
+                    if (!inflight.isEmpty()) {
+                        waitingInflight.reset();
+                    }
                 }
-                return eventNumber;
             }
+            return eventNumber;
         }
         
         /**
          * Remove all events with event numbers below the provided level from inflight and return them.
          */
         private List<PendingEvent> removeInflightBelow(long ackLevel) {
-            synchronized (lock) {
-                ConcurrentNavigableMap<Long, PendingEvent> acked = inflight.headMap(ackLevel, true);
-                List<PendingEvent> result = new ArrayList<>(acked.values());
-                acked.clear();
-                return result;
-            }
+            return inflight.removeUpTo(ackLevel);
         }
 
         private Long getInFlightBelow(long ackLevel) {
-            synchronized (lock) {
-                return inflight.floorKey(ackLevel);
-            }
+            return inflight.floorEventNumber(ackLevel);
         }
 
         private void releaseIfEmptyInflight() {
+            if (!inflight.isEmpty()) {
+                return;
+            }
             synchronized (lock) {
                 if (inflight.isEmpty()) {
                     log.trace("Inflight empty for writer {}", writerId);
                     waitingInflight.release();
+                    if (!inflight.isEmpty() && !needSuccessors.get()) {
+                        // An event was added concurrently, and it may have seen the latch before it was released above.
+                        waitingInflight.reset();
+                    }
                 }
             }
         }
 
         private List<Map.Entry<Long, PendingEvent>> getAllInflight() {
-            synchronized (lock) {
-                return new ArrayList<>(inflight.entrySet());
-            }
+            return inflight.getAll();
         }
 
         private List<PendingEvent> getAllInflightEvents() {
-            synchronized (lock) {
-                return new ArrayList<>(inflight.values());
-            }
+            return inflight.getAll().stream().map(Map.Entry::getValue).collect(Collectors.toList());
         }
 
         private boolean isClosed() {
@@ -520,11 +522,12 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
                      log.info("Fetching endpoint for segment {}, writerID: {}", segmentName, writerId);
                      return controller.getEndpointForSegment(segmentName).thenComposeAsync((PravegaNodeUri uri) -> {
                          log.info("Establishing connection to {} for {}, writerID: {}", uri, segmentName, writerId);
-                         return connectionFactory.establishConnection(uri, responseProcessor);
+                         return connectionFactory.establishSharedConnection(uri, segmentName, responseProcessor);
                      }, connectionFactory.getInternalExecutor()).thenComposeAsync(connection -> {
                          CompletableFuture<Void> connectionSetupFuture = state.newConnection(connection);
                          SetupAppend cmd = new SetupAppend(requestIdGenerator.get(), writerId, segmentName, delegationToken);
                          try {
+                             connection.setAppendBatchingPolicy(writerId, batchingPolicy);
                              connection.send(cmd);
                          } catch (ConnectionFailedException e1) {
                              // This needs to be invoked here because call to failConnection from netty may occur before state.newConnection above.
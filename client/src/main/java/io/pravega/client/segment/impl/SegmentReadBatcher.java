@@ -0,0 +1,313 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.segment.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import io.pravega.client.netty.impl.ClientConnection;
+import io.pravega.client.netty.impl.ConnectionFactory;
+import io.pravega.client.stream.impl.ConnectionClosedException;
+import io.pravega.common.auth.AuthenticationException;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.shared.protocol.netty.ConnectionFailedException;
+import io.pravega.shared.protocol.netty.FailingReplyProcessor;
+import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentRead;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Combines reads from multiple Segments that are owned by the same Segment Store into ReadSegments requests, which are
+ * sent over a single connection per Segment Store.
+ *
+ * Reads are queued up and sent as soon as the internal executor gets around to it; all the reads that are issued in the
+ * meantime (such as when a reader refills the buffers of all of its Segments) are sent out in the same request. Reads
+ * are sent individually until the Segment Store has indicated (in its Hello) that it supports ReadSegments.
+ *
+ * All connections are closed once there are no more open AsyncSegmentInputStreams using this instance; they will be
+ * re-established (as needed) if any new ones are registered afterwards.
+ */
+@Slf4j
+@ThreadSafe
+class SegmentReadBatcher {
+    @VisibleForTesting
+    static final int MAX_BATCH_SIZE = 64;
+
+    private final ConnectionFactory connectionFactory;
+    private final AtomicLong requestIdGenerator = new AtomicLong();
+    @GuardedBy("hosts")
+    private final Map<PravegaNodeUri, HostReader> hosts = new HashMap<>();
+    @GuardedBy("hosts")
+    private int registeredCount;
+
+    SegmentReadBatcher(ConnectionFactory connectionFactory) {
+        this.connectionFactory = Preconditions.checkNotNull(connectionFactory, "connectionFactory");
+    }
+
+    /**
+     * Registers a new user (AsyncSegmentInputStream) of this instance.
+     */
+    void register() {
+        synchronized (this.hosts) {
+            this.registeredCount++;
+        }
+    }
+
+    /**
+     * Unregisters a user (AsyncSegmentInputStream) of this instance. If there are no more users, all connections are closed.
+     */
+    void unregister() {
+        List<HostReader> toClose = null;
+        synchronized (this.hosts) {
+            Preconditions.checkState(this.registeredCount > 0, "Nothing registered.");
+            this.registeredCount--;
+            if (this.registeredCount == 0) {
+                toClose = new ArrayList<>(this.hosts.values());
+                this.hosts.clear();
+            }
+        }
+
+        if (toClose != null) {
+            toClose.forEach(host -> host.closeConnection(new ConnectionClosedException()));
+        }
+    }
+
+    /**
+     * Reads from a Segment, batching this read with any other reads that are issued to the same Segment Store at about
+     * the same time.
+     *
+     * @param endpoint The Segment Store that owns the Segment.
+     * @param request  The read to perform.
+     * @return A future for the result of the read call, with the same semantics as {@link AsyncSegmentInputStream#read}.
+     */
+    CompletableFuture<SegmentRead> read(PravegaNodeUri endpoint, ReadSegment request) {
+        HostReader host;
+        synchronized (this.hosts) {
+            host = this.hosts.computeIfAbsent(endpoint, HostReader::new);
+        }
+
+        return host.read(request);
+    }
+
+    //region HostReader
+
+    /**
+     * Handles all reads for a single Segment Store.
+     */
+    @RequiredArgsConstructor
+    private class HostReader {
+        private final PravegaNodeUri endpoint;
+        private final ResponseProcessor responseProcessor = new ResponseProcessor();
+        private final Object lock = new Object();
+        @GuardedBy("lock")
+        private CompletableFuture<ClientConnection> connection = null;
+        @GuardedBy("lock")
+        private final Map<ReadKey, CompletableFuture<SegmentRead>> outstandingRequests = new HashMap<>();
+        @GuardedBy("lock")
+        private List<ReadSegment> pendingRequests = new ArrayList<>();
+        @GuardedBy("lock")
+        private boolean flushScheduled = false;
+        private volatile boolean batchingSupported = false;
+
+        CompletableFuture<SegmentRead> read(ReadSegment request) {
+            CompletableFuture<SegmentRead> result = new CompletableFuture<>();
+            boolean scheduleFlush;
+            synchronized (this.lock) {
+                this.outstandingRequests.put(new ReadKey(request.getSegment(), request.getOffset()), result);
+                this.pendingRequests.add(request);
+                scheduleFlush = !this.flushScheduled;
+                this.flushScheduled = true;
+            }
+
+            if (scheduleFlush) {
+                connectionFactory.getInternalExecutor().execute(this::flush);
+            }
+
+            return result;
+        }
+
+        private void flush() {
+            List<ReadSegment> toSend;
+            synchronized (this.lock) {
+                toSend = this.pendingRequests;
+                this.pendingRequests = new ArrayList<>();
+                this.flushScheduled = false;
+            }
+
+            if (toSend.isEmpty()) {
+                return;
+            }
+
+            getConnection()
+                    .thenAccept(c -> send(c, toSend))
+                    .exceptionally(ex -> {
+                        log.warn("Exception while sending read requests to Pravega node {}", this.endpoint, ex);
+                        closeConnection(new ConnectionFailedException(ex));
+                        return null;
+                    });
+        }
+
+        @SneakyThrows(ConnectionFailedException.class)
+        private void send(ClientConnection c, List<ReadSegment> requests) {
+            if (requests.size() == 1 || !this.batchingSupported) {
+                for (ReadSegment request : requests) {
+                    log.trace("Sending read request {}", request);
+                    c.sendAsync(request);
+                }
+            } else {
+                for (List<ReadSegment> batch : Lists.partition(requests, MAX_BATCH_SIZE)) {
+                    WireCommands.ReadSegments request = new WireCommands.ReadSegments(requestIdGenerator.incrementAndGet(), batch);
+                    log.trace("Sending batched read request {} for {} segments", request.getRequestId(), batch.size());
+                    c.sendAsync(request);
+                }
+            }
+        }
+
+        private CompletableFuture<ClientConnection> getConnection() {
+            synchronized (this.lock) {
+                if (this.connection == null) {
+                    this.connection = connectionFactory.establishConnection(this.endpoint, this.responseProcessor);
+                }
+                return this.connection;
+            }
+        }
+
+        private void closeConnection(Exception exceptionToInflightRequests) {
+            log.info("Closing batched read connection to {} with exception: {}", this.endpoint, exceptionToInflightRequests.toString());
+            CompletableFuture<ClientConnection> c;
+            List<CompletableFuture<SegmentRead>> readsToFail;
+            synchronized (this.lock) {
+                c = this.connection;
+                this.connection = null;
+                this.batchingSupported = false;
+                readsToFail = new ArrayList<>(this.outstandingRequests.values());
+                this.outstandingRequests.clear();
+                this.pendingRequests.clear();
+            }
+
+            if (c != null && Futures.isSuccessful(c)) {
+                try {
+                    c.getNow(null).close();
+                } catch (Exception e) {
+                    log.warn("Exception tearing down connection: ", e);
+                }
+            }
+
+            for (CompletableFuture<SegmentRead> read : readsToFail) {
+                read.completeExceptionally(exceptionToInflightRequests);
+            }
+        }
+
+        private CompletableFuture<SegmentRead> grabFuture(String segment, long offset) {
+            synchronized (this.lock) {
+                return this.outstandingRequests.remove(new ReadKey(segment, offset));
+            }
+        }
+
+        //region ResponseProcessor
+
+        private final class ResponseProcessor extends FailingReplyProcessor {
+            @Override
+            public void hello(WireCommands.Hello hello) {
+                super.hello(hello);
+                batchingSupported = hello.getHighVersion() >= WireCommands.READ_SEGMENTS_VERSION;
+            }
+
+            @Override
+            public void connectionDropped() {
+                closeConnection(new ConnectionFailedException());
+            }
+
+            @Override
+            public void wrongHost(WireCommands.WrongHost wrongHost) {
+                closeConnection(new ConnectionFailedException(wrongHost.toString()));
+            }
+
+            @Override
+            public void noSuchSegment(WireCommands.NoSuchSegment noSuchSegment) {
+                log.info("Received noSuchSegment {}", noSuchSegment);
+                CompletableFuture<SegmentRead> future = grabFuture(noSuchSegment.getSegment(), noSuchSegment.getRequestId());
+                if (future != null) {
+                    future.completeExceptionally(new SegmentTruncatedException("Segment no longer exists."));
+                }
+            }
+
+            @Override
+            public void segmentIsTruncated(WireCommands.SegmentIsTruncated segmentIsTruncated) {
+                log.info("Received segmentIsTruncated {}", segmentIsTruncated);
+                CompletableFuture<SegmentRead> future = grabFuture(segmentIsTruncated.getSegment(), segmentIsTruncated.getRequestId());
+                if (future != null) {
+                    future.completeExceptionally(new SegmentTruncatedException());
+                }
+            }
+
+            @Override
+            public void segmentIsSealed(WireCommands.SegmentIsSealed segmentIsSealed) {
+                log.info("Received segmentSealed {}", segmentIsSealed);
+                CompletableFuture<SegmentRead> future = grabFuture(segmentIsSealed.getSegment(), segmentIsSealed.getRequestId());
+                if (future != null) {
+                    future.complete(new SegmentRead(segmentIsSealed.getSegment(), segmentIsSealed.getRequestId(),
+                            true, true, ByteBuffer.allocate(0)));
+                }
+            }
+
+            @Override
+            public void segmentRead(SegmentRead segmentRead) {
+                log.trace("Received read result {}", segmentRead);
+                CompletableFuture<SegmentRead> future = grabFuture(segmentRead.getSegment(), segmentRead.getOffset());
+                if (future != null) {
+                    future.complete(segmentRead);
+                }
+            }
+
+            @Override
+            public void segmentsRead(WireCommands.SegmentsRead segmentsRead) {
+                log.trace("Received batched read result {} for {} segments", segmentsRead.getRequestId(), segmentsRead.getReads().size());
+                segmentsRead.getReads().forEach(this::segmentRead);
+            }
+
+            @Override
+            public void processingFailure(Exception error) {
+                log.warn("Processing failure: ", error);
+                closeConnection(error);
+            }
+
+            @Override
+            public void authTokenCheckFailed(WireCommands.AuthTokenCheckFailed authTokenCheckFailed) {
+                log.warn("Auth failed {}", authTokenCheckFailed);
+                closeConnection(new AuthenticationException(authTokenCheckFailed.toString()));
+            }
+        }
+
+        //endregion
+    }
+
+    //endregion
+
+    @Data
+    private static class ReadKey {
+        private final String segment;
+        private final long offset;
+    }
+}
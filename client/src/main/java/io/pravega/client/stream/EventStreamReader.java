@@ -10,6 +10,10 @@
 package io.pravega.client.stream;
 
 import io.pravega.client.segment.impl.NoSuchEventException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * A reader for a stream.
@@ -41,6 +45,51 @@ public interface EventStreamReader<T> extends AutoCloseable {
      */
     EventRead<T> readNextEvent(long timeout) throws ReinitializationRequiredException, TruncatedDataException;
 
+    /**
+     * Gets the next events in the stream. This waits for the first one like {@link #readNextEvent(long)} does, and then
+     * returns it along with any events that follow it and can be read without blocking, up to maxEvents in total. This
+     * amortizes the per-call overhead of {@link #readNextEvent(long)} over many events.
+     * <p>
+     * If the first EventRead has null for {@link EventRead#getEvent()} (because of a timeout or a checkpoint), it is
+     * the only one returned. Events are returned in the same order in which {@link #readNextEvent(long)} could have
+     * returned them, and {@link EventRead#getPosition()} of each is the position of the reader right after it.
+     * <p>
+     * The default implementation returns the result of a single call to {@link #readNextEvent(long)}.
+     *
+     * @param maxEvents The maximum number of events to return. Must be positive.
+     * @param timeout   An upper bound on how long the call may block waiting for the first event.
+     * @return A non-empty list of {@link EventRead} instances.
+     * @throws ReinitializationRequiredException Is thrown in the same cases as by {@link #readNextEvent(long)}.
+     * @throws TruncatedDataException Is thrown in the same cases as by {@link #readNextEvent(long)}, if encountered
+     *             when reading the first event.
+     */
+    default List<EventRead<T>> readNextEvents(int maxEvents, long timeout) throws ReinitializationRequiredException,
+            TruncatedDataException {
+        return Collections.singletonList(readNextEvent(timeout));
+    }
+
+    /**
+     * Asynchronously gets the next event in the stream. This behaves like {@link #readNextEvent(long)}, except that no
+     * thread is blocked while waiting for events to arrive: the returned future is completed once one does (or once the
+     * timeout expires, with an EventRead with null for {@link EventRead#getEvent()}).
+     * <p>
+     * The default implementation invokes {@link #readNextEvent(long)} on the common {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * @param timeout An upper bound on how long to wait for an event before completing with null.
+     * @return A CompletableFuture that will be completed with an instance of {@link EventRead}, or failed with
+     *         {@link ReinitializationRequiredException} or {@link TruncatedDataException} in the same cases
+     *         {@link #readNextEvent(long)} throws them.
+     */
+    default CompletableFuture<EventRead<T>> readNextEventAsync(long timeout) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return readNextEvent(timeout);
+            } catch (ReinitializationRequiredException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
     /**
      * Gets the configuration that this reader was created with.
      *
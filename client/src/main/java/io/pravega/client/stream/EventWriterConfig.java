@@ -9,6 +9,8 @@
  */
 package io.pravega.client.stream;
 
+import com.google.common.base.Preconditions;
+import io.pravega.client.netty.impl.AppendBatchingPolicy;
 import java.io.Serializable;
 
 import lombok.Builder;
@@ -46,11 +48,36 @@ public class EventWriterConfig implements Serializable {
      */
     private final long transactionTimeoutTime;
 
+    /*
+     * The following parameters bound how the writer's events are batched together before being sent to the Segment
+     * Store. Within these bounds, batches are sized according to the rate at which events are written and the time
+     * it takes for them to be acknowledged; a writer that waits for each event to be acknowledged before writing the
+     * next one does not batch at all.
+     *
+     * Writers of many small events may raise these to reduce the per-event overhead, at the expense of latency.
+     * maxBatchSizeBytes may not exceed half of the maximum wire command size (4MB).
+     */
+    private final int maxBatchSizeBytes;
+    private final int maxBatchLingerMillis;
+    private final int maxBatchEvents;
+
     public static final class EventWriterConfigBuilder {
         private int initalBackoffMillis = 1;
         private int maxBackoffMillis = 20000;
         private int retryAttempts = 10;
         private int backoffMultiple = 10;
         private long transactionTimeoutTime = 30 * 1000 - 1;
+        private int maxBatchSizeBytes = 32 * 1024;
+        private int maxBatchLingerMillis = 100;
+        private int maxBatchEvents = Integer.MAX_VALUE;
+
+        public EventWriterConfig build() {
+            Preconditions.checkArgument(maxBatchSizeBytes >= 0 && maxBatchSizeBytes <= AppendBatchingPolicy.MAX_BATCH_SIZE_LIMIT,
+                    "maxBatchSizeBytes must be a non-negative number no larger than %s.", AppendBatchingPolicy.MAX_BATCH_SIZE_LIMIT);
+            Preconditions.checkArgument(maxBatchLingerMillis > 0, "maxBatchLingerMillis must be a positive number.");
+            Preconditions.checkArgument(maxBatchEvents > 0, "maxBatchEvents must be a positive number.");
+            return new EventWriterConfig(initalBackoffMillis, maxBackoffMillis, retryAttempts, backoffMultiple,
+                    transactionTimeoutTime, maxBatchSizeBytes, maxBatchLingerMillis, maxBatchEvents);
+        }
     }
 }
@@ -20,9 +20,17 @@ public class ReaderConfig implements Serializable {
 
     private static final long serialVersionUID = 1L;
     private final long initialAllocationDelay;
+
+    /**
+     * If true, the reader will read from all of its segments that are owned by the same Segment Store over a single
+     * connection, combining the reads that it issues to refill its buffers into as few requests as possible. This is
+     * beneficial for readers that own many segments.
+     */
+    private final boolean batchSegmentReads;
     
     public static class ReaderConfigBuilder {
         private long initialAllocationDelay = 0;
+        private boolean batchSegmentReads = false;
     }
     
 }
@@ -21,6 +21,7 @@ import io.pravega.client.netty.impl.ConnectionFactoryImpl;
 import io.pravega.client.segment.impl.ConditionalOutputStream;
 import io.pravega.client.segment.impl.ConditionalOutputStreamFactory;
 import io.pravega.client.segment.impl.ConditionalOutputStreamFactoryImpl;
+import io.pravega.client.segment.impl.ReadBufferBudget;
 import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.segment.impl.SegmentInputStream;
 import io.pravega.client.segment.impl.SegmentInputStreamFactory;
@@ -66,6 +67,7 @@ public class ClientFactoryImpl implements ClientFactory {
     private final ConditionalOutputStreamFactory condFactory;
     private final SegmentMetadataClientFactory metaFactory;
     private final ConnectionFactory connectionFactory;
+    private final ReadBufferBudget readBufferBudget;
 
     /**
      * Creates a new instance of ClientFactory class.
@@ -80,7 +82,8 @@ public class ClientFactoryImpl implements ClientFactory {
         this.scope = scope;
         this.controller = controller;
         this.connectionFactory = new ConnectionFactoryImpl(ClientConfig.builder().build());
-        this.inFactory = new SegmentInputStreamFactoryImpl(controller, connectionFactory);
+        this.readBufferBudget = new ReadBufferBudget(ReadBufferBudget.DEFAULT_MAX_BYTES);
+        this.inFactory = new SegmentInputStreamFactoryImpl(controller, connectionFactory, false, readBufferBudget);
         this.outFactory = new SegmentOutputStreamFactoryImpl(controller, connectionFactory);
         this.condFactory = new ConditionalOutputStreamFactoryImpl(controller, connectionFactory);
         this.metaFactory = new SegmentMetadataClientFactoryImpl(controller, connectionFactory);
@@ -96,16 +99,30 @@ public class ClientFactoryImpl implements ClientFactory {
      */
     @VisibleForTesting
     public ClientFactoryImpl(String scope, Controller controller, ConnectionFactory connectionFactory) {
-        this(scope, controller, connectionFactory, new SegmentInputStreamFactoryImpl(controller, connectionFactory),
+        this(scope, controller, connectionFactory, new ReadBufferBudget(ReadBufferBudget.DEFAULT_MAX_BYTES));
+    }
+
+    private ClientFactoryImpl(String scope, Controller controller, ConnectionFactory connectionFactory,
+                              ReadBufferBudget readBufferBudget) {
+        this(scope, controller, connectionFactory,
+                new SegmentInputStreamFactoryImpl(controller, connectionFactory, false, readBufferBudget),
                 new SegmentOutputStreamFactoryImpl(controller, connectionFactory),
                 new ConditionalOutputStreamFactoryImpl(controller, connectionFactory),
-                new SegmentMetadataClientFactoryImpl(controller, connectionFactory));
+                new SegmentMetadataClientFactoryImpl(controller, connectionFactory), readBufferBudget);
     }
 
     @VisibleForTesting
     public ClientFactoryImpl(String scope, Controller controller, ConnectionFactory connectionFactory,
             SegmentInputStreamFactory inFactory, SegmentOutputStreamFactory outFactory,
             ConditionalOutputStreamFactory condFactory, SegmentMetadataClientFactory metaFactory) {
+        this(scope, controller, connectionFactory, inFactory, outFactory, condFactory, metaFactory,
+                new ReadBufferBudget(ReadBufferBudget.DEFAULT_MAX_BYTES));
+    }
+
+    private ClientFactoryImpl(String scope, Controller controller, ConnectionFactory connectionFactory,
+            SegmentInputStreamFactory inFactory, SegmentOutputStreamFactory outFactory,
+            ConditionalOutputStreamFactory condFactory, SegmentMetadataClientFactory metaFactory,
+            ReadBufferBudget readBufferBudget) {
         Preconditions.checkNotNull(scope);
         Preconditions.checkNotNull(controller);
         Preconditions.checkNotNull(inFactory);
@@ -119,6 +136,7 @@ public class ClientFactoryImpl implements ClientFactory {
         this.outFactory = outFactory;
         this.condFactory = condFactory;
         this.metaFactory = metaFactory;
+        this.readBufferBudget = readBufferBudget;
     }
 
     @Override
@@ -149,7 +167,13 @@ public class ClientFactoryImpl implements ClientFactory {
                 synchronizerConfig);
         ReaderGroupStateManager stateManager = new ReaderGroupStateManager(readerId, sync, controller, nanoTime);
         stateManager.initializeReader(config.getInitialAllocationDelay());
-        return new EventStreamReaderImpl<T>(inFactory, metaFactory, s, stateManager, new Orderer(), milliTime, config);
+        // Batched reads share connections between the reader's segments, so each reader needs its own factory (which
+        // still shares the read buffer budget with all the other readers).
+        SegmentInputStreamFactory readerInFactory = config.isBatchSegmentReads()
+                ? new SegmentInputStreamFactoryImpl(controller, connectionFactory, true, readBufferBudget)
+                : inFactory;
+        return new EventStreamReaderImpl<T>(readerInFactory, metaFactory, s, stateManager, new Orderer(), milliTime, config,
+                connectionFactory.getInternalExecutor());
     }
     
     @Override
@@ -31,13 +31,18 @@ import io.pravega.client.stream.Serializer;
 import io.pravega.client.stream.TruncatedDataException;
 import io.pravega.common.Exceptions;
 import io.pravega.common.Timer;
+import io.pravega.common.concurrent.Futures;
 import io.pravega.shared.protocol.netty.WireCommands;
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.GuardedBy;
@@ -65,10 +70,24 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
     private boolean atCheckpoint;
     private final ReaderGroupStateManager groupState;
     private final Supplier<Long> clock;
+    private final ScheduledExecutorService executor;
 
     EventStreamReaderImpl(SegmentInputStreamFactory inputStreamFactory,
             SegmentMetadataClientFactory metadataClientFactory, Serializer<Type> deserializer,
             ReaderGroupStateManager groupState, Orderer orderer, Supplier<Long> clock, ReaderConfig config) {
+        this(inputStreamFactory, metadataClientFactory, deserializer, groupState, orderer, clock, config, null);
+    }
+
+    /**
+     * Creates a new instance of the EventStreamReaderImpl class.
+     *
+     * @param executor The executor to use for {@link #readNextEventAsync(long)}. If null, readNextEventAsync falls back
+     *                 to the default (blocking) implementation.
+     */
+    EventStreamReaderImpl(SegmentInputStreamFactory inputStreamFactory,
+            SegmentMetadataClientFactory metadataClientFactory, Serializer<Type> deserializer,
+            ReaderGroupStateManager groupState, Orderer orderer, Supplier<Long> clock, ReaderConfig config,
+            ScheduledExecutorService executor) {
         this.deserializer = deserializer;
         this.inputStreamFactory = inputStreamFactory;
         this.metadataClientFactory = metadataClientFactory;
@@ -76,6 +95,7 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
         this.orderer = orderer;
         this.clock = clock;
         this.config = config;
+        this.executor = executor;
         this.closed = false;
     }
 
@@ -85,9 +105,7 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
             Preconditions.checkState(!closed, "Reader is closed");
             long waitTime = Math.min(timeout, ReaderGroupStateManager.TIME_UNIT.toMillis());
             Timer timer = new Timer();
-            Segment segment = null;
-            long offset = -1;
-            ByteBuffer buffer;
+            EventRead<Type> result = null;
             do { 
                 String checkpoint = updateGroupStateIfNeeded();
                 if (checkpoint != null) {
@@ -96,34 +114,161 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
                 SegmentInputStream segmentReader = orderer.nextSegment(readers);
                 if (segmentReader == null) {
                     Exceptions.handleInterrupted(() -> Thread.sleep(waitTime));
-                    buffer = null;
                 } else {
-                    segment = segmentReader.getSegmentId();
-                    offset = segmentReader.getOffset();
-                    try {
-                        buffer = segmentReader.read(waitTime);
-                    } catch (EndOfSegmentException e) {
-                        boolean fetchSuccessors = e.getErrorType().equals(ErrorType.END_OF_SEGMENT_REACHED);
-                        handleEndOfSegment(segmentReader, fetchSuccessors);
-                        buffer = null;
-                    } catch (SegmentTruncatedException e) {
-                        handleSegmentTruncated(segmentReader);
-                        buffer = null;
-                    }
+                    result = readEvent(segmentReader, waitTime);
                 }
-            } while (buffer == null && timer.getElapsedMillis() < timeout);
+            } while (result == null && timer.getElapsedMillis() < timeout);
             
-            if (buffer == null) {
-               return createEmptyEvent(null);
-            } 
-            lastRead = Sequence.create(segment.getSegmentId(), offset);
-            int length = buffer.remaining() + WireCommands.TYPE_PLUS_LENGTH_SIZE;
-            return new EventReadImpl<>(lastRead,
-                    deserializer.deserialize(buffer),
-                    getPosition(),
-                    new EventPointerImpl(segment, offset, length),
-                    null);
+            return result == null ? createEmptyEvent(null) : result;
+        }
+    }
+
+    /**
+     * Reads events without blocking any thread while waiting for them. Each attempt runs on the executor and either
+     * reads an event from one of the segments that have one buffered or, if there are none, schedules the next attempt
+     * for when data arrives for any of them (or ReaderGroupStateManager.TIME_UNIT elapses, so that changes to the reader
+     * group are noticed, or the timeout expires).
+     */
+    @Override
+    public CompletableFuture<EventRead<Type>> readNextEventAsync(long timeout) {
+        if (executor == null) {
+            return EventStreamReader.super.readNextEventAsync(timeout);
+        }
+        CompletableFuture<EventRead<Type>> result = new CompletableFuture<>();
+        Timer timer = new Timer();
+        executor.execute(() -> attemptRead(result, timer, timeout));
+        return result;
+    }
+
+    private void attemptRead(CompletableFuture<EventRead<Type>> result, Timer timer, long timeout) {
+        if (result.isDone()) {
+            // Cancelled by the caller.
+            return;
+        }
+        List<CompletableFuture<Void>> dataAvailable;
+        synchronized (readers) {
+            try {
+                Preconditions.checkState(!closed, "Reader is closed");
+                String checkpoint = updateGroupStateIfNeeded();
+                if (checkpoint != null) {
+                    result.complete(createEmptyEvent(checkpoint));
+                    return;
+                }
+                SegmentInputStream segmentReader = orderer.nextReadySegment(readers);
+                EventRead<Type> event = segmentReader == null ? null : readEvent(segmentReader, 0);
+                if (event != null) {
+                    result.complete(event);
+                    return;
+                }
+                if (timer.getElapsedMillis() >= timeout) {
+                    result.complete(createEmptyEvent(null));
+                    return;
+                }
+                dataAvailable = readers.stream().map(SegmentInputStream::fillBufferAsync).collect(Collectors.toList());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+                return;
+            }
+        }
+        long waitTime = Math.min(timeout - timer.getElapsedMillis(), ReaderGroupStateManager.TIME_UNIT.toMillis());
+        dataAvailable.add(Futures.delayedFuture(Duration.ofMillis(Math.max(0, waitTime)), executor));
+        CompletableFuture.anyOf(dataAvailable.toArray(new CompletableFuture[dataAvailable.size()]))
+                         .whenCompleteAsync((r, e) -> attemptRead(result, timer, timeout), executor);
+    }
+
+    /**
+     * Reads the first event like readNextEvent (checking the reader group state and waiting for it if needed), followed
+     * by as many events as can be read from the buffers of the reader's segments without blocking (without checking the
+     * reader group state again, and keeping track of the reader's position incrementally rather than computing it
+     * anew for each event).
+     */
+    @Override
+    public List<EventRead<Type>> readNextEvents(int maxEvents, long timeout) throws ReinitializationRequiredException,
+            TruncatedDataException {
+        Preconditions.checkArgument(maxEvents > 0, "maxEvents must be a positive number.");
+        synchronized (readers) {
+            EventRead<Type> first = readNextEvent(timeout);
+            if (first.getEvent() == null) {
+                return Collections.singletonList(first);
+            }
+            List<EventRead<Type>> result = new ArrayList<>(Math.min(maxEvents, 1024));
+            result.add(first);
+            Map<Segment, Long> positions = new HashMap<>(first.getPosition().asImpl().getOwnedSegmentsWithOffsets());
+            while (result.size() < maxEvents) {
+                SegmentInputStream segmentReader = orderer.nextReadySegment(readers);
+                if (segmentReader == null) {
+                    break;
+                }
+                EventRead<Type> event = readEvent(segmentReader, 0, positions);
+                if (event != null) {
+                    result.add(event);
+                } else if (readers.contains(segmentReader)) {
+                    // Nothing could be read, and not because the segment ended. Leave it for the next call.
+                    break;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Reads the next event from the given segment, or returns null if there is none (including if the end of the
+     * segment has been reached).
+     */
+    @GuardedBy("readers")
+    private EventRead<Type> readEvent(SegmentInputStream segmentReader, long timeout) throws ReinitializationRequiredException,
+            TruncatedDataException {
+        return readEvent(segmentReader, timeout, null);
+    }
+
+    /**
+     * Reads the next event from the given segment, or returns null if there is none (including if the end of the
+     * segment has been reached).
+     *
+     * @param positions If not null, the offsets of all the reader's segments, which are used to compute the position
+     *                  of the event (and are updated accordingly). In that case, truncation of the segment results in
+     *                  null being returned rather than TruncatedDataException being thrown; it will be encountered
+     *                  again by the next read.
+     */
+    @GuardedBy("readers")
+    private EventRead<Type> readEvent(SegmentInputStream segmentReader, long timeout, Map<Segment, Long> positions)
+            throws ReinitializationRequiredException, TruncatedDataException {
+        Segment segment = segmentReader.getSegmentId();
+        long offset = segmentReader.getOffset();
+        ByteBuffer buffer;
+        try {
+            buffer = segmentReader.read(timeout);
+        } catch (EndOfSegmentException e) {
+            boolean fetchSuccessors = e.getErrorType().equals(ErrorType.END_OF_SEGMENT_REACHED);
+            handleEndOfSegment(segmentReader, fetchSuccessors);
+            if (positions != null) {
+                positions.remove(segment);
+            }
+            buffer = null;
+        } catch (SegmentTruncatedException e) {
+            if (positions != null) {
+                return null;
+            }
+            handleSegmentTruncated(segmentReader);
+            buffer = null;
+        }
+        if (buffer == null) {
+            return null;
+        }
+        lastRead = Sequence.create(segment.getSegmentId(), offset);
+        int length = buffer.remaining() + WireCommands.TYPE_PLUS_LENGTH_SIZE;
+        PositionInternal position;
+        if (positions == null) {
+            position = getPosition();
+        } else {
+            positions.put(segment, offset + length);
+            position = new PositionImpl(positions);
         }
+        return new EventReadImpl<>(lastRead,
+                deserializer.deserialize(buffer),
+                position,
+                new EventPointerImpl(segment, offset, length),
+                null);
     }
 
     private EventRead<Type> createEmptyEvent(String checkpoint) {
@@ -51,4 +51,21 @@ public class Orderer {
         }
         return segments.get(MathHelpers.abs(counter.incrementAndGet()) % segments.size());
     }
+
+    /**
+     * Given a list of segments this reader owns, returns one whose next event can be read without blocking (see
+     * {@link SegmentInputStream#fillBufferAsync()}), or null if there are none. This is done in a way that ensures fairness.
+     *
+     * @param segments The logs to get the next reader for.
+     * @return A segment that this reader can read from next without blocking, or null.
+     */
+    <T extends SegmentInputStream> T nextReadySegment(List<T> segments) {
+        for (int i = 0; i < segments.size(); i++) {
+            T inputStream = segments.get(MathHelpers.abs(counter.incrementAndGet()) % segments.size());
+            if (inputStream.fillBufferAsync().isDone()) {
+                return inputStream;
+            }
+        }
+        return null;
+    }
 }
@@ -11,6 +11,7 @@ package io.pravega.client;
 
 import io.pravega.client.stream.impl.DefaultCredentials;
 import io.pravega.client.stream.impl.JavaSerializer;
+import io.pravega.shared.protocol.netty.NettyConfig;
 import org.junit.Test;
 
 import java.net.URI;
@@ -34,6 +35,7 @@ public class ClientConfigTest {
                 .controllerURI(URI.create("tcp://localhost:9090"))
                 .trustStore("truststore.jks")
                 .validateHostName(false)
+                .nettyConfig(NettyConfig.builder().eventLoopThreads(8).allocatorArenas(8).tcpNoDelay(false).build())
                 .build();
         ClientConfig actual = s.deserialize(s.serialize(expected));
         assertEquals(expected, actual);
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AppendBatchSizeTrackerTest {
+    private static final long NANOS_BETWEEN_APPENDS = 1000;
+    private static final int EVENT_SIZE = 100;
+    private static final long ACK_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Test
+    public void testNoBatchingForSynchronousWriter() {
+        AtomicLong clock = new AtomicLong();
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(AppendBatchingPolicy.DEFAULT, clock::get);
+        for (int i = 1; i <= 100; i++) {
+            clock.addAndGet(NANOS_BETWEEN_APPENDS);
+            tracker.recordAppend(i, EVENT_SIZE);
+            assertEquals(0, tracker.getAppendBlockSize());
+            tracker.recordAck(i);
+        }
+    }
+
+    @Test
+    public void testBatchSizeFollowsAckLatency() {
+        // Unlimited by the policy, a batch holds what is written while waiting for an ack: 2ms worth of 100 byte events
+        // written every microsecond.
+        AppendBatchSizeTrackerImpl tracker = runWriter(new AppendBatchingPolicy(AppendBatchingPolicy.MAX_BATCH_SIZE_LIMIT, 100, Integer.MAX_VALUE));
+        assertEquals(ACK_LATENCY_NANOS, tracker.getAckLatencyNanos(), ACK_LATENCY_NANOS * 0.01);
+        int expected = (int) (ACK_LATENCY_NANOS / NANOS_BETWEEN_APPENDS * EVENT_SIZE);
+        int blockSize = tracker.getAppendBlockSize();
+        assertTrue("Unexpected block size " + blockSize, Math.abs(blockSize - expected) < expected / 10);
+        assertEquals(100, tracker.getBatchTimeout());
+
+        // The policy caps it.
+        assertEquals(AppendBatchingPolicy.DEFAULT.getMaxBatchSizeBytes(), runWriter(AppendBatchingPolicy.DEFAULT).getAppendBlockSize());
+        blockSize = runWriter(new AppendBatchingPolicy(AppendBatchingPolicy.MAX_BATCH_SIZE_LIMIT, 100, 10)).getAppendBlockSize();
+        assertTrue("Unexpected block size " + blockSize, Math.abs(blockSize - 10 * EVENT_SIZE) < EVENT_SIZE);
+
+        // As does the linger time, if it is shorter than the ack latency.
+        blockSize = runWriter(new AppendBatchingPolicy(AppendBatchingPolicy.MAX_BATCH_SIZE_LIMIT, 1, Integer.MAX_VALUE)).getAppendBlockSize();
+        assertTrue("Unexpected block size " + blockSize, Math.abs(blockSize - expected / 2) < expected / 20);
+        assertEquals(1, runWriter(new AppendBatchingPolicy(1024, 1, 10)).getBatchTimeout());
+    }
+
+    /**
+     * Simulates a writer that appends events at a constant rate, each of which is acked after a constant delay.
+     */
+    private AppendBatchSizeTrackerImpl runWriter(AppendBatchingPolicy policy) {
+        AtomicLong clock = new AtomicLong();
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(policy, clock::get);
+        long eventsInflight = ACK_LATENCY_NANOS / NANOS_BETWEEN_APPENDS;
+        for (int i = 1; i <= 200000; i++) {
+            clock.addAndGet(NANOS_BETWEEN_APPENDS);
+            tracker.recordAppend(i, EVENT_SIZE);
+            if (i > eventsInflight) {
+                tracker.recordAck(i - eventsInflight);
+            }
+        }
+        return tracker;
+    }
+}
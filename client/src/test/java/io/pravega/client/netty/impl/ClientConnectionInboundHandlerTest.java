@@ -14,7 +14,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.UUID;
@@ -40,6 +42,7 @@ import io.pravega.shared.protocol.netty.Append;
 import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
 import io.pravega.shared.protocol.netty.ConnectionFailedException;
 import io.pravega.shared.protocol.netty.ReplyProcessor;
+import io.pravega.shared.protocol.netty.WireCommands;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ClientConnectionInboundHandlerTest {
@@ -105,6 +108,35 @@ public class ClientConnectionInboundHandlerTest {
         handler.send(appendCmd);
     }
 
+    @Test
+    public void appendBatchingPolicyRemoved() throws Exception {
+        UUID writerId = UUID.randomUUID();
+        handler.setAppendBatchingPolicy(writerId, AppendBatchingPolicy.DEFAULT);
+        Assert.assertNotSame(tracker, handler.getBatchSizeTracker(writerId));
+        handler.removeAppendBatchingPolicy(writerId);
+        Assert.assertSame(tracker, handler.getBatchSizeTracker(writerId));
+
+        // All of them are discarded once the connection is closed.
+        handler.setAppendBatchingPolicy(writerId, AppendBatchingPolicy.DEFAULT);
+        handler.close();
+        Assert.assertSame(tracker, handler.getBatchSizeTracker(writerId));
+    }
+
+    @Test
+    public void writerRemoved() throws Exception {
+        handler.channelRegistered(ctx);
+        UUID writerId = UUID.randomUUID();
+        WireCommands.RemoveWriter removeWriter = new WireCommands.RemoveWriter(1, writerId, "segment0");
+
+        // Until the server is known to support it, only the encoder state is released.
+        handler.removeWriter(removeWriter);
+        verify(ch).writeAndFlush(eq(new WireCommands.ReleaseWriter(writerId, "segment0")), any());
+
+        handler.channelRead(ctx, new WireCommands.Hello(WireCommands.WRITER_REMOVAL_VERSION, WireCommands.OLDEST_COMPATIBLE_VERSION));
+        handler.removeWriter(removeWriter);
+        verify(ch).writeAndFlush(eq(removeWriter), any());
+    }
+
     @Test
     public void completeWhenRegisteredNormal() throws Exception {
         handler.channelRegistered(ctx);
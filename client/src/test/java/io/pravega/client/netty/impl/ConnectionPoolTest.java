@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import io.netty.buffer.Unpooled;
+import io.pravega.shared.protocol.netty.Append;
+import io.pravega.shared.protocol.netty.ConnectionFailedException;
+import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import io.pravega.shared.protocol.netty.ReplyProcessor;
+import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.test.common.AssertExtensions;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+public class ConnectionPoolTest {
+    private static final PravegaNodeUri ENDPOINT = new PravegaNodeUri("localhost", 12345);
+
+    private final List<ReplyProcessor> processors = new ArrayList<>();
+    private final List<ClientConnection> connections = new ArrayList<>();
+
+    /**
+     * Tests that connections are shared once the maximum number of them has been opened, and that they are closed once
+     * they are no longer used.
+     */
+    @Test
+    public void testConnectionSharing() throws Exception {
+        ConnectionPool pool = new ConnectionPool(2, this::connect);
+        ClientConnection s1 = pool.getConnection(ENDPOINT, "a", mock(ReplyProcessor.class)).join();
+        ClientConnection s2 = pool.getConnection(ENDPOINT, "b", mock(ReplyProcessor.class)).join();
+        ClientConnection s3 = pool.getConnection(ENDPOINT, "c", mock(ReplyProcessor.class)).join();
+        assertEquals(2, this.connections.size());
+        assertEquals(2, pool.getConnectionCount(ENDPOINT));
+
+        // The first two sessions are on different connections, the third one shares the first connection.
+        WireCommands.KeepAlive keepAlive = new WireCommands.KeepAlive();
+        s3.send(keepAlive);
+        verify(this.connections.get(0)).send(keepAlive);
+        verify(this.connections.get(1), never()).send(keepAlive);
+
+        // Closing a session only closes its connection once no other session is using it.
+        s1.close();
+        verify(this.connections.get(0), never()).close();
+        s3.close();
+        verify(this.connections.get(0)).close();
+        assertEquals(1, pool.getConnectionCount(ENDPOINT));
+
+        // New connections are opened as needed.
+        ClientConnection s4 = pool.getConnection(ENDPOINT, "a", mock(ReplyProcessor.class)).join();
+        assertEquals(3, this.connections.size());
+        assertNotSame(s1, s4);
+        s2.close();
+        s4.close();
+        assertEquals(0, pool.getConnectionCount(ENDPOINT));
+
+        // Connections that fail to establish are not reused.
+        ConnectionPool failingPool = new ConnectionPool(1, (endpoint, rp) -> {
+            CompletableFuture<ClientConnection> result = new CompletableFuture<>();
+            result.completeExceptionally(new IntentionalException());
+            return result;
+        });
+        CompletableFuture<ClientConnection> failed = failingPool.getConnection(ENDPOINT, "a", mock(ReplyProcessor.class));
+        assertSame(IntentionalException.class, failed.handle((r, ex) -> ex.getCause().getClass()).join());
+        assertEquals(0, failingPool.getConnectionCount(ENDPOINT));
+    }
+
+    /**
+     * Tests that replies are only handed to the sessions they pertain to.
+     */
+    @Test
+    public void testReplyRouting() throws Exception {
+        ConnectionPool pool = new ConnectionPool(1, this::connect);
+        ReplyProcessor writer = mock(ReplyProcessor.class);
+        ReplyProcessor readerA = mock(ReplyProcessor.class);
+        ReplyProcessor readerB = mock(ReplyProcessor.class);
+        ClientConnection writerSession = pool.getConnection(ENDPOINT, "a", writer).join();
+        ClientConnection readerASession = pool.getConnection(ENDPOINT, "a", readerA).join();
+        ClientConnection readerBSession = pool.getConnection(ENDPOINT, "b", readerB).join();
+        assertEquals(1, this.connections.size());
+        ReplyProcessor processor = this.processors.get(0);
+
+        // Replies for writers go to the session that set them up.
+        UUID writerId = UUID.randomUUID();
+        writerSession.send(new WireCommands.SetupAppend(1, writerId, "a", ""));
+        WireCommands.AppendSetup appendSetup = new WireCommands.AppendSetup(1, "a", writerId, 0);
+        processor.process(appendSetup);
+        verify(writer).process(appendSetup);
+
+        // Replies to requests go to the session that made them.
+        readerASession.sendAsync(new WireCommands.ReadSegment("a", 0, 100, ""));
+        readerBSession.sendAsync(new WireCommands.ReadSegment("b", 0, 100, ""));
+        WireCommands.SegmentRead readA = new WireCommands.SegmentRead("a", 0, false, false, ByteBuffer.allocate(1));
+        processor.process(readA);
+        verify(readerA).process(readA);
+
+        // Replies concerning a segment that were not requested by anyone go to all of the segment's sessions.
+        WireCommands.SegmentIsSealed sealed = new WireCommands.SegmentIsSealed(10, "a");
+        processor.process(sealed);
+        verify(writer).process(sealed);
+        verify(readerA).process(sealed);
+
+        // Replies that carry nothing but a request id go to whoever made that request.
+        WireCommands.SegmentAttribute attribute = new WireCommands.SegmentAttribute(0, 123);
+        processor.process(attribute);
+        verify(readerB).process(attribute);
+
+        // Connection-wide events go to everyone.
+        processor.process(new WireCommands.Hello(WireCommands.WIRE_VERSION, WireCommands.OLDEST_COMPATIBLE_VERSION));
+        processor.connectionDropped();
+        verify(writer).connectionDropped();
+        verify(readerA).connectionDropped();
+        verify(readerB).connectionDropped();
+        verifyNoMoreInteractions(writer, readerA, readerB);
+        assertEquals(0, pool.getConnectionCount(ENDPOINT));
+    }
+
+    /**
+     * Tests that sessions for the same segment that have outstanding requests with the same id (such as readers reading
+     * from the same offset) get one reply each.
+     */
+    @Test
+    public void testSameRequestIdRouting() throws Exception {
+        ConnectionPool pool = new ConnectionPool(1, this::connect);
+        ReplyProcessor readerA = mock(ReplyProcessor.class);
+        ReplyProcessor readerB = mock(ReplyProcessor.class);
+        ClientConnection readerASession = pool.getConnection(ENDPOINT, "a", readerA).join();
+        ClientConnection readerBSession = pool.getConnection(ENDPOINT, "a", readerB).join();
+        assertEquals(1, this.connections.size());
+        ReplyProcessor processor = this.processors.get(0);
+
+        readerASession.sendAsync(new WireCommands.ReadSegment("a", 0, 100, ""));
+        readerBSession.sendAsync(new WireCommands.ReadSegment("a", 0, 10, ""));
+        WireCommands.SegmentRead first = new WireCommands.SegmentRead("a", 0, false, false, ByteBuffer.allocate(100));
+        processor.process(first);
+        verify(readerA).process(first);
+        verifyNoMoreInteractions(readerB);
+
+        WireCommands.SegmentRead second = new WireCommands.SegmentRead("a", 0, false, false, ByteBuffer.allocate(10));
+        processor.process(second);
+        verify(readerB).process(second);
+        verifyNoMoreInteractions(readerA, readerB);
+    }
+
+    /**
+     * Tests that the writers set up over a session are removed from the (shared) connection once the session is closed,
+     * and that a writer whose session is closed while some of its appends have not been acknowledged is only removed
+     * once they have been acknowledged or failed, without affecting the connection's other sessions.
+     */
+    @Test
+    public void testUnacknowledgedAppends() throws Exception {
+        ConnectionPool pool = new ConnectionPool(1, this::connect);
+        ReplyProcessor other = mock(ReplyProcessor.class);
+        pool.getConnection(ENDPOINT, "b", other).join();
+
+        // All appends acknowledged: the connection stays open.
+        UUID writerId = UUID.randomUUID();
+        ClientConnection writerSession = pool.getConnection(ENDPOINT, "a", mock(ReplyProcessor.class)).join();
+        writerSession.send(new WireCommands.SetupAppend(1, writerId, "a", ""));
+        this.processors.get(0).process(new WireCommands.AppendSetup(1, "a", writerId, 0));
+        writerSession.sendAsync(Collections.singletonList(new Append("a", writerId, 1, Unpooled.wrappedBuffer(new byte[1]), null)), e -> { });
+        this.processors.get(0).process(new WireCommands.DataAppended(writerId, 1, 0));
+        writerSession.close();
+        verify(this.connections.get(0)).removeWriter(new WireCommands.RemoveWriter(1, writerId, "a"));
+        verify(this.connections.get(0), never()).close();
+
+        // The batching policy of a writer is discarded along with its session.
+        writerSession = pool.getConnection(ENDPOINT, "a", mock(ReplyProcessor.class)).join();
+        writerSession.setAppendBatchingPolicy(writerId, AppendBatchingPolicy.DEFAULT);
+        verify(this.connections.get(0)).setAppendBatchingPolicy(writerId, AppendBatchingPolicy.DEFAULT);
+        writerSession.close();
+        verify(this.connections.get(0)).removeAppendBatchingPolicy(writerId);
+        verify(this.connections.get(0), never()).close();
+
+        // Unacknowledged appends: the writer is only removed once they are acknowledged, and may not be set up again
+        // before that.
+        writerSession = pool.getConnection(ENDPOINT, "a", mock(ReplyProcessor.class)).join();
+        assertEquals(1, this.connections.size());
+        writerSession.send(new WireCommands.SetupAppend(2, writerId, "a", ""));
+        this.processors.get(0).process(new WireCommands.AppendSetup(2, "a", writerId, 1));
+        writerSession.send(new Append("a", writerId, 2, Unpooled.wrappedBuffer(new byte[1]), null));
+        writerSession.close();
+        verify(this.connections.get(0), never()).removeWriter(new WireCommands.RemoveWriter(2, writerId, "a"));
+        ClientConnection retrySession = pool.getConnection(ENDPOINT, "a", mock(ReplyProcessor.class)).join();
+        AssertExtensions.assertThrows("A writer that is being removed was set up again.",
+                () -> retrySession.send(new WireCommands.SetupAppend(3, writerId, "a", "")),
+                ex -> ex instanceof ConnectionFailedException);
+        this.processors.get(0).process(new WireCommands.DataAppended(writerId, 2, 1));
+        verify(this.connections.get(0)).removeWriter(new WireCommands.RemoveWriter(2, writerId, "a"));
+        retrySession.send(new WireCommands.SetupAppend(3, writerId, "a", ""));
+        this.processors.get(0).process(new WireCommands.AppendSetup(3, "a", writerId, 2));
+
+        // Failed appends: the writer is removed once the failure is received.
+        retrySession.send(new Append("a", writerId, 3, Unpooled.wrappedBuffer(new byte[1]), null));
+        retrySession.send(new Append("a", writerId, 4, Unpooled.wrappedBuffer(new byte[1]), null));
+        retrySession.close();
+        verify(this.connections.get(0), never()).removeWriter(new WireCommands.RemoveWriter(3, writerId, "a"));
+        this.processors.get(0).process(new WireCommands.SegmentIsSealed(3, "a"));
+        verify(this.connections.get(0)).removeWriter(new WireCommands.RemoveWriter(3, writerId, "a"));
+
+        verify(this.connections.get(0), never()).close();
+        verify(other, never()).connectionDropped();
+        assertEquals(1, pool.getConnectionCount(ENDPOINT));
+    }
+
+    /**
+     * Tests that a pool that retains idle connections keeps them open (to be reused) once all their sessions are closed,
+     * and that the replies to batched requests go to the session that sent them.
+     */
+    @Test
+    public void testIdleConnectionRetention() throws Exception {
+        ConnectionPool pool = new ConnectionPool(1, true, this::connect);
+        ReplyProcessor requester = mock(ReplyProcessor.class);
+        ClientConnection session = pool.getConnection(ENDPOINT, "a", requester).join();
+        session.send(new WireCommands.CreateSegments(1, Arrays.asList(
+                new WireCommands.CreateSegment(2, "a", WireCommands.CreateSegment.NO_SCALE, 0, ""),
+                new WireCommands.CreateSegment(3, "b", WireCommands.CreateSegment.NO_SCALE, 0, ""))));
+        ReplyProcessor processor = this.processors.get(0);
+        WireCommands.SegmentCreated createdA = new WireCommands.SegmentCreated(2, "a");
+        WireCommands.SegmentAlreadyExists existsB = new WireCommands.SegmentAlreadyExists(3, "b");
+        processor.process(createdA);
+        processor.process(existsB);
+        verify(requester).process(createdA);
+        verify(requester).process(existsB);
+
+        // The connection stays open once the session is closed, and is used by the next session.
+        session.close();
+        processor.process(new WireCommands.SegmentIsSealed(4, "b"));
+        verifyNoMoreInteractions(requester);
+        verify(this.connections.get(0), never()).close();
+        assertEquals(1, pool.getConnectionCount(ENDPOINT));
+        pool.getConnection(ENDPOINT, "b", mock(ReplyProcessor.class)).join();
+        assertEquals(1, this.connections.size());
+
+        pool.close();
+        verify(this.connections.get(0)).close();
+        assertEquals(0, pool.getConnectionCount(ENDPOINT));
+    }
+
+    private CompletableFuture<ClientConnection> connect(PravegaNodeUri endpoint, ReplyProcessor rp) {
+        ClientConnection connection = mock(ClientConnection.class);
+        this.processors.add(rp);
+        this.connections.add(connection);
+        return CompletableFuture.completedFuture(connection);
+    }
+
+    private static class IntentionalException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
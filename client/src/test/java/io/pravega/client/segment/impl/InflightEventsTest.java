@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.segment.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class InflightEventsTest {
+
+    /**
+     * Tests the basic operations, including growing the buffer beyond its initial capacity.
+     */
+    @Test
+    public void testAddAndRemove() {
+        InflightEvents<Integer> inflight = new InflightEvents<>();
+        assertTrue(inflight.isEmpty());
+        assertEquals(Collections.emptyList(), inflight.removeUpTo(10));
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals(i, inflight.add(i));
+        }
+
+        assertEquals(1000, inflight.size());
+        assertEquals(Arrays.asList(1, 2, 3), inflight.removeUpTo(3));
+        assertEquals(Collections.emptyList(), inflight.removeUpTo(2));
+        assertNull(inflight.floorEventNumber(3));
+        assertEquals(10L, (long) inflight.floorEventNumber(10));
+        assertEquals(1000L, (long) inflight.floorEventNumber(Long.MAX_VALUE));
+
+        List<Map.Entry<Long, Integer>> all = inflight.getAll();
+        assertEquals(997, all.size());
+        for (Map.Entry<Long, Integer> e : all) {
+            assertEquals((long) e.getKey(), (long) e.getValue());
+        }
+
+        // Acks beyond the last event number only acknowledge what is there.
+        assertEquals(997, inflight.removeUpTo(2000).size());
+        assertTrue(inflight.isEmpty());
+        assertEquals(0, inflight.size());
+        assertNull(inflight.floorEventNumber(Long.MAX_VALUE));
+        assertEquals(1001, inflight.add(1001));
+        assertEquals(Collections.singletonList(1001), inflight.removeUpTo(1001));
+    }
+
+    /**
+     * Tests acknowledging events concurrently with adding them.
+     */
+    @Test(timeout = 30000)
+    public void testConcurrentAcks() throws Exception {
+        final int count = 200000;
+        InflightEvents<Integer> inflight = new InflightEvents<>();
+        List<Integer> acked = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> ackers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ackers.add(new Thread(() -> {
+                while (!done.get() || !inflight.isEmpty()) {
+                    Long floor = inflight.floorEventNumber(Long.MAX_VALUE);
+                    if (floor != null) {
+                        List<Integer> result = inflight.removeUpTo(floor);
+                        for (int j = 1; j < result.size(); j++) {
+                            assertEquals(result.get(j - 1) + 1, (int) result.get(j));
+                        }
+                        acked.addAll(result);
+                    }
+                }
+            }));
+        }
+
+        ackers.forEach(Thread::start);
+        for (int i = 1; i <= count; i++) {
+            inflight.add(i);
+            if (i % 1000 == 0) {
+                // Let the buffer fill up every now and then.
+                Thread.yield();
+            }
+        }
+
+        done.set(true);
+        for (Thread t : ackers) {
+            t.join();
+        }
+
+        assertFalse(acked.contains(null));
+        assertEquals(count, acked.size());
+        assertEquals(count, acked.stream().distinct().collect(Collectors.toList()).size());
+    }
+}
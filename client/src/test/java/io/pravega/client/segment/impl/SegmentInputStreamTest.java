@@ -115,6 +115,31 @@ public class SegmentInputStreamTest {
         assertEquals(ByteBuffer.wrap(data), read);
     }
 
+    @Test
+    public void testFillBufferAsync() throws EndOfSegmentException, SegmentTruncatedException {
+        byte[] data = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        ByteBuffer wireData = createEventFromData(data);
+        TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 4);
+        @Cleanup
+        SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
+        CompletableFuture<Void> eventAvailable = stream.fillBufferAsync();
+        assertFalse(eventAvailable.isDone());
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, ByteBufferUtils.slice(wireData, 0, 2)));
+        assertTrue(eventAvailable.isDone());
+
+        // Part of the header.
+        eventAvailable = stream.fillBufferAsync();
+        assertFalse(eventAvailable.isDone());
+        fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), 2, false, false, ByteBufferUtils.slice(wireData, 2, 9)));
+
+        // The header and part of the event.
+        eventAvailable = stream.fillBufferAsync();
+        assertFalse(eventAvailable.isDone());
+        fakeNetwork.complete(2, new WireCommands.SegmentRead(segment.getScopedName(), 11, false, false, ByteBufferUtils.slice(wireData, 11, wireData.capacity() - 11)));
+        assertTrue(stream.fillBufferAsync().isDone());
+        assertEquals(ByteBuffer.wrap(data), stream.read(0));
+    }
+
     @Test
     public void testLongerThanRequestedRead() throws EndOfSegmentException, SegmentTruncatedException {
         byte[] data = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
@@ -400,5 +425,58 @@ public class SegmentInputStreamTest {
         SegmentInputStreamImpl stream = new SegmentInputStreamImpl(mockAsyncInputStream, 0,
                 -2, SegmentInputStreamImpl.DEFAULT_BUFFER_SIZE);
     }
-    
+
+    @Test
+    public void testAdaptiveBufferSize() throws EndOfSegmentException, SegmentTruncatedException {
+        ReadBufferBudget budget = new ReadBufferBudget(ReadBufferBudget.DEFAULT_MAX_BYTES);
+        TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 3);
+        SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0, Long.MAX_VALUE, budget);
+        int initialSize = SegmentInputStreamImpl.DEFAULT_BUFFER_SIZE;
+        assertEquals(initialSize, stream.getBufferSize());
+        assertEquals(initialSize, budget.getReservedBytes());
+
+        // A full read that is not at the tail: the reader is behind, so the buffer grows.
+        byte[] bigData = new byte[initialSize / 4 - WireCommands.TYPE_PLUS_LENGTH_SIZE];
+        bigData[bigData.length - 1] = 1;
+        ByteBuffer bigEvent = createEventFromData(bigData);
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, bigEvent));
+        assertEquals(ByteBuffer.wrap(bigData), stream.read());
+        assertEquals(initialSize * 2, stream.getBufferSize());
+        assertEquals(initialSize * 2, budget.getReservedBytes());
+
+        // A read at the tail: the reader is keeping up, so the buffer shrinks.
+        byte[] smallData = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        fakeNetwork.complete(1, new WireCommands.SegmentRead(segment.getScopedName(), initialSize / 4, true, false,
+                createEventFromData(smallData)));
+        assertEquals(ByteBuffer.wrap(smallData), stream.read());
+        assertEquals(initialSize, stream.getBufferSize());
+        assertEquals(initialSize, budget.getReservedBytes());
+
+        stream.close();
+        assertEquals(0, budget.getReservedBytes());
+    }
+
+    @Test
+    public void testAdaptiveBufferSizeWithinBudget() throws EndOfSegmentException, SegmentTruncatedException {
+        // Room for the minimum buffer size plus a little more for each stream.
+        ReadBufferBudget budget = new ReadBufferBudget(ReadBufferBudget.MIN_BUFFER_SIZE * 3);
+        TestAsyncSegmentInputStream fakeNetwork1 = new TestAsyncSegmentInputStream(segment, 2);
+        TestAsyncSegmentInputStream fakeNetwork2 = new TestAsyncSegmentInputStream(segment, 2);
+        SegmentInputStreamImpl stream1 = new SegmentInputStreamImpl(fakeNetwork1, 0, Long.MAX_VALUE, budget);
+        assertEquals(ReadBufferBudget.MIN_BUFFER_SIZE * 3, stream1.getBufferSize());
+        SegmentInputStreamImpl stream2 = new SegmentInputStreamImpl(fakeNetwork2, 0, Long.MAX_VALUE, budget);
+        assertEquals(ReadBufferBudget.MIN_BUFFER_SIZE, stream2.getBufferSize());
+
+        // The first stream now exceeds its fair share, so it gives some of its buffer back even though it is behind.
+        byte[] data = new byte[stream1.getBufferSize() / 4 - WireCommands.TYPE_PLUS_LENGTH_SIZE];
+        fakeNetwork1.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false,
+                createEventFromData(data)));
+        assertEquals(ByteBuffer.wrap(data), stream1.read());
+        assertEquals(budget.getFairShare(), stream1.getBufferSize());
+        assertEquals(budget.getFairShare() + ReadBufferBudget.MIN_BUFFER_SIZE, budget.getReservedBytes());
+
+        stream1.close();
+        stream2.close();
+        assertEquals(0, budget.getReservedBytes());
+    }
 }
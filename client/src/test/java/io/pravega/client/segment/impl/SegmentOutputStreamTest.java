@@ -11,6 +11,7 @@ package io.pravega.client.segment.impl;
 
 import com.google.common.collect.ImmutableList;
 import io.netty.buffer.Unpooled;
+import io.pravega.client.netty.impl.AppendBatchingPolicy;
 import io.pravega.client.netty.impl.ClientConnection;
 import io.pravega.client.netty.impl.ClientConnection.CompletedCallback;
 import io.pravega.client.stream.impl.PendingEvent;
@@ -86,6 +87,7 @@ public class SegmentOutputStreamTest extends ThreadPooledTestSuite {
         SegmentOutputStreamImpl output = new SegmentOutputStreamImpl(SEGMENT, controller, cf, cid, segmentSealedCallback, RETRY_SCHEDULE, "");
         output.reconnect();
         verify(connection).send(new SetupAppend(1, cid,  SEGMENT, ""));
+        verify(connection).setAppendBatchingPolicy(cid, AppendBatchingPolicy.DEFAULT);
         cf.getProcessor(uri).appendSetup(new AppendSetup(1, SEGMENT, cid, 0));
 
         sendAndVerifyEvent(cid, connection, output, getBuffer("test"), 1);
@@ -230,6 +232,7 @@ public class SegmentOutputStreamTest extends ThreadPooledTestSuite {
         SegmentOutputStreamImpl output = new SegmentOutputStreamImpl(SEGMENT, controller, cf, cid, segmentSealedCallback, RETRY_SCHEDULE, "");
         output.reconnect();
         verify(connection).send(new SetupAppend(1, cid, SEGMENT, ""));
+        verify(connection).setAppendBatchingPolicy(cid, AppendBatchingPolicy.DEFAULT);
         cf.getProcessor(uri).appendSetup(new AppendSetup(1, SEGMENT, cid, 0));
 
         sendAndVerifyEvent(cid, connection, output, getBuffer("test"), 1);
@@ -264,6 +267,7 @@ public class SegmentOutputStreamTest extends ThreadPooledTestSuite {
         Append append3 = new Append(SEGMENT, cid, 3, Unpooled.wrappedBuffer(getBuffer("test3")), null);
         Append append4 = new Append(SEGMENT, cid, 4, Unpooled.wrappedBuffer(getBuffer("test4")), null);
         inOrder.verify(connection).send(new SetupAppend(1, cid, SEGMENT, ""));
+        verify(connection, times(2)).setAppendBatchingPolicy(cid, AppendBatchingPolicy.DEFAULT);
         inOrder.verify(connection).send(append1);
         inOrder.verify(connection).send(append2);
         inOrder.verify(connection).close();
@@ -307,6 +311,7 @@ public class SegmentOutputStreamTest extends ThreadPooledTestSuite {
         SegmentOutputStreamImpl output = new SegmentOutputStreamImpl(SEGMENT, controller, cf, cid, segmentSealedCallback, RETRY_SCHEDULE, "");
         output.reconnect();
         verify(connection).send(new SetupAppend(1, cid, SEGMENT, ""));
+        verify(connection).setAppendBatchingPolicy(cid, AppendBatchingPolicy.DEFAULT);
         cf.getProcessor(uri).appendSetup(new AppendSetup(1, SEGMENT, cid, 0));
         ByteBuffer data = getBuffer("test");
 
@@ -562,6 +567,7 @@ public class SegmentOutputStreamTest extends ThreadPooledTestSuite {
         SegmentOutputStreamImpl output = new SegmentOutputStreamImpl(SEGMENT, controller, cf, cid, segmentSealedCallback, RETRY_SCHEDULE, "");
         output.reconnect();
         verify(connection).send(new SetupAppend(1, cid, SEGMENT, ""));
+        verify(connection).setAppendBatchingPolicy(cid, AppendBatchingPolicy.DEFAULT);
         cf.getProcessor(uri).appendSetup(new AppendSetup(1, SEGMENT, cid, 0));
 
         ByteBuffer data = ByteBuffer.allocate(PendingEvent.MAX_WRITE_SIZE + 1);
@@ -768,6 +774,7 @@ public class SegmentOutputStreamTest extends ThreadPooledTestSuite {
         Append append3 = new Append(SEGMENT, cid, 3, Unpooled.wrappedBuffer(getBuffer("test3")), null);
         Append append4 = new Append(SEGMENT, cid, 4, Unpooled.wrappedBuffer(getBuffer("test4")), null);
         inOrder.verify(connection).send(new SetupAppend(1, cid, SEGMENT, ""));
+        verify(connection, times(3)).setAppendBatchingPolicy(cid, AppendBatchingPolicy.DEFAULT);
         inOrder.verify(connection).send(append1);
         inOrder.verify(connection).send(append2);
         inOrder.verify(connection).close();
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.segment.impl;
+
+import io.pravega.client.netty.impl.ClientConnection;
+import io.pravega.client.stream.mock.MockConnectionFactoryImpl;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.shared.protocol.netty.ConnectionFailedException;
+import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import io.pravega.shared.protocol.netty.ReplyProcessor;
+import io.pravega.shared.protocol.netty.WireCommand;
+import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentRead;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import lombok.Cleanup;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static io.pravega.test.common.AssertExtensions.assertThrows;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class SegmentReadBatcherTest {
+    private static final int SERVICE_PORT = 12345;
+
+    @Test(timeout = 10000)
+    public void testBatchedReads() throws Exception {
+        PravegaNodeUri endpoint = new PravegaNodeUri("localhost", SERVICE_PORT);
+        @Cleanup("shutdown")
+        ScheduledExecutorService executor = ExecutorServiceHelpers.newScheduledThreadPool(1, "testBatchedReads");
+        MockConnectionFactoryImpl connectionFactory = new MockConnectionFactoryImpl();
+        connectionFactory.setExecutor(executor);
+        ClientConnection c = mock(ClientConnection.class);
+        connectionFactory.provideConnection(endpoint, c);
+        SegmentReadBatcher batcher = new SegmentReadBatcher(connectionFactory);
+        batcher.register();
+
+        // Until the server has told us that it supports batched reads, everything is sent individually.
+        ReadSegment read1 = new ReadSegment("scope/stream/1", 0, 100, "");
+        CompletableFuture<SegmentRead> future1 = batcher.read(endpoint, read1);
+        verify(c, timeout(5000)).sendAsync(read1);
+        ReplyProcessor processor = connectionFactory.getProcessor(endpoint);
+        processor.hello(new WireCommands.Hello(WireCommands.WIRE_VERSION, WireCommands.OLDEST_COMPATIBLE_VERSION));
+        SegmentRead reply1 = new SegmentRead(read1.getSegment(), read1.getOffset(), false, false, ByteBuffer.allocate(10));
+        processor.segmentRead(reply1);
+        assertEquals(reply1, future1.join());
+
+        // Reads that are issued while the executor is busy are sent together.
+        CompletableFuture<Void> blocker = new CompletableFuture<>();
+        executor.execute(blocker::join);
+        ReadSegment read2 = new ReadSegment("scope/stream/2", 10, 100, "");
+        ReadSegment read3 = new ReadSegment("scope/stream/3", 20, 100, "");
+        CompletableFuture<SegmentRead> future2 = batcher.read(endpoint, read2);
+        CompletableFuture<SegmentRead> future3 = batcher.read(endpoint, read3);
+        blocker.complete(null);
+
+        ArgumentCaptor<WireCommand> captor = ArgumentCaptor.forClass(WireCommand.class);
+        verify(c, timeout(5000).times(2)).sendAsync(captor.capture());
+        WireCommands.ReadSegments request = (WireCommands.ReadSegments) captor.getValue();
+        assertEquals(Arrays.asList(read2, read3), request.getReads());
+
+        // Replies may come in a combined reply or individually.
+        SegmentRead reply2 = new SegmentRead(read2.getSegment(), read2.getOffset(), true, false, ByteBuffer.allocate(20));
+        SegmentRead reply3 = new SegmentRead(read3.getSegment(), read3.getOffset(), false, false, ByteBuffer.allocate(30));
+        processor.segmentsRead(new WireCommands.SegmentsRead(request.getRequestId(), Arrays.asList(reply2)));
+        assertEquals(reply2, future2.join());
+        assertFalse(future3.isDone());
+        processor.segmentRead(reply3);
+        assertEquals(reply3, future3.join());
+
+        // Connections are closed once nobody uses them anymore.
+        batcher.unregister();
+        verify(c).close();
+    }
+
+    @Test(timeout = 10000)
+    public void testConnectionDropped() throws Exception {
+        PravegaNodeUri endpoint = new PravegaNodeUri("localhost", SERVICE_PORT);
+        MockConnectionFactoryImpl connectionFactory = new MockConnectionFactoryImpl();
+        ClientConnection c = mock(ClientConnection.class);
+        connectionFactory.provideConnection(endpoint, c);
+        SegmentReadBatcher batcher = new SegmentReadBatcher(connectionFactory);
+        batcher.register();
+
+        ReadSegment read1 = new ReadSegment("scope/stream/1", 0, 100, "");
+        ReadSegment read2 = new ReadSegment("scope/stream/2", 0, 100, "");
+        CompletableFuture<SegmentRead> future1 = batcher.read(endpoint, read1);
+        CompletableFuture<SegmentRead> future2 = batcher.read(endpoint, read2);
+        verify(c, timeout(5000)).sendAsync(read2);
+        connectionFactory.getProcessor(endpoint).connectionDropped();
+        assertThrows(ConnectionFailedException.class, () -> Futures.getThrowingException(future1));
+        assertThrows(ConnectionFailedException.class, () -> Futures.getThrowingException(future2));
+        verify(c).close();
+
+        // A new connection is established for subsequent reads.
+        CompletableFuture<SegmentRead> future3 = batcher.read(endpoint, read1);
+        verify(c, timeout(5000).times(2)).sendAsync(read1);
+        connectionFactory.getProcessor(endpoint).segmentIsSealed(new WireCommands.SegmentIsSealed(read1.getOffset(), read1.getSegment()));
+        assertTrue(future3.join().isEndOfSegment());
+        batcher.unregister();
+    }
+}
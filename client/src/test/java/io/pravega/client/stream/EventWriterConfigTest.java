@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream;
+
+import io.pravega.client.netty.impl.AppendBatchingPolicy;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventWriterConfigTest {
+
+    @Test
+    public void testValidBatchingConfig() {
+        EventWriterConfig cfg = EventWriterConfig.builder()
+                .maxBatchSizeBytes(AppendBatchingPolicy.MAX_BATCH_SIZE_LIMIT)
+                .maxBatchLingerMillis(1)
+                .maxBatchEvents(1)
+                .build();
+
+        assertEquals(AppendBatchingPolicy.MAX_BATCH_SIZE_LIMIT, cfg.getMaxBatchSizeBytes());
+        assertEquals(1, cfg.getMaxBatchLingerMillis());
+        assertEquals(1, cfg.getMaxBatchEvents());
+        assertEquals(AppendBatchingPolicy.DEFAULT.getMaxBatchSizeBytes(), EventWriterConfig.builder().build().getMaxBatchSizeBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchSizeTooLarge() {
+        EventWriterConfig.builder().maxBatchSizeBytes(AppendBatchingPolicy.MAX_BATCH_SIZE_LIMIT + 1).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBatchSize() {
+        EventWriterConfig.builder().maxBatchSizeBytes(-1).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchLinger() {
+        EventWriterConfig.builder().maxBatchLingerMillis(0).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchEvents() {
+        EventWriterConfig.builder().maxBatchEvents(0).build();
+    }
+}
@@ -27,11 +27,14 @@ import io.pravega.client.stream.ReaderConfig;
 import io.pravega.client.stream.ReinitializationRequiredException;
 import io.pravega.client.stream.TruncatedDataException;
 import io.pravega.client.stream.mock.MockSegmentStreamFactory;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.test.common.AssertExtensions;
 import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import lombok.Cleanup;
@@ -142,6 +145,103 @@ public class EventStreamReaderTest {
         reader.close();
     }
 
+    @Test(timeout = 10000)
+    public void testReadBatch() throws SegmentSealedException, ReinitializationRequiredException {
+        AtomicLong clock = new AtomicLong();
+        MockSegmentStreamFactory segmentStreamFactory = new MockSegmentStreamFactory();
+        Orderer orderer = new Orderer();
+        ReaderGroupStateManager groupState = Mockito.mock(ReaderGroupStateManager.class);
+        @Cleanup
+        EventStreamReaderImpl<byte[]> reader = new EventStreamReaderImpl<>(segmentStreamFactory, segmentStreamFactory,
+                                                                           new ByteArraySerializer(), groupState,
+                                                                           orderer, clock::get,
+                                                                           ReaderConfig.builder().build());
+        Segment segment = Segment.fromScopedName("Foo/Bar/0");
+        Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L)).thenReturn(ImmutableMap.of(segment, 0L)).thenReturn(Collections.emptyMap());
+        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment, segmentSealedCallback, writerConfig, "");
+        ByteBuffer[] buffers = new ByteBuffer[5];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = writeInt(stream, i);
+        }
+
+        List<EventRead<byte[]>> events = reader.readNextEvents(3, 0);
+        assertEquals(3, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(buffers[i], ByteBuffer.wrap(events.get(i).getEvent()));
+            long expectedOffset = (i + 1) * (4 + WireCommands.TYPE_PLUS_LENGTH_SIZE);
+            assertEquals(expectedOffset, (long) events.get(i).getPosition().asImpl().getOffsetForOwnedSegment(segment));
+        }
+
+        // The end of the segment is handled within the batch.
+        events = reader.readNextEvents(10, 0);
+        assertEquals(2, events.size());
+        assertEquals(buffers[3], ByteBuffer.wrap(events.get(0).getEvent()));
+        assertEquals(buffers[4], ByteBuffer.wrap(events.get(1).getEvent()));
+        assertEquals(0, reader.getReaders().size());
+        Mockito.verify(groupState).handleEndOfSegment(segment, true);
+
+        events = reader.readNextEvents(10, 0);
+        assertEquals(1, events.size());
+        assertNull(events.get(0).getEvent());
+    }
+
+    @Test(timeout = 10000)
+    public void testReadAsync() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        MockSegmentStreamFactory segmentStreamFactory = new MockSegmentStreamFactory();
+        Orderer orderer = new Orderer();
+        ReaderGroupStateManager groupState = Mockito.mock(ReaderGroupStateManager.class);
+        @Cleanup("shutdown")
+        ScheduledExecutorService executor = ExecutorServiceHelpers.newScheduledThreadPool(1, "testReadAsync");
+        @Cleanup
+        EventStreamReaderImpl<byte[]> reader = new EventStreamReaderImpl<>(segmentStreamFactory, segmentStreamFactory,
+                                                                           new ByteArraySerializer(), groupState,
+                                                                           orderer, clock::get,
+                                                                           ReaderConfig.builder().build(), executor);
+        Segment segment = Segment.fromScopedName("Foo/Bar/0");
+        Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L)).thenReturn(ImmutableMap.of(segment, 0L)).thenReturn(Collections.emptyMap());
+        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment, segmentSealedCallback, writerConfig, "");
+        ByteBuffer buffer1 = writeInt(stream, 1);
+        ByteBuffer buffer2 = writeInt(stream, 2);
+        assertEquals(buffer1, ByteBuffer.wrap(reader.readNextEventAsync(0).join().getEvent()));
+        assertEquals(buffer2, ByteBuffer.wrap(reader.readNextEventAsync(0).join().getEvent()));
+        assertNull(reader.readNextEventAsync(0).join().getEvent());
+        assertNull(reader.readNextEventAsync(50).join().getEvent());
+    }
+
+    @Test(timeout = 10000)
+    public void testReadAsyncWaitsForData() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        MockSegmentStreamFactory segmentStreamFactory = new MockSegmentStreamFactory();
+        ReaderGroupStateManager groupState = Mockito.mock(ReaderGroupStateManager.class);
+        Segment segment = Segment.fromScopedName("Foo/Bar/0");
+        Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L)).thenReturn(ImmutableMap.of(segment, 0L)).thenReturn(Collections.emptyMap());
+        ByteBuffer buffer = ByteBuffer.allocate(4).putInt(1);
+        buffer.flip();
+        CompletableFuture<Void> dataAvailable = new CompletableFuture<>();
+        SegmentInputStream segmentInputStream = Mockito.mock(SegmentInputStream.class);
+        Mockito.when(segmentInputStream.getSegmentId()).thenReturn(segment);
+        Mockito.when(segmentInputStream.fillBufferAsync()).thenReturn(dataAvailable);
+        Mockito.when(segmentInputStream.read(anyLong())).thenReturn(buffer);
+        SegmentInputStreamFactory inputStreamFactory = Mockito.mock(SegmentInputStreamFactory.class);
+        Mockito.when(inputStreamFactory.createInputStreamForSegment(any(Segment.class), anyLong())).thenReturn(segmentInputStream);
+        @Cleanup("shutdown")
+        ScheduledExecutorService executor = ExecutorServiceHelpers.newScheduledThreadPool(1, "testReadAsyncWaitsForData");
+        @Cleanup
+        EventStreamReaderImpl<byte[]> reader = new EventStreamReaderImpl<>(inputStreamFactory, segmentStreamFactory,
+                                                                           new ByteArraySerializer(), groupState,
+                                                                           new Orderer(), clock::get,
+                                                                           ReaderConfig.builder().build(), executor);
+
+        // Nothing is read (and no thread is waiting) until data arrives.
+        CompletableFuture<EventRead<byte[]>> read = reader.readNextEventAsync(Long.MAX_VALUE);
+        Mockito.verify(segmentInputStream, Mockito.timeout(5000).atLeast(2)).fillBufferAsync();
+        assertFalse(read.isDone());
+        Mockito.verify(segmentInputStream, Mockito.never()).read(anyLong());
+        dataAvailable.complete(null);
+        assertEquals(buffer, ByteBuffer.wrap(read.join().getEvent()));
+    }
+
     @Test(timeout = 10000)
     public void testReleaseSegment() throws SegmentSealedException, ReinitializationRequiredException {
         AtomicLong clock = new AtomicLong();
@@ -15,6 +15,7 @@ import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.segment.impl.SegmentInputStream;
 import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.Data;
 import org.junit.Test;
 
@@ -50,6 +51,11 @@ public class OrdererTest {
         public boolean canReadWithoutBlocking() {
             return canReadWithoutBlocking;
         }
+
+        @Override
+        public CompletableFuture<Void> fillBufferAsync() {
+            return canReadWithoutBlocking ? CompletableFuture.completedFuture(null) : new CompletableFuture<>();
+        }
     }
 
     @Test
@@ -100,6 +106,19 @@ public class OrdererTest {
         assertEquals(7, chosen.getNumber());
     }
 
+    @Test
+    public void testFindsReady() {
+        List<StubSegmentInputStream> streams = createInputStreams(13);
+        for (StubSegmentInputStream stream : streams) {
+            stream.setCanReadWithoutBlocking(false);
+        }
+        Orderer o = new Orderer();
+        assertNull(o.nextReadySegment(streams));
+        streams.get(7).setCanReadWithoutBlocking(true);
+        StubSegmentInputStream chosen = o.nextReadySegment(streams);
+        assertEquals(7, chosen.getNumber());
+    }
+
     @Test
     public void testIntWrap() {
         List<StubSegmentInputStream> streams = createInputStreams(10);
@@ -26,6 +26,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.concurrent.GuardedBy;
@@ -138,6 +139,11 @@ public class MockSegmentIoStreams implements SegmentOutputStream, SegmentInputSt
         return true;
     }
 
+    @Override
+    public CompletableFuture<Void> fillBufferAsync() {
+        return CompletableFuture.completedFuture(null);
+    }
+
     @Override
     public Segment getSegmentId() {
         return segment;
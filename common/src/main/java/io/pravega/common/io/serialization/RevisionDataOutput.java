@@ -9,6 +9,7 @@
  */
 package io.pravega.common.io.serialization;
 
+import io.netty.buffer.ByteBuf;
 import io.pravega.common.util.ByteArraySegment;
 import java.io.DataOutput;
 import java.io.IOException;
@@ -239,6 +240,16 @@ public interface RevisionDataOutput extends DataOutput {
      */
     void writeArray(byte[] array, int offset, int length) throws IOException;
 
+    /**
+     * Serializes the readable bytes of the given ByteBuf, using the same format as writeArray(), so the result can be
+     * deserialized using RevisionDataInput.readArray(). The ByteBuf's reader index is not changed.
+     *
+     * @param buffer The ByteBuf to serialize. Can be null (in which case an Empty array will be deserialized
+     *               by RevisionDataInput.readArray()).
+     * @throws IOException If an IO Exception occurred.
+     */
+    void writeBuffer(ByteBuf buffer) throws IOException;
+
     /**
      * Calculates the number of bytes required to serialize a Map.
      *
@@ -9,6 +9,7 @@
  */
 package io.pravega.common.io.serialization;
 
+import io.netty.buffer.ByteBuf;
 import io.pravega.common.io.SerializationException;
 import io.pravega.common.util.BitConverter;
 import java.io.DataOutputStream;
@@ -234,6 +235,18 @@ abstract class RevisionDataOutputStream extends DataOutputStream implements Revi
         write(array, offset, length);
     }
 
+    @Override
+    public void writeBuffer(ByteBuf buffer) throws IOException {
+        if (buffer == null) {
+            writeCompactInt(0);
+            return;
+        }
+
+        int length = buffer.readableBytes();
+        writeCompactInt(length);
+        buffer.getBytes(buffer.readerIndex(), this, length);
+    }
+
     @Override
     public int getMapLength(int elementCount, int keyLength, int valueLength) {
         return getCompactIntLength(elementCount) + elementCount * (keyLength + valueLength);
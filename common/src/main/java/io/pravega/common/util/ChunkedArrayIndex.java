@@ -0,0 +1,436 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.common.util;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * SortedIndex backed by a list of sorted array Chunks.
+ * <p>
+ * Each Chunk holds up to a fixed number of items, sorted by key, in a pair of parallel arrays (primitive keys and item
+ * references). The Chunks themselves are ordered by their first key, which is also kept in a primitive array, so every
+ * lookup consists of two binary searches over contiguous memory instead of chasing one pointer per tree level. Compared
+ * to the tree-based implementations, this index requires no per-item allocation and has much better memory locality.
+ * <p>
+ * This index is optimized for items that are mostly added in increasing key order and removed from either end (which
+ * only require adjusting the bounds of the first or last Chunk), but it supports arbitrary insertions and removals as well:
+ * a full Chunk is split in two, and a Chunk that becomes small enough is merged with its successor.
+ * <p>
+ * Note: This class is not thread-safe and requires external synchronization when in a multi-threaded environment.
+ *
+ * @param <V> The type of the IndexEntries.
+ */
+@NotThreadSafe
+public class ChunkedArrayIndex<V extends SortedIndex.IndexEntry> implements SortedIndex<V> {
+    //region Members
+
+    private static final int DEFAULT_CHUNK_SIZE = 256;
+    private static final int INITIAL_CHUNK_COUNT = 4;
+    private final int chunkSize;
+    private Chunk[] chunks;
+    private long[] chunkFirstKeys;
+    private int chunkCount;
+    private int size;
+    private int modCount;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the ChunkedArrayIndex class with a default Chunk size.
+     */
+    public ChunkedArrayIndex() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a new instance of the ChunkedArrayIndex class.
+     *
+     * @param chunkSize The maximum number of items in a Chunk. Must be at least 2.
+     */
+    public ChunkedArrayIndex(int chunkSize) {
+        Preconditions.checkArgument(chunkSize >= 2, "chunkSize must be at least 2.");
+        this.chunkSize = chunkSize;
+        clear();
+    }
+
+    //endregion
+
+    //region SortedIndex Implementation
+
+    @Override
+    public void clear() {
+        this.chunks = new Chunk[INITIAL_CHUNK_COUNT];
+        this.chunkFirstKeys = new long[INITIAL_CHUNK_COUNT];
+        this.chunkCount = 0;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public V put(V item) {
+        Preconditions.checkNotNull(item, "item");
+        long key = item.key();
+        this.modCount++;
+        if (this.chunkCount == 0) {
+            insertChunk(0, new Chunk(this.chunkSize)).insert(0, key, item);
+            this.chunkFirstKeys[0] = key;
+            this.size++;
+            return null;
+        }
+
+        // Locate the Chunk that should contain this key. If the key is smaller than anything we have, it goes into the
+        // first Chunk.
+        int chunkIndex = Math.max(0, findChunk(key));
+        Chunk chunk = this.chunks[chunkIndex];
+        int pos = chunk.search(key);
+        if (pos >= 0) {
+            // Key already exists; replace the item.
+            V oldItem = chunk.get(pos);
+            chunk.values[pos] = item;
+            return oldItem;
+        }
+
+        pos = -pos - 1;
+        if (chunk.size() == this.chunkSize) {
+            if (pos == chunk.end && chunkIndex == this.chunkCount - 1) {
+                // Appending past the end of the index; start a new Chunk instead of splitting the last one so that
+                // sequential insertions result in full Chunks.
+                chunkIndex++;
+                chunk = insertChunk(chunkIndex, new Chunk(this.chunkSize));
+                pos = chunk.start;
+            } else {
+                // Split the Chunk in two and figure out which half the key belongs to.
+                Chunk newChunk = chunk.split();
+                insertChunk(chunkIndex + 1, newChunk);
+                this.chunkFirstKeys[chunkIndex + 1] = newChunk.firstKey();
+                if (pos >= chunk.end) {
+                    pos = pos - chunk.end + newChunk.start;
+                    chunkIndex++;
+                    chunk = newChunk;
+                }
+            }
+        }
+
+        chunk.insert(pos, key, item);
+        this.chunkFirstKeys[chunkIndex] = chunk.firstKey();
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public V remove(long key) {
+        int chunkIndex = findChunk(key);
+        if (chunkIndex < 0) {
+            return null;
+        }
+
+        Chunk chunk = this.chunks[chunkIndex];
+        int pos = chunk.search(key);
+        if (pos < 0) {
+            return null;
+        }
+
+        V result = chunk.get(pos);
+        chunk.remove(pos);
+        this.size--;
+        this.modCount++;
+        if (chunk.size() == 0) {
+            removeChunk(chunkIndex);
+        } else {
+            this.chunkFirstKeys[chunkIndex] = chunk.firstKey();
+            if (chunkIndex < this.chunkCount - 1) {
+                // Keep the Chunks from becoming too sparse after many removals.
+                Chunk next = this.chunks[chunkIndex + 1];
+                if (chunk.size() + next.size() <= this.chunkSize / 2) {
+                    chunk.append(next);
+                    removeChunk(chunkIndex + 1);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public V get(long key) {
+        int chunkIndex = findChunk(key);
+        if (chunkIndex < 0) {
+            return null;
+        }
+
+        Chunk chunk = this.chunks[chunkIndex];
+        int pos = chunk.search(key);
+        return pos >= 0 ? chunk.get(pos) : null;
+    }
+
+    @Override
+    public V getCeiling(long key) {
+        int chunkIndex = findChunk(key);
+        if (chunkIndex < 0) {
+            // Key is smaller than everything in the index (or the index is empty).
+            return getFirst();
+        }
+
+        Chunk chunk = this.chunks[chunkIndex];
+        int pos = chunk.search(key);
+        if (pos >= 0) {
+            return chunk.get(pos);
+        }
+
+        pos = -pos - 1;
+        if (pos < chunk.end) {
+            return chunk.get(pos);
+        } else if (chunkIndex < this.chunkCount - 1) {
+            // Everything in this Chunk is smaller than the key; the result is the first item in the next Chunk.
+            Chunk next = this.chunks[chunkIndex + 1];
+            return next.get(next.start);
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public V getFloor(long key) {
+        int chunkIndex = findChunk(key);
+        if (chunkIndex < 0) {
+            return null;
+        }
+
+        // The first key in this Chunk is smaller than or equal to the sought key, so there is always a result here.
+        Chunk chunk = this.chunks[chunkIndex];
+        int pos = chunk.search(key);
+        return pos >= 0 ? chunk.get(pos) : chunk.get(-pos - 2);
+    }
+
+    @Override
+    public V getFirst() {
+        if (this.chunkCount == 0) {
+            return null;
+        }
+
+        Chunk chunk = this.chunks[0];
+        return chunk.get(chunk.start);
+    }
+
+    @Override
+    public V getLast() {
+        if (this.chunkCount == 0) {
+            return null;
+        }
+
+        Chunk chunk = this.chunks[this.chunkCount - 1];
+        return chunk.get(chunk.end - 1);
+    }
+
+    @Override
+    public void forEach(Consumer<V> consumer) {
+        Preconditions.checkNotNull(consumer, "consumer");
+        final int originalModCount = this.modCount;
+        for (int chunkIndex = 0; chunkIndex < this.chunkCount; chunkIndex++) {
+            Chunk chunk = this.chunks[chunkIndex];
+            for (int pos = chunk.start; pos < chunk.end; pos++) {
+                if (originalModCount != this.modCount) {
+                    throw new ConcurrentModificationException("ChunkedArrayIndex has been modified; forEach cannot continue.");
+                }
+
+                consumer.accept(chunk.get(pos));
+            }
+        }
+    }
+
+    //endregion
+
+    //region Helpers
+
+    /**
+     * Locates the last Chunk whose first key is smaller than or equal to the given key.
+     *
+     * @param key The key to search for.
+     * @return The index of the Chunk, or -1 if the key is smaller than the first key in the index (or the index is empty).
+     */
+    private int findChunk(long key) {
+        int pos = Arrays.binarySearch(this.chunkFirstKeys, 0, this.chunkCount, key);
+        return pos >= 0 ? pos : -pos - 2;
+    }
+
+    /**
+     * Inserts the given Chunk at the given position in the Chunk list. The caller is responsible for updating the first
+     * key for that position.
+     */
+    private Chunk insertChunk(int chunkIndex, Chunk chunk) {
+        if (this.chunkCount == this.chunks.length) {
+            int newLength = this.chunks.length * 2;
+            this.chunks = Arrays.copyOf(this.chunks, newLength);
+            this.chunkFirstKeys = Arrays.copyOf(this.chunkFirstKeys, newLength);
+        }
+
+        int toMove = this.chunkCount - chunkIndex;
+        System.arraycopy(this.chunks, chunkIndex, this.chunks, chunkIndex + 1, toMove);
+        System.arraycopy(this.chunkFirstKeys, chunkIndex, this.chunkFirstKeys, chunkIndex + 1, toMove);
+        this.chunks[chunkIndex] = chunk;
+        this.chunkCount++;
+        return chunk;
+    }
+
+    /**
+     * Removes the Chunk at the given position from the Chunk list.
+     */
+    private void removeChunk(int chunkIndex) {
+        int toMove = this.chunkCount - chunkIndex - 1;
+        System.arraycopy(this.chunks, chunkIndex + 1, this.chunks, chunkIndex, toMove);
+        System.arraycopy(this.chunkFirstKeys, chunkIndex + 1, this.chunkFirstKeys, chunkIndex, toMove);
+        this.chunkCount--;
+        this.chunks[this.chunkCount] = null;
+    }
+
+    //endregion
+
+    //region Chunk
+
+    /**
+     * A sorted array of items. The items occupy positions [start, end) in the arrays, which allows removing items from
+     * either end (and inserting items near either end) without moving the others.
+     */
+    private static final class Chunk {
+        private final long[] keys;
+        private final Object[] values;
+        private int start;
+        private int end;
+
+        Chunk(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+
+        int size() {
+            return this.end - this.start;
+        }
+
+        long firstKey() {
+            return this.keys[this.start];
+        }
+
+        @SuppressWarnings("unchecked")
+        <V> V get(int pos) {
+            return (V) this.values[pos];
+        }
+
+        /**
+         * Searches for the given key. Same semantics as Arrays.binarySearch().
+         */
+        int search(long key) {
+            return Arrays.binarySearch(this.keys, this.start, this.end, key);
+        }
+
+        /**
+         * Inserts an item so that it ends up right before the item currently at the given position (or at the end, if
+         * pos == end). The Chunk must not be full.
+         */
+        void insert(int pos, long key, Object value) {
+            assert size() < this.keys.length : "Chunk is full";
+            boolean canShiftRight = this.end < this.keys.length;
+            boolean canShiftLeft = this.start > 0;
+            if (canShiftLeft && (!canShiftRight || pos - this.start < this.end - pos)) {
+                // Move the items before pos one position to the left.
+                System.arraycopy(this.keys, this.start, this.keys, this.start - 1, pos - this.start);
+                System.arraycopy(this.values, this.start, this.values, this.start - 1, pos - this.start);
+                this.start--;
+                pos--;
+            } else {
+                // Move the items at and after pos one position to the right.
+                System.arraycopy(this.keys, pos, this.keys, pos + 1, this.end - pos);
+                System.arraycopy(this.values, pos, this.values, pos + 1, this.end - pos);
+                this.end++;
+            }
+
+            this.keys[pos] = key;
+            this.values[pos] = value;
+        }
+
+        /**
+         * Removes the item at the given position.
+         */
+        void remove(int pos) {
+            if (pos - this.start < this.end - pos - 1) {
+                // Closer to the start: move the items before pos one position to the right.
+                System.arraycopy(this.keys, this.start, this.keys, this.start + 1, pos - this.start);
+                System.arraycopy(this.values, this.start, this.values, this.start + 1, pos - this.start);
+                this.values[this.start] = null;
+                this.start++;
+            } else {
+                // Closer to the end: move the items after pos one position to the left.
+                System.arraycopy(this.keys, pos + 1, this.keys, pos, this.end - pos - 1);
+                System.arraycopy(this.values, pos + 1, this.values, pos, this.end - pos - 1);
+                this.end--;
+                this.values[this.end] = null;
+            }
+
+            if (this.start == this.end) {
+                this.start = 0;
+                this.end = 0;
+            }
+        }
+
+        /**
+         * Moves the upper half of the items in this Chunk into a new Chunk.
+         */
+        Chunk split() {
+            Chunk result = new Chunk(this.keys.length);
+            int mid = this.start + size() / 2;
+            int count = this.end - mid;
+            System.arraycopy(this.keys, mid, result.keys, 0, count);
+            System.arraycopy(this.values, mid, result.values, 0, count);
+            Arrays.fill(this.values, mid, this.end, null);
+            result.end = count;
+            this.end = mid;
+            return result;
+        }
+
+        /**
+         * Appends all the items from the given Chunk (whose keys must all be larger than the ones in this Chunk) to this
+         * Chunk. The combined size must not exceed the capacity.
+         */
+        void append(Chunk other) {
+            assert size() + other.size() <= this.keys.length : "combined Chunks are too large";
+            compact();
+            int count = other.size();
+            System.arraycopy(other.keys, other.start, this.keys, this.end, count);
+            System.arraycopy(other.values, other.start, this.values, this.end, count);
+            this.end += count;
+        }
+
+        /**
+         * Moves all the items to the beginning of the arrays.
+         */
+        private void compact() {
+            if (this.start > 0) {
+                int count = size();
+                System.arraycopy(this.keys, this.start, this.keys, 0, count);
+                System.arraycopy(this.values, this.start, this.values, 0, count);
+                Arrays.fill(this.values, Math.max(count, this.start), this.end, null);
+                this.start = 0;
+                this.end = count;
+            }
+        }
+    }
+
+    //endregion
+}
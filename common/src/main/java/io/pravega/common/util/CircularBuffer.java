@@ -55,6 +55,25 @@ public class CircularBuffer {
         return toFill.position() - originalPos;
     }
 
+    /**
+     * Copies into the given ByteBuffer, without consuming the data (a subsequent read will return the same data).
+     *
+     * @param toFill The ByteBuffer to fill into.
+     * @return the number of bytes put into toFill
+     */
+    public int peek(ByteBuffer toFill) {
+        int readPosition = readBuffer.position();
+        int readLimit = readBuffer.limit();
+        int fillPosition = fillBuffer.position();
+        int fillLimit = fillBuffer.limit();
+        try {
+            return read(toFill);
+        } finally {
+            readBuffer.limit(readLimit).position(readPosition);
+            fillBuffer.limit(fillLimit).position(fillPosition);
+        }
+    }
+
     private void readHelper(ByteBuffer toFill) {
         int readLimit = readBuffer.limit();
         int toRead = Math.min(toFill.remaining(), readBuffer.remaining());
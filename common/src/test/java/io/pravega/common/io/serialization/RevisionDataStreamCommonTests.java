@@ -10,6 +10,8 @@
 package io.pravega.common.io.serialization;
 
 import com.google.common.collect.ImmutableMap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.pravega.common.io.EnhancedByteArrayOutputStream;
 import io.pravega.test.common.AssertExtensions;
 import java.io.ByteArrayOutputStream;
@@ -261,6 +263,38 @@ public class RevisionDataStreamCommonTests {
         }
     }
 
+    /**
+     * Tests the ability to encode a ByteBuf (heap, direct and composite) and decode it as a byte array.
+     */
+    @Test
+    public void testBuffers() throws Exception {
+        byte[] numbers = new byte[Byte.MAX_VALUE];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = (byte) (i % Byte.MAX_VALUE);
+        }
+
+        ByteBuf direct = Unpooled.directBuffer(numbers.length).writeBytes(numbers);
+        direct.readerIndex(10);
+        val toTest = Arrays.<ByteBuf>asList(
+                null,
+                Unpooled.EMPTY_BUFFER,
+                Unpooled.wrappedBuffer(numbers),
+                direct,
+                Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(numbers, 0, 10), Unpooled.copiedBuffer(numbers)));
+        for (ByteBuf value : toTest) {
+            int readerIndex = value == null ? 0 : value.readerIndex();
+            testEncodeDecode(
+                    RevisionDataOutput::writeBuffer,
+                    is -> Unpooled.wrappedBuffer(is.readArray()),
+                    (s, v) -> s.getCollectionLength(v == null ? 0 : v.readableBytes(), 1),
+                    value,
+                    (s, t) -> (s == null ? Unpooled.EMPTY_BUFFER : s).equals(t));
+            if (value != null) {
+                Assert.assertEquals("Not expecting the reader index to change.", readerIndex, value.readerIndex());
+            }
+        }
+    }
+
     /**
      * Tests the ability to encode and decode a Collection.
      */
@@ -100,6 +100,30 @@ public class CircularBufferTests {
         }
     }
 
+    @Test
+    public void testPeek() {
+        int capacity = 9;
+        CircularBuffer buffer = new CircularBuffer(capacity);
+        ByteBuffer in = ByteBuffer.allocate(8);
+        ByteBuffer out = ByteBuffer.allocate(8);
+        for (int i = 0; i < capacity * 2; i++) {
+            in.putLong(i);
+            in.rewind();
+            assertEquals(8, buffer.fill(in));
+            in.clear();
+            assertEquals(8, buffer.peek(out));
+            out.rewind();
+            assertEquals(i, out.getLong());
+            out.clear();
+            assertEquals(8, buffer.dataAvailable());
+            assertEquals(capacity - 8, buffer.capacityAvailable());
+            assertEquals(8, buffer.read(out));
+            out.rewind();
+            assertEquals(i, out.getLong());
+            out.clear();
+        }
+    }
+
     @Test
     @Ignore
     public void testLargeReads() {
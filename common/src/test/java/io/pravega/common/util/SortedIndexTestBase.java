@@ -54,6 +54,26 @@ abstract class SortedIndexTestBase {
         }
     }
 
+    /**
+     * Unit tests for the ChunkedArrayIndex class.
+     */
+    public static class ChunkedArrayIndexTests extends SortedIndexTestBase {
+        @Override
+        protected SortedIndex<TestEntry> createIndex() {
+            return new ChunkedArrayIndex<>();
+        }
+    }
+
+    /**
+     * Unit tests for the ChunkedArrayIndex class, using small Chunks so that splits and merges happen frequently.
+     */
+    public static class ChunkedArrayIndexSmallChunkTests extends SortedIndexTestBase {
+        @Override
+        protected SortedIndex<TestEntry> createIndex() {
+            return new ChunkedArrayIndex<>(8);
+        }
+    }
+
     //endregion
 
     //region Test Definitions
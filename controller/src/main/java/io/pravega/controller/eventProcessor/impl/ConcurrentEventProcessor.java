@@ -22,7 +22,7 @@ import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Comparator;
-import java.util.List;
+import java.util.NavigableSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ScheduledExecutorService;
@@ -32,7 +32,6 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
 
 import static io.pravega.controller.eventProcessor.impl.EventProcessorHelper.indefiniteRetries;
 import static io.pravega.controller.eventProcessor.impl.EventProcessorHelper.withRetries;
@@ -178,12 +177,11 @@ public class ConcurrentEventProcessor<R extends ControllerEvent, H extends Reque
         completed.add(pc);
 
         final PositionCounter smallest = running.isEmpty() ? MAX : running.first();
-        final List<PositionCounter> checkpointCandidates = completed.stream()
-                .filter(x -> positionCounterComparator.compare(x, smallest) < 0).collect(Collectors.toList());
-        if (checkpointCandidates.size() > 0) {
-            final PositionCounter checkpointPosition = checkpointCandidates.get(checkpointCandidates.size() - 1);
-            completed.removeAll(checkpointCandidates);
-            checkpoint.set(checkpointPosition);
+        // A view of the (sorted) completed list, so that this does not need to go over all of it for every request.
+        final NavigableSet<PositionCounter> checkpointCandidates = completed.headSet(smallest, false);
+        if (!checkpointCandidates.isEmpty()) {
+            checkpoint.set(checkpointCandidates.last());
+            checkpointCandidates.clear();
         }
     }
 
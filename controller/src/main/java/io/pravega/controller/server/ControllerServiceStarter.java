@@ -152,6 +152,9 @@ public class ControllerServiceStarter extends AbstractIdleService {
                                                                           "tls://" : "tcp://") + "localhost"))
                                                     .trustStore(serviceConfig.getGRPCServerConfig().get().getTlsTrustStore())
                                                     .validateHostName(false)
+                                                    // Requests to the Segment Stores are multiplexed over a few long-lived
+                                                    // connections to each of them.
+                                                    .retainIdleConnections(true)
                                                     .build();
 
             connectionFactory = new ConnectionFactoryImpl(clientConfig);
@@ -17,6 +17,7 @@ import io.pravega.client.stream.impl.ModelHelper;
 import io.pravega.common.Exceptions;
 import io.pravega.common.auth.AuthenticationException;
 import io.pravega.common.cluster.Host;
+import io.pravega.common.concurrent.Futures;
 import io.pravega.controller.store.host.HostControllerStore;
 import io.pravega.controller.store.stream.tables.TableHelper;
 import io.pravega.controller.stream.api.grpc.v1.Controller;
@@ -24,18 +25,29 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.TxnStatus;
 import io.pravega.shared.protocol.netty.ConnectionFailedException;
 import io.pravega.shared.protocol.netty.FailingReplyProcessor;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import io.pravega.shared.protocol.netty.Reply;
 import io.pravega.shared.protocol.netty.ReplyProcessor;
 import io.pravega.shared.protocol.netty.WireCommand;
 import io.pravega.shared.protocol.netty.WireCommandType;
 import io.pravega.shared.protocol.netty.WireCommands;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static io.pravega.shared.segment.StreamSegmentNameUtils.getSegmentNumber;
 import static io.pravega.shared.segment.StreamSegmentNameUtils.getQualifiedStreamSegmentName;
@@ -44,7 +56,13 @@ import static io.pravega.shared.segment.StreamSegmentNameUtils.getTransactionNam
 @Slf4j
 public class SegmentHelper {
 
-    private final Supplier<Long> idGenerator = new AtomicLong(0)::incrementAndGet;
+    /**
+     * Request ids are unique across all instances, as their requests may be multiplexed over the same (pooled)
+     * connections, where replies are matched to requests by request id.
+     */
+    private static final AtomicLong REQUEST_ID_GENERATOR = new AtomicLong(0);
+
+    private final Supplier<Long> idGenerator = REQUEST_ID_GENERATOR::incrementAndGet;
 
     public Controller.NodeUri getSegmentUri(final String scope,
                                             final String stream,
@@ -63,9 +81,20 @@ public class SegmentHelper {
         final CompletableFuture<Boolean> result = new CompletableFuture<>();
         final String qualifiedStreamSegmentName = getQualifiedStreamSegmentName(scope, stream, segmentId);
         final Controller.NodeUri uri = getSegmentUri(scope, stream, segmentId, hostControllerStore);
-        final WireCommandType type = WireCommandType.CREATE_SEGMENT;
 
-        final FailingReplyProcessor replyProcessor = new FailingReplyProcessor() {
+        final FailingReplyProcessor replyProcessor = createSegmentReplyProcessor(qualifiedStreamSegmentName, result);
+
+        Pair<Byte, Integer> extracted = extractFromPolicy(policy);
+
+        WireCommands.CreateSegment request = new WireCommands.CreateSegment(idGenerator.get(),
+                qualifiedStreamSegmentName, extracted.getLeft(), extracted.getRight(), controllerToken);
+        sendRequestAsync(request, qualifiedStreamSegmentName, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        return result;
+    }
+
+    private FailingReplyProcessor createSegmentReplyProcessor(final String qualifiedStreamSegmentName, final CompletableFuture<Boolean> result) {
+        final WireCommandType type = WireCommandType.CREATE_SEGMENT;
+        return new FailingReplyProcessor() {
             @Override
             public void connectionDropped() {
                 log.warn("CreateSegment {} Connection dropped", qualifiedStreamSegmentName);
@@ -104,13 +133,6 @@ public class SegmentHelper {
                                 type, WireCommandFailedException.Reason.AuthFailed));
             }
         };
-
-        Pair<Byte, Integer> extracted = extractFromPolicy(policy);
-
-        WireCommands.CreateSegment request = new WireCommands.CreateSegment(idGenerator.get(),
-                qualifiedStreamSegmentName, extracted.getLeft(), extracted.getRight(), controllerToken);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
-        return result;
     }
 
     public CompletableFuture<Boolean> truncateSegment(final String scope,
@@ -167,7 +189,7 @@ public class SegmentHelper {
 
         WireCommands.TruncateSegment request = new WireCommands.TruncateSegment(idGenerator.get(),
                 qualifiedName, offset, delegationToken);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(request, qualifiedName, replyProcessor, result, clientCF, ModelHelper.encode(uri));
         return result;
     }
 
@@ -179,9 +201,18 @@ public class SegmentHelper {
         final CompletableFuture<Boolean> result = new CompletableFuture<>();
         final Controller.NodeUri uri = getSegmentUri(scope, stream, segmentId, hostControllerStore);
         final String qualifiedName = getQualifiedStreamSegmentName(scope, stream, segmentId);
-        final WireCommandType type = WireCommandType.DELETE_SEGMENT;
 
-        final FailingReplyProcessor replyProcessor = new FailingReplyProcessor() {
+        final FailingReplyProcessor replyProcessor = deleteSegmentReplyProcessor(qualifiedName, result);
+
+        WireCommands.DeleteSegment request = new WireCommands.DeleteSegment(idGenerator.get(),
+                qualifiedName, delegationToken);
+        sendRequestAsync(request, qualifiedName, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        return result;
+    }
+
+    private FailingReplyProcessor deleteSegmentReplyProcessor(final String qualifiedName, final CompletableFuture<Boolean> result) {
+        final WireCommandType type = WireCommandType.DELETE_SEGMENT;
+        return new FailingReplyProcessor() {
 
             @Override
             public void connectionDropped() {
@@ -221,11 +252,6 @@ public class SegmentHelper {
                                 type, WireCommandFailedException.Reason.AuthFailed));
             }
         };
-
-        WireCommands.DeleteSegment request = new WireCommands.DeleteSegment(idGenerator.get(),
-                qualifiedName, delegationToken);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
-        return result;
     }
 
     /**
@@ -254,8 +280,17 @@ public class SegmentHelper {
                                                    final ConnectionFactory clientCF,
                                                    final String delegationToken) {
         final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        final FailingReplyProcessor replyProcessor = sealSegmentReplyProcessor(qualifiedName, result);
+
+        WireCommands.SealSegment request = new WireCommands.SealSegment(idGenerator.get(),
+                qualifiedName, delegationToken);
+        sendRequestAsync(request, qualifiedName, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        return result;
+    }
+
+    private FailingReplyProcessor sealSegmentReplyProcessor(final String qualifiedName, final CompletableFuture<Boolean> result) {
         final WireCommandType type = WireCommandType.SEAL_SEGMENT;
-        final FailingReplyProcessor replyProcessor = new FailingReplyProcessor() {
+        return new FailingReplyProcessor() {
             @Override
             public void connectionDropped() {
                 log.warn("sealSegment {} connectionDropped", qualifiedName);
@@ -295,11 +330,75 @@ public class SegmentHelper {
                                 type, WireCommandFailedException.Reason.AuthFailed));
             }
         };
+    }
 
-        WireCommands.SealSegment request = new WireCommands.SealSegment(idGenerator.get(),
-                qualifiedName, delegationToken);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
-        return result;
+    /**
+     * Creates the given Segments, which is equivalent to (but cheaper than) invoking {@link #createSegment} for each of
+     * them: the Segments owned by the same Segment Store are created using a single CreateSegments request.
+     *
+     * @param scope               stream scope
+     * @param stream              stream name
+     * @param segmentIds          ids of the segments to be created
+     * @param policy              scaling policy of the stream
+     * @param hostControllerStore host controller store
+     * @param clientCF            connection factory
+     * @param controllerToken     the token to be presented to segmentstore.
+     * @return A CompletableFuture that will be completed once all the Segments have been created, or failed if any of
+     * them could not be.
+     */
+    public CompletableFuture<Boolean> createSegments(final String scope,
+                                                     final String stream,
+                                                     final Collection<Long> segmentIds,
+                                                     final ScalingPolicy policy,
+                                                     final HostControllerStore hostControllerStore,
+                                                     final ConnectionFactory clientCF, String controllerToken) {
+        final Pair<Byte, Integer> extracted = extractFromPolicy(policy);
+        return sendBatchesAsync(scope, stream, segmentIds, hostControllerStore, clientCF,
+                (requestId, qualifiedName) -> new WireCommands.CreateSegment(requestId, qualifiedName, extracted.getLeft(),
+                        extracted.getRight(), controllerToken),
+                WireCommands.CreateSegments::new, this::createSegmentReplyProcessor);
+    }
+
+    /**
+     * Seals the given Segments. See {@link #createSegments}.
+     *
+     * @param scope               stream scope
+     * @param stream              stream name
+     * @param segmentIds          ids of the segments to be sealed
+     * @param hostControllerStore host controller store
+     * @param clientCF            connection factory
+     * @param delegationToken     the token to be presented to segmentstore.
+     * @return A CompletableFuture that will be completed once all the Segments have been sealed.
+     */
+    public CompletableFuture<Boolean> sealSegments(final String scope,
+                                                   final String stream,
+                                                   final Collection<Long> segmentIds,
+                                                   final HostControllerStore hostControllerStore,
+                                                   final ConnectionFactory clientCF, String delegationToken) {
+        return sendBatchesAsync(scope, stream, segmentIds, hostControllerStore, clientCF,
+                (requestId, qualifiedName) -> new WireCommands.SealSegment(requestId, qualifiedName, delegationToken),
+                WireCommands.SealSegments::new, this::sealSegmentReplyProcessor);
+    }
+
+    /**
+     * Deletes the given Segments. See {@link #createSegments}.
+     *
+     * @param scope               stream scope
+     * @param stream              stream name
+     * @param segmentIds          ids of the segments to be deleted
+     * @param hostControllerStore host controller store
+     * @param clientCF            connection factory
+     * @param delegationToken     the token to be presented to segmentstore.
+     * @return A CompletableFuture that will be completed once all the Segments have been deleted.
+     */
+    public CompletableFuture<Boolean> deleteSegments(final String scope,
+                                                     final String stream,
+                                                     final Collection<Long> segmentIds,
+                                                     final HostControllerStore hostControllerStore,
+                                                     final ConnectionFactory clientCF, String delegationToken) {
+        return sendBatchesAsync(scope, stream, segmentIds, hostControllerStore, clientCF,
+                (requestId, qualifiedName) -> new WireCommands.DeleteSegment(requestId, qualifiedName, delegationToken),
+                WireCommands.DeleteSegments::new, this::deleteSegmentReplyProcessor);
     }
 
     public CompletableFuture<UUID> createTransaction(final String scope,
@@ -356,7 +455,7 @@ public class SegmentHelper {
 
         WireCommands.CreateSegment request = new WireCommands.CreateSegment(idGenerator.get(), transactionName,
                 WireCommands.CreateSegment.NO_SCALE, 0, delegationToken);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(request, transactionName, replyProcessor, result, clientCF, ModelHelper.encode(uri));
         return result;
     }
 
@@ -381,8 +480,97 @@ public class SegmentHelper {
         final String qualifiedNameTarget = getQualifiedStreamSegmentName(scope, stream, targetSegmentId);
         final String transactionName = getTransactionName(scope, stream, sourceSegmentId, txId);
         final CompletableFuture<TxnStatus> result = new CompletableFuture<>();
+        final ReplyProcessor replyProcessor = commitTransactionReplyProcessor(transactionName, result);
+
+        WireCommands.MergeSegments request = new WireCommands.MergeSegments(idGenerator.get(),
+                qualifiedNameTarget, transactionName, delegationToken);
+        sendRequestAsync(request, qualifiedNameTarget, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        return result;
+    }
+
+    /**
+     * Commits the given Transactions on the given Segment, in the order in which they are listed, using a single
+     * MergeSegmentsBatch request. Each Transaction is merged into the Segment only once all the preceding ones have
+     * been, and the Segment Store stops at the first one that fails, so the Transactions that are merged are always a
+     * prefix of the list; as merging a Transaction again is a no-op, the same list can safely be committed again after
+     * a failure. Segment Stores that do not support batches (see {@link WireCommands#BATCH_SEGMENT_RPCS_VERSION}) are
+     * instead sent one MergeSegments request at a time, each once the previous one has succeeded.
+     *
+     * @param scope               stream scope
+     * @param stream              stream name
+     * @param segmentId           id of the segment on which the transactions are to be committed
+     * @param txIds               ids of the transactions, in commit order
+     * @param hostControllerStore host controller store
+     * @param clientCF            connection factory
+     * @param delegationToken     the token to be presented to segmentstore.
+     * @return A CompletableFuture with the status of each of the Transactions, in the same order.
+     */
+    public CompletableFuture<List<TxnStatus>> commitTransactions(final String scope,
+                                                                 final String stream,
+                                                                 final long segmentId,
+                                                                 final List<UUID> txIds,
+                                                                 final HostControllerStore hostControllerStore,
+                                                                 final ConnectionFactory clientCF, String delegationToken) {
+        Preconditions.checkArgument(!txIds.isEmpty(), "txIds must not be empty.");
+        if (txIds.size() == 1) {
+            return commitTransaction(scope, stream, segmentId, segmentId, txIds.get(0), hostControllerStore, clientCF,
+                    delegationToken).thenApply(Collections::singletonList);
+        }
+
+        final Controller.NodeUri uri = getSegmentUri(scope, stream, segmentId, hostControllerStore);
+        final String qualifiedNameTarget = getQualifiedStreamSegmentName(scope, stream, segmentId);
+        final Map<Long, ReplyProcessor> replyProcessors = new HashMap<>();
+        final List<CompletableFuture<TxnStatus>> txnResults = new ArrayList<>(txIds.size());
+        final List<WireCommands.MergeSegments> merges = new ArrayList<>(txIds.size());
+        for (UUID txId : txIds) {
+            final String transactionName = getTransactionName(scope, stream, segmentId, txId);
+            final long requestId = idGenerator.get();
+            final CompletableFuture<TxnStatus> txnResult = new CompletableFuture<>();
+            merges.add(new WireCommands.MergeSegments(requestId, qualifiedNameTarget, transactionName, delegationToken));
+            replyProcessors.put(requestId, commitTransactionReplyProcessor(transactionName, txnResult));
+            txnResults.add(txnResult);
+        }
+
+        final CompletableFuture<List<TxnStatus>> result = Futures.allOfWithResults(txnResults);
+        WireCommands.MergeSegmentsBatch request = new WireCommands.MergeSegmentsBatch(idGenerator.get(), merges);
+        sendAsync(request.getType(), connection -> connection.getServerWireVersion().thenAccept(version -> {
+            if (version >= WireCommands.BATCH_SEGMENT_RPCS_VERSION) {
+                send(connection, request);
+            } else {
+                sendMergesInOrder(connection, merges, txnResults);
+            }
+        }), qualifiedNameTarget, new BatchReplyProcessor(replyProcessors), result, clientCF, ModelHelper.encode(uri));
+        return result;
+    }
+
+    /**
+     * Sends the given MergeSegments requests one at a time, each once the previous one has been replied to. If one of
+     * them fails, the remaining ones are not sent, and their results are failed with the same exception.
+     */
+    private void sendMergesInOrder(final ClientConnection connection, final List<WireCommands.MergeSegments> merges,
+                                   final List<CompletableFuture<TxnStatus>> txnResults) {
+        CompletableFuture<TxnStatus> previous = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < merges.size(); i++) {
+            final WireCommands.MergeSegments merge = merges.get(i);
+            final CompletableFuture<TxnStatus> txnResult = txnResults.get(i);
+            previous = previous.handle((status, e) -> {
+                if (e == null) {
+                    try {
+                        send(connection, merge);
+                    } catch (Exception ex) {
+                        txnResult.completeExceptionally(ex);
+                    }
+                } else {
+                    txnResult.completeExceptionally(Exceptions.unwrap(e));
+                }
+                return txnResult;
+            }).thenCompose(f -> f);
+        }
+    }
+
+    private ReplyProcessor commitTransactionReplyProcessor(final String transactionName, final CompletableFuture<TxnStatus> result) {
         final WireCommandType type = WireCommandType.MERGE_SEGMENTS;
-        final FailingReplyProcessor replyProcessor = new FailingReplyProcessor() {
+        return new FailingReplyProcessor() {
 
             @Override
             public void connectionDropped() {
@@ -429,11 +617,6 @@ public class SegmentHelper {
                 );
             }
         };
-
-        WireCommands.MergeSegments request = new WireCommands.MergeSegments(idGenerator.get(),
-                qualifiedNameTarget, transactionName, delegationToken);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
-        return result;
     }
 
     public CompletableFuture<TxnStatus> abortTransaction(final String scope,
@@ -487,7 +670,7 @@ public class SegmentHelper {
         };
 
         WireCommands.DeleteSegment request = new WireCommands.DeleteSegment(idGenerator.get(), transactionName, delegationToken);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(request, transactionName, replyProcessor, result, clientCF, ModelHelper.encode(uri));
         return result;
     }
 
@@ -537,7 +720,7 @@ public class SegmentHelper {
 
         WireCommands.UpdateSegmentPolicy request = new WireCommands.UpdateSegmentPolicy(idGenerator.get(),
                 qualifiedName, extracted.getLeft(), extracted.getRight(), delegationToken);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(request, qualifiedName, replyProcessor, result, clientCF, ModelHelper.encode(uri));
         return result;
     }
 
@@ -584,36 +767,96 @@ public class SegmentHelper {
 
         WireCommands.GetStreamSegmentInfo request = new WireCommands.GetStreamSegmentInfo(idGenerator.get(),
                 qualifiedName, delegationToken);
-        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        sendRequestAsync(request, qualifiedName, replyProcessor, result, clientCF, ModelHelper.encode(uri));
         return result;
     }
 
-    private <ResultT> void sendRequestAsync(final WireCommand request, final ReplyProcessor replyProcessor,
+    /**
+     * Groups the given Segments by the Segment Store that owns them, and sends one request per Segment Store: either the
+     * request for the only Segment, or a batch of the requests for all of them. Each of the batched requests gets its
+     * own request id, and the replies to it are handed to its own ReplyProcessor, just as if it had been sent on its own.
+     * Segment Stores that do not support batches (see {@link WireCommands#BATCH_SEGMENT_RPCS_VERSION}) are sent each of
+     * the requests on its own instead.
+     */
+    private <T extends WireCommand> CompletableFuture<Boolean> sendBatchesAsync(
+            final String scope, final String stream, final Collection<Long> segmentIds,
+            final HostControllerStore hostControllerStore, final ConnectionFactory clientCF,
+            final BiFunction<Long, String, T> createRequest, final BiFunction<Long, List<T>, WireCommand> createBatch,
+            final BiFunction<String, CompletableFuture<Boolean>, ReplyProcessor> createReplyProcessor) {
+        Map<PravegaNodeUri, List<Long>> segmentsByHost = segmentIds
+                .stream()
+                .collect(Collectors.groupingBy(id -> ModelHelper.encode(getSegmentUri(scope, stream, id, hostControllerStore))));
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(segmentsByHost.size());
+        segmentsByHost.forEach((uri, ids) -> {
+            Map<Long, ReplyProcessor> replyProcessors = new HashMap<>();
+            List<CompletableFuture<Boolean>> segmentResults = new ArrayList<>(ids.size());
+            List<T> requests = new ArrayList<>(ids.size());
+            for (long segmentId : ids) {
+                final String qualifiedName = getQualifiedStreamSegmentName(scope, stream, segmentId);
+                final long requestId = idGenerator.get();
+                final CompletableFuture<Boolean> segmentResult = new CompletableFuture<>();
+                requests.add(createRequest.apply(requestId, qualifiedName));
+                replyProcessors.put(requestId, createReplyProcessor.apply(qualifiedName, segmentResult));
+                segmentResults.add(segmentResult);
+            }
+
+            CompletableFuture<Boolean> result = Futures.allOf(segmentResults).thenApply(v -> true);
+            String segment = getQualifiedStreamSegmentName(scope, stream, ids.get(0));
+            if (requests.size() == 1) {
+                sendRequestAsync(requests.get(0), segment, new BatchReplyProcessor(replyProcessors), result, clientCF, uri);
+            } else {
+                WireCommand batch = createBatch.apply(idGenerator.get(), requests);
+                sendAsync(batch.getType(), connection -> connection.getServerWireVersion().thenAccept(version -> {
+                    if (version >= WireCommands.BATCH_SEGMENT_RPCS_VERSION) {
+                        send(connection, batch);
+                    } else {
+                        requests.forEach(request -> send(connection, request));
+                    }
+                }), segment, new BatchReplyProcessor(replyProcessors), result, clientCF, uri);
+            }
+            results.add(result);
+        });
+
+        return Futures.allOf(results).thenApply(v -> true);
+    }
+
+    private <ResultT> void sendRequestAsync(final WireCommand request, final String segment, final ReplyProcessor replyProcessor,
                                             final CompletableFuture<ResultT> resultFuture,
                                             final ConnectionFactory connectionFactory, final PravegaNodeUri uri) {
-        CompletableFuture<ClientConnection> connectionFuture = connectionFactory.establishConnection(uri, replyProcessor);
-        connectionFuture.whenComplete((connection, e) -> {
+        sendAsync(request.getType(), connection -> {
+            send(connection, request);
+            return CompletableFuture.completedFuture(null);
+        }, segment, replyProcessor, resultFuture, connectionFactory, uri);
+    }
+
+    /**
+     * Establishes a connection for the given Segment and sends requests over it, using the given function (which may
+     * choose what to send based on the connection, such as on the version of the Segment Store).
+     */
+    private <ResultT> void sendAsync(final WireCommandType type,
+                                     final Function<ClientConnection, CompletableFuture<Void>> sender,
+                                     final String segment, final ReplyProcessor replyProcessor,
+                                     final CompletableFuture<ResultT> resultFuture,
+                                     final ConnectionFactory connectionFactory, final PravegaNodeUri uri) {
+        // The connection is (if so configured) multiplexed over one of the connections that are kept open to each Segment
+        // Store, so closing it once the reply arrives does not tear down a TCP connection.
+        CompletableFuture<ClientConnection> connectionFuture = connectionFactory.establishSharedConnection(uri, segment, replyProcessor);
+        connectionFuture.handle((connection, e) -> {
             if (connection == null) {
                 resultFuture.completeExceptionally(new WireCommandFailedException(new ConnectionFailedException(e),
-                        request.getType(),
+                        type,
                         WireCommandFailedException.Reason.ConnectionFailed));
+                return CompletableFuture.<Void>completedFuture(null);
             } else {
-                try {
-                    connection.send(request);
-                } catch (ConnectionFailedException cfe) {
-                    throw new WireCommandFailedException(cfe,
-                            request.getType(),
-                            WireCommandFailedException.Reason.ConnectionFailed);
-                } catch (Exception e2) {
-                    throw new RuntimeException(e2);
-                }
+                return sender.apply(connection);
             }
-        }).exceptionally(e -> {
+        }).thenCompose(f -> f).exceptionally(e -> {
             Throwable cause = Exceptions.unwrap(e);
             if (cause instanceof WireCommandFailedException) {
                 resultFuture.completeExceptionally(cause);
             } else if (cause instanceof ConnectionFailedException) {
-                resultFuture.completeExceptionally(new WireCommandFailedException(cause, request.getType(), WireCommandFailedException.Reason.ConnectionFailed));
+                resultFuture.completeExceptionally(new WireCommandFailedException(cause, type, WireCommandFailedException.Reason.ConnectionFailed));
             } else {
                 resultFuture.completeExceptionally(new RuntimeException(cause));
             }
@@ -624,6 +867,18 @@ public class SegmentHelper {
         });
     }
 
+    private static void send(final ClientConnection connection, final WireCommand request) {
+        try {
+            connection.send(request);
+        } catch (ConnectionFailedException cfe) {
+            throw new WireCommandFailedException(cfe,
+                    request.getType(),
+                    WireCommandFailedException.Reason.ConnectionFailed);
+        } catch (Exception e2) {
+            throw new RuntimeException(e2);
+        }
+    }
+
     private Pair<Byte, Integer> extractFromPolicy(ScalingPolicy policy) {
         final int desiredRate;
         final byte rateType;
@@ -641,4 +896,44 @@ public class SegmentHelper {
 
         return new ImmutablePair<>(rateType, desiredRate);
     }
+
+    /**
+     * Hands each reply to a batch of requests to the ReplyProcessor of the request it answers (by request id), and
+     * connection-wide events to all of them.
+     */
+    @RequiredArgsConstructor
+    private static class BatchReplyProcessor extends FailingReplyProcessor {
+        private final Map<Long, ReplyProcessor> replyProcessors;
+
+        @Override
+        public void process(Reply reply) {
+            if (reply instanceof WireCommands.Hello) {
+                hello((WireCommands.Hello) reply);
+            } else if (reply instanceof WireCommands.KeepAlive) {
+                return;
+            } else {
+                ReplyProcessor replyProcessor = this.replyProcessors.get(reply.getRequestId());
+                if (replyProcessor == null) {
+                    log.warn("Ignoring reply {} to unknown request.", reply);
+                } else {
+                    replyProcessor.process(reply);
+                }
+            }
+        }
+
+        @Override
+        public void connectionDropped() {
+            this.replyProcessors.values().forEach(ReplyProcessor::connectionDropped);
+        }
+
+        @Override
+        public void processingFailure(Exception error) {
+            this.replyProcessors.values().forEach(p -> p.processingFailure(error));
+        }
+
+        @Override
+        public void authTokenCheckFailed(WireCommands.AuthTokenCheckFailed authTokenCheckFailed) {
+            process(authTokenCheckFailed);
+        }
+    }
 }
@@ -109,6 +109,13 @@ public interface ControllerEventProcessorConfig {
      */
     String getRequestReaderGroupName();
 
+    /**
+     * Fetches the number of readers in a single controller instance participating in request reader group.
+     *
+     * @return The number of readers in a single controller instance participating in request reader group.
+     */
+    int getRequestReaderGroupSize();
+
     /**
      * Fetches request stream scaling policy.
      *
@@ -382,7 +382,7 @@ public class ControllerEventProcessors extends AbstractIdleService implements Fa
                 EventProcessorGroupConfigImpl.builder()
                         .streamName(config.getRequestStreamName())
                         .readerGroupName(config.getRequestReaderGroupName())
-                        .eventProcessorCount(1)
+                        .eventProcessorCount(config.getRequestReaderGroupSize())
                         .checkpointConfig(CheckpointConfig.none())
                         .build();
 
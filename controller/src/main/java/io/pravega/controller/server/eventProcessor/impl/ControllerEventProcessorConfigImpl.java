@@ -56,7 +56,8 @@ public class ControllerEventProcessorConfigImpl implements ControllerEventProces
                                        final int abortReaderGroupSize,
                                        final CheckpointConfig commitCheckpointConfig,
                                        final CheckpointConfig abortCheckpointConfig,
-                                       final ScalingPolicy scaleStreamScalingPolicy) {
+                                       final ScalingPolicy scaleStreamScalingPolicy,
+                                       final int requestReaderGroupSize) {
 
         Exceptions.checkNotNullOrEmpty(scopeName, "scopeName");
         Exceptions.checkNotNullOrEmpty(commitStreamName, "commitStreamName");
@@ -65,6 +66,7 @@ public class ControllerEventProcessorConfigImpl implements ControllerEventProces
         Exceptions.checkNotNullOrEmpty(abortReaderGroupName, "abortReaderGroupName");
         Preconditions.checkArgument(commitReaderGroupSize > 0, "commitReaderGroupSize should be a positive integer");
         Preconditions.checkArgument(abortReaderGroupSize > 0, "abortReaderGroupSize should be a positive integer");
+        Preconditions.checkArgument(requestReaderGroupSize > 0, "requestReaderGroupSize should be a positive integer");
         Preconditions.checkNotNull(commitStreamScalingPolicy, "commitStreamScalingPolicy");
         Preconditions.checkNotNull(abortStreamScalingPolicy, "abortStreamScalingPolicy");
         Preconditions.checkNotNull(scaleStreamScalingPolicy, "scaleStreamScalingPolicy");
@@ -85,22 +87,32 @@ public class ControllerEventProcessorConfigImpl implements ControllerEventProces
         this.scaleStreamName = Config.SCALE_STREAM_NAME;
         this.scaleStreamScalingPolicy = scaleStreamScalingPolicy;
         this.scaleReaderGroupName = Config.SCALE_READER_GROUP;
-        this.scaleReaderGroupSize = 1;
+        this.scaleReaderGroupSize = requestReaderGroupSize;
         this.scaleCheckpointConfig = CheckpointConfig.none();
     }
 
+    /**
+     * Creates the default configuration, in which each of the request, commit and abort streams has
+     * {@link Config#EVENT_PROCESSOR_SEGMENT_COUNT} segments, and each controller instance runs
+     * {@link Config#EVENT_PROCESSOR_CELL_COUNT} event processor cells for each of them. The events for a stream are
+     * routed by the name of the stream, so they are all processed (in order) by the same cell, while the segments
+     * (and so the streams) are balanced among the cells of all the controller instances by the reader groups.
+     *
+     * @return The default configuration.
+     */
     public static ControllerEventProcessorConfig withDefault() {
         return ControllerEventProcessorConfigImpl.builder()
                 .scopeName(NameUtils.INTERNAL_SCOPE_NAME)
                 .commitStreamName(NameUtils.getInternalNameForStream("commitStream"))
                 .abortStreamName(NameUtils.getInternalNameForStream("abortStream"))
-                .commitStreamScalingPolicy(ScalingPolicy.fixed(2))
-                .abortStreamScalingPolicy(ScalingPolicy.fixed(2))
-                .scaleStreamScalingPolicy(ScalingPolicy.fixed(2))
+                .commitStreamScalingPolicy(ScalingPolicy.fixed(Config.EVENT_PROCESSOR_SEGMENT_COUNT))
+                .abortStreamScalingPolicy(ScalingPolicy.fixed(Config.EVENT_PROCESSOR_SEGMENT_COUNT))
+                .scaleStreamScalingPolicy(ScalingPolicy.fixed(Config.EVENT_PROCESSOR_SEGMENT_COUNT))
                 .commitReaderGroupName("commitStreamReaders")
-                .commitReaderGroupSize(1)
+                .commitReaderGroupSize(Config.EVENT_PROCESSOR_CELL_COUNT)
                 .abortReaderGroupName("abortStreamReaders")
-                .abortReaderGroupSize(1)
+                .abortReaderGroupSize(Config.EVENT_PROCESSOR_CELL_COUNT)
+                .requestReaderGroupSize(Config.EVENT_PROCESSOR_CELL_COUNT)
                 .commitCheckpointConfig(CheckpointConfig.periodic(10, 10))
                 .abortCheckpointConfig(CheckpointConfig.periodic(10, 10))
                 .build();
@@ -116,6 +128,11 @@ public class ControllerEventProcessorConfigImpl implements ControllerEventProces
         return scaleReaderGroupName;
     }
 
+    @Override
+    public int getRequestReaderGroupSize() {
+        return scaleReaderGroupSize;
+    }
+
     @Override
     public ScalingPolicy getRequestStreamScalingPolicy() {
         return scaleStreamScalingPolicy;
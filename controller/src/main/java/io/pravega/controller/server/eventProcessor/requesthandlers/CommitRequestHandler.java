@@ -283,31 +283,24 @@ public class CommitRequestHandler extends AbstractRequestProcessor<CommitEvent>
     }
 
     /**
-     * This method loops over each transaction in the list, commits them by calling into segment store followed by marking
-     * the transaction metadata as COMMITTED.
+     * This method commits all the transactions in the list by calling into segment store, which merges all of them into
+     * each segment with a single request (in the order of the list), followed by marking the transactions' metadata as
+     * COMMITTED with a single update to the store. If the store cannot update them together, it updates them in the
+     * order of the list, so that if the last transaction is committed, all of them are (see {@link #rollTransactions}).
      * At the end of this method's execution, all transactions in the list would have committed.
      */
     private CompletableFuture<Void> commitTransactions(String scope, String stream, List<Long> segments,
                                                        List<UUID> transactionsToCommit, OperationContext context) {
-        // Chain all transaction commit futures one after the other. This will ensure that order of commit
-        // if honoured and is based on the order in the list.
-        CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
-        for (UUID txnId : transactionsToCommit) {
-            log.debug("Committing transaction {} on stream {}/{}", txnId, scope, stream);
-            // commit transaction in segment store
-            future = future
-                    // Note, we can use the same segments and transaction id as only
-                    // primary id is taken for creation of txn-segment name and secondary part is erased and replaced with
-                    // transaction's epoch.
-                    // And we are creating duplicates of txn epoch keeping the primary same.
-                    .thenCompose(v -> streamMetadataTasks.notifyTxnCommit(scope, stream, segments, txnId))
-                    // mark transaction as committed in metadata store.
-                    .thenCompose(x -> streamMetadataStore.commitTransaction(scope, stream, txnId, context, executor)
-                            .thenAccept(done -> {
-                                log.debug("transaction {} on stream {}/{} committed successfully", txnId, scope, stream);
-                            }));
-        }
-        return future;
+        log.debug("Committing transactions {} on stream {}/{}", transactionsToCommit, scope, stream);
+        // Note, we can use the same segments and transaction ids as only
+        // primary id is taken for creation of txn-segment name and secondary part is erased and replaced with
+        // transaction's epoch.
+        // And we are creating duplicates of txn epoch keeping the primary same.
+        return streamMetadataTasks.notifyTxnsCommit(scope, stream, segments, transactionsToCommit)
+                .thenCompose(v -> streamMetadataStore.commitTransactions(scope, stream, transactionsToCommit, context, executor))
+                .thenAccept(done -> {
+                    log.debug("transactions {} on stream {}/{} committed successfully", transactionsToCommit, scope, stream);
+                });
     }
 
     /**
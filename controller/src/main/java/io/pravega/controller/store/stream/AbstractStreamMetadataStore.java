@@ -43,6 +43,7 @@ import javax.annotation.ParametersAreNonnullByDefault;
 import java.nio.ByteBuffer;
 import java.util.AbstractMap;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -558,6 +559,23 @@ public abstract class AbstractStreamMetadataStore implements StreamMetadataStore
         return future;
     }
 
+    @Override
+    public CompletableFuture<Void> commitTransactions(final String scope, final String streamName,
+                                                      final List<UUID> txIds, final OperationContext context,
+                                                      final Executor executor) {
+        Stream stream = getStream(scope, streamName, context);
+        CompletableFuture<Void> future = withCompletion(stream.commitTransactions(txIds), executor);
+
+        future.thenCompose(result -> {
+            return stream.getNumberOfOngoingTransactions().thenAccept(count -> {
+                DYNAMIC_LOGGER.incCounterValue(nameFromStream(COMMIT_TRANSACTION, scope, streamName), txIds.size());
+                DYNAMIC_LOGGER.reportGaugeValue(nameFromStream(OPEN_TRANSACTIONS, scope, streamName), count);
+            });
+        });
+
+        return future;
+    }
+
     @Override
     public CompletableFuture<SimpleEntry<TxnStatus, Integer>> sealTransaction(final String scopeName,
                                                                               final String streamName,
@@ -720,11 +738,30 @@ public abstract class AbstractStreamMetadataStore implements StreamMetadataStore
         return stream;
     }
 
+    /**
+     * Gets the Stream object that is cached for the given stream, without creating one if there is none.
+     */
+    Stream getCachedStream(final String scope, final String name) {
+        return cache.getIfPresent(new ImmutablePair<>(scope, name));
+    }
+
+    /**
+     * Gets all the Stream objects that are currently cached.
+     */
+    Collection<Stream> getCachedStreams() {
+        return cache.asMap().values();
+    }
+
     @VisibleForTesting
     void setStream(Stream stream) {
         cache.put(new ImmutablePair<>(stream.getScope(), stream.getName()), stream);
     }
 
+    @VisibleForTesting
+    void evictStream(final String scope, final String name) {
+        cache.invalidate(new ImmutablePair<>(scope, name));
+    }
+
     private Scope getScope(final String scopeName) {
         Scope scope = scopeCache.getUnchecked(scopeName);
         scope.refresh();
@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -606,6 +607,24 @@ public class InMemoryStream extends PersistentStreamBase<Integer> {
         return CompletableFuture.completedFuture(null);
     }
 
+    @Override
+    CompletableFuture<Void> commitTxEntries(List<UUID> txIds, long timestamp) {
+        Preconditions.checkNotNull(txIds);
+
+        synchronized (txnsLock) {
+            for (UUID txId : txIds) {
+                int epoch = getTransactionEpoch(txId);
+                completedTxns.putIfAbsent(txId.toString(), new Data<>(new CompletedTxnRecord(timestamp, TxnStatus.COMMITTED).toByteArray(), 0));
+                activeTxns.remove(txId.toString());
+                epochTxnMap.computeIfPresent(epoch, (x, y) -> {
+                    y.remove(txId.toString());
+                    return y.isEmpty() ? null : y;
+                });
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
     @Override
     CompletableFuture<Void> createMarkerData(long segmentId, long timestamp) {
         byte[] b = new byte[Long.BYTES];
@@ -1106,6 +1106,40 @@ public abstract class PersistentStreamBase<T> implements Stream {
         }).thenCompose(x -> removeActiveTxEntry(epoch, txId)).thenApply(x -> TxnStatus.COMMITTED);
     }
 
+    @Override
+    public CompletableFuture<Void> commitTransactions(final List<UUID> txIds) {
+        return checkState(state -> state.equals(State.COMMITTING_TXN) || state.equals(State.SEALING))
+                .thenCompose(v -> Futures.allOfWithResults(txIds.stream().map(this::checkTransactionStatus).collect(Collectors.toList())))
+                .thenCompose(statuses -> {
+                    List<UUID> committing = new ArrayList<>();
+                    for (int i = 0; i < txIds.size(); i++) {
+                        UUID txId = txIds.get(i);
+                        TxnStatus status = statuses.get(i);
+                        switch (status) {
+                            // Only sealed transactions can be committed
+                            case COMMITTED:
+                                break; // already committed, do nothing
+                            case COMMITTING:
+                                committing.add(txId);
+                                break;
+                            case OPEN:
+                            case ABORTING:
+                            case ABORTED:
+                                throw StoreException.create(StoreException.Type.ILLEGAL_STATE,
+                                        "Stream: " + getName() + " Transaction: " + txId.toString() + " State: " + status.toString());
+                            case UNKNOWN:
+                            default:
+                                throw StoreException.create(StoreException.Type.DATA_NOT_FOUND,
+                                        "Stream: " + getName() + " Transaction: " + txId.toString());
+                        }
+                    }
+
+                    return committing.isEmpty()
+                            ? CompletableFuture.completedFuture(null)
+                            : commitTxEntries(committing, System.currentTimeMillis());
+                });
+    }
+
     @Override
     public CompletableFuture<TxnStatus> abortTransaction(final UUID txId) {
         int epoch = getTransactionEpoch(txId);
@@ -1472,6 +1506,13 @@ public abstract class PersistentStreamBase<T> implements Stream {
 
     abstract CompletableFuture<Void> createCompletedTxEntry(final UUID txId, final TxnStatus complete, final long timestamp);
 
+    /**
+     * Replaces the active entries of the given transactions with completed entries marking them as committed, with a
+     * single update to the store where possible. Otherwise, the transactions are updated one after the other, in the
+     * order of the list.
+     */
+    abstract CompletableFuture<Void> commitTxEntries(final List<UUID> txIds, final long timestamp);
+
     abstract CompletableFuture<Void> createMarkerData(long segmentId, long timestamp);
 
     abstract CompletableFuture<Void> updateMarkerData(long segmentId, Data<T> data);
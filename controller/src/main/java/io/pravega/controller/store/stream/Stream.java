@@ -341,6 +341,16 @@ interface Stream {
      */
     CompletableFuture<TxnStatus> commitTransaction(final UUID txId);
 
+    /**
+     * Commits all the given transactions with a single update to the store (where the store supports it).
+     * Transactions that are already committed are left as they are. If any of the transactions is aborting/aborted,
+     * return a failed future with IllegalStateException.
+     *
+     * @param txIds transaction identifiers, in the order in which they have been committed.
+     * @return      future which completes once all the transactions are committed.
+     */
+    CompletableFuture<Void> commitTransactions(final List<UUID> txIds);
+
     /**
      * Aborts a transaction.
      * If already aborted, return TxnStatus.Aborted.
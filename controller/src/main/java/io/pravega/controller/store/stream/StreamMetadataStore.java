@@ -588,6 +588,21 @@ public interface StreamMetadataStore {
                                                    final UUID txId, final OperationContext context,
                                                    final Executor executor);
 
+    /**
+     * Update stream store to mark all the given transactions as committed, with a single update where the store
+     * supports it (and otherwise in the order of the list).
+     *
+     * @param scope    scope
+     * @param stream   stream
+     * @param txIds    transaction ids, in the order in which they have been committed
+     * @param context  operation context
+     * @param executor callers executor
+     * @return future which completes once all the transactions are marked as committed.
+     */
+    CompletableFuture<Void> commitTransactions(final String scope, final String stream,
+                                               final List<UUID> txIds, final OperationContext context,
+                                               final Executor executor);
+
     /**
      * Update stream store to mark transaction as sealed.
      *
@@ -0,0 +1,385 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.util.BitConverter;
+import io.pravega.controller.store.stream.tables.Data;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import org.apache.curator.framework.api.transaction.CuratorOp;
+import org.apache.curator.framework.api.transaction.TransactionOp;
+import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.Watcher;
+
+/**
+ * A stream metadata table (such as the history table or the segment table) that is stored in ZooKeeper as a sequence
+ * of fixed size chunks rather than as a single znode.
+ *
+ * These tables only grow at the end (at most their last record is rewritten), so an update only writes the chunks from
+ * the first one that changed onwards, which is usually just the last one, rather than the whole table.
+ * The znode at the path of the table holds a header with a format version, the length of the table and, for each chunk,
+ * the version of the table in which that chunk was last written (its generation); the chunks are children of that znode.
+ * The header is updated in the same conditional transaction as the chunks, so its version is the version of the table,
+ * and a chunk that has been read once is only read again after its generation changes.
+ *
+ * Tables written before they were chunked are a single znode holding the whole table, with no children. A znode whose
+ * contents are not a valid header for its number of children is read as such a table, and it is converted (in place) to
+ * the chunked layout when it is next updated.
+ *
+ * Controllers that predate chunked tables would misread a chunked one. Tables are therefore only created or converted
+ * in the chunked layout once chunked tables have been enabled for the whole cluster (see
+ * {@link ZKStoreHelper#enableChunkedTables()}), which may only be done once all the Controllers have been upgraded.
+ * Until then, they are created and updated as a single znode, as before.
+ */
+@ThreadSafe
+class ZKChunkedTable {
+    static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_PREFIX_LENGTH = Byte.BYTES + Integer.BYTES;
+    private static final int MAX_READ_ATTEMPTS = 10;
+
+    private final ZKStoreHelper store;
+    private final String path;
+    private final int chunkSize;
+    @GuardedBy("chunks")
+    private final Map<Integer, Chunk> chunks = new HashMap<>();
+    @GuardedBy("chunks")
+    private Snapshot latest;
+
+    ZKChunkedTable(ZKStoreHelper store, String path) {
+        this(store, path, DEFAULT_CHUNK_SIZE);
+    }
+
+    @VisibleForTesting
+    ZKChunkedTable(ZKStoreHelper store, String path, int chunkSize) {
+        Preconditions.checkArgument(chunkSize > 0, "chunkSize must be a positive number.");
+        this.store = store;
+        this.path = path;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates the table with the given contents, unless it already exists.
+     *
+     * @param data The contents of the table.
+     * @return A future which completes once the table exists.
+     */
+    CompletableFuture<Void> createIfAbsent(final byte[] data) {
+        return store.isChunkedTablesEnabled().thenCompose(enabled -> enabled
+                ? createChunked(data)
+                : store.createZNodeIfNotExist(path, data));
+    }
+
+    private CompletableFuture<Void> createChunked(final byte[] data) {
+        final int chunkCount = getChunkCount(data.length);
+        final int[] generations = new int[chunkCount];
+        final List<CuratorOp> operations = new ArrayList<>();
+        try {
+            TransactionOp op = store.getClient().transactionOp();
+            operations.add(op.create().forPath(path, serializeHeader(data.length, generations)));
+            for (int i = 0; i < chunkCount; i++) {
+                operations.add(op.create().forPath(getChunkPath(i), serializeChunk(data, i, 0)));
+            }
+        } catch (Exception e) {
+            return Futures.failedFuture(StoreException.create(StoreException.Type.UNKNOWN, e, path));
+        }
+
+        return Futures.exceptionallyExpecting(store.transaction(path, operations),
+                e -> Exceptions.unwrap(e) instanceof StoreException.DataExistsException, null);
+    }
+
+    /**
+     * Reads the table from the store. Only the header and the chunks that changed since they were last read are
+     * fetched.
+     *
+     * @return A future with the contents of the table, whose version is the version of the table.
+     */
+    CompletableFuture<Data<Integer>> read() {
+        return read(null);
+    }
+
+    /**
+     * Reads the table from the store, as {@link #read()} does, and sets a watch on it. As all the updates to the table
+     * change its header, the watch is set on the header only.
+     *
+     * @param watcher The watcher to notify when the table changes, or null.
+     * @return A future with the contents of the table, whose version is the version of the table.
+     */
+    CompletableFuture<Data<Integer>> read(final Watcher watcher) {
+        return read(watcher, 1);
+    }
+
+    private CompletableFuture<Data<Integer>> read(final Watcher watcher, final int attempt) {
+        return store.getDataWithStat(path, watcher).thenCompose(header -> {
+            final byte[] headerData = header.getLeft();
+            final int version = header.getRight().getVersion();
+            if (!isHeader(headerData, header.getRight().getNumChildren())) {
+                // A table that has not been chunked yet.
+                setLatest(new Snapshot(version, headerData, null));
+                return CompletableFuture.completedFuture(new Data<>(headerData, version));
+            }
+
+            final int length = BitConverter.readInt(headerData, Byte.BYTES);
+            final int[] generations = deserializeGenerations(headerData);
+            return Futures.allOfWithResults(IntStream.range(0, generations.length)
+                                                     .mapToObj(i -> getChunk(i, generations[i]))
+                                                     .collect(Collectors.toList()))
+                          .thenCompose(list -> {
+                              if (list.contains(null)) {
+                                  return retryRead(watcher, attempt, version, list.indexOf(null));
+                              }
+
+                              byte[] table = new byte[length];
+                              for (int i = 0; i < list.size(); i++) {
+                                  System.arraycopy(list.get(i), 0, table, i * chunkSize, list.get(i).length);
+                              }
+                              Snapshot snapshot = new Snapshot(version, table, generations);
+                              setLatest(snapshot);
+                              return CompletableFuture.completedFuture(new Data<>(table, snapshot.version));
+                          });
+        });
+    }
+
+    /**
+     * Invoked when a chunk is missing, or is not of the generation that the header says it is. This is expected if the
+     * table was updated after its header was read, in which case the read is retried; otherwise, the table is corrupt.
+     */
+    private CompletableFuture<Data<Integer>> retryRead(final Watcher watcher, final int attempt, final int headerVersion,
+                                                       final int chunk) {
+        return store.getVersion(path).thenCompose(currentVersion -> {
+            if (currentVersion == headerVersion) {
+                throw StoreException.create(StoreException.Type.UNKNOWN,
+                        String.format("Chunk %d of table %s (version %d) is missing or invalid.", chunk, path, headerVersion));
+            }
+            if (attempt >= MAX_READ_ATTEMPTS) {
+                throw StoreException.create(StoreException.Type.UNKNOWN,
+                        String.format("Unable to read table %s after %d attempts, as it keeps changing.", path, attempt));
+            }
+            return read(watcher, attempt + 1);
+        });
+    }
+
+    /**
+     * Updates the table, provided that its version is (still) the version of the given data. Only the chunks that
+     * differ from the ones of that version are written.
+     *
+     * @param data The new contents of the table, along with the version of the table they are based on.
+     * @return A future which completes once the table is updated.
+     */
+    CompletableFuture<Void> update(final Data<Integer> data) {
+        final Snapshot previous = getLatest();
+        final CompletableFuture<Snapshot> base;
+        if (previous != null && previous.version.equals(data.getVersion())) {
+            base = CompletableFuture.completedFuture(previous);
+        } else {
+            // We do not know what the table looked like in the given version, so read the current one to compare with.
+            base = read().thenApply(x -> getLatest());
+        }
+
+        return base.thenCompose(current -> {
+            if (data.getVersion() != null && !current.version.equals(data.getVersion())) {
+                throw StoreException.create(StoreException.Type.WRITE_CONFLICT, path);
+            }
+            if (current.generations != null) {
+                return write(current, data.getData());
+            }
+            return store.isChunkedTablesEnabled().thenCompose(enabled -> enabled
+                    ? write(current, data.getData())
+                    : writeUnchunked(current, data.getData()));
+        });
+    }
+
+    /**
+     * Deletes the table, if it exists.
+     *
+     * @return A future which completes once the table is deleted.
+     */
+    CompletableFuture<Void> delete() {
+        return Futures.exceptionallyExpecting(store.deleteTree(path),
+                e -> Exceptions.unwrap(e) instanceof StoreException.DataNotFoundException, null)
+                      .whenComplete((r, e) -> {
+                          synchronized (chunks) {
+                              chunks.clear();
+                              latest = null;
+                          }
+                      });
+    }
+
+    /**
+     * Rewrites a table that has not been chunked yet, leaving it unchunked.
+     */
+    private CompletableFuture<Void> writeUnchunked(final Snapshot current, final byte[] data) {
+        return store.setData(path, new Data<>(data, current.version))
+                    .thenRun(() -> setLatest(new Snapshot(current.version + 1, data, null)));
+    }
+
+    private CompletableFuture<Void> write(final Snapshot current, final byte[] data) {
+        // A table that has not been chunked yet is rewritten in full; its single znode becomes the header.
+        final boolean chunked = current.generations != null;
+        final int oldChunkCount = chunked ? current.generations.length : 0;
+        final int newChunkCount = getChunkCount(data.length);
+        final int firstChangedChunk = chunked ? getFirstDifference(current.data, data) / chunkSize : 0;
+        final int newVersion = current.version + 1;
+        final int[] generations = chunked ? Arrays.copyOf(current.generations, newChunkCount) : new int[newChunkCount];
+        Arrays.fill(generations, Math.min(firstChangedChunk, newChunkCount), newChunkCount, newVersion);
+        final Map<Integer, Chunk> written = new HashMap<>();
+        final List<CuratorOp> operations = new ArrayList<>();
+        try {
+            // The header goes first, so that a concurrent update is reported as a write conflict.
+            TransactionOp op = store.getClient().transactionOp();
+            operations.add(op.setData().withVersion(current.version).forPath(path, serializeHeader(data.length, generations)));
+            for (int i = firstChangedChunk; i < newChunkCount; i++) {
+                byte[] chunk = serializeChunk(data, i, newVersion);
+                written.put(i, new Chunk(newVersion, Arrays.copyOfRange(chunk, Integer.BYTES, chunk.length)));
+                operations.add(i < oldChunkCount ? op.setData().forPath(getChunkPath(i), chunk)
+                                                 : op.create().forPath(getChunkPath(i), chunk));
+            }
+            for (int i = newChunkCount; i < oldChunkCount; i++) {
+                operations.add(op.delete().forPath(getChunkPath(i)));
+            }
+        } catch (Exception e) {
+            return Futures.failedFuture(StoreException.create(StoreException.Type.UNKNOWN, e, path));
+        }
+
+        return store.transaction(path, operations).thenRun(() -> {
+            synchronized (chunks) {
+                chunks.putAll(written);
+                for (int i = newChunkCount; i < oldChunkCount; i++) {
+                    chunks.remove(i);
+                }
+            }
+            setLatest(new Snapshot(newVersion, data, generations));
+        });
+    }
+
+    /**
+     * Gets the given chunk, from the cache if it holds the given generation of the chunk. The future completes with
+     * null if the chunk in the store is of a different generation (i.e. the table was updated concurrently).
+     */
+    private CompletableFuture<byte[]> getChunk(final int index, final int generation) {
+        synchronized (chunks) {
+            Chunk chunk = chunks.get(index);
+            if (chunk != null && chunk.generation == generation) {
+                return CompletableFuture.completedFuture(chunk.data);
+            }
+        }
+
+        return Futures.exceptionallyExpecting(store.getData(getChunkPath(index)),
+                e -> Exceptions.unwrap(e) instanceof StoreException.DataNotFoundException, null)
+                      .thenApply(stored -> {
+                          if (stored == null || BitConverter.readInt(stored.getData(), 0) != generation) {
+                              return null;
+                          }
+                          byte[] data = Arrays.copyOfRange(stored.getData(), Integer.BYTES, stored.getData().length);
+                          synchronized (chunks) {
+                              chunks.put(index, new Chunk(generation, data));
+                          }
+                          return data;
+                      });
+    }
+
+    private Snapshot getLatest() {
+        synchronized (chunks) {
+            return latest;
+        }
+    }
+
+    private void setLatest(Snapshot snapshot) {
+        synchronized (chunks) {
+            if (latest == null || latest.version <= snapshot.version) {
+                latest = snapshot;
+            }
+        }
+    }
+
+    private int getChunkCount(int length) {
+        return (length + chunkSize - 1) / chunkSize;
+    }
+
+    private String getChunkPath(int index) {
+        return ZKPaths.makePath(path, Integer.toString(index));
+    }
+
+    private byte[] serializeChunk(byte[] table, int index, int generation) {
+        int offset = index * chunkSize;
+        int length = Math.min(chunkSize, table.length - offset);
+        byte[] chunk = new byte[Integer.BYTES + length];
+        BitConverter.writeInt(chunk, 0, generation);
+        System.arraycopy(table, offset, chunk, Integer.BYTES, length);
+        return chunk;
+    }
+
+    private static byte[] serializeHeader(int length, int[] generations) {
+        byte[] header = new byte[HEADER_PREFIX_LENGTH + Integer.BYTES * generations.length];
+        header[0] = FORMAT_VERSION;
+        BitConverter.writeInt(header, Byte.BYTES, length);
+        for (int i = 0; i < generations.length; i++) {
+            BitConverter.writeInt(header, HEADER_PREFIX_LENGTH + Integer.BYTES * i, generations[i]);
+        }
+        return header;
+    }
+
+    /**
+     * Gets a value indicating whether the given contents of the znode of a table, which has the given number of children,
+     * are a header (as opposed to a whole table that has not been chunked yet).
+     */
+    private static boolean isHeader(byte[] data, int childCount) {
+        return data.length >= HEADER_PREFIX_LENGTH
+                && data[0] == FORMAT_VERSION
+                && (data.length - HEADER_PREFIX_LENGTH) == Integer.BYTES * childCount;
+    }
+
+    private static int[] deserializeGenerations(byte[] header) {
+        int[] generations = new int[(header.length - HEADER_PREFIX_LENGTH) / Integer.BYTES];
+        for (int i = 0; i < generations.length; i++) {
+            generations[i] = BitConverter.readInt(header, HEADER_PREFIX_LENGTH + Integer.BYTES * i);
+        }
+        return generations;
+    }
+
+    private static int getFirstDifference(byte[] a, byte[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Chunk {
+        private final int generation;
+        private final byte[] data;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Snapshot {
+        private final Integer version;
+        private final byte[] data;
+        /**
+         * The generation of each chunk, or null if the table has not been chunked yet.
+         */
+        private final int[] generations;
+    }
+}
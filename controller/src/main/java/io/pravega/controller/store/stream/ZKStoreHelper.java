@@ -15,19 +15,25 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.BackgroundCallback;
 import org.apache.curator.framework.api.CreateBuilder;
 import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.transaction.CuratorOp;
 import org.apache.curator.utils.ZKPaths;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.data.Stat;
 
 @Slf4j
 public class ZKStoreHelper {
@@ -43,10 +49,17 @@ public class ZKStoreHelper {
     private static final String COMPLETED_TX_ROOT_PATH = TRANSACTION_ROOT_PATH + "/completedTx";
     static final String SCOPE_COMPLETED_TX_PATH = COMPLETED_TX_ROOT_PATH + "/%s";
     static final String COMPLETED_TX_PATH = SCOPE_COMPLETED_TX_PATH + "/%s";
+    /**
+     * Stream metadata tables are only written in chunks (see {@link ZKChunkedTable}) once this znode exists. Controllers
+     * that predate chunked tables cannot read them, so it may only be created once all the Controllers in the cluster
+     * have been upgraded.
+     */
+    static final String CHUNKED_TABLES_FEATURE_PATH = "/features/chunkedTables";
 
     @Getter(AccessLevel.PACKAGE)
     private final CuratorFramework client;
     private final Executor executor;
+    private final AtomicBoolean chunkedTablesEnabled = new AtomicBoolean();
     public ZKStoreHelper(final CuratorFramework cf, Executor executor) {
         client = cf;
         this.executor = executor;
@@ -61,6 +74,35 @@ public class ZKStoreHelper {
         return getChildren("/store");
     }
 
+    /**
+     * Enables chunked stream metadata tables for the whole cluster (see {@link #CHUNKED_TABLES_FEATURE_PATH}). This may
+     * only be done once all the Controllers in the cluster support them, and cannot be undone.
+     *
+     * @return A future which completes once chunked tables are enabled.
+     */
+    public CompletableFuture<Void> enableChunkedTables() {
+        return createZNodeIfNotExist(CHUNKED_TABLES_FEATURE_PATH).thenRun(() -> chunkedTablesEnabled.set(true));
+    }
+
+    /**
+     * Gets a value indicating whether stream metadata tables may be written in chunks. As this cannot be undone once it
+     * has been enabled, the store is no longer checked after that.
+     *
+     * @return A future with the value.
+     */
+    CompletableFuture<Boolean> isChunkedTablesEnabled() {
+        if (chunkedTablesEnabled.get()) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        return checkExists(CHUNKED_TABLES_FEATURE_PATH).thenApply(exists -> {
+            if (exists) {
+                chunkedTablesEnabled.set(true);
+            }
+            return exists;
+        });
+    }
+
     CompletableFuture<Void> addNode(final String path) {
         final CompletableFuture<Void> result = new CompletableFuture<>();
         try {
@@ -145,14 +187,64 @@ public class ZKStoreHelper {
     }
 
     CompletableFuture<Data<Integer>> getData(final String path) {
-        final CompletableFuture<Data<Integer>> result = new CompletableFuture<>();
+        return getData(path, null);
+    }
+
+    /**
+     * Reads the given znode and, if a watcher is given, sets a watch on it.
+     *
+     * @param path    The path of the znode.
+     * @param watcher The watcher to notify when the znode changes (or when the connection to ZooKeeper is lost), or null.
+     * @return A future with the data and version of the znode.
+     */
+    CompletableFuture<Data<Integer>> getData(final String path, final Watcher watcher) {
+        return getDataWithStat(path, watcher).thenApply(data -> new Data<>(data.getLeft(), data.getRight().getVersion()));
+    }
+
+    /**
+     * Reads the given znode, as {@link #getData(String, Watcher)} does, along with its Stat (which also holds, for
+     * instance, the number of children of the znode).
+     *
+     * @param path    The path of the znode.
+     * @param watcher The watcher to notify when the znode changes (or when the connection to ZooKeeper is lost), or null.
+     * @return A future with the data and Stat of the znode.
+     */
+    CompletableFuture<Pair<byte[], Stat>> getDataWithStat(final String path, final Watcher watcher) {
+        final CompletableFuture<Pair<byte[], Stat>> result = new CompletableFuture<>();
 
         try {
-            client.getData().inBackground(
-                    callback(event -> result.complete(new Data<>(event.getData(), event.getStat()
-                                    .getVersion())),
-                            result::completeExceptionally, path), executor)
-                    .forPath(path);
+            BackgroundCallback callback = callback(event -> result.complete(new ImmutablePair<>(event.getData(), event.getStat())),
+                    result::completeExceptionally, path);
+            if (watcher == null) {
+                client.getData().inBackground(callback, executor).forPath(path);
+            } else {
+                client.getData().usingWatcher(watcher).inBackground(callback, executor).forPath(path);
+            }
+        } catch (Exception e) {
+            result.completeExceptionally(StoreException.create(StoreException.Type.UNKNOWN, e, path));
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the version of the given znode, without reading its data.
+     *
+     * @param path The path of the znode.
+     * @return A future with the version of the znode.
+     */
+    CompletableFuture<Integer> getVersion(final String path) {
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        try {
+            client.checkExists().inBackground(
+                    callback(event -> {
+                        if (event.getStat() == null) {
+                            result.completeExceptionally(StoreException.create(StoreException.Type.DATA_NOT_FOUND, path));
+                        } else {
+                            result.complete(event.getStat().getVersion());
+                        }
+                    }, result::completeExceptionally, path), executor).forPath(path);
         } catch (Exception e) {
             result.completeExceptionally(StoreException.create(StoreException.Type.UNKNOWN, e, path));
         }
@@ -198,6 +290,26 @@ public class ZKStoreHelper {
         return result;
     }
 
+    /**
+     * Atomically executes the given operations: either all of them are applied or none is.
+     *
+     * @param path       The path reported if the transaction fails (the first operation in it that fails determines the
+     *                   type of the exception).
+     * @param operations The operations, which must have been built with {@link CuratorFramework#transactionOp()}.
+     * @return A future which completes once the transaction has been applied.
+     */
+    CompletableFuture<Void> transaction(final String path, final List<CuratorOp> operations) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            client.transaction().inBackground(
+                    callback(event -> result.complete(null), result::completeExceptionally, path), executor)
+                    .forOperations(operations);
+        } catch (Exception e) {
+            result.completeExceptionally(StoreException.create(StoreException.Type.UNKNOWN, e, path));
+        }
+        return result;
+    }
+
     CompletableFuture<Void> createZNode(final String path, final byte[] data) {
         final CompletableFuture<Void> result = new CompletableFuture<>();
         try {
@@ -10,6 +10,8 @@
 package io.pravega.controller.store.stream;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.pravega.client.stream.StreamConfiguration;
 import io.pravega.common.Exceptions;
 import io.pravega.common.concurrent.Futures;
@@ -24,14 +26,23 @@ import io.pravega.controller.store.stream.tables.StreamConfigurationRecord;
 import io.pravega.controller.store.stream.tables.StreamTruncationRecord;
 import lombok.AccessLevel;
 import lombok.Getter;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.curator.framework.api.transaction.CuratorOp;
+import org.apache.curator.framework.api.transaction.TransactionOp;
 import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +52,9 @@ import java.util.stream.Collectors;
  * <p>
  * It may cache files read from the store for its lifetime.
  * This shall reduce store round trips for answering queries, thus making them efficient.
+ * The stream-level metadata (configuration, state, history and segment tables etc.) is cached along with a watch on it,
+ * so that it is invalidated as soon as it changes in the store (or the connection to the store is lost) and it is
+ * never refreshed otherwise. Queries that must not use stale data only check that the cached version is still current.
  */
 class ZKStream extends PersistentStreamBase<Integer> {
     private static final String SCOPE_PATH = "/store/%s";
@@ -82,9 +96,32 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Getter(AccessLevel.PACKAGE)
     private final String streamPath;
 
+    private final ZKChunkedTable segmentIndex;
+    private final ZKChunkedTable segmentTable;
+    private final ZKChunkedTable historyTable;
+    private final ZKChunkedTable historyIndex;
+    private final Map<String, ZKChunkedTable> chunkedTables;
+    private final Set<String> watchedPaths;
+    private final Watcher watcher;
+
     private final Cache<Integer> cache;
 
     ZKStream(final String scopeName, final String streamName, ZKStoreHelper storeHelper) {
+        this(scopeName, streamName, storeHelper, null);
+    }
+
+    /**
+     * Creates a new instance of the ZKStream class.
+     *
+     * @param scopeName   The name of the scope.
+     * @param streamName  The name of the stream.
+     * @param storeHelper The ZKStoreHelper to access the store with.
+     * @param watcher     The watcher to set on the cached metadata, which is expected to hand the notifications for it to
+     *                    {@link #onWatchedEvent} of the stream object that is in use for it at the time (see
+     *                    {@link #getStreamForPath}). If null, this object watches its metadata itself, which keeps it
+     *                    reachable for as long as any of its watches is set.
+     */
+    ZKStream(final String scopeName, final String streamName, ZKStoreHelper storeHelper, Watcher watcher) {
         super(scopeName, streamName);
         store = storeHelper;
         scopePath = String.format(SCOPE_PATH, scopeName);
@@ -106,7 +143,80 @@ class ZKStream extends PersistentStreamBase<Integer> {
         waitingRequestProcessorPath = String.format(WAITING_REQUEST_PROCESSOR_PATH, scopeName, streamName);
         markerPath = String.format(MARKER_PATH, scopeName, streamName);
 
-        cache = new Cache<>(store::getData);
+        segmentIndex = new ZKChunkedTable(store, segmentIndexPath);
+        segmentTable = new ZKChunkedTable(store, segmentPath);
+        historyTable = new ZKChunkedTable(store, historyPath);
+        historyIndex = new ZKChunkedTable(store, historyIndexPath);
+        chunkedTables = ImmutableMap.of(segmentIndexPath, segmentIndex, segmentPath, segmentTable,
+                historyPath, historyTable, historyIndexPath, historyIndex);
+
+        watchedPaths = ImmutableSet.of(creationPath, configurationPath, truncationPath, statePath, segmentIndexPath,
+                segmentPath, historyPath, historyIndexPath, epochTransitionPath, committingTxnsPath, waitingRequestProcessorPath);
+
+        cache = new Cache<>(this::load);
+        this.watcher = watcher == null ? this::onWatchedEvent : watcher;
+    }
+
+    /**
+     * Gets the scope and name of the stream that the given path holds metadata of.
+     *
+     * @param path The path.
+     * @return The scope and name of the stream, or null if the path does not belong to any stream.
+     */
+    static Pair<String, String> getStreamForPath(final String path) {
+        String prefix = String.format(SCOPE_PATH, "");
+        if (path == null || !path.startsWith(prefix)) {
+            return null;
+        }
+        String[] parts = path.substring(prefix.length()).split("/");
+        return parts.length < 2 ? null : new ImmutablePair<>(parts[0], parts[1]);
+    }
+
+    /**
+     * Loads the given path into the cache. The history and segment tables (and their indices) are append-only and may
+     * grow large, so they are stored in chunks (see {@link ZKChunkedTable}), which are reassembled here.
+     */
+    private CompletableFuture<Data<Integer>> load(final String path) {
+        if (!watchedPaths.contains(path)) {
+            return store.getData(path);
+        }
+        ZKChunkedTable table = chunkedTables.get(path);
+        return table == null ? store.getData(path, watcher) : table.read(watcher);
+    }
+
+    /**
+     * Invalidates the cached metadata that the given watch notification pertains to.
+     *
+     * @param event The notification.
+     */
+    void onWatchedEvent(WatchedEvent event) {
+        if (event.getType() == Watcher.Event.EventType.None) {
+            // The connection state changed, and any change made in the meantime may not be notified.
+            cache.invalidateAll();
+        } else if (event.getPath() != null) {
+            cache.invalidateCache(event.getPath());
+        }
+    }
+
+    /**
+     * Gets the data for a watched path from the cache, provided that its version is still the one in the store. This
+     * only costs a version check (rather than a read), and it covers the time that it takes for the notification of a
+     * change made by another controller to arrive.
+     */
+    private CompletableFuture<Data<Integer>> getValidatedData(final String path) {
+        CompletableFuture<Data<Integer>> cached = cache.getIfPresent(path);
+        if (cached == null || cached.isCompletedExceptionally()) {
+            cache.invalidateCache(path);
+            return cache.getCachedData(path);
+        }
+
+        return cached.thenCompose(data -> store.getVersion(path).thenCompose(version -> {
+            if (version.equals(data.getVersion())) {
+                return CompletableFuture.completedFuture(data);
+            }
+            cache.invalidateCache(path);
+            return cache.getCachedData(path);
+        }));
     }
 
     // region overrides
@@ -125,7 +235,8 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     @Override
     public void refresh() {
-        cache.invalidateAll();
+        // The watched paths are invalidated when they change.
+        cache.invalidateIf(path -> !watchedPaths.contains(path));
     }
 
     @Override
@@ -240,13 +351,13 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     @Override
     CompletableFuture<Data<Integer>> getEpochTransitionNode() {
-        cache.invalidateCache(epochTransitionPath);
-        return cache.getCachedData(epochTransitionPath);
+        return getValidatedData(epochTransitionPath);
     }
 
     @Override
     CompletableFuture<Void> deleteEpochTransitionNode() {
-        return store.deleteNode(epochTransitionPath);
+        return store.deleteNode(epochTransitionPath)
+                .whenComplete((r, e) -> cache.invalidateCache(epochTransitionPath));
     }
 
     @Override
@@ -273,25 +384,25 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Override
     public CompletableFuture<Void> createSegmentTableIfAbsent(final Data<Integer> segmentTable) {
 
-        return store.createZNodeIfNotExist(segmentPath, segmentTable.getData())
+        return this.segmentTable.createIfAbsent(segmentTable.getData())
                 .thenApply(x -> cache.invalidateCache(segmentPath));
     }
 
     @Override
     public CompletableFuture<Void> createHistoryIndexIfAbsent(final Data<Integer> indexTable) {
-        return store.createZNodeIfNotExist(historyIndexPath, indexTable.getData())
+        return historyIndex.createIfAbsent(indexTable.getData())
                 .thenApply(x -> cache.invalidateCache(historyIndexPath));
     }
 
     @Override
     public CompletableFuture<Void> createHistoryTableIfAbsent(final Data<Integer> historyTable) {
-        return store.createZNodeIfNotExist(historyPath, historyTable.getData())
+        return this.historyTable.createIfAbsent(historyTable.getData())
                 .thenApply(x -> cache.invalidateCache(historyPath));
     }
 
     @Override
     public CompletableFuture<Void> updateHistoryTable(final Data<Integer> updated) {
-        return store.setData(historyPath, updated)
+        return historyTable.update(updated)
                 .whenComplete((r, e) -> cache.invalidateCache(historyPath));
     }
 
@@ -428,6 +539,49 @@ class ZKStream extends PersistentStreamBase<Integer> {
                 .whenComplete((r, e) -> cache.invalidateCache(completedTxPath));
     }
 
+    @Override
+    CompletableFuture<Void> commitTxEntries(final List<UUID> txIds, final long timestamp) {
+        final byte[] completedTxnRecord = new CompletedTxnRecord(timestamp, TxnStatus.COMMITTED).toByteArray();
+        final List<String> paths = new ArrayList<>();
+        final List<CuratorOp> operations = new ArrayList<>();
+        try {
+            TransactionOp op = store.getClient().transactionOp();
+            for (UUID txId : txIds) {
+                final String completedPath = getCompletedTxPath(txId.toString());
+                final String activePath = getActiveTxPath(getTransactionEpoch(txId), txId.toString());
+                operations.add(op.create().forPath(completedPath, completedTxnRecord));
+                operations.add(op.delete().forPath(activePath));
+                paths.add(completedPath);
+                paths.add(activePath);
+            }
+        } catch (Exception e) {
+            return Futures.failedFuture(StoreException.create(StoreException.Type.UNKNOWN, e, completedTxPath));
+        }
+
+        Supplier<CompletableFuture<Void>> commit = () -> store.transaction(completedTxPath, operations)
+                .whenComplete((r, e) -> paths.forEach(cache::invalidateCache));
+        // The parent of the completed entries is only created along with the first of them.
+        CompletableFuture<Void> result = Futures.exceptionallyComposeExpecting(commit.get(),
+                e -> e instanceof StoreException.DataNotFoundException,
+                () -> store.createZNodeIfNotExist(completedTxPath).thenCompose(v -> commit.get()));
+        // Some of the transactions have been partially committed already: commit them one after the other instead.
+        result = Futures.exceptionallyComposeExpecting(result,
+                e -> e instanceof StoreException.DataExistsException || e instanceof StoreException.DataNotFoundException,
+                () -> {
+                    CompletableFuture<Void> inOrder = CompletableFuture.completedFuture(null);
+                    for (UUID txId : txIds) {
+                        inOrder = inOrder.thenCompose(v -> createCompletedTxEntry(txId, TxnStatus.COMMITTED, timestamp))
+                                         .thenCompose(v -> removeActiveTxEntry(getTransactionEpoch(txId), txId));
+                    }
+                    return inOrder;
+                });
+        // Attempt to delete the epoch nodes that are now empty, as removeActiveTxEntry does.
+        return result.thenCompose(v -> Futures.allOf(txIds.stream().map(this::getTransactionEpoch).distinct()
+                .map(epoch -> Futures.exceptionallyExpecting(store.deleteNode(getEpochPath(epoch)),
+                        e -> e instanceof StoreException.DataNotEmptyException || e instanceof StoreException.DataNotFoundException, null))
+                .collect(Collectors.toList())));
+    }
+
     @Override
     public CompletableFuture<Void> createTruncationDataIfAbsent(final StreamTruncationRecord truncationRecord) {
         return store.createZNodeIfNotExist(truncationPath, truncationRecord.toByteArray())
@@ -443,7 +597,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Override
     CompletableFuture<Data<Integer>> getTruncationData(boolean ignoreCached) {
         if (ignoreCached) {
-            cache.invalidateCache(truncationPath);
+            return getValidatedData(truncationPath);
         }
 
         return cache.getCachedData(truncationPath);
@@ -458,7 +612,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Override
     CompletableFuture<Data<Integer>> getConfigurationData(boolean ignoreCached) {
         if (ignoreCached) {
-            cache.invalidateCache(configurationPath);
+            return getValidatedData(configurationPath);
         }
 
         return cache.getCachedData(configurationPath);
@@ -473,7 +627,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Override
     CompletableFuture<Data<Integer>> getStateData(boolean ignoreCached) {
         if (ignoreCached) {
-            cache.invalidateCache(statePath);
+            return getValidatedData(statePath);
         }
 
         return cache.getCachedData(statePath);
@@ -487,8 +641,8 @@ class ZKStream extends PersistentStreamBase<Integer> {
         return store.checkExists(segmentPath)
                 .thenCompose(exists -> {
                     if (!exists) {
-                        return store.deletePath(segmentIndexPath, false)
-                            .thenCompose(v -> store.createZNodeIfNotExist(segmentIndexPath, data.getData()));
+                        return segmentIndex.delete()
+                            .thenCompose(v -> segmentIndex.createIfAbsent(data.getData()));
                     } else {
                         return CompletableFuture.completedFuture(null);
                     }
@@ -503,13 +657,12 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     @Override
     CompletableFuture<Data<Integer>> getSegmentIndexFromStore() {
-        cache.invalidateCache(segmentIndexPath);
-        return getSegmentIndex();
+        return getValidatedData(segmentIndexPath);
     }
 
     @Override
     CompletableFuture<Void> updateSegmentIndex(Data<Integer> data) {
-        return store.setData(segmentIndexPath, data)
+        return segmentIndex.update(data)
                 .whenComplete((r, e) -> cache.invalidateCache(segmentIndexPath));
     }
 
@@ -520,13 +673,12 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     @Override
     CompletableFuture<Data<Integer>> getSegmentTableFromStore() {
-        cache.invalidateCache(segmentPath);
-        return getSegmentTable();
+        return getValidatedData(segmentPath);
     }
 
     @Override
     CompletableFuture<Void> updateSegmentTable(final Data<Integer> data) {
-        return store.setData(segmentPath, data)
+        return segmentTable.update(data)
                 .whenComplete((r, e) -> cache.invalidateCache(segmentPath));
     }
 
@@ -537,8 +689,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     @Override
     CompletableFuture<Data<Integer>> getHistoryTableFromStore() {
-        cache.invalidateCache(historyPath);
-        return getHistoryTable();
+        return getValidatedData(historyPath);
     }
 
     @Override
@@ -548,13 +699,12 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     @Override
     CompletableFuture<Data<Integer>> getHistoryIndexFromStore() {
-        cache.invalidateCache(historyIndexPath);
-        return getHistoryIndex();
+        return getValidatedData(historyIndexPath);
     }
 
     @Override
     CompletableFuture<Void> updateHistoryIndex(final Data<Integer> updated) {
-        return store.setData(historyIndexPath, updated)
+        return historyIndex.update(updated)
                 .whenComplete((r, e) -> cache.invalidateCache(historyIndexPath));
     }
 
@@ -566,13 +716,13 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     @Override
     CompletableFuture<Data<Integer>> getCommittingTxnRecord() {
-        cache.invalidateCache(committingTxnsPath);
-        return cache.getCachedData(committingTxnsPath);
+        return getValidatedData(committingTxnsPath);
     }
 
     @Override
     CompletableFuture<Void> deleteCommittingTxnRecord() {
-        return store.deletePath(committingTxnsPath, false);
+        return store.deletePath(committingTxnsPath, false)
+                .whenComplete((r, e) -> cache.invalidateCache(committingTxnsPath));
     }
 
     @Override
@@ -588,7 +738,8 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     @Override
     CompletableFuture<Void> deleteWaitingRequestNode() {
-        return store.deletePath(waitingRequestProcessorPath, false);
+        return store.deletePath(waitingRequestProcessorPath, false)
+                .whenComplete((r, e) -> cache.invalidateCache(waitingRequestProcessorPath));
     }
 
     // endregion
@@ -24,10 +24,13 @@ import io.pravega.controller.util.Config;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.recipes.cache.PathChildrenCache;
 import org.apache.curator.framework.recipes.cache.PathChildrenCacheListener;
 import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
 
 import javax.annotation.concurrent.GuardedBy;
 import java.io.IOException;
@@ -71,6 +74,7 @@ class ZKStreamMetadataStore extends AbstractStreamMetadataStore {
     private final AtomicInt96 counter;
     @GuardedBy("lock")
     private volatile CompletableFuture<Void> refreshFutureRef;
+    private final Watcher streamWatcher = this::onStreamWatchedEvent;
 
     ZKStreamMetadataStore(CuratorFramework client, Executor executor) {
         this (client, Config.BUCKET_COUNT, executor);
@@ -94,7 +98,28 @@ class ZKStreamMetadataStore extends AbstractStreamMetadataStore {
 
     @Override
     ZKStream newStream(final String scope, final String name) {
-        return new ZKStream(scope, name, storeHelper);
+        return new ZKStream(scope, name, storeHelper, streamWatcher);
+    }
+
+    /**
+     * Hands the notifications for the watches that the streams set on their metadata to the streams that are cached at
+     * the time. ZooKeeper keeps a watcher until its watch fires, so all the streams share this one, rather than each
+     * being kept around by its own long after it was evicted from the cache.
+     */
+    private void onStreamWatchedEvent(WatchedEvent event) {
+        if (event.getType() == Watcher.Event.EventType.None) {
+            getCachedStreams().forEach(stream -> {
+                if (stream instanceof ZKStream) {
+                    ((ZKStream) stream).onWatchedEvent(event);
+                }
+            });
+        } else {
+            Pair<String, String> streamName = ZKStream.getStreamForPath(event.getPath());
+            Stream stream = streamName == null ? null : getCachedStream(streamName.getKey(), streamName.getValue());
+            if (stream instanceof ZKStream) {
+                ((ZKStream) stream).onWatchedEvent(event);
+            }
+        }
     }
 
     @Override
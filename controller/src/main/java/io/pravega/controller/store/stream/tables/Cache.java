@@ -12,12 +12,28 @@ package io.pravega.controller.store.stream.tables;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import io.pravega.shared.MetricsNames;
+import io.pravega.shared.metrics.Counter;
+import io.pravega.shared.metrics.Gauge;
+import io.pravega.shared.metrics.MetricsProvider;
+import io.pravega.shared.metrics.StatsLogger;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
+/**
+ * Caches the metadata read from the store. The hit and miss counts and the number of cached entries are reported
+ * (summed over all the caches) as metrics.
+ */
 public class Cache<T> {
+    private static final StatsLogger STATS_LOGGER = MetricsProvider.createStatsLogger("controller");
+    private static final Counter HITS = STATS_LOGGER.createCounter(MetricsNames.METADATA_CACHE_HITS);
+    private static final Counter MISSES = STATS_LOGGER.createCounter(MetricsNames.METADATA_CACHE_MISSES);
+    private static final AtomicLong SIZE = new AtomicLong();
+    private static final Gauge SIZE_GAUGE = STATS_LOGGER.registerGauge(MetricsNames.METADATA_CACHE_SIZE, SIZE::get);
 
     @FunctionalInterface
     public interface Loader<U> {
@@ -30,10 +46,12 @@ public class Cache<T> {
         cache = CacheBuilder.newBuilder()
                 .maximumSize(10000)
                 .expireAfterWrite(10, TimeUnit.MINUTES)
+                .removalListener(notification -> SIZE.decrementAndGet())
                 .build(new CacheLoader<String, CompletableFuture<Data<T>>>() {
                     @ParametersAreNonnullByDefault
                     @Override
                     public CompletableFuture<Data<T>> load(final String key) {
+                        SIZE.incrementAndGet();
                         CompletableFuture<Data<T>> result = loader.get(key);
                         result.exceptionally(ex -> {
                             invalidateCache(key);
@@ -45,9 +63,26 @@ public class Cache<T> {
     }
 
     public CompletableFuture<Data<T>> getCachedData(final String key) {
+        CompletableFuture<Data<T>> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            HITS.inc();
+            return cached;
+        }
+
+        MISSES.inc();
         return cache.getUnchecked(key);
     }
 
+    /**
+     * Gets the data cached for the given key, without loading it if it is not cached.
+     *
+     * @param key The key.
+     * @return The cached data (which may still be loading), or null if there is none.
+     */
+    public CompletableFuture<Data<T>> getIfPresent(final String key) {
+        return cache.getIfPresent(key);
+    }
+
     public Void invalidateCache(final String key) {
         cache.invalidate(key);
         return null;
@@ -57,4 +92,9 @@ public class Cache<T> {
         cache.invalidateAll();
         return null;
     }
+
+    public Void invalidateIf(final Predicate<String> keyPredicate) {
+        cache.asMap().keySet().removeIf(keyPredicate);
+        return null;
+    }
 }
@@ -648,11 +648,8 @@ public class StreamMetadataTasks extends TaskBase {
     }
 
     public CompletableFuture<Void> notifyNewSegments(String scope, String stream, StreamConfiguration configuration, List<Long> segmentIds, String controllerToken) {
-        return Futures.toVoid(Futures.allOfWithResults(segmentIds
-                .stream()
-                .parallel()
-                .map(segment -> notifyNewSegment(scope, stream, segment, configuration.getScalingPolicy(), controllerToken))
-                .collect(Collectors.toList())));
+        return Futures.toVoid(withRetries(() -> segmentHelper.createSegments(scope, stream, segmentIds,
+                configuration.getScalingPolicy(), hostControllerStore, this.connectionFactory, controllerToken), executor));
     }
 
     public CompletableFuture<Void> notifyNewSegment(String scope, String stream, long segmentId, ScalingPolicy policy, String controllerToken) {
@@ -661,8 +658,8 @@ public class StreamMetadataTasks extends TaskBase {
     }
 
     public CompletableFuture<Void> notifyDeleteSegments(String scope, String stream, Set<Long> segmentsToDelete, String delegationToken) {
-        return Futures.allOf(segmentsToDelete.stream().parallel().map(segment -> notifyDeleteSegment(scope, stream, segment, delegationToken))
-                                      .collect(Collectors.toList()));
+        return Futures.toVoid(withRetries(() -> segmentHelper.deleteSegments(scope,
+                stream, segmentsToDelete, hostControllerStore, this.connectionFactory, delegationToken), executor));
     }
 
     public CompletableFuture<Void> notifyDeleteSegment(String scope, String stream, long segmentId, String delegationToken) {
@@ -684,19 +681,10 @@ public class StreamMetadataTasks extends TaskBase {
     }
 
     public CompletableFuture<Void> notifySealedSegments(String scope, String stream, List<Long> sealedSegments, String delegationToken) {
-        return Futures.allOf(
-                sealedSegments
-                        .stream()
-                        .parallel()
-                        .map(id -> notifySealedSegment(scope, stream, id, delegationToken))
-                        .collect(Collectors.toList()));
-    }
-
-    private CompletableFuture<Void> notifySealedSegment(final String scope, final String stream, final long sealedSegment, String delegationToken) {
-        return Futures.toVoid(withRetries(() -> segmentHelper.sealSegment(
+        return Futures.toVoid(withRetries(() -> segmentHelper.sealSegments(
                 scope,
                 stream,
-                sealedSegment,
+                sealedSegments,
                 hostControllerStore,
                 this.connectionFactory, delegationToken), executor));
     }
@@ -775,6 +763,29 @@ public class StreamMetadataTasks extends TaskBase {
                 this.connectionFactory, this.retrieveDelegationToken()), executor);
     }
 
+    /**
+     * Commits the given transactions, in the order in which they are listed, on all the given segments. Each segment is
+     * sent a single request that merges all the transactions into it (see {@link SegmentHelper#commitTransactions}).
+     *
+     * @param scope    scope name.
+     * @param stream   stream name.
+     * @param segments segments on which the transactions are to be committed.
+     * @param txnIds   ids of the transactions, in commit order.
+     * @return A future which completes once all the transactions have been committed on all the segments.
+     */
+    public CompletableFuture<Void> notifyTxnsCommit(final String scope, final String stream,
+                                                    final List<Long> segments, final List<UUID> txnIds) {
+        return Futures.allOf(segments.stream()
+                .parallel()
+                .map(segment -> TaskStepsRetryHelper.withRetries(() -> segmentHelper.commitTransactions(scope,
+                        stream,
+                        segment,
+                        txnIds,
+                        this.hostControllerStore,
+                        this.connectionFactory, this.retrieveDelegationToken()), executor))
+                .collect(Collectors.toList()));
+    }
+
     public CompletableFuture<Void> notifyTxnAbort(final String scope, final String stream,
                                                   final List<Long> segments, final UUID txnId) {
         return Futures.allOf(segments.stream()
@@ -91,6 +91,10 @@ public final class Config {
     // Request Stream readerGroup
     public static final String SCALE_READER_GROUP = CONFIG.getString("config.controller.server.internal.scale.readerGroup.name");
 
+    // Controller event processors (request, commit and abort streams)
+    public static final int EVENT_PROCESSOR_SEGMENT_COUNT = CONFIG.getInt("config.controller.server.internal.eventProcessors.segmentCount");
+    public static final int EVENT_PROCESSOR_CELL_COUNT = CONFIG.getInt("config.controller.server.internal.eventProcessors.cellCount");
+
     // Metrics
     private static final String METRIC_PATH = "config.controller.metric";
 
@@ -13,6 +13,7 @@ import io.pravega.common.concurrent.Futures;
 import io.pravega.controller.server.SegmentHelper;
 import io.pravega.controller.stream.api.grpc.v1.Controller.NodeUri;
 import io.pravega.shared.protocol.netty.WireCommands;
+import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -39,6 +40,15 @@ public class SegmentHelperMock {
         doReturn(CompletableFuture.completedFuture(true)).when(helper).deleteSegment(
                 anyString(), anyString(), anyLong(), any(), any(), any());
 
+        doReturn(CompletableFuture.completedFuture(true)).when(helper).sealSegments(
+                anyString(), anyString(), any(), any(), any(), any());
+
+        doReturn(CompletableFuture.completedFuture(true)).when(helper).createSegments(
+                anyString(), anyString(), any(), any(), any(), any(), any());
+
+        doReturn(CompletableFuture.completedFuture(true)).when(helper).deleteSegments(
+                anyString(), anyString(), any(), any(), any(), any());
+
         doReturn(CompletableFuture.completedFuture(true)).when(helper).createTransaction(
                 anyString(), anyString(), anyLong(), any(), any(), any(), any());
 
@@ -48,6 +58,9 @@ public class SegmentHelperMock {
         doReturn(CompletableFuture.completedFuture(true)).when(helper).commitTransaction(
                 anyString(), anyString(), anyLong(), anyLong(), any(), any(), any(), any());
 
+        doReturn(CompletableFuture.completedFuture(Collections.emptyList())).when(helper).commitTransactions(
+                anyString(), anyString(), anyLong(), any(), any(), any(), any());
+
         doReturn(CompletableFuture.completedFuture(true)).when(helper).updatePolicy(
                 anyString(), anyString(), any(), anyLong(), any(), any(), any());
 
@@ -75,6 +88,15 @@ public class SegmentHelperMock {
         doReturn(Futures.failedFuture(new RuntimeException())).when(helper).deleteSegment(
                 anyString(), anyString(), anyLong(), any(), any(), any());
 
+        doReturn(Futures.failedFuture(new RuntimeException())).when(helper).sealSegments(
+                anyString(), anyString(), any(), any(), any(), any());
+
+        doReturn(Futures.failedFuture(new RuntimeException())).when(helper).createSegments(
+                anyString(), anyString(), any(), any(), any(), any(), any());
+
+        doReturn(Futures.failedFuture(new RuntimeException())).when(helper).deleteSegments(
+                anyString(), anyString(), any(), any(), any(), any());
+
         doReturn(Futures.failedFuture(new RuntimeException())).when(helper).createTransaction(
                 anyString(), anyString(), anyLong(), any(), any(), any(), any());
 
@@ -84,6 +106,9 @@ public class SegmentHelperMock {
         doReturn(Futures.failedFuture(new RuntimeException())).when(helper).commitTransaction(
                 anyString(), anyString(), anyLong(), anyLong(), any(), any(), any(), any());
 
+        doReturn(Futures.failedFuture(new RuntimeException())).when(helper).commitTransactions(
+                anyString(), anyString(), anyLong(), any(), any(), any(), any());
+
         doReturn(Futures.failedFuture(new RuntimeException())).when(helper).updatePolicy(
                 anyString(), anyString(), any(), anyLong(), any(), any(), any());
 
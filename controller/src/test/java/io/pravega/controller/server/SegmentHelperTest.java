@@ -23,17 +23,25 @@ import io.pravega.shared.protocol.netty.ReplyProcessor;
 import io.pravega.shared.protocol.netty.WireCommand;
 import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.test.common.AssertExtensions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
 import lombok.Getter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 public class SegmentHelperTest {
 
     private SegmentHelper helper;
@@ -105,6 +113,66 @@ public class SegmentHelperTest {
         );
     }
 
+    @Test
+    public void batchedSegmentRequests() {
+        // All the segments are on the same host, so they are created using a single request, each part of which is
+        // replied to individually.
+        MockConnectionFactory factory = new MockConnectionFactory();
+        CompletableFuture<Boolean> created = helper.createSegments("", "", Arrays.asList(0L, 1L, 2L), ScalingPolicy.fixed(3),
+                new MockHostControllerStore(), factory, "");
+        assertEquals(1, factory.getConnection().getSent().size());
+        List<WireCommands.CreateSegment> creates = ((WireCommands.CreateSegments) factory.getConnection().getSent().get(0)).getSegments();
+        assertEquals(3, creates.size());
+        factory.rp.process(new WireCommands.SegmentCreated(creates.get(0).getRequestId(), creates.get(0).getSegment()));
+        factory.rp.process(new WireCommands.SegmentAlreadyExists(creates.get(1).getRequestId(), creates.get(1).getSegment()));
+        assertFalse(created.isDone());
+        factory.rp.process(new WireCommands.SegmentCreated(creates.get(2).getRequestId(), creates.get(2).getSegment()));
+        assertTrue(created.join());
+
+        // The whole operation fails if any of the segments fails.
+        factory = new MockConnectionFactory();
+        CompletableFuture<Boolean> sealed = helper.sealSegments("", "", Arrays.asList(0L, 1L), new MockHostControllerStore(), factory, "");
+        List<WireCommands.SealSegment> seals = ((WireCommands.SealSegments) factory.getConnection().getSent().get(0)).getSegments();
+        factory.rp.process(new WireCommands.SegmentSealed(seals.get(0).getRequestId(), seals.get(0).getSegment()));
+        factory.rp.process(new WireCommands.AuthTokenCheckFailed(seals.get(1).getRequestId()));
+        AssertExtensions.assertThrows("",
+                () -> sealed.join(),
+                ex -> ex instanceof WireCommandFailedException
+                        && ex.getCause() instanceof AuthenticationException
+        );
+
+        // A single segment is deleted using a plain request.
+        factory = new MockConnectionFactory();
+        CompletableFuture<Boolean> deleted = helper.deleteSegments("", "", Collections.singleton(0L), new MockHostControllerStore(), factory, "");
+        WireCommands.DeleteSegment delete = (WireCommands.DeleteSegment) factory.getConnection().getSent().get(0);
+        factory.rp.process(new WireCommands.NoSuchSegment(delete.getRequestId(), delete.getSegment()));
+        assertTrue(deleted.join());
+    }
+
+    @Test
+    public void batchedSegmentRequestsToOldServer() {
+        // A Segment Store that does not know of batches is sent each request on its own, on the same connection.
+        MockConnectionFactory factory = new MockConnectionFactory(WireCommands.BATCH_SEGMENT_RPCS_VERSION - 1);
+        CompletableFuture<Boolean> created = helper.createSegments("", "", Arrays.asList(0L, 1L), ScalingPolicy.fixed(2),
+                new MockHostControllerStore(), factory, "");
+        assertEquals(2, factory.getConnection().getSent().size());
+        for (WireCommand sent : factory.getConnection().getSent()) {
+            WireCommands.CreateSegment create = (WireCommands.CreateSegment) sent;
+            assertFalse(created.isDone());
+            factory.rp.process(new WireCommands.SegmentCreated(create.getRequestId(), create.getSegment()));
+        }
+        assertTrue(created.join());
+
+        factory = new MockConnectionFactory(WireCommands.BATCH_SEGMENT_RPCS_VERSION - 1);
+        CompletableFuture<Boolean> sealed = helper.sealSegments("", "", Arrays.asList(0L, 1L), new MockHostControllerStore(), factory, "");
+        assertEquals(2, factory.getConnection().getSent().size());
+        for (WireCommand sent : factory.getConnection().getSent()) {
+            WireCommands.SealSegment seal = (WireCommands.SealSegment) sent;
+            factory.rp.process(new WireCommands.SegmentSealed(seal.getRequestId(), seal.getSegment()));
+        }
+        assertTrue(sealed.join());
+    }
+
     @Test
     public void createTransaction() {
         MockConnectionFactory factory = new MockConnectionFactory();
@@ -131,6 +199,63 @@ public class SegmentHelperTest {
         );
     }
 
+    @Test
+    public void commitTransactions() {
+        // All the transactions are merged into the segment using a single request, each part of which is replied to
+        // individually.
+        MockConnectionFactory factory = new MockConnectionFactory();
+        CompletableFuture<List<Controller.TxnStatus>> retVal = helper.commitTransactions("", "", 0L,
+                Arrays.asList(new UUID(0, 0L), new UUID(0, 1L), new UUID(0, 2L)), new MockHostControllerStore(), factory, "");
+        assertEquals(1, factory.getConnection().getSent().size());
+        List<WireCommands.MergeSegments> merges = ((WireCommands.MergeSegmentsBatch) factory.getConnection().getSent().get(0)).getMerges();
+        assertEquals(3, merges.size());
+        factory.rp.process(new WireCommands.SegmentsMerged(merges.get(0).getRequestId(), merges.get(0).getTarget(), merges.get(0).getSource()));
+        factory.rp.process(new WireCommands.NoSuchSegment(merges.get(1).getRequestId(), merges.get(1).getSource()));
+        assertFalse(retVal.isDone());
+        factory.rp.process(new WireCommands.NoSuchSegment(merges.get(2).getRequestId(), merges.get(2).getTarget()));
+        List<Controller.TxnStatus.Status> statuses = retVal.join().stream().map(Controller.TxnStatus::getStatus).collect(Collectors.toList());
+        assertEquals(Arrays.asList(Controller.TxnStatus.Status.SUCCESS, Controller.TxnStatus.Status.SUCCESS,
+                Controller.TxnStatus.Status.FAILURE), statuses);
+
+        // A single transaction is committed using a plain request.
+        factory = new MockConnectionFactory();
+        CompletableFuture<List<Controller.TxnStatus>> single = helper.commitTransactions("", "", 0L,
+                Collections.singletonList(new UUID(0, 0L)), new MockHostControllerStore(), factory, "");
+        WireCommands.MergeSegments merge = (WireCommands.MergeSegments) factory.getConnection().getSent().get(0);
+        factory.rp.process(new WireCommands.SegmentsMerged(merge.getRequestId(), merge.getTarget(), merge.getSource()));
+        assertEquals(1, single.join().size());
+    }
+
+    @Test
+    public void commitTransactionsOnOldServer() {
+        // A Segment Store that does not know of batches is sent one merge at a time, each once the previous one is done.
+        MockConnectionFactory factory = new MockConnectionFactory(WireCommands.BATCH_SEGMENT_RPCS_VERSION - 1);
+        CompletableFuture<List<Controller.TxnStatus>> retVal = helper.commitTransactions("", "", 0L,
+                Arrays.asList(new UUID(0, 0L), new UUID(0, 1L)), new MockHostControllerStore(), factory, "");
+        List<WireCommand> sent = factory.getConnection().getSent();
+        assertEquals(1, sent.size());
+        WireCommands.MergeSegments first = (WireCommands.MergeSegments) sent.get(0);
+        factory.rp.process(new WireCommands.SegmentsMerged(first.getRequestId(), first.getTarget(), first.getSource()));
+        assertEquals(2, sent.size());
+        WireCommands.MergeSegments second = (WireCommands.MergeSegments) sent.get(1);
+        assertFalse(retVal.isDone());
+        factory.rp.process(new WireCommands.SegmentsMerged(second.getRequestId(), second.getTarget(), second.getSource()));
+        assertEquals(2, retVal.join().size());
+
+        // The transactions after a failed one are not merged.
+        factory = new MockConnectionFactory(WireCommands.BATCH_SEGMENT_RPCS_VERSION - 1);
+        CompletableFuture<List<Controller.TxnStatus>> failed = helper.commitTransactions("", "", 0L,
+                Arrays.asList(new UUID(0, 0L), new UUID(0, 1L)), new MockHostControllerStore(), factory, "");
+        first = (WireCommands.MergeSegments) factory.getConnection().getSent().get(0);
+        factory.rp.process(new WireCommands.AuthTokenCheckFailed(first.getRequestId()));
+        assertEquals(1, factory.getConnection().getSent().size());
+        AssertExtensions.assertThrows("",
+                () -> failed.join(),
+                ex -> ex instanceof WireCommandFailedException
+                        && ex.getCause() instanceof AuthenticationException
+        );
+    }
+
     @Test
     public void abortTransaction() {
         MockConnectionFactory factory = new MockConnectionFactory();
@@ -194,13 +319,24 @@ public class SegmentHelperTest {
     }
 
     private class MockConnectionFactory implements ConnectionFactory {
+        private final int serverWireVersion;
         @Getter
         private ReplyProcessor rp;
+        @Getter
+        private MockConnection connection;
+
+        MockConnectionFactory() {
+            this(WireCommands.WIRE_VERSION);
+        }
+
+        MockConnectionFactory(int serverWireVersion) {
+            this.serverWireVersion = serverWireVersion;
+        }
 
         @Override
         public CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, ReplyProcessor rp) {
             this.rp = rp;
-            ClientConnection connection = new MockConnection(rp);
+            this.connection = new MockConnection(rp, serverWireVersion);
             return CompletableFuture.completedFuture(connection);
         }
 
@@ -218,14 +354,23 @@ public class SegmentHelperTest {
     private class MockConnection implements ClientConnection {
         @Getter
         private final ReplyProcessor rp;
+        @Getter
+        private final List<WireCommand> sent = new ArrayList<>();
+        private final int serverWireVersion;
 
-        public MockConnection(ReplyProcessor rp) {
+        public MockConnection(ReplyProcessor rp, int serverWireVersion) {
             this.rp = rp;
+            this.serverWireVersion = serverWireVersion;
         }
 
         @Override
-        public void send(WireCommand cmd) throws ConnectionFailedException {
+        public CompletableFuture<Integer> getServerWireVersion() {
+            return CompletableFuture.completedFuture(serverWireVersion);
+        }
 
+        @Override
+        public void send(WireCommand cmd) throws ConnectionFailedException {
+            sent.add(cmd);
         }
 
         @Override
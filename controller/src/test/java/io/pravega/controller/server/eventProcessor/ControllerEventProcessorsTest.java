@@ -12,6 +12,7 @@ package io.pravega.controller.server.eventProcessor;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Service;
 import io.pravega.common.concurrent.Futures;
+import io.pravega.controller.eventProcessor.EventProcessorConfig;
 import io.pravega.controller.eventProcessor.EventProcessorGroup;
 import io.pravega.controller.eventProcessor.EventProcessorSystem;
 import io.pravega.controller.server.eventProcessor.impl.ControllerEventProcessorConfigImpl;
@@ -21,6 +22,7 @@ import io.pravega.controller.store.host.HostControllerStore;
 import io.pravega.controller.store.stream.StreamMetadataStore;
 import io.pravega.controller.task.Stream.StreamMetadataTasks;
 import io.pravega.controller.task.Stream.StreamTransactionMetadataTasks;
+import io.pravega.controller.util.Config;
 import io.pravega.shared.controller.event.AbortEvent;
 import io.pravega.shared.controller.event.CommitEvent;
 import io.pravega.shared.controller.event.ControllerEvent;
@@ -28,6 +30,7 @@ import io.pravega.client.netty.impl.ConnectionFactory;
 import io.pravega.client.stream.EventStreamWriter;
 import io.pravega.client.stream.impl.Controller;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.Set;
 import java.util.UUID;
@@ -41,6 +44,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ControllerEventProcessorsTest {
@@ -153,6 +158,13 @@ public class ControllerEventProcessorsTest {
                 system, executor);
         processors.startAsync();
         processors.awaitRunning();
+
+        // Each controller instance runs the configured number of cells for each of the streams.
+        ArgumentCaptor<EventProcessorConfig> captor = ArgumentCaptor.forClass(EventProcessorConfig.class);
+        verify(system, times(3)).createEventProcessorGroup(captor.capture(), any());
+        for (EventProcessorConfig<?> processorConfig : captor.getAllValues()) {
+            assertEquals(Config.EVENT_PROCESSOR_CELL_COUNT, processorConfig.getConfig().getEventProcessorCount());
+        }
         assertTrue(Futures.await(processors.sweepFailedProcesses(() -> Sets.newHashSet("host1"))));
         assertTrue(Futures.await(processors.handleFailedProcess("host1")));
         processors.shutDown();
@@ -40,6 +40,7 @@ import java.io.IOException;
 import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -765,6 +766,48 @@ public abstract class StreamMetadataStoreTest {
         // endregion
     }
 
+    @Test
+    public void commitTransactionsTest() throws Exception {
+        final String scope = "ScopeCommitTxns";
+        final String stream = "StreamCommitTxns";
+        final ScalingPolicy policy = ScalingPolicy.fixed(2);
+        final StreamConfiguration configuration = StreamConfiguration.builder().scope(scope).streamName(stream).scalingPolicy(policy).build();
+
+        long start = System.currentTimeMillis();
+        store.createScope(scope).get();
+        store.createStream(scope, stream, configuration, start, null, executor).get();
+        store.setState(scope, stream, State.ACTIVE, null, executor).get();
+
+        List<UUID> txnIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UUID txnId = store.generateTransactionId(scope, stream, null, executor).join();
+            VersionedTransactionData txn = store.createTransaction(scope, stream, txnId, 100, 100, null, executor).get();
+            store.sealTransaction(scope, stream, txn.getId(), true, Optional.of(txn.getVersion()), null, executor).get();
+            txnIds.add(txnId);
+        }
+        UUID openTxnId = store.generateTransactionId(scope, stream, null, executor).join();
+        store.createTransaction(scope, stream, openTxnId, 100, 100, null, executor).get();
+        store.setState(scope, stream, State.COMMITTING_TXN, null, executor).join();
+
+        // A transaction which has been committed already is left as it is.
+        store.commitTransaction(scope, stream, txnIds.get(0), null, executor).get();
+        store.commitTransactions(scope, stream, txnIds, null, executor).get();
+        for (UUID txnId : txnIds) {
+            assertEquals(TxnStatus.COMMITTED, store.transactionStatus(scope, stream, txnId, null, executor).join());
+        }
+
+        // Committing the same transactions again is a no-op.
+        store.commitTransactions(scope, stream, txnIds, null, executor).get();
+        for (UUID txnId : txnIds) {
+            assertEquals(TxnStatus.COMMITTED, store.transactionStatus(scope, stream, txnId, null, executor).join());
+        }
+
+        AssertExtensions.assertThrows("An open transaction was committed",
+                store.commitTransactions(scope, stream, Collections.singletonList(openTxnId), null, executor),
+                e -> Exceptions.unwrap(e) instanceof StoreException.IllegalStateException);
+        assertEquals(TxnStatus.OPEN, store.transactionStatus(scope, stream, openTxnId, null, executor).join());
+    }
+
     @Test
     public void scaleWithTxnForInconsistentScanerios() throws Exception {
         final String scope = "ScopeScaleWithTx";
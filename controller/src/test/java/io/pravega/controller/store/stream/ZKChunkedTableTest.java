@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream;
+
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.controller.store.stream.tables.Data;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.TestingServerStarter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.RetryNTimes;
+import org.apache.curator.test.TestingServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for ZKChunkedTable.
+ */
+public class ZKChunkedTableTest {
+    private static final String PATH = "/test/table";
+    private static final int CHUNK_SIZE = 10;
+
+    @Rule
+    public Timeout globalTimeout = new Timeout(30, TimeUnit.SECONDS);
+
+    private TestingServer zkServer;
+    private CuratorFramework cli;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private ZKStoreHelper zkStoreHelper;
+
+    @Before
+    public void setup() throws Exception {
+        zkServer = new TestingServerStarter().start();
+        cli = CuratorFrameworkFactory.newClient(zkServer.getConnectString(), 100, 100, new RetryNTimes(0, 0));
+        cli.start();
+        zkStoreHelper = new ZKStoreHelper(cli, executor);
+        zkStoreHelper.enableChunkedTables().join();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        ExecutorServiceHelpers.shutdown(executor);
+        cli.close();
+        zkServer.close();
+    }
+
+    @Test
+    public void testAppendOnlyUpdates() throws Exception {
+        ZKChunkedTable table = new ZKChunkedTable(zkStoreHelper, PATH, CHUNK_SIZE);
+        byte[] data = sequence(25);
+        table.createIfAbsent(data).join();
+        table.createIfAbsent(sequence(5)).join();
+        Assert.assertEquals(3, cli.getChildren().forPath(PATH).size());
+
+        Data<Integer> read = table.read().join();
+        Assert.assertArrayEquals(data, read.getData());
+        Assert.assertEquals(0, (int) read.getVersion());
+
+        // Appending only rewrites the last chunk and creates the new ones.
+        byte[] appended = sequence(42);
+        table.update(new Data<>(appended, read.getVersion())).join();
+        Assert.assertEquals(0, cli.checkExists().forPath(PATH + "/0").getVersion());
+        Assert.assertEquals(0, cli.checkExists().forPath(PATH + "/1").getVersion());
+        Assert.assertEquals(1, cli.checkExists().forPath(PATH + "/2").getVersion());
+        Assert.assertEquals(0, cli.checkExists().forPath(PATH + "/4").getVersion());
+
+        // Rewriting the end of the table rewrites all the chunks it touches.
+        byte[] rewritten = Arrays.copyOf(appended, appended.length);
+        rewritten[15] = -1;
+        table.update(new Data<>(rewritten, 1)).join();
+        Assert.assertEquals(0, cli.checkExists().forPath(PATH + "/0").getVersion());
+        Assert.assertEquals(1, cli.checkExists().forPath(PATH + "/1").getVersion());
+
+        // Another instance (with nothing cached) sees the same table.
+        ZKChunkedTable other = new ZKChunkedTable(zkStoreHelper, PATH, CHUNK_SIZE);
+        read = other.read().join();
+        Assert.assertArrayEquals(rewritten, read.getData());
+        Assert.assertEquals(2, (int) read.getVersion());
+
+        // Shrinking the table deletes the chunks past its end.
+        byte[] truncated = Arrays.copyOf(rewritten, 12);
+        other.update(new Data<>(truncated, read.getVersion())).join();
+        Assert.assertEquals(2, cli.getChildren().forPath(PATH).size());
+
+        // The first instance has a stale copy of the table, so it cannot update it, but it can read it back.
+        AssertExtensions.assertThrows("Update of a stale version should fail",
+                table.update(new Data<>(sequence(50), 2)),
+                e -> e instanceof StoreException.WriteConflictException);
+        read = table.read().join();
+        Assert.assertArrayEquals(truncated, read.getData());
+        Assert.assertEquals(3, (int) read.getVersion());
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+        ZKChunkedTable table = new ZKChunkedTable(zkStoreHelper, PATH, CHUNK_SIZE);
+        table.delete().join();
+        table.createIfAbsent(sequence(15)).join();
+        table.delete().join();
+        Assert.assertNull(cli.checkExists().forPath(PATH));
+        AssertExtensions.assertThrows("Read of a deleted table should fail", table.read(),
+                e -> e instanceof StoreException.DataNotFoundException);
+
+        byte[] empty = new byte[0];
+        table.createIfAbsent(empty).join();
+        Data<Integer> read = table.read().join();
+        Assert.assertArrayEquals(empty, read.getData());
+        table.update(new Data<>(sequence(3), read.getVersion())).join();
+        Assert.assertArrayEquals(sequence(3), table.read().join().getData());
+    }
+
+    @Test
+    public void testUpgradeFromUnchunkedTable() throws Exception {
+        // A table written before tables were chunked is a single znode, with no header.
+        byte[] data = sequence(25);
+        cli.create().creatingParentsIfNeeded().forPath(PATH, data);
+        cli.setData().forPath(PATH, data);
+
+        ZKChunkedTable table = new ZKChunkedTable(zkStoreHelper, PATH, CHUNK_SIZE);
+        Data<Integer> read = table.read().join();
+        Assert.assertArrayEquals(data, read.getData());
+        Assert.assertEquals(1, (int) read.getVersion());
+        table.createIfAbsent(sequence(5)).join();
+        Assert.assertArrayEquals(data, table.read().join().getData());
+
+        // It is converted when it is next updated.
+        byte[] appended = sequence(32);
+        table.update(new Data<>(appended, read.getVersion())).join();
+        Assert.assertEquals(4, cli.getChildren().forPath(PATH).size());
+        ZKChunkedTable other = new ZKChunkedTable(zkStoreHelper, PATH, CHUNK_SIZE);
+        read = other.read().join();
+        Assert.assertArrayEquals(appended, read.getData());
+        Assert.assertEquals(2, (int) read.getVersion());
+
+        // Tables which were (or became) empty are no different.
+        cli.delete().deletingChildrenIfNeeded().forPath(PATH);
+        cli.create().forPath(PATH, new byte[0]);
+        table = new ZKChunkedTable(zkStoreHelper, PATH, CHUNK_SIZE);
+        read = table.read().join();
+        Assert.assertEquals(0, read.getData().length);
+        table.update(new Data<>(sequence(3), read.getVersion())).join();
+        Assert.assertEquals(1, cli.getChildren().forPath(PATH).size());
+        Assert.assertArrayEquals(sequence(3), new ZKChunkedTable(zkStoreHelper, PATH, CHUNK_SIZE).read().join().getData());
+    }
+
+    @Test
+    public void testChunkingDisabled() throws Exception {
+        // Until chunked tables are enabled for the cluster, tables are written as a single znode, as before.
+        cli.delete().forPath(ZKStoreHelper.CHUNKED_TABLES_FEATURE_PATH);
+        ZKStoreHelper helper = new ZKStoreHelper(cli, executor);
+        ZKChunkedTable table = new ZKChunkedTable(helper, PATH, CHUNK_SIZE);
+        byte[] data = sequence(25);
+        table.createIfAbsent(data).join();
+        Assert.assertArrayEquals(data, cli.getData().forPath(PATH));
+        Assert.assertEquals(0, cli.getChildren().forPath(PATH).size());
+
+        byte[] updated = sequence(42);
+        table.update(new Data<>(updated, 0)).join();
+        Assert.assertArrayEquals(updated, cli.getData().forPath(PATH));
+        Assert.assertEquals(0, cli.getChildren().forPath(PATH).size());
+        Data<Integer> read = new ZKChunkedTable(helper, PATH, CHUNK_SIZE).read().join();
+        Assert.assertArrayEquals(updated, read.getData());
+        Assert.assertEquals(1, (int) read.getVersion());
+
+        // Once they are enabled, the table is converted when it is next updated.
+        helper.enableChunkedTables().join();
+        byte[] converted = sequence(45);
+        table.update(new Data<>(converted, read.getVersion())).join();
+        Assert.assertEquals(5, cli.getChildren().forPath(PATH).size());
+        read = new ZKChunkedTable(helper, PATH, CHUNK_SIZE).read().join();
+        Assert.assertArrayEquals(converted, read.getData());
+        Assert.assertEquals(2, (int) read.getVersion());
+    }
+
+    @Test
+    public void testMissingChunk() throws Exception {
+        ZKChunkedTable table = new ZKChunkedTable(zkStoreHelper, PATH, CHUNK_SIZE);
+        table.createIfAbsent(sequence(25)).join();
+        cli.delete().forPath(PATH + "/1");
+
+        // The header has not changed since the chunk went missing, so there is no point in reading it again.
+        ZKChunkedTable other = new ZKChunkedTable(zkStoreHelper, PATH, CHUNK_SIZE);
+        AssertExtensions.assertThrows("Read of a table with a missing chunk should fail", other.read(),
+                e -> e instanceof StoreException.UnknownException);
+    }
+
+    private static byte[] sequence(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+}
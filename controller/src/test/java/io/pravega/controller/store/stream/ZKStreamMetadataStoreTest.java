@@ -27,6 +27,7 @@ import org.apache.curator.test.TestingServer;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Arrays;
 import java.util.List;
@@ -36,6 +37,7 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
@@ -178,6 +180,32 @@ public class ZKStreamMetadataStoreTest extends StreamMetadataStoreTest {
         assertEquals("List streams in scope", stream2, streamInScope.get(1).getStreamName());
     }
 
+    @Test(timeout = 30000)
+    public void testEvictedStreamIsReleased() throws Exception {
+        store.createScope(scope).get();
+        store.createStream(scope, stream1, configuration1, System.currentTimeMillis(), null, executor).get();
+        store.setState(scope, stream1, State.ACTIVE, null, executor).get();
+
+        // Reading the state caches it and sets a watch on it, which must not keep the stream object around once it has
+        // been evicted from the cache.
+        ZKStreamMetadataStore zkStore = (ZKStreamMetadataStore) store;
+        assertEquals(State.ACTIVE, store.getState(scope, stream1, false, null, executor).get());
+        WeakReference<Stream> evicted = new WeakReference<>(zkStore.getCachedStream(scope, stream1));
+        zkStore.evictStream(scope, stream1);
+        while (evicted.get() != null) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(evicted.get());
+
+        // The watch set by the stream object that replaces it invalidates its cached state when it changes.
+        assertEquals(State.ACTIVE, store.getState(scope, stream1, false, null, executor).get());
+        new ZKStream(scope, stream1, new ZKStoreHelper(cli, executor)).updateState(State.SEALING).join();
+        while (store.getState(scope, stream1, false, null, executor).get() != State.SEALING) {
+            Thread.sleep(10);
+        }
+    }
+
     @Test
     public void testInvalidOperation() throws Exception {
         // Test operation when stream is not in active state
@@ -577,6 +577,33 @@ public class ZkStreamTest {
         assertEquals(1, result.size());
     }
 
+    @Test(timeout = 10000)
+    public void testCacheInvalidatedByWatch() throws Exception {
+        ZKStoreHelper storeHelper = spy(new ZKStoreHelper(cli, executor));
+        ZKStream stream = new ZKStream("scope", "stream", storeHelper);
+
+        storeHelper.createZNodeIfNotExist("/store/scope").join();
+        final StreamConfiguration configuration = StreamConfiguration.builder()
+                .scope("scope").streamName("stream").scalingPolicy(ScalingPolicy.fixed(2)).build();
+        stream.create(configuration, System.currentTimeMillis()).join();
+        stream.updateState(State.ACTIVE).join();
+
+        // Once cached, the state is served from memory, even across refreshes.
+        assertEquals(State.ACTIVE, stream.getState(false).join());
+        reset(storeHelper);
+        stream.refresh();
+        assertEquals(State.ACTIVE, stream.getState(false).join());
+        assertEquals(State.ACTIVE, stream.getState(true).join());
+        Mockito.verify(storeHelper, Mockito.never()).getData(Mockito.anyString(), Mockito.any());
+        Mockito.verify(storeHelper, Mockito.times(1)).getVersion(Mockito.anyString());
+
+        // A change made through another stream object is seen through the watch.
+        ZKStream other = new ZKStream("scope", "stream", storeHelper);
+        assertTrue(other.updateState(State.SEALING).join());
+        assertEquals(State.SEALING, stream.getState(false).join());
+        assertEquals(State.SEALING, stream.getState(true).join());
+    }
+
     private void testCommitFailure(StreamMetadataStore store, String scope, String stream, int epoch, UUID txnId,
                                    OperationContext context,
                                    Predicate<Throwable> checker) {
@@ -135,9 +135,11 @@ public class IntermittentCnxnFailureTest {
             assertEquals(Exceptions.unwrap(ex).getClass(), IllegalStateException.class);
         }
 
-        // Mock createSegment to return success.
+        // Mock createSegment(s) to return success.
         doReturn(CompletableFuture.completedFuture(true)).when(segmentHelperMock).createSegment(
                 anyString(), anyString(), anyInt(), any(), any(), any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(segmentHelperMock).createSegments(
+                anyString(), anyString(), any(), any(), any(), any(), any());
 
         AtomicBoolean result = new AtomicBoolean(false);
         Retry.withExpBackoff(10, 10, 4)
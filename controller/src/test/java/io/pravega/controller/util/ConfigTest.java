@@ -41,6 +41,8 @@ public class ConfigTest {
         Assert.assertEquals(30000, Config.MAX_LEASE_VALUE);
         Assert.assertEquals("_requeststream", Config.SCALE_STREAM_NAME);
         Assert.assertEquals("scaleGroup", Config.SCALE_READER_GROUP);
+        Assert.assertEquals(2, Config.EVENT_PROCESSOR_SEGMENT_COUNT);
+        Assert.assertEquals(1, Config.EVENT_PROCESSOR_CELL_COUNT);
     }
 
     @Test
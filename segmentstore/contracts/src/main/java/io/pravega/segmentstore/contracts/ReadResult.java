@@ -93,7 +93,12 @@ public interface ReadResult extends Iterator<ReadResultEntry>, AutoCloseable {
             }
 
             ReadResultEntryContents contents = entry.getContent().join();
-            StreamHelpers.readAll(contents.getData(), target, bytesRead, Math.min(contents.getLength(), target.length - bytesRead));
+            try {
+                StreamHelpers.readAll(contents.getData(), target, bytesRead, Math.min(contents.getLength(), target.length - bytesRead));
+            } finally {
+                contents.release();
+            }
+
             bytesRead += contents.getLength();
         }
 
@@ -9,14 +9,23 @@
  */
 package io.pravega.segmentstore.contracts;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Contents for a ReadResultEntry.
+ *
+ * Contents may be backed by a reference-counted ByteBuf (see getBuffer()), in which case they own one reference to it.
+ * Whoever consumes such contents must invoke release() once it no longer needs them (whether it accessed them via
+ * getData() or via getBuffer()).
  */
 public class ReadResultEntryContents {
     private final int length;
     private final InputStream data;
+    private final ByteBuf buffer;
+    private final AtomicBoolean released;
 
     /**
      * Creates a new instance of the ReadResultEntryContents class.
@@ -27,6 +36,21 @@ public class ReadResultEntryContents {
     public ReadResultEntryContents(InputStream data, int length) {
         this.data = data;
         this.length = length;
+        this.buffer = null;
+        this.released = new AtomicBoolean();
+    }
+
+    /**
+     * Creates a new instance of the ReadResultEntryContents class that is backed by the given ByteBuf.
+     *
+     * @param buffer A ByteBuf containing the data. This instance takes over the caller's reference to it. The length of
+     *               the contents is the number of readable bytes in it.
+     */
+    public ReadResultEntryContents(ByteBuf buffer) {
+        this.buffer = buffer;
+        this.length = buffer.readableBytes();
+        this.data = new ByteBufInputStream(buffer.duplicate());
+        this.released = new AtomicBoolean();
     }
 
     /**
@@ -43,6 +67,25 @@ public class ReadResultEntryContents {
         return this.data;
     }
 
+    /**
+     * Gets a read-only view of the Data that was retrieved, or null if these contents are not backed by a ByteBuf. The
+     * returned ByteBuf must not be used after release() has been invoked; callers that wish to hold on to it longer must
+     * retain it themselves.
+     */
+    public ByteBuf getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * Releases the ByteBuf backing these contents, if any. This method has no effect if invoked more than once or if
+     * these contents are not backed by a ByteBuf.
+     */
+    public void release() {
+        if (this.buffer != null && this.released.compareAndSet(false, true)) {
+            this.buffer.release();
+        }
+    }
+
     @Override
     public String toString() {
         return String.format("Length = %d", getLength());
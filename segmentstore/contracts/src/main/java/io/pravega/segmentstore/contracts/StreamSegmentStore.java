@@ -9,8 +9,11 @@
  */
 package io.pravega.segmentstore.contracts;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -45,6 +48,34 @@ public interface StreamSegmentStore {
      */
     CompletableFuture<Void> append(String streamSegmentName, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout);
 
+    /**
+     * Appends a range of bytes at the end of a StreamSegment and atomically updates the given attributes. The byte range
+     * will be appended as a contiguous block, however there is no guarantee of ordering between different calls to this
+     * method.
+     *
+     * As opposed from append(String, byte[], Collection, Duration), implementations may use the given ByteBuf directly
+     * instead of making a copy of it. The caller retains ownership of its reference to data and must not release or modify
+     * it until the returned CompletableFuture has completed; implementations retain their own reference to it if they
+     * need it for longer than that.
+     *
+     * The default implementation copies the contents of data and invokes append(String, byte[], Collection, Duration).
+     *
+     * @param streamSegmentName The name of the StreamSegment to append to.
+     * @param data              A ByteBuf containing the data to add (its readable bytes).
+     * @param attributeUpdates  A Collection of Attribute-Values to set or update. May be null (which indicates no updates).
+     *                          See Notes about AttributeUpdates in the interface Javadoc.
+     * @param timeout           Timeout for the operation
+     * @return A CompletableFuture that, will completed normally, if the add was added. If the
+     * operation failed, the future will be failed with the causing exception.
+     * @throws NullPointerException     If any of the arguments are null, except attributeUpdates.
+     * @throws IllegalArgumentException If the StreamSegment Name is invalid (NOTE: this doesn't
+     *                                  check if the StreamSegment does not exist - that exception will be set in the
+     *                                  returned CompletableFuture).
+     */
+    default CompletableFuture<Void> append(String streamSegmentName, ByteBuf data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        return append(streamSegmentName, ByteBufUtil.getBytes(data), attributeUpdates, timeout);
+    }
+
     /**
      * Appends a range of bytes at the end of a StreamSegment an atomically updates the given attributes, but only if the
      * current length of the StreamSegment equals a certain value. The byte range will be appended as a contiguous block.
@@ -65,6 +96,35 @@ public interface StreamSegmentStore {
      */
     CompletableFuture<Void> append(String streamSegmentName, long offset, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout);
 
+    /**
+     * Appends a range of bytes at the end of a StreamSegment an atomically updates the given attributes, but only if the
+     * current length of the StreamSegment equals a certain value. The byte range will be appended as a contiguous block.
+     * This method guarantees ordering (among subsequent calls).
+     *
+     * As opposed from append(String, long, byte[], Collection, Duration), implementations may use the given ByteBuf
+     * directly instead of making a copy of it. The caller retains ownership of its reference to data and must not release
+     * or modify it until the returned CompletableFuture has completed; implementations retain their own reference to it
+     * if they need it for longer than that.
+     *
+     * The default implementation copies the contents of data and invokes append(String, long, byte[], Collection, Duration).
+     *
+     * @param streamSegmentName The name of the StreamSegment to append to.
+     * @param offset            The offset at which to append. If the current length of the StreamSegment does not equal
+     *                          this value, the operation will fail with a BadOffsetException.
+     * @param data              A ByteBuf containing the data to add (its readable bytes).
+     * @param attributeUpdates  A Collection of Attribute-Values to set or update. May be null (which indicates no updates).
+     *                          See Notes about AttributeUpdates in the interface Javadoc.
+     * @param timeout           Timeout for the operation
+     * @return A CompletableFuture that, when completed normally, will indicate the append completed successfully.
+     * If the operation failed, the future will be failed with the causing exception.
+     * @throws NullPointerException     If any of the arguments are null, except attributeUpdates.
+     * @throws IllegalArgumentException If the StreamSegment Name is invalid (NOTE: this doesn't check if the StreamSegment
+     *                                  does not exist - that exception will be set in the returned CompletableFuture).
+     */
+    default CompletableFuture<Void> append(String streamSegmentName, long offset, ByteBuf data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        return append(streamSegmentName, offset, ByteBufUtil.getBytes(data), attributeUpdates, timeout);
+    }
+
     /**
      * Performs an attribute update operation on the given Segment.
      *
@@ -161,6 +221,26 @@ public interface StreamSegmentStore {
      */
     CompletableFuture<Void> mergeStreamSegment(String targetSegmentName, String sourceSegmentName, Duration timeout);
 
+    /**
+     * Merges several Sealed StreamSegments into the same StreamSegment, in the given order.
+     *
+     * @param targetSegmentName  The name of the StreamSegment to merge into.
+     * @param sourceSegmentNames The names of the StreamSegments to merge, in the order in which they must be merged.
+     * @param timeout            Timeout for the operation.
+     * @return A CompletableFuture that, when completed normally, will indicate that all the StreamSegments have been
+     * merged. If any of the merges failed, the future will be failed with the causing exception, and none of the
+     * StreamSegments that follow it will have been merged (implementations may also choose not to merge any of them).
+     * @throws IllegalArgumentException If any of the arguments are invalid.
+     */
+    default CompletableFuture<Void> mergeStreamSegments(String targetSegmentName, List<String> sourceSegmentNames, Duration timeout) {
+        CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
+        for (String sourceSegmentName : sourceSegmentNames) {
+            result = result.thenCompose(v -> mergeStreamSegment(targetSegmentName, sourceSegmentName, timeout));
+        }
+
+        return result;
+    }
+
     /**
      * Seals a StreamSegment for modifications.
      *
@@ -46,6 +46,7 @@ import io.pravega.shared.protocol.netty.WireCommands.Hello;
 import io.pravega.shared.protocol.netty.WireCommands.InvalidEventNumber;
 import io.pravega.shared.protocol.netty.WireCommands.NoSuchSegment;
 import io.pravega.shared.protocol.netty.WireCommands.OperationUnsupported;
+import io.pravega.shared.protocol.netty.WireCommands.RemoveWriter;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentAlreadyExists;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentIsSealed;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
@@ -54,10 +55,12 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 import javax.annotation.concurrent.GuardedBy;
 import io.pravega.shared.segment.StreamSegmentNameUtils;
 import lombok.Getter;
@@ -96,7 +99,9 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     @GuardedBy("lock")
     private final HashMap<Pair<String, UUID>, Long> latestEventNumbers = new HashMap<>();
     @GuardedBy("lock")
-    private Append outstandingAppend = null;
+    private final HashMap<UUID, Append> outstandingAppends = new HashMap<>();
+    @GuardedBy("lock")
+    private final HashSet<Pair<String, UUID>> removedWriters = new HashSet<>();
 
     //endregion
 
@@ -157,6 +162,9 @@ public class AppendProcessor extends DelegatingRequestProcessor {
         String newSegment = setupAppend.getSegment();
         UUID writer = setupAppend.getWriterId();
         log.info("Setting up appends for writer: {} on segment: {}", writer, newSegment);
+        synchronized (lock) {
+            removedWriters.remove(Pair.of(newSegment, writer));
+        }
         if (this.tokenVerifier != null && !tokenVerifier.verifyToken(newSegment,
                 setupAppend.getDelegationToken(), AuthHandler.Permissions.READ_UPDATE)) {
             log.warn("Delegation token verification failed");
@@ -186,15 +194,44 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     }
 
     /**
-     * If there isn't already an append outstanding against the store, write a new one.
+     * Releases the state held for a writer on a segment. If the writer still has appends in flight (which a client
+     * does not normally do) the state is released once they have completed.
+     */
+    @Override
+    public void removeWriter(RemoveWriter removeWriter) {
+        Pair<String, UUID> key = Pair.of(removeWriter.getSegment(), removeWriter.getWriterId());
+        log.debug("Removing writer: {} on segment: {}", key.getRight(), key.getLeft());
+        synchronized (lock) {
+            if (hasPendingAppends(key)) {
+                removedWriters.add(key);
+            } else {
+                latestEventNumbers.remove(key);
+            }
+        }
+    }
+
+    @GuardedBy("lock")
+    private boolean hasPendingAppends(Pair<String, UUID> key) {
+        Append outstanding = outstandingAppends.get(key.getRight());
+        return (outstanding != null && outstanding.getSegment().equals(key.getLeft()))
+                || waitingAppends.get(key.getRight()).stream().anyMatch(a -> a.getSegment().equals(key.getLeft()));
+    }
+
+    /**
+     * For every writer that has appends waiting but none outstanding against the store, write a new one. Appends from
+     * different writers are written concurrently, but each writer has at most one append outstanding at any given time,
+     * which preserves the order of its appends (and the validity of its event numbers).
      * Appends are opportunistically batched here. i.e. If many are waiting they are combined into a single append and
      * that is written.
      */
     private void performNextWrite() {
-        Append append = getNextAppend();
-        if (append == null) {
-            return;
+        Append append;
+        while ((append = getNextAppend()) != null) {
+            performWrite(append);
         }
+    }
+
+    private void performWrite(Append append) {
         long traceId = LoggerHelpers.traceEnter(log, "storeAppend", append);
         Timer timer = new Timer();
         storeAppend(append)
@@ -212,11 +249,18 @@ public class AppendProcessor extends DelegatingRequestProcessor {
 
     private Append getNextAppend() {
         synchronized (lock) {
-            if (outstandingAppend != null || waitingAppends.isEmpty()) {
+            UUID writer = null;
+            for (UUID w : waitingAppends.keySet()) {
+                if (!outstandingAppends.containsKey(w)) {
+                    writer = w;
+                    break;
+                }
+            }
+            if (writer == null) {
                 return null;
             }
-            UUID writer = waitingAppends.keys().iterator().next();
             List<Append> appends = waitingAppends.get(writer);
+            Append outstandingAppend;
             if (appends.get(0).isConditional()) {
                 outstandingAppend = appends.remove(0);
             } else {
@@ -242,6 +286,7 @@ public class AppendProcessor extends DelegatingRequestProcessor {
                 long eventNumber = last.getEventNumber();
                 outstandingAppend = new Append(segment, writer, eventNumber, eventCount, data, null);
             }
+            outstandingAppends.put(writer, outstandingAppend);
             return outstandingAppend;
         }
     }
@@ -255,13 +300,13 @@ public class AppendProcessor extends DelegatingRequestProcessor {
         List<AttributeUpdate> attributes = Arrays.asList(
                 new AttributeUpdate(append.getWriterId(), AttributeUpdateType.ReplaceIfEquals, append.getEventNumber(), lastEventNumber),
                 new AttributeUpdate(EVENT_COUNT, AttributeUpdateType.Accumulate, append.getEventCount()));
+        // Hand the data over to the store as-is (it will retain it if it needs it for longer than this append takes);
+        // our own reference is released once the append completes (see performWrite()).
         ByteBuf buf = append.getData().asReadOnly();
-        byte[] bytes = new byte[buf.readableBytes()];
-        buf.readBytes(bytes);
         if (append.isConditional()) {
-            return store.append(append.getSegment(), append.getExpectedLength(), bytes, attributes, TIMEOUT);
+            return store.append(append.getSegment(), append.getExpectedLength(), buf, attributes, TIMEOUT);
         } else {
-            return store.append(append.getSegment(), bytes, attributes, TIMEOUT);
+            return store.append(append.getSegment(), buf, attributes, TIMEOUT);
         }
     }
 
@@ -271,7 +316,7 @@ public class AppendProcessor extends DelegatingRequestProcessor {
             long previousEventNumber;
             synchronized (lock) {
                 previousEventNumber = latestEventNumbers.get(Pair.of(append.getSegment(), append.getWriterId()));
-                Preconditions.checkState(outstandingAppend == append,
+                Preconditions.checkState(outstandingAppends.get(append.getWriterId()) == append,
                         "Synchronization error in: %s while processing append: %s.",
                         AppendProcessor.this.getClass().getName(), append);
             }
@@ -301,14 +346,14 @@ public class AppendProcessor extends DelegatingRequestProcessor {
             }
 
             /* Reply (DataAppended in case of success, else an error Reply based on exception) has been sent. Next,
-             *   - clear outstandingAppend to handle the next Append message.
+             *   - clear this writer's outstanding append to handle its next Append message.
              *   - ensure latestEventNumbers and waitingAppends are updated.
              */
             synchronized (lock) {
-                Preconditions.checkState(outstandingAppend == append,
+                Preconditions.checkState(outstandingAppends.get(append.getWriterId()) == append,
                         "Synchronization error in: %s while processing append: %s.",
                         AppendProcessor.this.getClass().getName(), append);
-                outstandingAppend = null;
+                outstandingAppends.remove(append.getWriterId());
                 if (exception == null) {
                     latestEventNumbers.put(Pair.of(append.getSegment(), append.getWriterId()), append.getEventNumber());
                 } else {
@@ -317,6 +362,11 @@ public class AppendProcessor extends DelegatingRequestProcessor {
                         latestEventNumbers.remove(Pair.of(append.getSegment(), append.getWriterId()));
                     }
                 }
+                Pair<String, UUID> key = Pair.of(append.getSegment(), append.getWriterId());
+                if (removedWriters.contains(key) && !hasPendingAppends(key)) {
+                    removedWriters.remove(key);
+                    latestEventNumbers.remove(key);
+                }
             }
       
             pauseOrResumeReading();
@@ -368,12 +418,12 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     /**
      * If there is too much data waiting throttle the producer by stopping consumption from the socket.
      * If there is room for more data, we resume consuming from the socket.
+     * The data of the appends that are outstanding against the store counts too, as there may be one per writer.
      */
     private void pauseOrResumeReading() {
         int bytesWaiting;
         synchronized (lock) {
-            bytesWaiting = waitingAppends.values()
-                    .stream()
+            bytesWaiting = Stream.concat(waitingAppends.values().stream(), outstandingAppends.values().stream())
                     .mapToInt(a -> a.getData().readableBytes())
                     .sum();
         }
@@ -390,8 +440,8 @@ public class AppendProcessor extends DelegatingRequestProcessor {
 
     /**
      * Append data to the store.
-     * Because ordering dictates that there only be one outstanding append from a given connection, this is implemented
-     * by adding the append to a queue.
+     * Because ordering dictates that there only be one outstanding append from a given writer, this is implemented
+     * by adding the append to a (per-writer) queue.
      */
     @Override
     public void append(Append append) {
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.host.handler;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.pravega.shared.MetricsNames;
+import io.pravega.shared.metrics.Gauge;
+import io.pravega.shared.metrics.MetricsProvider;
+import io.pravega.shared.metrics.OpStatsLogger;
+import io.pravega.shared.metrics.StatsLogger;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics for the client connections of a {@link PravegaConnectionListener}.
+ *
+ * Both the pending outbound bytes of each connection and the time that a task waits to be run by each event loop are
+ * sampled periodically and recorded into histograms, rather than being reported per connection or per thread, so
+ * that the number of metrics does not grow with the number of connections.
+ */
+final class ConnectionListenerMetrics implements AutoCloseable {
+    private static final StatsLogger STATS_LOGGER = MetricsProvider.createStatsLogger("segmentstore");
+    private static final Duration SAMPLE_INTERVAL = Duration.ofSeconds(1);
+
+    private final ChannelGroup channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final EventLoopGroup workerGroup;
+    private final AtomicLong totalPendingOutboundBytes = new AtomicLong();
+    private final OpStatsLogger pendingOutboundBytes = STATS_LOGGER.createStats(MetricsNames.CONNECTION_PENDING_OUTBOUND_BYTES);
+    private final OpStatsLogger eventLoopTaskLatency = STATS_LOGGER.createStats(MetricsNames.EVENT_LOOP_TASK_LATENCY);
+    private final Gauge connectionCount;
+    private final Gauge totalPendingOutboundBytesGauge;
+    private final ScheduledFuture<?> sampler;
+
+    /**
+     * Creates a new instance of the ConnectionListenerMetrics class.
+     *
+     * @param workerGroup   The EventLoopGroup that serves the client connections.
+     * @param samplingGroup The EventLoopGroup on which to run the periodic sampling (so that it is not delayed by a
+     *                      busy worker).
+     */
+    ConnectionListenerMetrics(EventLoopGroup workerGroup, EventLoopGroup samplingGroup) {
+        this.workerGroup = workerGroup;
+        this.connectionCount = STATS_LOGGER.registerGauge(MetricsNames.CONNECTION_COUNT, this.channels::size);
+        this.totalPendingOutboundBytesGauge = STATS_LOGGER.registerGauge(MetricsNames.CONNECTION_TOTAL_PENDING_OUTBOUND_BYTES,
+                this.totalPendingOutboundBytes::get);
+        this.sampler = samplingGroup.scheduleAtFixedRate(this::sample, SAMPLE_INTERVAL.toMillis(),
+                SAMPLE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Includes the given connection in the metrics until it is closed.
+     *
+     * @param channel The channel of the connection.
+     */
+    void register(Channel channel) {
+        this.channels.add(channel);
+    }
+
+    private void sample() {
+        long total = 0;
+        for (Channel channel : this.channels) {
+            ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+            if (buffer != null) {
+                long pending = buffer.totalPendingWriteBytes();
+                this.pendingOutboundBytes.reportSuccessValue(pending);
+                total += pending;
+            }
+        }
+        this.totalPendingOutboundBytes.set(total);
+
+        for (EventExecutor executor : this.workerGroup) {
+            long queuedAt = System.nanoTime();
+            executor.execute(() -> this.eventLoopTaskLatency.reportSuccessValue(
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt)));
+        }
+    }
+
+    @Override
+    public void close() {
+        this.sampler.cancel(false);
+        this.connectionCount.close();
+        this.totalPendingOutboundBytesGauge.close();
+        this.pendingOutboundBytes.close();
+        this.eventLoopTaskLatency.close();
+    }
+}
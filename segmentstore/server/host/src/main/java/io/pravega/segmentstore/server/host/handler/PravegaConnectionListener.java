@@ -12,9 +12,9 @@ package io.pravega.segmentstore.server.host.handler;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.epoll.EpollEventLoopGroup;
@@ -39,6 +39,7 @@ import io.pravega.shared.protocol.netty.AppendDecoder;
 import io.pravega.shared.protocol.netty.CommandDecoder;
 import io.pravega.shared.protocol.netty.CommandEncoder;
 import io.pravega.shared.protocol.netty.ExceptionLoggingHandler;
+import io.pravega.shared.protocol.netty.NettyConfig;
 import java.io.File;
 import javax.net.ssl.SSLException;
 
@@ -57,9 +58,11 @@ public final class PravegaConnectionListener implements AutoCloseable {
     private final DelegationTokenVerifier tokenVerifier;
     private final String certFile;
     private final String keyFile;
+    private final NettyConfig nettyConfig;
     private Channel serverChannel;
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
+    private ConnectionListenerMetrics metrics;
     private final SegmentStatsRecorder statsRecorder;
 
     //endregion
@@ -91,6 +94,24 @@ public final class PravegaConnectionListener implements AutoCloseable {
      */
     public PravegaConnectionListener(boolean ssl, String host, int port, StreamSegmentStore streamSegmentStore,
                                      SegmentStatsRecorder statsRecorder, DelegationTokenVerifier tokenVerifier, String certFile, String keyFile) {
+        this(ssl, host, port, streamSegmentStore, statsRecorder, tokenVerifier, certFile, keyFile, NettyConfig.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance of the PravegaConnectionListener class.
+     * @param ssl                Whether to use SSL.
+     * @param host               The name of the host to listen to.
+     * @param port               The port to listen on.
+     * @param streamSegmentStore The SegmentStore to delegate all requests to.
+     * @param statsRecorder      (Optional) A StatsRecorder for Metrics.
+     * @param tokenVerifier      The object to verify delegation token.
+     * @param certFile           Path to the certificate file to be used for TLS.
+     * @param keyFile            PAth to be key file to be used for TLS.
+     * @param nettyConfig        The event loop, allocator and channel settings to use for client connections.
+     */
+    public PravegaConnectionListener(boolean ssl, String host, int port, StreamSegmentStore streamSegmentStore,
+                                     SegmentStatsRecorder statsRecorder, DelegationTokenVerifier tokenVerifier, String certFile, String keyFile,
+                                     NettyConfig nettyConfig) {
         this.ssl = ssl;
         this.host = Exceptions.checkNotNullOrEmpty(host, "host");
         this.port = port;
@@ -98,6 +119,7 @@ public final class PravegaConnectionListener implements AutoCloseable {
         this.statsRecorder = statsRecorder;
         this.certFile = certFile;
         this.keyFile = keyFile;
+        this.nettyConfig = Preconditions.checkNotNull(nettyConfig, "nettyConfig");
         InternalLoggerFactory.setDefaultFactory(Slf4JLoggerFactory.INSTANCE);
         if (tokenVerifier != null) {
             this.tokenVerifier = tokenVerifier;
@@ -123,21 +145,24 @@ public final class PravegaConnectionListener implements AutoCloseable {
         boolean nio = false;
         try {
             bossGroup = new EpollEventLoopGroup(1);
-            workerGroup = new EpollEventLoopGroup();
+            workerGroup = new EpollEventLoopGroup(nettyConfig.getEventLoopThreads());
         } catch (ExceptionInInitializerError | UnsatisfiedLinkError | NoClassDefFoundError e) {
             nio = true;
             bossGroup = new NioEventLoopGroup(1);
-            workerGroup = new NioEventLoopGroup();
+            workerGroup = new NioEventLoopGroup(nettyConfig.getEventLoopThreads());
         }
+        metrics = new ConnectionListenerMetrics(workerGroup, bossGroup);
+        ByteBufAllocator allocator = nettyConfig.createAllocator();
 
         ServerBootstrap b = new ServerBootstrap();
+        nettyConfig.applyTo(b, allocator);
         b.group(bossGroup, workerGroup)
          .channel(nio ? NioServerSocketChannel.class : EpollServerSocketChannel.class)
-         .option(ChannelOption.SO_BACKLOG, 100)
          .handler(new LoggingHandler(LogLevel.INFO))
          .childHandler(new ChannelInitializer<SocketChannel>() {
              @Override
              public void initChannel(SocketChannel ch) throws Exception {
+                 metrics.register(ch);
                  ChannelPipeline p = ch.pipeline();
                  if (sslCtx != null) {
                      SslHandler handler = sslCtx.newHandler(ch.alloc());
@@ -170,6 +195,7 @@ public final class PravegaConnectionListener implements AutoCloseable {
             serverChannel.close();
             serverChannel.closeFuture().sync();
         });
+        metrics.close();
         // Shut down all event loops to terminate all threads.
         bossGroup.shutdownGracefully();
         workerGroup.shutdownGracefully();
@@ -11,11 +11,15 @@ package io.pravega.segmentstore.server.host.handler;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.pravega.auth.AuthHandler;
 import io.pravega.common.Exceptions;
 import io.pravega.common.LoggerHelpers;
 import io.pravega.common.Timer;
 import io.pravega.common.auth.AuthenticationException;
+import io.pravega.common.concurrent.Futures;
 import io.pravega.common.io.StreamHelpers;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
 import io.pravega.segmentstore.contracts.AttributeUpdateType;
@@ -43,13 +47,18 @@ import io.pravega.shared.protocol.netty.FailingRequestProcessor;
 import io.pravega.shared.protocol.netty.RequestProcessor;
 import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.CreateSegments;
 import io.pravega.shared.protocol.netty.WireCommands.DeleteSegment;
+import io.pravega.shared.protocol.netty.WireCommands.DeleteSegments;
 import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
+import io.pravega.shared.protocol.netty.WireCommands.MergeSegmentsBatch;
 import io.pravega.shared.protocol.netty.WireCommands.NoSuchSegment;
 import io.pravega.shared.protocol.netty.WireCommands.OperationUnsupported;
 import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
+import io.pravega.shared.protocol.netty.WireCommands.ReadSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SealSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SealSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentAlreadyExists;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentAttributeUpdated;
@@ -60,6 +69,7 @@ import io.pravega.shared.protocol.netty.WireCommands.SegmentIsTruncated;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentPolicyUpdated;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentRead;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentSealed;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentsRead;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentTruncated;
 import io.pravega.shared.protocol.netty.WireCommands.StreamSegmentInfo;
 import io.pravega.shared.protocol.netty.WireCommands.TruncateSegment;
@@ -67,19 +77,23 @@ import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentPolicy;
 import io.pravega.shared.protocol.netty.WireCommands.WrongHost;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -113,6 +127,7 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
 
     static final Duration TIMEOUT = Duration.ofMinutes(1);
     private static final int MAX_READ_SIZE = 2 * 1024 * 1024;
+    private static final int MAX_SEGMENTS_READ_SIZE = WireCommands.MAX_WIRECOMMAND_SIZE / 2;
     private static final StatsLogger STATS_LOGGER = MetricsProvider.createStatsLogger("segmentstore");
     private static final DynamicLogger DYNAMIC_LOGGER = MetricsProvider.getDynamicLogger();
     @VisibleForTesting
@@ -178,6 +193,41 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
                 .exceptionally(ex -> handleException(readSegment.getOffset(), segment, "Read segment", ex));
     }
 
+    /**
+     * Reads from all the requested Segments in parallel. All the reads that can be served immediately (from the cache, or
+     * because the end of the Segment has been reached) are sent back together in one or more SegmentsRead replies. Every
+     * other read (including those that fail) is handled just like a standalone ReadSegment would.
+     */
+    @Override
+    public void readSegments(ReadSegments readSegments) {
+        Timer timer = new Timer();
+        long trace = LoggerHelpers.traceEnter(log, "readSegments", readSegments.getRequestId(), readSegments.getReads().size());
+        List<CompletableFuture<PendingSegmentRead>> reads = new ArrayList<>(readSegments.getReads().size());
+        for (ReadSegment readSegment : readSegments.getReads()) {
+            final String segment = readSegment.getSegment();
+            if (!verifyToken(segment, readSegment.getOffset(), readSegment.getDelegationToken(), READ, "Read Segment")) {
+                continue;
+            }
+
+            final int readSize = min(MAX_READ_SIZE, max(TYPE_PLUS_LENGTH_SIZE, readSegment.getSuggestedLength()));
+            reads.add(segmentStore.read(segment, readSegment.getOffset(), readSize, TIMEOUT)
+                    .thenApply(readResult -> {
+                        readStreamSegment.reportSuccessEvent(timer.getElapsed());
+                        return collectImmediateRead(readSegment, readResult);
+                    })
+                    .exceptionally(ex -> {
+                        handleException(readSegment.getOffset(), segment, "Read segment", ex);
+                        return null;
+                    }));
+        }
+
+        Futures.allOfWithResults(reads)
+               .thenAccept(results -> {
+                   LoggerHelpers.traceLeave(log, "readSegments", trace, readSegments.getRequestId());
+                   sendSegmentsRead(readSegments.getRequestId(), results);
+               });
+    }
+
     private boolean verifyToken(String segment, long requestId, String delegationToken, AuthHandler.Permissions read, String operation) {
         if (!tokenVerifier.verifyToken(segment, delegationToken, READ)) {
             log.warn("Delegation token verification failed");
@@ -200,17 +250,45 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
         ArrayList<ReadResultEntryContents> cachedEntries = new ArrayList<>();
         ReadResultEntry nonCachedEntry = collectCachedEntries(request.getOffset(), result, cachedEntries);
 
-        boolean truncated = nonCachedEntry != null && nonCachedEntry.getType() == Truncated;
         boolean endOfSegment = nonCachedEntry != null && nonCachedEntry.getType() == EndOfStreamSegment;
         boolean atTail = nonCachedEntry != null && nonCachedEntry.getType() == Future;
 
         if (!cachedEntries.isEmpty() || endOfSegment) {
             // We managed to collect some data. Send it.
-            ByteBuffer data = copyData(cachedEntries);
-            SegmentRead reply = new SegmentRead(segment, request.getOffset(), atTail, endOfSegment, data);
-            connection.send(reply);
-            DYNAMIC_LOGGER.incCounterValue(nameFromSegment(SEGMENT_READ_BYTES, segment), reply.getData().array().length);
-        } else if (truncated) {
+            sendSegmentRead(segment, request.getOffset(), atTail, endOfSegment, cachedEntries);
+        } else {
+            handleNonCachedEntry(segment, nonCachedEntry);
+        }
+    }
+
+    /**
+     * Same as handleReadResult, except that if there are cached entries (or the end of the Segment has been reached),
+     * they are not sent back but returned, so that they may be combined with the results of other reads.
+     */
+    private PendingSegmentRead collectImmediateRead(ReadSegment request, ReadResult result) {
+        String segment = request.getSegment();
+        ArrayList<ReadResultEntryContents> cachedEntries = new ArrayList<>();
+        ReadResultEntry nonCachedEntry = collectCachedEntries(request.getOffset(), result, cachedEntries);
+
+        boolean endOfSegment = nonCachedEntry != null && nonCachedEntry.getType() == EndOfStreamSegment;
+        boolean atTail = nonCachedEntry != null && nonCachedEntry.getType() == Future;
+        if (!cachedEntries.isEmpty() || endOfSegment) {
+            ByteBuf data = collectData(cachedEntries);
+            return new PendingSegmentRead(new SegmentRead(segment, request.getOffset(), atTail, endOfSegment, data.nioBuffer()), data);
+        }
+
+        handleNonCachedEntry(segment, nonCachedEntry);
+        return null;
+    }
+
+    /**
+     * Handles a ReadResultEntry that does not have its data readily available: if it indicates that the Segment had been
+     * truncated beyond the current offset, an appropriate message is sent back over the connection; otherwise the data
+     * is requested and sent back when available.
+     */
+    private void handleNonCachedEntry(String segment, ReadResultEntry nonCachedEntry) {
+        boolean truncated = nonCachedEntry != null && nonCachedEntry.getType() == Truncated;
+        if (truncated) {
             // We didn't collect any data, instead we determined that the current read offset was truncated.
             // Determine the current Start Offset and send that back.
             segmentStore.getStreamSegmentInfo(segment, false, TIMEOUT)
@@ -221,12 +299,8 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
             Preconditions.checkState(nonCachedEntry != null, "No ReadResultEntries returned from read!?");
             nonCachedEntry.requestContent(TIMEOUT);
             nonCachedEntry.getContent()
-                    .thenAccept(contents -> {
-                        ByteBuffer data = copyData(Collections.singletonList(contents));
-                        SegmentRead reply = new SegmentRead(segment, nonCachedEntry.getStreamSegmentOffset(), false, endOfSegment, data);
-                        connection.send(reply);
-                        DYNAMIC_LOGGER.incCounterValue(nameFromSegment(SEGMENT_READ_BYTES, segment), reply.getData().array().length);
-                    })
+                    .thenAccept(contents -> sendSegmentRead(segment, nonCachedEntry.getStreamSegmentOffset(), false, false,
+                            Collections.singletonList(contents)))
                     .exceptionally(e -> {
                         if (Exceptions.unwrap(e) instanceof StreamSegmentTruncatedException) {
                             // The Segment may have been truncated in Storage after we got this entry but before we managed
@@ -264,20 +338,92 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
     }
 
     /**
-     * Copy all of the contents provided into a byteBuffer and return it.
+     * Sends a SegmentRead reply with all of the contents provided.
+     * Contents that are backed by direct memory (i.e., views of an off-heap cache) are not copied to the heap. Since such
+     * memory may be reused as soon as it is released, it is only released after the reply has been written out.
+     */
+    private void sendSegmentRead(String segment, long offset, boolean atTail, boolean endOfSegment, List<ReadResultEntryContents> contents) {
+        ByteBuf data = collectData(contents);
+        int length = data.readableBytes();
+        SegmentRead reply = new SegmentRead(segment, offset, atTail, endOfSegment, data.nioBuffer());
+        if (data.hasArray()) {
+            // Heap memory is kept alive by the reply itself.
+            connection.send(reply);
+            data.release();
+        } else {
+            connection.send(reply, data);
+        }
+        DYNAMIC_LOGGER.incCounterValue(nameFromSegment(SEGMENT_READ_BYTES, segment), length);
+    }
+
+    /**
+     * Sends the given reads back in as few SegmentsRead replies as possible, while keeping each reply well within the
+     * maximum size of a WireCommand. As with sendSegmentRead, the data is only released after it has been written out.
+     */
+    private void sendSegmentsRead(long requestId, List<PendingSegmentRead> reads) {
+        List<SegmentRead> batch = new ArrayList<>();
+        List<ByteBuf> batchData = new ArrayList<>();
+        int batchLength = 0;
+        for (PendingSegmentRead read : reads) {
+            if (read == null) {
+                // This one was (or will be) replied to on its own.
+                continue;
+            }
+
+            int length = read.data.readableBytes();
+            if (!batch.isEmpty() && batchLength + length > MAX_SEGMENTS_READ_SIZE) {
+                connection.send(new SegmentsRead(requestId, batch), Unpooled.wrappedBuffer(batchData.toArray(new ByteBuf[0])));
+                batch = new ArrayList<>();
+                batchData = new ArrayList<>();
+                batchLength = 0;
+            }
+
+            batch.add(read.reply);
+            batchData.add(read.data);
+            batchLength += length;
+            DYNAMIC_LOGGER.incCounterValue(nameFromSegment(SEGMENT_READ_BYTES, read.reply.getSegment()), length);
+        }
+
+        if (!batch.isEmpty()) {
+            connection.send(new SegmentsRead(requestId, batch), Unpooled.wrappedBuffer(batchData.toArray(new ByteBuf[0])));
+        }
+    }
+
+    /**
+     * Collects all of the contents provided into a single contiguous ByteBuf and releases them. The caller must release
+     * the result. Contents that are backed by a ByteBuf are not copied, unless more than one buffer must be assembled.
      */
     @SneakyThrows(IOException.class)
-    private ByteBuffer copyData(List<ReadResultEntryContents> contents) {
-        int totalSize = contents.stream().mapToInt(ReadResultEntryContents::getLength).sum();
-
-        ByteBuffer data = ByteBuffer.allocate(totalSize);
-        int bytesCopied = 0;
-        for (ReadResultEntryContents content : contents) {
-            int copied = StreamHelpers.readAll(content.getData(), data.array(), bytesCopied, totalSize - bytesCopied);
-            Preconditions.checkState(copied == content.getLength(), "Read fewer bytes than available.");
-            bytesCopied += copied;
+    private ByteBuf collectData(List<ReadResultEntryContents> contents) {
+        ByteBuf[] buffers = new ByteBuf[contents.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            ReadResultEntryContents content = contents.get(i);
+            try {
+                if (content.getBuffer() != null) {
+                    buffers[i] = content.getBuffer().retain();
+                } else {
+                    byte[] data = new byte[content.getLength()];
+                    int copied = StreamHelpers.readAll(content.getData(), data, 0, data.length);
+                    Preconditions.checkState(copied == content.getLength(), "Read fewer bytes than available.");
+                    buffers[i] = Unpooled.wrappedBuffer(data);
+                }
+            } finally {
+                content.release();
+            }
         }
-        return data;
+
+        ByteBuf result = Unpooled.wrappedBuffer(buffers);
+        if (result.nioBufferCount() <= 1) {
+            return result;
+        }
+
+        // SegmentRead needs a contiguous buffer. Copy the data once, into the same kind of memory it was in.
+        ByteBuf contiguous = result.isDirect()
+                ? ByteBufAllocator.DEFAULT.directBuffer(result.readableBytes())
+                : Unpooled.buffer(result.readableBytes());
+        contiguous.writeBytes(result);
+        result.release();
+        return contiguous;
     }
 
     @Override
@@ -399,6 +545,16 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
                 });
     }
 
+    /**
+     * Creates all the requested Segments in parallel. Each of them is replied to individually, just like a standalone
+     * CreateSegment would be.
+     */
+    @Override
+    public void createSegments(CreateSegments createSegments) {
+        log.debug("Creating {} stream segments (request {}).", createSegments.getSegments().size(), createSegments.getRequestId());
+        createSegments.getSegments().forEach(this::createSegment);
+    }
+
     private Void handleException(long requestId, String segment, String operation, Throwable u) {
         if (u == null) {
             IllegalStateException exception = new IllegalStateException("No exception to handle.");
@@ -445,36 +601,125 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
 
     @Override
     public void mergeSegments(WireCommands.MergeSegments mergeSegments) {
-        long requestId = mergeSegments.getRequestId();
+        merge(mergeSegments);
+    }
+
+    /**
+     * Applies all the requested merges. The merges into the same target Segment are handed to the Segment Store with a
+     * single call (so that Transactions are committed in order, and with a single request to the Segment Container),
+     * and those into different targets are applied in parallel. If such a call fails, the merges into that target are
+     * applied one after the other instead, so that each of them gets its own reply; once one of these fails, the merges
+     * that follow it into the same target are not attempted, and fail with the same error.
+     */
+    @Override
+    public void mergeSegmentsBatch(MergeSegmentsBatch mergeSegmentsBatch) {
+        log.debug("Merging {} segments (request {}).", mergeSegmentsBatch.getMerges().size(), mergeSegmentsBatch.getRequestId());
+        Map<String, List<WireCommands.MergeSegments>> mergesByTarget = new LinkedHashMap<>();
+        for (WireCommands.MergeSegments mergeSegments : mergeSegmentsBatch.getMerges()) {
+            mergesByTarget.computeIfAbsent(mergeSegments.getTarget(), target -> new ArrayList<>()).add(mergeSegments);
+        }
+
+        mergesByTarget.forEach(this::mergeAll);
+    }
+
+    private void mergeAll(String target, List<WireCommands.MergeSegments> merges) {
+        if (merges.size() == 1
+                || !merges.stream().allMatch(m -> tokenVerifier.verifyToken(m.getSource(), m.getDelegationToken(), READ))) {
+            // This replies to each request whose token cannot be verified.
+            mergeInOrder(merges, this::merge);
+            return;
+        }
+
+        List<String> sources = merges.stream().map(WireCommands.MergeSegments::getSource).collect(Collectors.toList());
+        Futures.allOf(merges.stream().map(this::prepareMerge).collect(Collectors.toList()))
+               .thenCompose(v -> segmentStore.mergeStreamSegments(target, sources, TIMEOUT))
+               .whenComplete((v, e) -> {
+                   if (e == null) {
+                       merges.forEach(m -> connection.send(new WireCommands.SegmentsMerged(m.getRequestId(), target, m.getSource())));
+                   } else {
+                       log.info("Unable to merge {} segments into '{}' together ({}); merging them one by one.",
+                               merges.size(), target, Exceptions.unwrap(e).toString());
+                       mergeInOrder(merges, m -> replyToMerge(m, segmentStore.mergeStreamSegment(target, m.getSource(), TIMEOUT)));
+                   }
+               });
+    }
+
+    /**
+     * Applies the given merges (which are all into the same target Segment) one after the other.
+     */
+    private void mergeInOrder(List<WireCommands.MergeSegments> merges, Function<WireCommands.MergeSegments, CompletableFuture<Void>> merge) {
+        CompletableFuture<Void> previous = null;
+        for (WireCommands.MergeSegments mergeSegments : merges) {
+            previous = previous == null
+                    ? merge.apply(mergeSegments)
+                    : previous.handle((v, e) -> e == null ? merge.apply(mergeSegments) : skipMerge(mergeSegments, e))
+                              .thenCompose(f -> f);
+        }
+    }
+
+    /**
+     * Merges the source Segment of the given request into its target Segment, and replies to the request. The returned
+     * future completes once the reply has been sent, and fails if the merge did, unless it failed because the source
+     * Segment no longer exists (i.e. it had already been merged).
+     */
+    private CompletableFuture<Void> merge(WireCommands.MergeSegments mergeSegments) {
         log.debug("Merging Segments {} ", mergeSegments);
 
         if (!verifyToken(mergeSegments.getSource(), mergeSegments.getRequestId(), mergeSegments.getDelegationToken(), READ_UPDATE,
                 "Merge Segments")) {
-            return;
+            return Futures.failedFuture(new AuthenticationException("Token verification failed"));
         }
 
+        return replyToMerge(mergeSegments, prepareMerge(mergeSegments)
+                .thenCompose(v -> segmentStore.mergeStreamSegment(mergeSegments.getTarget(), mergeSegments.getSource(), TIMEOUT)));
+    }
+
+    /**
+     * Seals the source Segment of the given request and records its stats, ahead of merging it.
+     */
+    private CompletableFuture<Void> prepareMerge(WireCommands.MergeSegments mergeSegments) {
         // TODO: change SegmentStore to auto-seal before merging (https://github.com/pravega/pravega/issues/2558)
-        segmentStore.sealStreamSegment(mergeSegments.getSource(), TIMEOUT)
+        return segmentStore.sealStreamSegment(mergeSegments.getSource(), TIMEOUT)
                     .exceptionally(this::ignoreSegmentSealed)
                     .thenCompose(v -> recordStatForTransaction(mergeSegments.getSource(), mergeSegments.getTarget())
                         .exceptionally(e -> {
                             // gobble up any errors from stat recording so we do not affect rest of the flow.
                             log.error("exception while computing stats while merging txn {}", mergeSegments, e);
                             return null;
-                        }))
-                    .thenCompose(v -> segmentStore.mergeStreamSegment(mergeSegments.getTarget(), mergeSegments.getSource(), TIMEOUT))
+                        }));
+    }
+
+    /**
+     * Replies to the given request once the merge completes. See {@link #merge}.
+     */
+    private CompletableFuture<Void> replyToMerge(WireCommands.MergeSegments mergeSegments, CompletableFuture<Void> mergeFuture) {
+        long requestId = mergeSegments.getRequestId();
+        return mergeFuture
                     .thenAccept(v -> connection.send(new WireCommands.SegmentsMerged(requestId, mergeSegments.getTarget(), mergeSegments.getSource())))
                     .exceptionally(e -> {
-                        if (Exceptions.unwrap(e) instanceof StreamSegmentMergedException) {
+                        Throwable cause = Exceptions.unwrap(e);
+                        if (cause instanceof StreamSegmentMergedException) {
                             log.info("Stream segment is already merged '{}'.", mergeSegments.getSource());
                             connection.send(new WireCommands.SegmentsMerged(requestId, mergeSegments.getTarget(), mergeSegments.getSource()));
                             return null;
-                        } else {
-                            return handleException(requestId, mergeSegments.getSource(), "Merge Segments", e);
                         }
+
+                        handleException(requestId, mergeSegments.getSource(), "Merge Segments", e);
+                        if (cause instanceof StreamSegmentNotExistsException
+                                && mergeSegments.getSource().equals(((StreamSegmentNotExistsException) cause).getStreamSegmentName())) {
+                            return null;
+                        }
+                        throw new CompletionException(cause);
                     });
     }
 
+    private CompletableFuture<Void> skipMerge(WireCommands.MergeSegments mergeSegments, Throwable previousFailure) {
+        log.info("Not merging '{}' as a previous merge into '{}' failed.", mergeSegments.getSource(), mergeSegments.getTarget());
+        // The reply is about the target, as a NoSuchSegment for the source would mean that it has been merged already.
+        handleException(mergeSegments.getRequestId(), mergeSegments.getTarget(), "Merge Segments", previousFailure);
+        return Futures.failedFuture(previousFailure);
+    }
+
     @Override
     public void sealSegment(SealSegment sealSegment) {
         String segment = sealSegment.getSegment();
@@ -500,6 +745,15 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
                 });
     }
 
+    /**
+     * Seals all the requested Segments in parallel. See {@link #createSegments}.
+     */
+    @Override
+    public void sealSegments(SealSegments sealSegments) {
+        log.debug("Sealing {} segments (request {}).", sealSegments.getSegments().size(), sealSegments.getRequestId());
+        sealSegments.getSegments().forEach(this::sealSegment);
+    }
+
     @Override
     public void truncateSegment(TruncateSegment truncateSegment) {
         String segment = truncateSegment.getSegment();
@@ -536,6 +790,15 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
                 .exceptionally(e -> handleException(deleteSegment.getRequestId(), segment, "Delete segment", e));
     }
 
+    /**
+     * Deletes all the requested Segments in parallel. See {@link #createSegments}.
+     */
+    @Override
+    public void deleteSegments(DeleteSegments deleteSegments) {
+        log.debug("Deleting {} segments (request {}).", deleteSegments.getSegments().size(), deleteSegments.getRequestId());
+        deleteSegments.getSegments().forEach(this::deleteSegment);
+    }
+
     @Override
     public void updateSegmentPolicy(UpdateSegmentPolicy updateSegmentPolicy) {
 
@@ -594,4 +857,13 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
 
         return null;
     }
+
+    /**
+     * A SegmentRead reply (whose data is immediately available) that is waiting to be sent as part of a SegmentsRead.
+     */
+    @RequiredArgsConstructor
+    private static class PendingSegmentRead {
+        private final SegmentRead reply;
+        private final ByteBuf data;
+    }
 }
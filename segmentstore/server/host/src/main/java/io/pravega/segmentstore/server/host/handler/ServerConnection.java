@@ -9,6 +9,7 @@
  */
 package io.pravega.segmentstore.server.host.handler;
 
+import io.netty.util.ReferenceCounted;
 import io.pravega.shared.protocol.netty.RequestProcessor;
 import io.pravega.shared.protocol.netty.WireCommand;
 
@@ -24,6 +25,16 @@ public interface ServerConnection extends AutoCloseable {
      */
     void send(WireCommand cmd);
 
+    /**
+     * Sends the provided command asynchronously and releases the given resource once the command has been written out
+     * (or if it could not be). This operation is non-blocking. This should be used for commands that refer to memory
+     * that may be reused once released.
+     *
+     * @param cmd      The command to send.
+     * @param resource The resource to release.
+     */
+    void send(WireCommand cmd, ReferenceCounted resource);
+
     /**
      * Sets the command processor to receive incoming commands from the client. This
      * method may only be called once.
@@ -14,6 +14,7 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCounted;
 import io.pravega.shared.protocol.netty.Request;
 import io.pravega.shared.protocol.netty.RequestProcessor;
 import io.pravega.shared.protocol.netty.WireCommand;
@@ -68,6 +69,31 @@ public class ServerConnectionInboundHandler extends ChannelInboundHandlerAdapter
     private static void writeAndFlush(Channel channel, WireCommand data) {
         channel.writeAndFlush(data).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
     }  
+
+    @Override
+    public void send(WireCommand cmd, ReferenceCounted resource) {
+        Channel c;
+        try {
+            c = getChannel();
+        } catch (Throwable ex) {
+            resource.release();
+            throw ex;
+        }
+
+        // Work around for https://github.com/netty/netty/issues/3246
+        EventLoop eventLoop = c.eventLoop();
+        if (eventLoop.inEventLoop()) {
+            eventLoop.execute(() -> writeAndFlush(c, cmd, resource));
+        } else {
+            writeAndFlush(c, cmd, resource);
+        }
+    }
+
+    private static void writeAndFlush(Channel channel, WireCommand data, ReferenceCounted resource) {
+        channel.writeAndFlush(data)
+               .addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE)
+               .addListener(f -> resource.release());
+    }
     
     @Override
     public void setRequestProcessor(RequestProcessor rp) {
@@ -9,6 +9,7 @@
  */
 package io.pravega.segmentstore.server.host.handler;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.pravega.common.concurrent.ExecutorServiceHelpers;
 import io.pravega.common.concurrent.Futures;
@@ -24,6 +25,7 @@ import io.pravega.shared.protocol.netty.WireCommands.AppendSetup;
 import io.pravega.shared.protocol.netty.WireCommands.ConditionalCheckFailed;
 import io.pravega.shared.protocol.netty.WireCommands.DataAppended;
 import io.pravega.shared.protocol.netty.WireCommands.OperationUnsupported;
+import io.pravega.shared.protocol.netty.WireCommands.RemoveWriter;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import java.util.Arrays;
 import java.util.Collection;
@@ -39,6 +41,7 @@ import org.mockito.Mockito;
 import static io.pravega.segmentstore.contracts.Attributes.EVENT_COUNT;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
@@ -49,6 +52,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 public class AppendProcessorTest {
     
@@ -57,7 +61,7 @@ public class AppendProcessorTest {
         String streamSegmentName = "testAppendSegment";
         UUID clientId = UUID.randomUUID();
         byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
@@ -77,7 +81,7 @@ public class AppendProcessorTest {
         verify(connection, atLeast(0)).resumeReading();
         verify(connection).send(new DataAppended(clientId, data.length, 0L));
         verifyNoMoreInteractions(connection);
-        verifyNoMoreInteractions(store);
+        verifyNoMoreStoreInteractions(store);
     }
     
     @Test
@@ -86,7 +90,7 @@ public class AppendProcessorTest {
         String streamSegmentName2 = "testAppendSegment2";
         UUID clientId = UUID.randomUUID();
         byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         InOrder verifier = Mockito.inOrder(store);
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
@@ -117,7 +121,7 @@ public class AppendProcessorTest {
         processor.append(new Append(streamSegmentName1, clientId, 20, Unpooled.wrappedBuffer(data), null));
         verifier.verify(store).append(streamSegmentName1, data, updateEventNumber(clientId, 20, 10, 1), AppendProcessor.TIMEOUT);
         
-        verifyNoMoreInteractions(store);
+        verifyNoMoreStoreInteractions(store);
     }
 
     @Test
@@ -125,7 +129,7 @@ public class AppendProcessorTest {
         String streamSegmentName = "testConditionalAppendSuccess";
         UUID clientId = UUID.randomUUID();
         byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
@@ -150,7 +154,7 @@ public class AppendProcessorTest {
         verify(connection).send(new DataAppended(clientId, 1, 0));
         verify(connection).send(new DataAppended(clientId, 2, 1));
         verifyNoMoreInteractions(connection);
-        verifyNoMoreInteractions(store);
+        verifyNoMoreStoreInteractions(store);
     }
 
     @Test
@@ -158,7 +162,7 @@ public class AppendProcessorTest {
         String streamSegmentName = "testConditionalAppendFailure";
         UUID clientId = UUID.randomUUID();
         byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
@@ -182,7 +186,7 @@ public class AppendProcessorTest {
         verify(connection).send(new DataAppended(clientId, 1, 0));
         verify(connection).send(new ConditionalCheckFailed(clientId, 2));
         verifyNoMoreInteractions(connection);
-        verifyNoMoreInteractions(store);
+        verifyNoMoreStoreInteractions(store);
     }
 
     @Test
@@ -190,7 +194,7 @@ public class AppendProcessorTest {
         String streamSegmentName = "testAppendSegment";
         UUID clientId = UUID.randomUUID();
         byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
@@ -206,7 +210,7 @@ public class AppendProcessorTest {
         verify(connection).send(new AppendSetup(1, streamSegmentName, clientId, 100));
         verify(connection, atLeast(0)).resumeReading();
         verifyNoMoreInteractions(connection);
-        verifyNoMoreInteractions(store);
+        verifyNoMoreStoreInteractions(store);
     }
 
     @Test
@@ -214,7 +218,7 @@ public class AppendProcessorTest {
         String streamSegmentName = "testAppendSegment";
         UUID clientId = UUID.randomUUID();
         byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
         try {
@@ -224,7 +228,47 @@ public class AppendProcessorTest {
             //expected
         }
         verifyNoMoreInteractions(connection);
-        verifyNoMoreInteractions(store);
+        verifyNoMoreStoreInteractions(store);
+    }
+
+    @Test
+    public void testRemoveWriter() {
+        String streamSegmentName = "testRemoveWriter";
+        UUID clientId = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mockStore();
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
+
+        setupGetAttributes(streamSegmentName, clientId, store);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        when(store.append(streamSegmentName, data, updateEventNumber(clientId, data.length), AppendProcessor.TIMEOUT))
+            .thenReturn(result);
+        processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
+        processor.append(new Append(streamSegmentName, clientId, data.length, Unpooled.wrappedBuffer(data), null));
+
+        // A writer with an outstanding append is only removed once it completes.
+        processor.removeWriter(new RemoveWriter(1, clientId, streamSegmentName));
+        result.complete(null);
+        verify(connection).send(new DataAppended(clientId, data.length, 0L));
+        try {
+            processor.append(new Append(streamSegmentName, clientId, 2L * data.length, Unpooled.wrappedBuffer(data), null));
+            fail();
+        } catch (RuntimeException e) {
+            //expected
+        }
+
+        // An idle writer is removed right away, and may be set up again.
+        processor.setupAppend(new SetupAppend(2, clientId, streamSegmentName, ""));
+        processor.removeWriter(new RemoveWriter(2, clientId, streamSegmentName));
+        try {
+            processor.append(new Append(streamSegmentName, clientId, 2L * data.length, Unpooled.wrappedBuffer(data), null));
+            fail();
+        } catch (RuntimeException e) {
+            //expected
+        }
+        verify(connection).send(new AppendSetup(1, streamSegmentName, clientId, 0));
+        verify(connection).send(new AppendSetup(2, streamSegmentName, clientId, 0));
     }
 
     @Test
@@ -234,7 +278,7 @@ public class AppendProcessorTest {
         UUID clientId1 = UUID.randomUUID();
         UUID clientId2 = UUID.randomUUID();
         byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
@@ -269,7 +313,83 @@ public class AppendProcessorTest {
         verify(connection).send(new AppendSetup(2, segment2, clientId2, 0));
         verify(connection).send(new DataAppended(clientId2, data.length, 0));
         verifyNoMoreInteractions(connection);
-        verifyNoMoreInteractions(store);
+        verifyNoMoreStoreInteractions(store);
+    }
+
+    /**
+     * Verifies that appends from different writers are written to the store concurrently, while appends from the same
+     * writer are still written one at a time, in order.
+     */
+    @Test
+    public void testConcurrentWriters() {
+        String segment1 = "segment1";
+        String segment2 = "segment2";
+        UUID clientId1 = UUID.randomUUID();
+        UUID clientId2 = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mockStore();
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
+
+        setupGetAttributes(segment1, clientId1, store);
+        setupGetAttributes(segment2, clientId2, store);
+        CompletableFuture<Void> result1 = new CompletableFuture<>();
+        when(store.append(segment1, data, updateEventNumber(clientId1, 1), AppendProcessor.TIMEOUT)).thenReturn(result1);
+        CompletableFuture<Void> result2 = new CompletableFuture<>();
+        when(store.append(segment2, data, updateEventNumber(clientId2, 1), AppendProcessor.TIMEOUT)).thenReturn(result2);
+        when(store.append(segment1, data, updateEventNumber(clientId1, 2, 1, 1), AppendProcessor.TIMEOUT))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        processor.setupAppend(new SetupAppend(1, clientId1, segment1, ""));
+        processor.setupAppend(new SetupAppend(2, clientId2, segment2, ""));
+        processor.append(new Append(segment1, clientId1, 1, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(segment2, clientId2, 1, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(segment1, clientId1, 2, Unpooled.wrappedBuffer(data), null));
+
+        // Both writers have an append outstanding; the second append of the first writer must wait for its first one.
+        verify(store).append(segment1, data, updateEventNumber(clientId1, 1), AppendProcessor.TIMEOUT);
+        verify(store).append(segment2, data, updateEventNumber(clientId2, 1), AppendProcessor.TIMEOUT);
+        verify(store, times(0)).append(segment1, data, updateEventNumber(clientId1, 2, 1, 1), AppendProcessor.TIMEOUT);
+
+        result2.complete(null);
+        verify(connection).send(new DataAppended(clientId2, 1, 0));
+        verify(store, times(0)).append(segment1, data, updateEventNumber(clientId1, 2, 1, 1), AppendProcessor.TIMEOUT);
+
+        result1.complete(null);
+        verify(connection).send(new DataAppended(clientId1, 1, 0));
+        verify(store).append(segment1, data, updateEventNumber(clientId1, 2, 1, 1), AppendProcessor.TIMEOUT);
+        verify(connection).send(new DataAppended(clientId1, 2, 1));
+    }
+
+    /**
+     * Verifies that the data of the appends that are outstanding against the store counts towards pausing reading from
+     * the connection, even if there is no data waiting behind them.
+     */
+    @Test
+    public void testPauseReadingWithConcurrentWriters() {
+        int writerCount = 5;
+        byte[] data = new byte[32 * 1024];
+        StreamSegmentStore store = mockStore();
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        for (int i = 0; i < writerCount; i++) {
+            String segment = "segment" + i;
+            UUID clientId = UUID.randomUUID();
+            setupGetAttributes(segment, clientId, store);
+            when(store.append(segment, data, updateEventNumber(clientId, 1), AppendProcessor.TIMEOUT)).thenReturn(result);
+            processor.setupAppend(new SetupAppend(i, clientId, segment, ""));
+            processor.append(new Append(segment, clientId, 1, Unpooled.wrappedBuffer(data), null));
+        }
+
+        // Every append is outstanding (none is waiting), and together they exceed the high water mark.
+        InOrder order = Mockito.inOrder(connection);
+        order.verify(connection).pauseReading();
+        order.verify(connection, times(0)).resumeReading();
+
+        result.complete(null);
+        order.verify(connection, atLeast(1)).resumeReading();
     }
 
     @Test
@@ -277,7 +397,7 @@ public class AppendProcessorTest {
         String streamSegmentName = "testAppendSegment";
         UUID clientId = UUID.randomUUID();
         byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
@@ -298,7 +418,7 @@ public class AppendProcessorTest {
         verify(connection).send(new AppendSetup(1, streamSegmentName, clientId, 0));
         verify(connection, atLeast(0)).resumeReading();
         verify(connection).close();
-        verify(store, atMost(1)).append(any(), any(), any(), any());
+        verify(store, atMost(1)).append(any(), any(byte[].class), any(), any());
         verifyNoMoreInteractions(connection);
     }
 
@@ -307,7 +427,7 @@ public class AppendProcessorTest {
         String streamSegmentName = "testAppendSegment";
         UUID clientId = UUID.randomUUID();
         byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
@@ -332,7 +452,7 @@ public class AppendProcessorTest {
         verify(store).append(streamSegmentName, data, updateEventNumber(clientId, 200, 100, eventCount),
                              AppendProcessor.TIMEOUT);
 
-        verifyNoMoreInteractions(store);
+        verifyNoMoreStoreInteractions(store);
     }
 
     /**
@@ -353,7 +473,7 @@ public class AppendProcessorTest {
         String streamSegmentName = "testDelayedAppend";
         UUID clientId = UUID.randomUUID();
         byte[] data = new byte[]{1, 2, 3, 4, 6, 7, 8, 9};
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         ServerConnection connection = mock(ServerConnection.class);
 
         //Ensure the first DataAppended is hung/delayed.
@@ -394,7 +514,7 @@ public class AppendProcessorTest {
                 null));
 
         //Since the first Ack was never sent the next append should not be written to the store.
-        verifyNoMoreInteractions(store);
+        verifyNoMoreStoreInteractions(store);
 
         //Setup mock for check behaviour after the delayed/hung dataAppended completes.
         when(store.append(streamSegmentName, data, updateEventNumber(clientId, 200, 100, eventCount),
@@ -416,7 +536,7 @@ public class AppendProcessorTest {
         String streamSegmentName = "testAppendSegment";
         UUID clientId = UUID.randomUUID();
         byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
@@ -439,7 +559,7 @@ public class AppendProcessorTest {
         verify(store).append(streamSegmentName, data, updateEventNumber(clientId, 300, 200, eventCount),
                              AppendProcessor.TIMEOUT);
         
-        verifyNoMoreInteractions(store);
+        verifyNoMoreStoreInteractions(store);
     }
 
 
@@ -448,7 +568,7 @@ public class AppendProcessorTest {
         String streamSegmentName = "testAppendSegment";
         UUID clientId = UUID.randomUUID();
         byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
-        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        StreamSegmentStore store = mockStore();
         ServerConnection connection = mock(ServerConnection.class);
         AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
 
@@ -469,6 +589,23 @@ public class AppendProcessorTest {
         verify(connection, atLeast(0)).resumeReading();
         verify(connection).send(new OperationUnsupported(data.length, "appending data"));
         verifyNoMoreInteractions(connection);
+        verifyNoMoreStoreInteractions(store);
+    }
+
+    /**
+     * Creates a mock StreamSegmentStore. AppendProcessor hands its (reference-counted) buffers to the ByteBuf overloads of
+     * append() and releases them once the append completes, so they cannot be inspected afterwards; these are left to
+     * their default implementations, which copy the data and invoke the byte[] overloads (which are stubbed and verified
+     * by the tests).
+     */
+    private StreamSegmentStore mockStore() {
+        return mock(StreamSegmentStore.class, withSettings().defaultAnswer(Mockito.CALLS_REAL_METHODS));
+    }
+
+    private void verifyNoMoreStoreInteractions(StreamSegmentStore store) {
+        // The ByteBuf appends only forward to the byte[] ones, which have been verified individually.
+        verify(store, atLeast(0)).append(anyString(), any(ByteBuf.class), any(), any());
+        verify(store, atLeast(0)).append(anyString(), anyLong(), any(ByteBuf.class), any(), any());
         verifyNoMoreInteractions(store);
     }
 
@@ -10,6 +10,9 @@
 package io.pravega.segmentstore.server.host.handler;
 
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCounted;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.ReadResultEntry;
@@ -38,6 +41,7 @@ import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
@@ -45,6 +49,7 @@ import java.io.ByteArrayInputStream;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
@@ -56,9 +61,11 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -155,6 +162,47 @@ public class PravegaRequestProcessorTest {
         verifyNoMoreInteractions(store);
     }
 
+    @Test(timeout = 20000)
+    public void testReadSegmentDirectMemory() {
+        // Set up PravegaRequestProcessor instance to execute read segment request against
+        String streamSegmentName = "testReadSegmentDirectMemory";
+        byte[] data = new byte[]{1, 2, 3, 4, 6, 7, 8, 9};
+        int splitOffset = 3;
+        int readLength = 1000;
+
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        PravegaRequestProcessor processor = new PravegaRequestProcessor(store, connection);
+
+        // Two entries backed by direct memory; they need to be sent as a single contiguous buffer.
+        ByteBuf buffer1 = Unpooled.directBuffer().writeBytes(data, 0, splitOffset);
+        ByteBuf buffer2 = Unpooled.directBuffer().writeBytes(data, splitOffset, data.length - splitOffset);
+        TestReadResultEntry entry1 = new TestReadResultEntry(ReadResultEntryType.Cache, 0, readLength);
+        entry1.complete(new ReadResultEntryContents(buffer1));
+        TestReadResultEntry entry2 = new TestReadResultEntry(ReadResultEntryType.Cache, splitOffset, readLength - splitOffset);
+        entry2.complete(new ReadResultEntryContents(buffer2));
+        TestReadResultEntry entry3 = new TestReadResultEntry(ReadResultEntryType.Future, data.length, readLength);
+
+        List<ReadResultEntry> results = new ArrayList<>();
+        results.add(entry1);
+        results.add(entry2);
+        results.add(entry3);
+        CompletableFuture<ReadResult> readResult = new CompletableFuture<>();
+        readResult.complete(new TestReadResult(0, readLength, results));
+        when(store.read(streamSegmentName, 0, readLength, PravegaRequestProcessor.TIMEOUT)).thenReturn(readResult);
+
+        // Execute and Verify that the data was sent as direct memory that is only released once written out.
+        processor.readSegment(new WireCommands.ReadSegment(streamSegmentName, 0, readLength, ""));
+        ArgumentCaptor<ReferenceCounted> sentBuffer = ArgumentCaptor.forClass(ReferenceCounted.class);
+        verify(connection).send(eq(new WireCommands.SegmentRead(streamSegmentName, 0, true, false, ByteBuffer.wrap(data))),
+                sentBuffer.capture());
+        verifyNoMoreInteractions(connection);
+        assertEquals("Entry buffer was not released.", 0, buffer1.refCnt());
+        assertEquals("Entry buffer was not released.", 0, buffer2.refCnt());
+        assertEquals("Sent buffer was released before being written out.", 1, sentBuffer.getValue().refCnt());
+        sentBuffer.getValue().release();
+    }
+
     @Test(timeout = 20000)
     public void testReadSegmentEmptySealed() {
         // Set up PravegaRequestProcessor instance to execute read segment request against
@@ -217,6 +265,50 @@ public class PravegaRequestProcessorTest {
         verifyNoMoreInteractions(store);
     }
 
+    @Test(timeout = 20000)
+    public void testReadSegments() {
+        // Set up PravegaRequestProcessor instance to execute read segments request against
+        String cachedSegment = "testReadSegmentsCached";
+        String sealedSegment = "testReadSegmentsSealed";
+        String futureSegment = "testReadSegmentsFuture";
+        byte[] data = new byte[]{1, 2, 3, 4, 6, 7, 8, 9};
+        int readLength = 1000;
+
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        PravegaRequestProcessor processor = new PravegaRequestProcessor(store, connection);
+
+        // One segment has data in the cache, one is at its end and the data for the last one is not readily available.
+        TestReadResultEntry cachedEntry = new TestReadResultEntry(ReadResultEntryType.Cache, 0, readLength);
+        cachedEntry.complete(new ReadResultEntryContents(new ByteArrayInputStream(data), data.length));
+        TestReadResultEntry tailEntry = new TestReadResultEntry(ReadResultEntryType.Future, data.length, readLength);
+        TestReadResultEntry sealedEntry = new TestReadResultEntry(ReadResultEntryType.EndOfStreamSegment, 0, readLength);
+        TestReadResultEntry futureEntry = new TestReadResultEntry(ReadResultEntryType.Future, 0, readLength);
+        when(store.read(cachedSegment, 0, readLength, PravegaRequestProcessor.TIMEOUT)).thenReturn(
+                CompletableFuture.completedFuture(new TestReadResult(0, readLength, new ArrayList<>(Arrays.asList(cachedEntry, tailEntry)))));
+        when(store.read(sealedSegment, 0, readLength, PravegaRequestProcessor.TIMEOUT)).thenReturn(
+                CompletableFuture.completedFuture(new TestReadResult(0, readLength, new ArrayList<>(Arrays.asList(sealedEntry)))));
+        when(store.read(futureSegment, 0, readLength, PravegaRequestProcessor.TIMEOUT)).thenReturn(
+                CompletableFuture.completedFuture(new TestReadResult(0, readLength, new ArrayList<>(Arrays.asList(futureEntry)))));
+
+        // Execute and Verify that the readily available data is sent back together, and the rest individually.
+        processor.readSegments(new WireCommands.ReadSegments(123, Arrays.asList(
+                new WireCommands.ReadSegment(cachedSegment, 0, readLength, ""),
+                new WireCommands.ReadSegment(sealedSegment, 0, readLength, ""),
+                new WireCommands.ReadSegment(futureSegment, 0, readLength, ""))));
+        ArgumentCaptor<ReferenceCounted> sentBuffers = ArgumentCaptor.forClass(ReferenceCounted.class);
+        verify(connection).send(eq(new WireCommands.SegmentsRead(123, Arrays.asList(
+                new WireCommands.SegmentRead(cachedSegment, 0, true, false, ByteBuffer.wrap(data)),
+                new WireCommands.SegmentRead(sealedSegment, 0, false, true, ByteBuffer.wrap(new byte[0]))))),
+                sentBuffers.capture());
+        verifyNoMoreInteractions(connection);
+        sentBuffers.getValue().release();
+
+        futureEntry.complete(new ReadResultEntryContents(new ByteArrayInputStream(data), data.length));
+        verify(connection).send(new WireCommands.SegmentRead(futureSegment, 0, false, false, ByteBuffer.wrap(data)));
+        verifyNoMoreInteractions(connection);
+    }
+
     @Test(timeout = 20000)
     public void testCreateSegment() throws Exception {
         // Set up PravegaRequestProcessor instance to execute requests against
@@ -360,6 +452,76 @@ public class PravegaRequestProcessorTest {
         order.verify(connection).send(new WireCommands.NoSuchSegment(4, StreamSegmentNameUtils.getTransactionNameFromId(streamSegmentName, txnid)));
     }
 
+    @Test(timeout = 20000)
+    public void testMergeSegmentsBatch() throws Exception {
+        String streamSegmentName = "testMergeBatch";
+        String missingSegmentName = "testMergeBatchMissing";
+        @Cleanup
+        ServiceBuilder serviceBuilder = newInlineExecutionInMemoryBuilder(getBuilderConfig());
+        serviceBuilder.initialize();
+        StreamSegmentStore store = serviceBuilder.createStreamSegmentService();
+        ServerConnection connection = mock(ServerConnection.class);
+        PravegaRequestProcessor processor = new PravegaRequestProcessor(store, connection);
+
+        processor.createSegment(new WireCommands.CreateSegment(0, streamSegmentName, WireCommands.CreateSegment.NO_SCALE, 0, ""));
+        String[] transactionNames = new String[4];
+        for (int i = 0; i < transactionNames.length; i++) {
+            transactionNames[i] = StreamSegmentNameUtils.getTransactionNameFromId(streamSegmentName, UUID.randomUUID());
+            processor.createSegment(new WireCommands.CreateSegment(1, transactionNames[i], WireCommands.CreateSegment.NO_SCALE, 0, ""));
+            assertTrue(append(transactionNames[i], i, store));
+        }
+        String mergedName = StreamSegmentNameUtils.getTransactionNameFromId(streamSegmentName, UUID.randomUUID());
+
+        // A source that no longer exists (as it has been merged already) does not prevent the merges that follow it.
+        processor.mergeSegmentsBatch(new WireCommands.MergeSegmentsBatch(2, Arrays.asList(
+                new WireCommands.MergeSegments(3, streamSegmentName, transactionNames[0], ""),
+                new WireCommands.MergeSegments(4, streamSegmentName, mergedName, ""),
+                new WireCommands.MergeSegments(5, streamSegmentName, transactionNames[1], ""),
+                new WireCommands.MergeSegments(6, missingSegmentName, transactionNames[2], ""),
+                new WireCommands.MergeSegments(7, missingSegmentName, transactionNames[3], ""))));
+        verify(connection).send(new WireCommands.SegmentsMerged(3, streamSegmentName, transactionNames[0]));
+        verify(connection).send(new WireCommands.NoSuchSegment(4, mergedName));
+        verify(connection).send(new WireCommands.SegmentsMerged(5, streamSegmentName, transactionNames[1]));
+        assertEquals(2, store.getStreamSegmentInfo(streamSegmentName, false, PravegaRequestProcessor.TIMEOUT).join().getLength());
+
+        // Once a merge into a target has failed, the ones that follow it into that target are not attempted.
+        verify(connection).send(new WireCommands.NoSuchSegment(6, transactionNames[2]));
+        verify(connection).send(new WireCommands.NoSuchSegment(7, missingSegmentName));
+        assertEquals(1, store.getStreamSegmentInfo(transactionNames[3], false, PravegaRequestProcessor.TIMEOUT).join().getLength());
+    }
+
+    @Test(timeout = 20000)
+    public void testMergeSegmentsBatchTogether() throws Exception {
+        String streamSegmentName = "testMergeBatchTogether";
+        @Cleanup
+        ServiceBuilder serviceBuilder = newInlineExecutionInMemoryBuilder(getBuilderConfig());
+        serviceBuilder.initialize();
+        StreamSegmentStore store = spy(serviceBuilder.createStreamSegmentService());
+        ServerConnection connection = mock(ServerConnection.class);
+        PravegaRequestProcessor processor = new PravegaRequestProcessor(store, connection);
+
+        processor.createSegment(new WireCommands.CreateSegment(0, streamSegmentName, WireCommands.CreateSegment.NO_SCALE, 0, ""));
+        List<String> transactionNames = new ArrayList<>();
+        List<WireCommands.MergeSegments> merges = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String transactionName = StreamSegmentNameUtils.getTransactionNameFromId(streamSegmentName, UUID.randomUUID());
+            processor.createSegment(new WireCommands.CreateSegment(1, transactionName, WireCommands.CreateSegment.NO_SCALE, 0, ""));
+            assertTrue(append(transactionName, i, store));
+            transactionNames.add(transactionName);
+            merges.add(new WireCommands.MergeSegments(3 + i, streamSegmentName, transactionName, ""));
+        }
+
+        // All the merges into the same target are handed to the Segment Store at once, and each of them is replied to.
+        processor.mergeSegmentsBatch(new WireCommands.MergeSegmentsBatch(2, merges));
+        verify(store).mergeStreamSegments(streamSegmentName, transactionNames, PravegaRequestProcessor.TIMEOUT);
+        verify(store, never()).mergeStreamSegment(anyString(), anyString(), any());
+        for (WireCommands.MergeSegments mergeSegments : merges) {
+            verify(connection).send(new WireCommands.SegmentsMerged(mergeSegments.getRequestId(), streamSegmentName, mergeSegments.getSource()));
+        }
+
+        assertEquals(3, store.getStreamSegmentInfo(streamSegmentName, false, PravegaRequestProcessor.TIMEOUT).join().getLength());
+    }
+
     @Test(timeout = 20000)
     public void testSegmentAttribute() throws Exception {
         String streamSegmentName = "testSegmentAttribute";
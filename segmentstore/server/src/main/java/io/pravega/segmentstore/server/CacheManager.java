@@ -23,6 +23,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.Getter;
@@ -39,6 +40,10 @@ import lombok.extern.slf4j.Slf4j;
  * (in the clients) that is generated or updated gets assigned the current generation. As the CacheManager determines that
  * there are too many Cache Entries or that the maximum size has been exceeded, it will increment the oldest generation.
  * The CacheManager Clients can use this information to evict those Cache Entries that have a generation below the oldest generation number.
+ *
+ * If the underlying Cache storage has a bounded capacity (such as direct memory), the CacheManager will also take into
+ * account the actual storage utilization, and it will begin evicting entries once that exceeds STORAGE_EVICTION_THRESHOLD,
+ * even if the cache size (as reported by the clients) is still within the policy's limits.
  */
 @Slf4j
 @ThreadSafe
@@ -46,6 +51,11 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
     //region Members
 
     private static final String TRACE_OBJECT_ID = "CacheManager";
+
+    /**
+     * The ratio of the Cache storage capacity above which the CacheManager considers the cache to be full.
+     */
+    private static final double STORAGE_EVICTION_THRESHOLD = 0.9;
     @GuardedBy("clients")
     private final Collection<Client> clients;
     private final ScheduledExecutorService executorService;
@@ -53,6 +63,7 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
     private final AtomicInteger oldestGeneration;
     private final AtomicLong cacheSize;
     private final CachePolicy policy;
+    private final DoubleSupplier storageUtilization;
     private final AtomicBoolean closed;
     private final SegmentStoreMetrics.CacheManager metrics;
 
@@ -67,10 +78,24 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
      * @param executorService An executorService to use for scheduled tasks.
      */
     public CacheManager(CachePolicy policy, ScheduledExecutorService executorService) {
+        this(policy, () -> 0, executorService);
+    }
+
+    /**
+     * Creates a new instance of the CacheManager class.
+     *
+     * @param policy             The policy to use with this CacheManager.
+     * @param storageUtilization A DoubleSupplier that, when invoked, returns the ratio of the Cache storage capacity that
+     *                           is currently in use (see CacheFactory.getStorageUtilization()).
+     * @param executorService    An executorService to use for scheduled tasks.
+     */
+    public CacheManager(CachePolicy policy, DoubleSupplier storageUtilization, ScheduledExecutorService executorService) {
         Preconditions.checkNotNull(policy, "policy");
+        Preconditions.checkNotNull(storageUtilization, "storageUtilization");
         Preconditions.checkNotNull(executorService, "executorService");
 
         this.policy = policy;
+        this.storageUtilization = storageUtilization;
         this.clients = new HashSet<>();
         this.oldestGeneration = new AtomicInteger();
         this.currentGeneration = new AtomicInteger();
@@ -141,7 +166,10 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
 
     @Override
     public double getCacheUtilization() {
-        return (double) this.cacheSize.get() / this.policy.getMaxSize();
+        // The storage utilization is scaled so that it reaches 1 when we hit the eviction threshold, which is the point
+        // where we consider the cache to be full.
+        return Math.max((double) this.cacheSize.get() / this.policy.getMaxSize(),
+                this.storageUtilization.getAsDouble() / STORAGE_EVICTION_THRESHOLD);
     }
 
     //endregion
@@ -198,6 +226,9 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
             return;
         }
 
+        // Make the current size available to the clients (see getCacheUtilization()) while they are being updated.
+        this.cacheSize.set(currentStatus.getSize());
+
         // Increment current generation (if needed).
         boolean currentChanged = adjustCurrentGeneration(currentStatus);
 
@@ -324,8 +355,10 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
         // We need to increment the OldestGeneration only if any of the following conditions occurred:
         // 1. We currently exceed the maximum size as defined by the cache policy.
         // 2. The oldest generation reported by the clients is older than the oldest permissible generation.
+        // 3. The underlying Cache storage is (almost) out of capacity.
         return currentStatus.getSize() > this.policy.getMaxSize()
-                || currentStatus.getOldestGeneration() < getOldestPermissibleGeneration();
+                || currentStatus.getOldestGeneration() < getOldestPermissibleGeneration()
+                || this.storageUtilization.getAsDouble() > STORAGE_EVICTION_THRESHOLD;
     }
 
     private int getOldestPermissibleGeneration() {
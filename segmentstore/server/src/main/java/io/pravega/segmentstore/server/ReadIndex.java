@@ -9,6 +9,8 @@
  */
 package io.pravega.segmentstore.server;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
 import java.io.InputStream;
@@ -30,7 +32,23 @@ public interface ReadIndex extends AutoCloseable, CacheUtilizationProvider {
      * @throws IllegalArgumentException If the offset does not match the expected value (end of StreamSegment in ReadIndex).
      * @throws IllegalArgumentException If the offset + data.length exceeds the metadata Length of the StreamSegment.
      */
-    void append(long streamSegmentId, long offset, byte[] data) throws StreamSegmentNotExistsException;
+    default void append(long streamSegmentId, long offset, byte[] data) throws StreamSegmentNotExistsException {
+        append(streamSegmentId, offset, Unpooled.wrappedBuffer(data));
+    }
+
+    /**
+     * Appends a range of bytes at the end of the Read Index for the given StreamSegmentId. The data is copied into the
+     * Cache before this method returns, so the caller remains the owner of the given ByteBuf.
+     *
+     * @param streamSegmentId The Id of the StreamSegment to append to.
+     * @param offset          The offset in the StreamSegment where to write this append. The offset must be at the end
+     *                        of the StreamSegment as it exists in the ReadIndex.
+     * @param data            A ByteBuf containing the data to append (its readable bytes). Its reader index is not changed.
+     * @throws StreamSegmentNotExistsException If streamSegmentId is mapped to a Segment that is marked as Deleted.
+     * @throws IllegalArgumentException If the offset does not match the expected value (end of StreamSegment in ReadIndex).
+     * @throws IllegalArgumentException If the offset + data length exceeds the metadata Length of the StreamSegment.
+     */
+    void append(long streamSegmentId, long offset, ByteBuf data) throws StreamSegmentNotExistsException;
 
     /**
      * Executes Step 1 of the 2-Step Merge Process.
@@ -60,6 +60,59 @@ public final class SegmentStoreMetrics {
 
     //endregion
 
+    //region ReadIndex
+
+    /**
+     * Per-Segment Read Index Cache metrics.
+     */
+    public final static class ReadIndex implements AutoCloseable {
+        private final String cacheHitBytes;
+        private final String cacheMissBytes;
+        private final String cacheEvictedBytes;
+
+        public ReadIndex(String segmentName) {
+            this.cacheHitBytes = MetricsNames.nameFromSegment(MetricsNames.SEGMENT_CACHE_HIT_BYTES, segmentName);
+            this.cacheMissBytes = MetricsNames.nameFromSegment(MetricsNames.SEGMENT_CACHE_MISS_BYTES, segmentName);
+            this.cacheEvictedBytes = MetricsNames.nameFromSegment(MetricsNames.SEGMENT_CACHE_EVICTED_BYTES, segmentName);
+        }
+
+        /**
+         * Records that a read was served from the Cache.
+         *
+         * @param bytes The number of bytes read.
+         */
+        public void cacheHit(long bytes) {
+            DYNAMIC_LOGGER.incCounterValue(this.cacheHitBytes, bytes);
+        }
+
+        /**
+         * Records that a read had to be served from Storage.
+         *
+         * @param bytes The number of bytes read.
+         */
+        public void cacheMiss(long bytes) {
+            DYNAMIC_LOGGER.incCounterValue(this.cacheMissBytes, bytes);
+        }
+
+        /**
+         * Records that data was evicted from the Cache.
+         *
+         * @param bytes The number of bytes evicted.
+         */
+        public void evicted(long bytes) {
+            DYNAMIC_LOGGER.incCounterValue(this.cacheEvictedBytes, bytes);
+        }
+
+        @Override
+        public void close() {
+            DYNAMIC_LOGGER.freezeCounter(this.cacheHitBytes);
+            DYNAMIC_LOGGER.freezeCounter(this.cacheMissBytes);
+            DYNAMIC_LOGGER.freezeCounter(this.cacheEvictedBytes);
+        }
+    }
+
+    //endregion
+
     //region ThreadPool
 
     /**
@@ -236,6 +289,50 @@ public final class SegmentStoreMetrics {
 
     //endregion
 
+    //region RecoveryProcessor
+
+    /**
+     * Container Recovery metrics.
+     */
+    public final static class RecoveryProcessor {
+        /**
+         * Global (not container-specific) duration of container recoveries.
+         */
+        private static final OpStatsLogger RECOVERY_LATENCY = STATS_LOGGER.createStats(MetricsNames.CONTAINER_RECOVERY_LATENCY);
+        private final String dataFrameCount;
+        private final String operationCount;
+        private final String byteCount;
+
+        public RecoveryProcessor(int containerId) {
+            this.dataFrameCount = MetricsNames.nameFromContainer(MetricsNames.CONTAINER_RECOVERY_DATA_FRAMES, containerId);
+            this.operationCount = MetricsNames.nameFromContainer(MetricsNames.CONTAINER_RECOVERY_OPERATIONS, containerId);
+            this.byteCount = MetricsNames.nameFromContainer(MetricsNames.CONTAINER_RECOVERY_BYTES, containerId);
+        }
+
+        /**
+         * Reports the progress of an ongoing recovery.
+         *
+         * @param dataFrames The number of DataFrames read so far.
+         * @param operations The number of Operations recovered so far.
+         * @param bytes      The number of bytes read so far.
+         */
+        public void progress(long dataFrames, long operations, long bytes) {
+            DYNAMIC_LOGGER.reportGaugeValue(this.dataFrameCount, dataFrames);
+            DYNAMIC_LOGGER.reportGaugeValue(this.operationCount, operations);
+            DYNAMIC_LOGGER.reportGaugeValue(this.byteCount, bytes);
+        }
+
+        public void recoveryCompleted(Duration elapsed, boolean success) {
+            if (success) {
+                RECOVERY_LATENCY.reportSuccessEvent(elapsed);
+            } else {
+                RECOVERY_LATENCY.reportFailEvent(elapsed);
+            }
+        }
+    }
+
+    //endregion
+
     //region Metadata
 
     /**
@@ -28,6 +28,7 @@ import io.pravega.segmentstore.contracts.AttributeUpdateType;
 import io.pravega.segmentstore.contracts.Attributes;
 import io.pravega.segmentstore.contracts.BadOffsetException;
 import io.pravega.segmentstore.contracts.ReadResultEntry;
+import io.pravega.segmentstore.contracts.ReadResultEntryContents;
 import io.pravega.segmentstore.contracts.ReadResultEntryType;
 import io.pravega.segmentstore.contracts.StreamSegmentMergedException;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
@@ -718,7 +719,7 @@ class SegmentAttributeIndex implements AttributeIndex, CacheManager.Client, Auto
      */
     @NotThreadSafe
     private static class AttributeSegmentReader implements AsyncReadResultHandler {
-        private final ArrayList<InputStream> inputs = new ArrayList<>();
+        private final ArrayList<ReadResultEntryContents> contents = new ArrayList<>();
         private final CompletableFuture<AttributeCollection> result;
         private final AttributeCollection attributeCollection;
         private final TimeoutTimer timer;
@@ -737,18 +738,20 @@ class SegmentAttributeIndex implements AttributeIndex, CacheManager.Client, Auto
         @Override
         public boolean processEntry(ReadResultEntry entry) {
             assert entry.getContent().isDone() : "received incomplete ReadResultEntry from reader";
-            this.inputs.add(entry.getContent().join().getData());
+            this.contents.add(entry.getContent().join());
             return true;
         }
 
         @Override
         public void processError(Throwable cause) {
+            releaseContents();
             this.result.completeExceptionally(cause);
         }
 
         @Override
         public void processResultComplete() {
-            Enumeration<InputStream> inputEnumeration = Collections.enumeration(inputs);
+            Enumeration<InputStream> inputEnumeration = Collections.enumeration(
+                    this.contents.stream().map(ReadResultEntryContents::getData).collect(Collectors.toList()));
             try (SequenceInputStream inputStream = new SequenceInputStream(inputEnumeration)) {
                 // Loop as long as the current InputStream has more elements or we have more input streams to process.
                 // NOTE: SequenceInputStream.available() will return 0 if it is sitting on the current end of a member InputStream
@@ -757,12 +760,18 @@ class SegmentAttributeIndex implements AttributeIndex, CacheManager.Client, Auto
                     AttributeCollection c = AttributeCollection.SERIALIZER.deserialize(inputStream);
                     this.attributeCollection.mergeWith(c);
                 }
+                releaseContents();
                 this.result.complete(this.attributeCollection);
             } catch (Throwable ex) {
                 processError(ex);
             }
         }
 
+        private void releaseContents() {
+            this.contents.forEach(ReadResultEntryContents::release);
+            this.contents.clear();
+        }
+
         @Override
         public Duration getRequestContentTimeout() {
             return this.timer.getRemaining();
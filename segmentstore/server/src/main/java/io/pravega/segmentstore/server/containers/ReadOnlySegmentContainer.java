@@ -12,6 +12,7 @@ package io.pravega.segmentstore.server.containers;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.AbstractIdleService;
+import io.netty.buffer.ByteBuf;
 import io.pravega.common.Exceptions;
 import io.pravega.common.TimeoutTimer;
 import io.pravega.common.concurrent.Futures;
@@ -156,6 +157,16 @@ class ReadOnlySegmentContainer extends AbstractIdleService implements SegmentCon
         return unsupported("append");
     }
 
+    @Override
+    public CompletableFuture<Void> append(String streamSegmentName, ByteBuf data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        return unsupported("append");
+    }
+
+    @Override
+    public CompletableFuture<Void> append(String streamSegmentName, long offset, ByteBuf data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        return unsupported("append");
+    }
+
     @Override
     public CompletableFuture<Void> updateAttributes(String streamSegmentName, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         return unsupported("updateAttributes");
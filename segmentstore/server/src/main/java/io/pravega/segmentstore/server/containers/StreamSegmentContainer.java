@@ -12,6 +12,8 @@ package io.pravega.segmentstore.server.containers;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.AbstractService;
 import com.google.common.util.concurrent.Service;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.pravega.common.Exceptions;
 import io.pravega.common.LoggerHelpers;
 import io.pravega.common.ObjectClosedException;
@@ -27,7 +29,10 @@ import io.pravega.segmentstore.contracts.Attributes;
 import io.pravega.segmentstore.contracts.BadAttributeUpdateException;
 import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.SegmentProperties;
+import io.pravega.segmentstore.contracts.StreamSegmentMergedException;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
+import io.pravega.segmentstore.contracts.StreamSegmentNotSealedException;
+import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
 import io.pravega.segmentstore.server.ContainerOfflineException;
 import io.pravega.segmentstore.server.IllegalContainerStateException;
 import io.pravega.segmentstore.server.OperationLog;
@@ -290,30 +295,34 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
 
     @Override
     public CompletableFuture<Void> append(String streamSegmentName, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        return append(streamSegmentName, Unpooled.wrappedBuffer(data), attributeUpdates, timeout);
+    }
+
+    @Override
+    public CompletableFuture<Void> append(String streamSegmentName, long offset, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        return append(streamSegmentName, offset, Unpooled.wrappedBuffer(data), attributeUpdates, timeout);
+    }
+
+    @Override
+    public CompletableFuture<Void> append(String streamSegmentName, ByteBuf data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         ensureRunning();
 
         TimeoutTimer timer = new TimeoutTimer(timeout);
-        logRequest("append", streamSegmentName, data.length);
+        logRequest("append", streamSegmentName, data.readableBytes());
         this.metrics.append();
         return this.segmentMapper.getOrAssignStreamSegmentId(streamSegmentName, timer.getRemaining(),
-                streamSegmentId -> {
-                    StreamSegmentAppendOperation operation = new StreamSegmentAppendOperation(streamSegmentId, data, attributeUpdates);
-                    return processAttributeUpdaterOperation(operation, timer);
-                });
+                streamSegmentId -> processAppend(new StreamSegmentAppendOperation(streamSegmentId, data, attributeUpdates), timer));
     }
 
     @Override
-    public CompletableFuture<Void> append(String streamSegmentName, long offset, byte[] data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+    public CompletableFuture<Void> append(String streamSegmentName, long offset, ByteBuf data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         ensureRunning();
 
         TimeoutTimer timer = new TimeoutTimer(timeout);
-        logRequest("appendWithOffset", streamSegmentName, data.length);
+        logRequest("appendWithOffset", streamSegmentName, data.readableBytes());
         this.metrics.appendWithOffset();
         return this.segmentMapper.getOrAssignStreamSegmentId(streamSegmentName, timer.getRemaining(),
-                streamSegmentId -> {
-                    StreamSegmentAppendOperation operation = new StreamSegmentAppendOperation(streamSegmentId, offset, data, attributeUpdates);
-                    return processAttributeUpdaterOperation(operation, timer);
-                });
+                streamSegmentId -> processAppend(new StreamSegmentAppendOperation(streamSegmentId, offset, data, attributeUpdates), timer));
     }
 
     @Override
@@ -446,6 +455,62 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
                 .thenComposeAsync(v -> this.stateStore.remove(sourceStreamSegment, timer.getRemaining()), this.executor);
     }
 
+    /**
+     * Merges all the given Segments with a single request to this container: every Segment is mapped and validated first
+     * (so that, barring concurrent changes, none of them is merged if any of them cannot be), and then the
+     * MergeSegmentOperations are added to the DurableLog one after the other, each once the previous one has completed,
+     * so that none is merged if a previous one failed.
+     */
+    @Override
+    public CompletableFuture<Void> mergeStreamSegments(String targetStreamSegment, List<String> sourceStreamSegments, Duration timeout) {
+        ensureRunning();
+
+        logRequest("mergeStreamSegments", targetStreamSegment, sourceStreamSegments);
+        sourceStreamSegments.forEach(s -> this.metrics.mergeSegment());
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+
+        return this.segmentMapper
+                .getOrAssignStreamSegmentId(targetStreamSegment, timer.getRemaining(),
+                        targetSegmentId -> Futures
+                                .allOfWithResults(sourceStreamSegments.stream()
+                                        .map(source -> this.segmentMapper.getOrAssignStreamSegmentId(source, timer.getRemaining(),
+                                                CompletableFuture::completedFuture))
+                                        .collect(Collectors.toList()))
+                                .thenCompose(sourceSegmentIds -> addMergeOperations(targetStreamSegment, targetSegmentId,
+                                        sourceStreamSegments, sourceSegmentIds, timer)))
+                .thenComposeAsync(v -> Futures.allOf(sourceStreamSegments.stream()
+                        .map(source -> this.stateStore.remove(source, timer.getRemaining()))
+                        .collect(Collectors.toList())), this.executor);
+    }
+
+    private CompletableFuture<Void> addMergeOperations(String targetName, long targetSegmentId, List<String> sourceNames,
+                                                       List<Long> sourceSegmentIds, TimeoutTimer timer) {
+        SegmentMetadata targetMetadata = this.metadata.getStreamSegmentMetadata(targetSegmentId);
+        if (targetMetadata == null || targetMetadata.isDeleted()) {
+            return Futures.failedFuture(new StreamSegmentNotExistsException(targetName));
+        } else if (targetMetadata.isSealed()) {
+            return Futures.failedFuture(new StreamSegmentSealedException(targetName));
+        }
+
+        for (int i = 0; i < sourceSegmentIds.size(); i++) {
+            SegmentMetadata sourceMetadata = this.metadata.getStreamSegmentMetadata(sourceSegmentIds.get(i));
+            if (sourceMetadata != null && sourceMetadata.isMerged()) {
+                return Futures.failedFuture(new StreamSegmentMergedException(sourceNames.get(i)));
+            } else if (sourceMetadata == null || sourceMetadata.isDeleted()) {
+                return Futures.failedFuture(new StreamSegmentNotExistsException(sourceNames.get(i)));
+            } else if (!sourceMetadata.isSealed()) {
+                return Futures.failedFuture(new StreamSegmentNotSealedException(sourceNames.get(i)));
+            }
+        }
+
+        CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
+        for (long sourceSegmentId : sourceSegmentIds) {
+            result = result.thenCompose(v -> this.durableLog.add(new MergeSegmentOperation(targetSegmentId, sourceSegmentId), timer.getRemaining()));
+        }
+
+        return result;
+    }
+
     @Override
     public CompletableFuture<Long> sealStreamSegment(String streamSegmentName, Duration timeout) {
         ensureRunning();
@@ -486,6 +551,31 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
 
     //region Helpers
 
+    /**
+     * Processes the given StreamSegmentAppendOperation. The operation holds its own reference to the data it appends; if
+     * it is successful, this is released after it has been applied to the in-memory state (see MemoryStateUpdater),
+     * otherwise it is released here.
+     *
+     * @param operation The Operation to process.
+     * @param timer     Timer for the operation.
+     * @return A CompletableFuture that, when completed, will indicate that the operation has been processed.
+     */
+    private CompletableFuture<Void> processAppend(StreamSegmentAppendOperation operation, TimeoutTimer timer) {
+        CompletableFuture<Void> result;
+        try {
+            result = processAttributeUpdaterOperation(operation, timer);
+        } catch (Throwable ex) {
+            operation.release();
+            throw ex;
+        }
+
+        return result.whenComplete((r, ex) -> {
+            if (ex != null) {
+                operation.release();
+            }
+        });
+    }
+
     /**
      * Processes the given AttributeUpdateOperation with exactly one retry in case it was rejected because of an attribute
      * update failure due to the attribute value missing from the in-memory cache.
@@ -14,14 +14,19 @@ import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
 import io.pravega.common.io.BoundedInputStream;
 import io.pravega.common.io.SerializationException;
+import io.pravega.common.io.StreamHelpers;
 import io.pravega.common.util.ArrayView;
 import io.pravega.common.util.BitConverter;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.CloseableIterator;
 import io.pravega.segmentstore.storage.LogAddress;
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +36,9 @@ import lombok.SneakyThrows;
 /**
  * Helps serialize entries into fixed-size batches. Allows writing multiple records per frame, as well as splitting a record
  * across multiple frames.
+ *
+ * Frames may optionally be compressed upon sealing (see CompressionType). The compression type is recorded in the Frame
+ * Header, so frames with different compression types may coexist in the same log.
  */
 @NotThreadSafe
 public class DataFrame {
@@ -38,7 +46,12 @@ public class DataFrame {
 
     static final int MIN_ENTRY_LENGTH_NEEDED = EntryHeader.HEADER_SIZE + 1;
     private static final byte CURRENT_VERSION = 0;
+    /**
+     * Minimum content length for a frame to be considered for compression. Anything smaller is not worth the CPU cycles.
+     */
+    private static final int MIN_COMPRESSION_LENGTH = 1024;
     private final ByteArraySegment data;
+    private final CompressionType compression;
     private WriteFrameHeader header;
     private ByteArraySegment contents;
 
@@ -61,13 +74,24 @@ public class DataFrame {
     //region Constructor
 
     /**
-     * Creates a new instance of a DataFrame.
+     * Creates a new instance of a DataFrame which will not be compressed.
      *
      * @param source The ByteArraySegment to wrap.
      */
     DataFrame(ByteArraySegment source) {
+        this(source, CompressionType.NONE);
+    }
+
+    /**
+     * Creates a new instance of a DataFrame.
+     *
+     * @param source      The ByteArraySegment to wrap.
+     * @param compression The CompressionType to attempt to apply to the contents of this DataFrame when it is sealed.
+     */
+    DataFrame(ByteArraySegment source, CompressionType compression) {
         Preconditions.checkArgument(!source.isReadOnly(), "Cannot create a WriteFrame for a readonly source.");
         this.data = source;
+        this.compression = Preconditions.checkNotNull(compression, "compression");
         this.writeEntryStartIndex = -1;
         this.sealed = source.isReadOnly();
         this.writePosition = this.sealed ? -1 : 0;
@@ -247,6 +271,9 @@ public class DataFrame {
      * Seals the frame for writing. After this method returns, no more modifications are allowed on this DataFrame.
      * This method has no effect if the Frame is read-only if it is already sealed.
      *
+     * If this DataFrame was created with a CompressionType other than NONE, this will also attempt to compress its contents
+     * (in place). If that does not reduce the size of the contents, the DataFrame will be left uncompressed.
+     *
      * @throws IllegalStateException If an open entry exists (entries must be closed prior to sealing).
      */
     void seal() {
@@ -254,11 +281,43 @@ public class DataFrame {
             Preconditions.checkState(writeEntryStartIndex < 0, "An open entry exists. Any open entries must be closed prior to sealing.");
 
             this.header.setContentLength(writePosition);
+            if (this.compression != CompressionType.NONE && this.writePosition >= MIN_COMPRESSION_LENGTH) {
+                compressContents();
+            }
+
             this.header.commit();
             this.sealed = true;
         }
     }
 
+    /**
+     * Compresses the contents of this DataFrame and, if the result is smaller than the original, replaces the contents
+     * with it and updates the header. The compressed contents is made up of the uncompressed length (int), followed
+     * by the compressed data.
+     */
+    private void compressContents() {
+        assert this.compression == CompressionType.DEFLATE : "unsupported compression " + this.compression;
+        byte[] compressed = new byte[this.writePosition - Integer.BYTES - 1];
+        int compressedLength;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(this.contents.array(), this.contents.arrayOffset(), this.writePosition);
+            deflater.finish();
+            compressedLength = deflater.deflate(compressed);
+            if (!deflater.finished()) {
+                // Compressed data does not fit in less space than the original. Leave it as is.
+                return;
+            }
+        } finally {
+            deflater.end();
+        }
+
+        BitConverter.writeInt(this.contents, 0, this.writePosition);
+        this.contents.copyFrom(new ByteArraySegment(compressed, 0, compressedLength), Integer.BYTES, compressedLength);
+        this.header.setContentLength(Integer.BYTES + compressedLength);
+        this.header.setCompression(this.compression);
+    }
+
     /**
      * Calculates the number of bytes available in the frame for writing.
      */
@@ -277,7 +336,8 @@ public class DataFrame {
 
     /**
      * Interprets the given InputStream as a DataFrame and returns a DataFrameEntryIterator for the entries serialized
-     * in it.
+     * in it. If the DataFrame is compressed, its contents will be decompressed in memory, in which case the frame offsets
+     * of the returned entries refer to the uncompressed contents.
      *
      * @param source  The InputStream to read from.
      * @param length  The size of the inputStream.
@@ -294,9 +354,43 @@ public class DataFrame {
         }
 
         BoundedInputStream contents = new BoundedInputStream(source, header.getContentLength());
+        if (header.getCompression() != CompressionType.NONE) {
+            contents = decompress(contents, header.getCompression());
+        }
+
         return new DataFrameEntryIterator(contents, address, ReadFrameHeader.SERIALIZATION_LENGTH);
     }
 
+    private static BoundedInputStream decompress(BoundedInputStream source, CompressionType compression) throws IOException {
+        assert compression == CompressionType.DEFLATE : "unsupported compression " + compression;
+        int uncompressedLength = BitConverter.readInt(source);
+        if (uncompressedLength < 0) {
+            throw new SerializationException(String.format("Invalid uncompressed DataFrame length %d.", uncompressedLength));
+        }
+
+        byte[] compressed = new byte[source.getRemaining()];
+        if (StreamHelpers.readAll(source, compressed, 0, compressed.length) != compressed.length) {
+            throw new EOFException();
+        }
+
+        byte[] uncompressed = new byte[uncompressedLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int length = inflater.inflate(uncompressed);
+            if (length != uncompressedLength || !inflater.finished()) {
+                throw new SerializationException(String.format("Unable to decompress DataFrame. Expected length %d, actual %d.",
+                        uncompressedLength, length));
+            }
+        } catch (DataFormatException ex) {
+            throw new SerializationException("Unable to decompress DataFrame.", ex);
+        } finally {
+            inflater.end();
+        }
+
+        return new BoundedInputStream(new ByteArrayInputStream(uncompressed), uncompressedLength);
+    }
+
     //endregion
 
     //region EntryHeader
@@ -377,6 +471,7 @@ public class DataFrame {
      */
     private static abstract class FrameHeader {
         static final int SERIALIZATION_LENGTH = Byte.BYTES + Integer.BYTES + Byte.BYTES;
+        static final byte COMPRESSION_MASK = 0x0F;
         /**
          * The serialization Version for the frame.
          */
@@ -391,18 +486,24 @@ public class DataFrame {
         @Setter
         private int contentLength;
 
+        /**
+         * The compression applied to the Frame's payload.
+         */
+        @Getter
+        @Setter
+        private CompressionType compression = CompressionType.NONE;
+
         byte encodeFlags() {
-            // Placeholder method. Nothing to do yet.
-            return 0;
+            return this.compression.id;
         }
 
-        void decodeFlags(byte flags, byte version) {
-            // Placeholder method. Nothing to do yet.
+        void decodeFlags(byte flags, byte version) throws SerializationException {
+            setCompression(CompressionType.get((byte) (flags & COMPRESSION_MASK)));
         }
 
         @Override
         public String toString() {
-            return String.format("Version = %d, ContentLength = %d", getVersion(), getContentLength());
+            return String.format("Version = %d, ContentLength = %d, Compression = %s", getVersion(), getContentLength(), getCompression());
         }
     }
 
@@ -455,6 +556,41 @@ public class DataFrame {
 
     //endregion
 
+    //region CompressionType
+
+    /**
+     * Defines the compression that can be applied to the contents of a DataFrame.
+     */
+    public enum CompressionType {
+        /**
+         * No compression.
+         */
+        NONE((byte) 0),
+        /**
+         * DEFLATE (java.util.zip), with a bias towards speed.
+         */
+        DEFLATE((byte) 1);
+
+        private final byte id;
+
+        CompressionType(byte id) {
+            assert id >= 0 && id <= FrameHeader.COMPRESSION_MASK : "id out of range";
+            this.id = id;
+        }
+
+        private static CompressionType get(byte id) throws SerializationException {
+            for (CompressionType c : values()) {
+                if (c.id == id) {
+                    return c;
+                }
+            }
+
+            throw new SerializationException(String.format("Unsupported DataFrame compression type %d.", id));
+        }
+    }
+
+    //endregion
+
     //region DataFrameEntry
 
     /**
@@ -68,7 +68,8 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
         this.args = Preconditions.checkNotNull(args, "args");
         Preconditions.checkNotNull(args.commitSuccess, "args.commitSuccess");
         Preconditions.checkNotNull(args.commitFailure, "args.commitFailure");
-        this.outputStream = new DataFrameOutputStream(targetLog.getMaxAppendLength(), this::handleDataFrameComplete);
+        Preconditions.checkNotNull(args.compression, "args.compression");
+        this.outputStream = new DataFrameOutputStream(targetLog.getMaxAppendLength(), args.compression, this::handleDataFrameComplete);
         this.lastSerializedSequenceNumber = -1;
         this.lastStartedSequenceNumber = -1;
         this.failureCause = new AtomicReference<>();
@@ -321,6 +322,12 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
         final BiConsumer<Throwable, CommitArgs> commitFailure;
         final Executor executor;
         final Duration writeTimeout = Duration.ofSeconds(30); // TODO: actual timeout.
+
+        /**
+         * The compression to apply to DataFrames.
+         */
+        @Setter
+        DataFrame.CompressionType compression = DataFrame.CompressionType.NONE;
     }
 
     //endregion
@@ -10,6 +10,7 @@
 package io.pravega.segmentstore.server.logs;
 
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
 import io.pravega.common.function.Callbacks;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.SequencedItemList;
@@ -30,6 +31,7 @@ import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.mocks.InMemoryStorageFactory;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -53,8 +55,9 @@ public class DebugRecoveryProcessor extends RecoveryProcessor implements AutoClo
     //region Constructor
 
     private DebugRecoveryProcessor(UpdateableContainerMetadata metadata, DurableDataLog durableDataLog, ReadIndexFactory readIndexFactory,
-                                   Storage storage, CacheManager cacheManager, OperationCallbacks callbacks) {
-        super(metadata, durableDataLog, new MemoryStateUpdater(new SequencedItemList<>(), readIndexFactory.createReadIndex(metadata, storage), null));
+                                   Storage storage, CacheManager cacheManager, OperationCallbacks callbacks, Executor executor) {
+        super(metadata, durableDataLog, new MemoryStateUpdater(new SequencedItemList<>(), readIndexFactory.createReadIndex(metadata, storage), null),
+                executor);
         this.readIndexFactory = readIndexFactory;
         this.storage = storage;
         this.callbacks = callbacks;
@@ -92,7 +95,7 @@ public class DebugRecoveryProcessor extends RecoveryProcessor implements AutoClo
         cacheManager.startAsync().awaitRunning();
         ContainerReadIndexFactory rf = new ContainerReadIndexFactory(readIndexConfig, new NoOpCacheFactory(), cacheManager, executor);
         Storage s = new InMemoryStorageFactory(executor).createStorageAdapter();
-        return new DebugRecoveryProcessor(metadata, durableDataLog, rf, s, cacheManager, callbacks);
+        return new DebugRecoveryProcessor(metadata, durableDataLog, rf, s, cacheManager, callbacks, executor);
     }
 
     //endregion
@@ -177,6 +180,11 @@ public class DebugRecoveryProcessor extends RecoveryProcessor implements AutoClo
             // Nothing to do.
         }
 
+        @Override
+        public void insert(Key key, ByteBuf data) {
+            // Nothing to do.
+        }
+
         @Override
         public byte[] get(Key key) {
             // This should not be invoked from within a DebugRecoveryProcessor.
@@ -26,6 +26,7 @@ public class DurableLogConfig {
     public static final Property<Integer> CHECKPOINT_COMMIT_COUNT = Property.named("checkpointCommitCountThreshold", 300);
     public static final Property<Long> CHECKPOINT_TOTAL_COMMIT_LENGTH = Property.named("checkpointTotalCommitLengthThreshold", 256 * 1024 * 1024L);
     public static final Property<Integer> START_RETRY_DELAY_MILLIS = Property.named("startRetryDelayMillis", 60 * 1000);
+    public static final Property<DataFrame.CompressionType> FRAME_COMPRESSION = Property.named("frameCompression", DataFrame.CompressionType.NONE);
     private static final String COMPONENT_CODE = "durablelog";
 
     //endregion
@@ -56,6 +57,12 @@ public class DurableLogConfig {
     @Getter
     private Duration startRetryDelay;
 
+    /**
+     * The compression to apply to DataFrames before writing them to the DurableDataLog.
+     */
+    @Getter
+    private final DataFrame.CompressionType frameCompression;
+
     //endregion
 
     //region Constructor
@@ -80,6 +87,7 @@ public class DurableLogConfig {
             throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", START_RETRY_DELAY_MILLIS));
         }
         this.startRetryDelay = Duration.ofMillis(startRetryDelayMillis);
+        this.frameCompression = properties.getEnum(FRAME_COMPRESSION, DataFrame.CompressionType.class);
     }
 
     /**
@@ -139,15 +139,19 @@ class MemoryStateUpdater implements CacheUtilizationProvider {
         if (operation instanceof StorageOperation) {
             addToReadIndex((StorageOperation) operation);
             if (operation instanceof StreamSegmentAppendOperation) {
-                // Transform a StreamSegmentAppendOperation into its corresponding Cached version.
+                // Transform a StreamSegmentAppendOperation into its corresponding Cached version. Its data is in the Cache
+                // now, so we no longer need to hold on to it.
+                StreamSegmentAppendOperation appendOperation = (StreamSegmentAppendOperation) operation;
                 try {
-                    operation = new CachedStreamSegmentAppendOperation((StreamSegmentAppendOperation) operation);
+                    operation = new CachedStreamSegmentAppendOperation(appendOperation);
                 } catch (Throwable ex) {
                     if (Exceptions.mustRethrow(ex)) {
                         throw ex;
                     } else {
                         throw new DataCorruptionException(String.format("Unable to create a CachedStreamSegmentAppendOperation from operation '%s'.", operation), ex);
                     }
+                } finally {
+                    appendOperation.release();
                 }
             }
         }
@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.common.util.SequencedItemList;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wraps a DataFrameReader and reads (and deserializes) DataFrameRecords from it in the background, ahead of the consumer
+ * of this class. This allows reading from the DurableDataLog to overlap with processing the records that have already
+ * been read.
+ *
+ * The amount of data that is read ahead is bounded by the total length of the DataFrame entries making up the buffered
+ * records. The background reader never blocks waiting for the consumer: it stops once the buffer is full and is resumed
+ * when the consumer catches up. At most one read from the DataFrameReader (which is not thread-safe) is in progress at
+ * any time: if the buffer is empty, getNext() waits for the background read that is in progress, and otherwise reads from
+ * the DataFrameReader directly (a read-ahead that is merely scheduled backs off once it runs). The consumer never waits
+ * for a scheduled read-ahead, as that may be queued behind the consumer itself on the same Executor.
+ *
+ * Upon encountering an exception, reading stops and the exception is thrown (as is) from getNext(), after all the records
+ * read before it have been returned.
+ */
+@Slf4j
+@ThreadSafe
+class ReadAheadDataFrameReader<T extends SequencedItemList.Element> implements CloseableIterator<DataFrameRecord<T>, Exception> {
+    //region Members
+
+    private final DataFrameReader<T> source;
+    private final int maxReadAheadLength;
+    private final Executor executor;
+    private final String traceObjectId;
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private final ArrayDeque<ReadAheadItem<T>> buffer;
+    @GuardedBy("lock")
+    private int bufferedLength;
+    @GuardedBy("lock")
+    private boolean fetching;
+    @GuardedBy("lock")
+    private boolean readAheadScheduled;
+    @GuardedBy("lock")
+    private boolean endReached;
+    @GuardedBy("lock")
+    private Throwable failure;
+    @GuardedBy("lock")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the ReadAheadDataFrameReader class and begins reading from the given DataFrameReader.
+     *
+     * @param source             The DataFrameReader to read from. This will be closed when this instance is closed.
+     * @param maxReadAheadLength The maximum number of bytes (as serialized in DataFrames) to read ahead.
+     * @param executor           An Executor to read in the background on.
+     * @param traceObjectId      An identifier to use for logging purposes.
+     */
+    ReadAheadDataFrameReader(DataFrameReader<T> source, int maxReadAheadLength, Executor executor, String traceObjectId) {
+        Preconditions.checkArgument(maxReadAheadLength > 0, "maxReadAheadLength must be a positive integer.");
+        this.source = Preconditions.checkNotNull(source, "source");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.maxReadAheadLength = maxReadAheadLength;
+        this.traceObjectId = traceObjectId;
+        this.buffer = new ArrayDeque<>();
+        synchronized (this.lock) {
+            scheduleReadAheadIfNeeded();
+        }
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        boolean closeSource;
+        synchronized (this.lock) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            this.buffer.clear();
+            this.bufferedLength = 0;
+
+            // If a read is in progress, the source will be closed by whoever is reading from it, once done.
+            closeSource = !this.fetching;
+            this.lock.notifyAll();
+        }
+
+        if (closeSource) {
+            this.source.close();
+        }
+    }
+
+    //endregion
+
+    //region CloseableIterator Implementation
+
+    @Override
+    public DataFrameRecord<T> getNext() throws Exception {
+        synchronized (this.lock) {
+            while (true) {
+                Exceptions.checkNotClosed(this.closed, this);
+                ReadAheadItem<T> item = this.buffer.pollFirst();
+                if (item != null) {
+                    this.bufferedLength -= item.length;
+                    scheduleReadAheadIfNeeded();
+                    return item.record;
+                } else if (this.failure != null) {
+                    throwFailure(this.failure);
+                } else if (this.endReached) {
+                    return null;
+                } else if (!this.fetching) {
+                    // Nothing buffered and nobody is reading; we'll do it ourselves. We cannot wait for a scheduled
+                    // read-ahead, as it may never get to run if the Executor's threads are all blocked in here.
+                    this.fetching = true;
+                    break;
+                }
+
+                // The background reader is fetching the next record; wait for it.
+                Exceptions.handleInterrupted(this.lock::wait);
+            }
+        }
+
+        DataFrameRecord<T> record = null;
+        try {
+            record = this.source.getNext();
+        } catch (Throwable ex) {
+            synchronized (this.lock) {
+                this.failure = ex;
+            }
+
+            throw ex;
+        } finally {
+            fetchCompleted(record);
+        }
+
+        return record;
+    }
+
+    //endregion
+
+    //region Background Reader
+
+    private void readAhead() {
+        synchronized (this.lock) {
+            this.readAheadScheduled = false;
+            if (this.fetching || !canReadAhead()) {
+                // Someone else is reading (and will schedule another read-ahead once done), or there is nothing to do.
+                // Either way, the consumer may need to re-evaluate what it is waiting for.
+                this.lock.notifyAll();
+                return;
+            }
+
+            this.fetching = true;
+        }
+
+        boolean hasMore = true;
+        while (hasMore) {
+            DataFrameRecord<T> record = null;
+            try {
+                record = this.source.getNext();
+            } catch (Throwable ex) {
+                log.warn("{}: Read-ahead failed.", this.traceObjectId, ex);
+                synchronized (this.lock) {
+                    this.failure = ex;
+                }
+            }
+
+            synchronized (this.lock) {
+                if (record != null && !this.closed) {
+                    ReadAheadItem<T> item = new ReadAheadItem<>(record, getLength(record));
+                    this.buffer.addLast(item);
+                    this.bufferedLength += item.length;
+                }
+
+                hasMore = record != null && canReadAhead();
+                if (hasMore) {
+                    // Let the consumer know there's something new in the buffer.
+                    this.lock.notifyAll();
+                }
+            }
+
+            if (!hasMore) {
+                fetchCompleted(record);
+            }
+        }
+    }
+
+    private void fetchCompleted(DataFrameRecord<T> lastRecord) {
+        boolean closeSource;
+        synchronized (this.lock) {
+            this.fetching = false;
+            if (lastRecord == null && this.failure == null) {
+                this.endReached = true;
+            }
+
+            closeSource = this.closed;
+            scheduleReadAheadIfNeeded();
+            this.lock.notifyAll();
+        }
+
+        if (closeSource) {
+            this.source.close();
+        }
+    }
+
+    @GuardedBy("lock")
+    private void scheduleReadAheadIfNeeded() {
+        if (!this.fetching && !this.readAheadScheduled && canReadAhead()) {
+            this.readAheadScheduled = true;
+            try {
+                this.executor.execute(this::readAhead);
+            } catch (RejectedExecutionException ex) {
+                // The consumer will have to read by itself.
+                log.debug("{}: Unable to schedule a read-ahead.", this.traceObjectId, ex);
+                this.readAheadScheduled = false;
+            }
+        }
+    }
+
+    @GuardedBy("lock")
+    private boolean canReadAhead() {
+        return !this.closed && !this.endReached && this.failure == null && this.bufferedLength < this.maxReadAheadLength;
+    }
+
+    private int getLength(DataFrameRecord<T> record) {
+        int length = 0;
+        for (DataFrameRecord.EntryInfo e : record.getFrameEntries()) {
+            length += e.getLength();
+        }
+
+        return length;
+    }
+
+    private void throwFailure(Throwable failure) throws Exception {
+        if (failure instanceof Exception) {
+            throw (Exception) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else {
+            throw new Exception(failure);
+        }
+    }
+
+    //endregion
+
+    //region ReadAheadItem
+
+    @RequiredArgsConstructor
+    private static class ReadAheadItem<T extends SequencedItemList.Element> {
+        final DataFrameRecord<T> record;
+        final int length;
+    }
+
+    //endregion
+}
@@ -15,12 +15,14 @@ import io.pravega.common.Timer;
 import io.pravega.segmentstore.contracts.ContainerException;
 import io.pravega.segmentstore.contracts.StreamSegmentException;
 import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.server.UpdateableContainerMetadata;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.OperationSerializer;
 import io.pravega.segmentstore.storage.DurableDataLog;
 import io.pravega.segmentstore.storage.LogAddress;
+import java.util.concurrent.Executor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -30,9 +32,19 @@ import lombok.extern.slf4j.Slf4j;
 class RecoveryProcessor {
     //region Members
 
+    /**
+     * Maximum number of bytes (as serialized in DataFrames) to read ahead of the Operations being recovered.
+     */
+    private static final int READ_AHEAD_LENGTH = 16 * 1024 * 1024;
+    /**
+     * Number of recovered Operations between successive progress reports.
+     */
+    private static final int PROGRESS_REPORT_FREQUENCY = 1000;
     private final UpdateableContainerMetadata metadata;
     private final DurableDataLog durableDataLog;
     private final MemoryStateUpdater stateUpdater;
+    private final Executor executor;
+    private final SegmentStoreMetrics.RecoveryProcessor metrics;
     private final String traceObjectId;
 
     //endregion
@@ -45,11 +57,14 @@ class RecoveryProcessor {
      * @param metadata         The UpdateableContainerMetadata to use for recovery.
      * @param durableDataLog   The (uninitialized) DurableDataLog to read data from for recovery.
      * @param stateUpdater     A MemoryStateUpdater that can be used to apply the recovered operations.
+     * @param executor         An Executor to read ahead from the DurableDataLog on.
      */
-    RecoveryProcessor(UpdateableContainerMetadata metadata, DurableDataLog durableDataLog, MemoryStateUpdater stateUpdater) {
+    RecoveryProcessor(UpdateableContainerMetadata metadata, DurableDataLog durableDataLog, MemoryStateUpdater stateUpdater, Executor executor) {
         this.metadata = Preconditions.checkNotNull(metadata, "metadata");
         this.durableDataLog = Preconditions.checkNotNull(durableDataLog, "durableDataLog");
         this.stateUpdater = Preconditions.checkNotNull(stateUpdater, "stateUpdater");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.metrics = new SegmentStoreMetrics.RecoveryProcessor(this.metadata.getContainerId());
         this.traceObjectId = String.format("RecoveryProcessor[%s]", this.metadata.getContainerId());
     }
 
@@ -96,6 +111,8 @@ class RecoveryProcessor {
                     this.metadata.getContainerEpoch(), recoveredItemCount, timer.getElapsedMillis());
             successfulRecovery = true;
         } finally {
+            this.metrics.recoveryCompleted(timer.getElapsed(), successfulRecovery);
+
             // We must exit recovery mode when done, regardless of outcome.
             this.metadata.exitRecoveryMode();
             this.stateUpdater.exitRecoveryMode(successfulRecovery);
@@ -120,10 +137,14 @@ class RecoveryProcessor {
         int skippedOperationCount = 0;
         int skippedDataFramesCount = 0;
         int recoveredItemCount = 0;
+        long recoveredDataFrameCount = 0;
+        long recoveredLength = 0;
 
         // Read all entries from the DataFrameLog and append them to the InMemoryOperationLog.
-        // Also update metadata along the way.
-        try (DataFrameReader<Operation> reader = new DataFrameReader<>(this.durableDataLog, OperationSerializer.DEFAULT, this.metadata.getContainerId())) {
+        // Also update metadata along the way. Reading (and deserializing) happens in the background, ahead of applying
+        // the Operations, so that we need not wait for the DurableDataLog for every DataFrame.
+        DataFrameReader<Operation> dataFrameReader = new DataFrameReader<>(this.durableDataLog, OperationSerializer.DEFAULT, this.metadata.getContainerId());
+        try (ReadAheadDataFrameReader<Operation> reader = new ReadAheadDataFrameReader<>(dataFrameReader, READ_AHEAD_LENGTH, this.executor, this.traceObjectId)) {
             DataFrameRecord<Operation> dataFrameRecord;
 
             // We can only recover starting from a MetadataCheckpointOperation; find the first one.
@@ -154,12 +175,22 @@ class RecoveryProcessor {
                 recordTruncationMarker(dataFrameRecord);
                 recoverOperation(dataFrameRecord, metadataUpdater);
                 recoveredItemCount++;
+                recoveredLength += getLength(dataFrameRecord);
+                if (dataFrameRecord.isLastFrameEntry()) {
+                    recoveredDataFrameCount++;
+                }
+
+                if (recoveredItemCount % PROGRESS_REPORT_FREQUENCY == 0) {
+                    this.metrics.progress(recoveredDataFrameCount, recoveredItemCount, recoveredLength);
+                }
 
                 // Fetch the next operation.
                 dataFrameRecord = reader.getNext();
             }
         }
 
+        this.metrics.progress(recoveredDataFrameCount, recoveredItemCount, recoveredLength);
+
         // Commit whatever changes we have in the metadata updater to the Container Metadata.
         // This code will only be invoked if we haven't encountered any exceptions during recovery.
         metadataUpdater.commitAll();
@@ -186,6 +217,15 @@ class RecoveryProcessor {
         this.stateUpdater.process(operation);
     }
 
+    private int getLength(DataFrameRecord<Operation> dataFrameRecord) {
+        int length = 0;
+        for (DataFrameRecord.EntryInfo e : dataFrameRecord.getFrameEntries()) {
+            length += e.getLength();
+        }
+
+        return length;
+    }
+
     private void recordTruncationMarker(DataFrameRecord<Operation> dataFrameRecord) {
         // Truncation Markers are stored directly in the ContainerMetadata. There is no need for an OperationMetadataUpdater
         // to do this.
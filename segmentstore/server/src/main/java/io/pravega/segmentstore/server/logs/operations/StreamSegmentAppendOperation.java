@@ -10,23 +10,31 @@
 package io.pravega.segmentstore.server.logs.operations;
 
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.pravega.common.io.serialization.RevisionDataInput;
 import io.pravega.common.io.serialization.RevisionDataOutput;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
 import io.pravega.segmentstore.contracts.AttributeUpdateType;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Log Operation that represents a StreamSegment Append. This operation, as opposed from CachedStreamSegmentAppendOperation,
  * can be serialized to a DurableDataLog. This operation (although possible), should not be directly added to the In-Memory Transaction Log.
+ *
+ * The data to append is held in a reference-counted ByteBuf, which allows it to be serialized into a DataFrame and added
+ * to the Cache directly from the buffer it was received in. This operation owns one reference to it, which must be
+ * released (using release()) once the operation is no longer needed.
  */
 public class StreamSegmentAppendOperation extends StorageOperation implements AttributeUpdaterOperation {
     //region Members
 
     private static final long NO_OFFSET = -1;
     private long streamSegmentOffset;
-    private byte[] data;
+    private ByteBuf data;
+    private final AtomicBoolean released = new AtomicBoolean();
     private Collection<AttributeUpdate> attributeUpdates;
 
     //endregion
@@ -44,6 +52,18 @@ public class StreamSegmentAppendOperation extends StorageOperation implements At
         this(streamSegmentId, NO_OFFSET, data, attributeUpdates);
     }
 
+    /**
+     * Creates a new instance of the StreamSegmentAppendOperation class.
+     *
+     * @param streamSegmentId  The Id of the StreamSegment to append to.
+     * @param data             A ByteBuf containing the payload to append (its readable bytes). This operation will retain
+     *                         its own reference to it, so the caller's reference is not affected.
+     * @param attributeUpdates (Optional) The attributeUpdates to update with this append.
+     */
+    public StreamSegmentAppendOperation(long streamSegmentId, ByteBuf data, Collection<AttributeUpdate> attributeUpdates) {
+        this(streamSegmentId, NO_OFFSET, data, attributeUpdates);
+    }
+
     /**
      * Creates a new instance of the StreamSegmentAppendOperation class.
      *
@@ -53,10 +73,23 @@ public class StreamSegmentAppendOperation extends StorageOperation implements At
      * @param attributeUpdates (Optional) The attributeUpdates to update with this append.
      */
     public StreamSegmentAppendOperation(long streamSegmentId, long offset, byte[] data, Collection<AttributeUpdate> attributeUpdates) {
+        this(streamSegmentId, offset, wrap(Preconditions.checkNotNull(data, "data")), attributeUpdates);
+    }
+
+    /**
+     * Creates a new instance of the StreamSegmentAppendOperation class.
+     *
+     * @param streamSegmentId  The Id of the StreamSegment to append to.
+     * @param offset           The offset to append at.
+     * @param data             A ByteBuf containing the payload to append (its readable bytes). This operation will retain
+     *                         its own reference to it, so the caller's reference is not affected.
+     * @param attributeUpdates (Optional) The attributeUpdates to update with this append.
+     */
+    public StreamSegmentAppendOperation(long streamSegmentId, long offset, ByteBuf data, Collection<AttributeUpdate> attributeUpdates) {
         super(streamSegmentId);
         Preconditions.checkNotNull(data, "data");
 
-        this.data = data;
+        this.data = data.retainedSlice();
         this.streamSegmentOffset = offset;
         this.attributeUpdates = attributeUpdates;
     }
@@ -82,14 +115,29 @@ public class StreamSegmentAppendOperation extends StorageOperation implements At
     }
 
     /**
-     * Gets the data buffer for this append.
+     * Gets the data buffer for this append. This must not be used after release() has been invoked.
      *
      * @return The data buffer.
      */
-    public byte[] getData() {
+    public ByteBuf getData() {
         return this.data;
     }
 
+    /**
+     * Releases this operation's reference to its data buffer. This method has no effect if invoked more than once.
+     */
+    public void release() {
+        if (this.released.compareAndSet(false, true)) {
+            this.data.release();
+        }
+    }
+
+    private static ByteBuf wrap(byte[] data) {
+        // Arrays are reclaimed by the garbage collector, so there is nothing to release. This also allows the data of
+        // such operations to be inspected after they have been processed.
+        return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(data));
+    }
+
     /**
      * Gets the Attribute updates for this StreamSegmentAppendOperation, if any.
      *
@@ -111,7 +159,7 @@ public class StreamSegmentAppendOperation extends StorageOperation implements At
 
     @Override
     public long getLength() {
-        return this.data.length;
+        return this.data.readableBytes();
     }
 
     @Override
@@ -120,7 +168,7 @@ public class StreamSegmentAppendOperation extends StorageOperation implements At
                 "%s, Offset = %s, Length = %d, Attributes = %d",
                 super.toString(),
                 toString(this.streamSegmentOffset, -1),
-                this.data.length,
+                this.data.readableBytes(),
                 this.attributeUpdates == null ? 0 : this.attributeUpdates.size());
     }
 
@@ -153,11 +201,12 @@ public class StreamSegmentAppendOperation extends StorageOperation implements At
 
         private void write00(StreamSegmentAppendOperation o, RevisionDataOutput target) throws IOException {
             int attributesLength = o.attributeUpdates == null ? target.getCompactIntLength(0) : target.getCollectionLength(o.attributeUpdates.size(), ATTRIBUTE_UPDATE_LENGTH);
-            target.length(STATIC_LENGTH + target.getCompactIntLength(o.data.length) + o.data.length + attributesLength);
+            int dataLength = o.data.readableBytes();
+            target.length(STATIC_LENGTH + target.getCompactIntLength(dataLength) + dataLength + attributesLength);
             target.writeLong(o.getSequenceNumber());
             target.writeLong(o.getStreamSegmentId());
             target.writeLong(o.streamSegmentOffset);
-            target.writeArray(o.data);
+            target.writeBuffer(o.data);
             target.writeCollection(o.attributeUpdates, this::writeAttributeUpdate00);
         }
 
@@ -165,7 +214,7 @@ public class StreamSegmentAppendOperation extends StorageOperation implements At
             b.instance.setSequenceNumber(source.readLong());
             b.instance.setStreamSegmentId(source.readLong());
             b.instance.streamSegmentOffset = source.readLong();
-            b.instance.data = source.readArray();
+            b.instance.data = wrap(source.readArray());
             b.instance.attributeUpdates = source.readCollection(this::readAttributeUpdate00);
         }
 
@@ -9,6 +9,7 @@
  */
 package io.pravega.segmentstore.server.mocks;
 
+import io.netty.buffer.ByteBuf;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
 import io.pravega.segmentstore.contracts.ReadResult;
@@ -16,6 +17,7 @@ import io.pravega.segmentstore.contracts.SegmentProperties;
 import io.pravega.segmentstore.contracts.StreamSegmentStore;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -47,6 +49,22 @@ public class SynchronousStreamSegmentStore implements StreamSegmentStore {
         return result;
     }
 
+    @Override
+    public CompletableFuture<Void> append(String streamSegmentName, ByteBuf data, Collection<AttributeUpdate> attributeUpdates,
+                                          Duration timeout) {
+        CompletableFuture<Void> result = impl.append(streamSegmentName, data, attributeUpdates, timeout);
+        Futures.await(result);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> append(String streamSegmentName, long offset, ByteBuf data,
+                                          Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        CompletableFuture<Void> result = impl.append(streamSegmentName, offset, data, attributeUpdates, timeout);
+        Futures.await(result);
+        return result;
+    }
+
     @Override
     public CompletableFuture<Void> updateAttributes(String streamSegmentName, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         CompletableFuture<Void> result = impl.updateAttributes(streamSegmentName, attributeUpdates, timeout);
@@ -90,6 +108,13 @@ public class SynchronousStreamSegmentStore implements StreamSegmentStore {
         return result;
     }
 
+    @Override
+    public CompletableFuture<Void> mergeStreamSegments(String targetStreamSegment, List<String> sourceStreamSegments, Duration timeout) {
+        CompletableFuture<Void> result = impl.mergeStreamSegments(targetStreamSegment, sourceStreamSegments, timeout);
+        Futures.await(result);
+        return result;
+    }
+
     @Override
     public CompletableFuture<Long> sealStreamSegment(String streamSegmentName, Duration timeout) {
         CompletableFuture<Long> result = impl.sealStreamSegment(streamSegmentName, timeout);
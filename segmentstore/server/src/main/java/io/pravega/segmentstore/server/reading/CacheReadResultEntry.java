@@ -9,13 +9,12 @@
  */
 package io.pravega.segmentstore.server.reading;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.pravega.common.Exceptions;
 import io.pravega.segmentstore.contracts.ReadResultEntryContents;
 import io.pravega.segmentstore.contracts.ReadResultEntryType;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
-
 /**
  * Read Result Entry for data that is readily available for reading (in memory).
  */
@@ -33,18 +32,18 @@ class CacheReadResultEntry extends ReadResultEntryBase {
     CacheReadResultEntry(long streamSegmentOffset, byte[] data, int dataOffset, int dataLength) {
         super(ReadResultEntryType.Cache, streamSegmentOffset + dataOffset, dataLength);
         Exceptions.checkArrayRange(dataOffset, dataLength, data.length, "dataOffset", "dataLength");
-        complete(new ReadResultEntryContents(new ByteArrayInputStream(data, dataOffset, dataLength), dataLength));
+        complete(new ReadResultEntryContents(Unpooled.wrappedBuffer(data, dataOffset, dataLength)));
     }
 
     /**
      * Creates a new instance of the CacheReadResultEntry class.
      *
      * @param streamSegmentOffset The offset within the StreamSegment where this ReadResultEntry starts at.
-     * @param data                An InputStream representing the data to be read.
-     * @param dataLength          The length of the data that this ReadResultEntry has (length of the given InputStream).
+     * @param data                A ByteBuf containing the data to be read. The new ReadResultEntry takes over the
+     *                            caller's reference to it, and its length is the number of readable bytes in it.
      */
-    CacheReadResultEntry(long streamSegmentOffset, InputStream data, int dataLength) {
-        super(ReadResultEntryType.Cache, streamSegmentOffset, dataLength);
-        complete(new ReadResultEntryContents(data, dataLength));
+    CacheReadResultEntry(long streamSegmentOffset, ByteBuf data) {
+        super(ReadResultEntryType.Cache, streamSegmentOffset, data.readableBytes());
+        complete(new ReadResultEntryContents(data));
     }
 }
@@ -22,8 +22,11 @@ import lombok.Getter;
 public class ReadIndexConfig {
     //region Config Names
     public static final Property<Integer> STORAGE_READ_ALIGNMENT = Property.named("storageReadAlignment", 1024 * 1024);
+    public static final Property<Integer> STORAGE_READ_AHEAD_LENGTH = Property.named("storageReadAheadLength", 4 * 1024 * 1024);
     public static final Property<Integer> MEMORY_READ_MIN_LENGTH = Property.named("memoryReadMinLength", 4 * 1024);
     public static final Property<Integer> STORAGE_READ_DEFAULT_TIMEOUT = Property.named("storageReadDefaultTimeoutMillis", 30 * 1000);
+    public static final Property<IndexType> INDEX_TYPE = Property.named("indexType", IndexType.AVL);
+    public static final Property<Integer> TAIL_CACHE_PIN_LENGTH = Property.named("tailCachePinLength", 1024 * 1024);
     private static final String COMPONENT_CODE = "readindex";
 
     //endregion
@@ -37,6 +40,13 @@ public class ReadIndexConfig {
     @Getter
     private final int storageReadAlignment;
 
+    /**
+     * The maximum number of bytes to read ahead from Storage when a Segment is being read sequentially. Read-ahead data
+     * is inserted into the Cache, so that subsequent reads need not wait for Storage. A value of 0 disables read-ahead.
+     */
+    @Getter
+    private final int storageReadAheadLength;
+
     /**
      * The minimum number of bytes to serve from memory during reads. The ReadIndex will try to coalesce data from multiple
      * contiguous index entries, as long as they are all referring to cached data, when serving individual ReadResultEntries
@@ -57,6 +67,20 @@ public class ReadIndexConfig {
     @Getter
     private final Duration storageReadDefaultTimeout;
 
+    /**
+     * The type of SortedIndex to use for indexing the entries of each Segment's Read Index.
+     */
+    @Getter
+    private final IndexType indexType;
+
+    /**
+     * The number of bytes at the end of a Segment that are kept in the Cache while the Segment is being read at its tail,
+     * even if they would otherwise be evicted. This prevents catch-up reads (of other Segments) from pushing out the data
+     * that tail readers need. A value of 0 disables this.
+     */
+    @Getter
+    private final int tailCachePinLength;
+
     //endregion
 
     //region Constructor
@@ -68,8 +92,18 @@ public class ReadIndexConfig {
      */
     private ReadIndexConfig(TypedProperties properties) throws ConfigurationException {
         this.storageReadAlignment = properties.getInt(STORAGE_READ_ALIGNMENT);
+        this.storageReadAheadLength = properties.getInt(STORAGE_READ_AHEAD_LENGTH);
+        if (this.storageReadAheadLength < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", STORAGE_READ_AHEAD_LENGTH));
+        }
+
         this.memoryReadMinLength = properties.getInt(MEMORY_READ_MIN_LENGTH);
         this.storageReadDefaultTimeout = Duration.ofMillis(properties.getInt(STORAGE_READ_DEFAULT_TIMEOUT));
+        this.indexType = properties.getEnum(INDEX_TYPE, IndexType.class);
+        this.tailCachePinLength = properties.getInt(TAIL_CACHE_PIN_LENGTH);
+        if (this.tailCachePinLength < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", TAIL_CACHE_PIN_LENGTH));
+        }
     }
 
     /**
@@ -82,4 +116,26 @@ public class ReadIndexConfig {
     }
 
     //endregion
+
+    //region IndexType
+
+    public enum IndexType {
+        /**
+         * Entries are indexed using an AVL Tree (io.pravega.common.util.AvlTreeIndex).
+         */
+        AVL,
+
+        /**
+         * Entries are indexed using a Red-Black Tree (io.pravega.common.util.RedBlackTreeIndex).
+         */
+        REDBLACK,
+
+        /**
+         * Entries are indexed using sorted arrays (io.pravega.common.util.ChunkedArrayIndex). This has a much lower
+         * per-entry overhead and better memory locality than the tree-based indices.
+         */
+        ARRAY
+    }
+
+    //endregion
 }
@@ -53,6 +53,15 @@ class ReadIndexSummary {
         this.currentGeneration = generation;
     }
 
+    /**
+     * Gets the current generation.
+     *
+     * @return The current generation.
+     */
+    synchronized int getCurrentGeneration() {
+        return this.currentGeneration;
+    }
+
     /**
      * Records the addition of an element of the given size to the current generation.
      *
@@ -11,11 +11,16 @@ package io.pravega.segmentstore.server.reading;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.pravega.common.Exceptions;
 import io.pravega.common.LoggerHelpers;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.util.AvlTreeIndex;
 import io.pravega.common.util.ByteArraySegment;
+import io.pravega.common.util.ChunkedArrayIndex;
+import io.pravega.common.util.RedBlackTreeIndex;
 import io.pravega.common.util.SortedIndex;
 import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.ReadResultEntry;
@@ -23,7 +28,9 @@ import io.pravega.segmentstore.contracts.ReadResultEntryContents;
 import io.pravega.segmentstore.contracts.ReadResultEntryType;
 import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
 import io.pravega.segmentstore.server.CacheManager;
+import io.pravega.segmentstore.server.CacheUtilizationProvider;
 import io.pravega.segmentstore.server.SegmentMetadata;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.storage.Cache;
 import io.pravega.segmentstore.storage.ReadOnlyStorage;
 import java.io.ByteArrayInputStream;
@@ -38,6 +45,7 @@ import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import javax.annotation.concurrent.GuardedBy;
@@ -60,6 +68,25 @@ import lombok.val;
 class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
     //region Members
 
+    /**
+     * The number of consecutive sequential reads after which a Segment is considered to be read sequentially.
+     */
+    private static final int SEQUENTIAL_READ_THRESHOLD = 2;
+    /**
+     * Storage read-ahead is suspended while the Cache utilization is at or above this value, so that speculative reads
+     * do not push out data that has actually been requested.
+     */
+    private static final double READ_AHEAD_MAX_CACHE_UTILIZATION = 0.9;
+    /**
+     * The number of Cache generations, after the last read at its tail, for which a Segment's tail remains pinned in
+     * the Cache (see ReadIndexConfig.getTailCachePinLength()).
+     */
+    private static final int TAIL_READ_PIN_GENERATIONS = 2;
+    /**
+     * Tails are not pinned in the Cache while its utilization is at or above this value, so that the Cache can still be
+     * brought back under its maximum size.
+     */
+    private static final double TAIL_PIN_MAX_CACHE_UTILIZATION = READ_AHEAD_MAX_CACHE_UTILIZATION;
     private final String traceObjectId;
     @GuardedBy("lock")
     private final SortedIndex<ReadIndexEntry> indexEntries;
@@ -70,11 +97,24 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
     @GuardedBy("lock")
     private final HashMap<Long, PendingMerge> pendingMergers; //Key = Source Segment Id, Value = Pending Merge Info.
     private final StorageReadManager storageReadManager;
+    private final CacheUtilizationProvider cacheUtilizationProvider;
     private final ReadIndexSummary summary;
     private final ScheduledExecutorService executor;
+    private final SegmentStoreMetrics.ReadIndex metrics;
+    private final AtomicInteger lastTailReadGeneration;
     private SegmentMetadata metadata;
     @GuardedBy("lock")
     private long lastAppendedOffset;
+    @GuardedBy("lock")
+    private long lastReadOffset;
+    @GuardedBy("lock")
+    private long lastReadEndOffset;
+    @GuardedBy("lock")
+    private int sequentialReadCount;
+    @GuardedBy("lock")
+    private boolean sequentialStorageRead;
+    @GuardedBy("lock")
+    private long readAheadEndOffset;
     private boolean recoveryMode;
     private boolean closed;
     private boolean merged;
@@ -90,16 +130,19 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      * @param config       Read Index Configuration.
      * @param metadata     The StreamSegmentMetadata to use.
      * @param cache        The Cache to use to store, read and manage data entries.
-     * @param storage      A ReadOnlyStorage to fetch data if not in Cache.
-     * @param executor     An executor to run async operations.
-     * @param recoveryMode Whether we are in recovery mode at the time of creation (this can change later on).
+     * @param storage                  A ReadOnlyStorage to fetch data if not in Cache.
+     * @param cacheUtilizationProvider A CacheUtilizationProvider to consult before reading ahead from Storage.
+     * @param executor                 An executor to run async operations.
+     * @param recoveryMode             Whether we are in recovery mode at the time of creation (this can change later on).
      * @throws NullPointerException If any of the arguments are null.
      */
-    StreamSegmentReadIndex(ReadIndexConfig config, SegmentMetadata metadata, Cache cache, ReadOnlyStorage storage, ScheduledExecutorService executor, boolean recoveryMode) {
+    StreamSegmentReadIndex(ReadIndexConfig config, SegmentMetadata metadata, Cache cache, ReadOnlyStorage storage,
+                           CacheUtilizationProvider cacheUtilizationProvider, ScheduledExecutorService executor, boolean recoveryMode) {
         Preconditions.checkNotNull(config, "config");
         Preconditions.checkNotNull(metadata, "metadata");
         Preconditions.checkNotNull(cache, "cache");
         Preconditions.checkNotNull(storage, "storage");
+        Preconditions.checkNotNull(cacheUtilizationProvider, "cacheUtilizationProvider");
         Preconditions.checkNotNull(executor, "executor");
 
         this.traceObjectId = String.format("ReadIndex[%d-%d]", metadata.getContainerId(), metadata.getId());
@@ -107,13 +150,31 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         this.metadata = metadata;
         this.cache = cache;
         this.recoveryMode = recoveryMode;
-        this.indexEntries = new AvlTreeIndex<>();
+        this.indexEntries = createIndex(config.getIndexType());
         this.futureReads = new FutureReadResultEntryCollection();
         this.pendingMergers = new HashMap<>();
         this.lastAppendedOffset = -1;
+        this.lastReadOffset = -1;
+        this.lastReadEndOffset = -1;
         this.storageReadManager = new StorageReadManager(metadata, storage, executor);
+        this.cacheUtilizationProvider = cacheUtilizationProvider;
         this.executor = executor;
         this.summary = new ReadIndexSummary();
+        this.metrics = new SegmentStoreMetrics.ReadIndex(metadata.getName());
+        this.lastTailReadGeneration = new AtomicInteger(-1);
+    }
+
+    private static SortedIndex<ReadIndexEntry> createIndex(ReadIndexConfig.IndexType indexType) {
+        switch (indexType) {
+            case AVL:
+                return new AvlTreeIndex<>();
+            case REDBLACK:
+                return new RedBlackTreeIndex<>();
+            case ARRAY:
+                return new ChunkedArrayIndex<>();
+            default:
+                throw new IllegalArgumentException("Unsupported index type: " + indexType);
+        }
     }
 
     //endregion
@@ -147,6 +208,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 this.pendingMergers.values().forEach(pm -> futureReads.add(pm.seal().iterator()));
             }
             cancelFutureReads(Iterators.concat(futureReads.iterator()));
+            this.metrics.close();
 
             if (cleanCache) {
                 this.executor.execute(() -> {
@@ -210,9 +272,14 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         // Update the current generation with the provided info.
         this.summary.setCurrentGeneration(currentGeneration);
 
+        // While the Segment is being read at its tail, its last entries are kept in the Cache (by moving them to the
+        // current generation) instead of being evicted, so that catch-up reads elsewhere do not push them out.
+        long pinStartOffset = getTailPinStartOffset(currentGeneration);
+
         // Identify & collect those entries that can be removed, then remove them from the index.
         AtomicLong sizeRemoved = new AtomicLong();
         ArrayList<ReadIndexEntry> toRemove = new ArrayList<>();
+        ArrayList<ReadIndexEntry> toPin = new ArrayList<>();
         synchronized (this.lock) {
             this.indexEntries.forEach(entry -> {
                 // We can only evict if both these conditions are met:
@@ -225,7 +292,11 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                         && lastOffset <= this.metadata.getStorageLength()
                         && (entry.getGeneration() < oldestGeneration || lastOffset < this.metadata.getStartOffset());
                 if (canRemove) {
-                    toRemove.add(entry);
+                    if (lastOffset >= pinStartOffset && lastOffset >= this.metadata.getStartOffset()) {
+                        toPin.add(entry);
+                    } else {
+                        toRemove.add(entry);
+                    }
                 }
             });
 
@@ -234,6 +305,8 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 this.indexEntries.remove(e.key());
                 this.cache.remove(getCacheKey(e));
             });
+
+            toPin.forEach(e -> e.setGeneration(this.summary.touchOne(e.getGeneration())));
         }
 
         // Update the summary (no need for holding the lock here; we are not modifying the index).
@@ -243,9 +316,47 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             sizeRemoved.addAndGet(entryLength);
         });
 
+        if (sizeRemoved.get() > 0) {
+            this.metrics.evicted(sizeRemoved.get());
+        }
+
         return sizeRemoved.get();
     }
 
+    /**
+     * Gets the offset from which the entries of this Segment are pinned in the Cache, which is the case if the Segment
+     * has been read at its tail within the last TAIL_READ_PIN_GENERATIONS generations and the Cache is not (nearly) full.
+     *
+     * @param currentGeneration The current Cache generation.
+     * @return The offset, or Long.MAX_VALUE if nothing is pinned.
+     */
+    private long getTailPinStartOffset(int currentGeneration) {
+        int pinLength = this.config.getTailCachePinLength();
+        int lastTailRead = this.lastTailReadGeneration.get();
+        if (pinLength <= 0 || lastTailRead < 0 || currentGeneration - lastTailRead > TAIL_READ_PIN_GENERATIONS) {
+            return Long.MAX_VALUE;
+        }
+
+        if (this.cacheUtilizationProvider.getCacheUtilization() >= TAIL_PIN_MAX_CACHE_UTILIZATION) {
+            log.debug("{}: Not pinning tail due to cache pressure.", this.traceObjectId);
+            return Long.MAX_VALUE;
+        }
+
+        return this.metadata.getLength() - pinLength;
+    }
+
+    /**
+     * Records a read at the given offset, if it is within the part of the Segment that can be pinned in the Cache.
+     *
+     * @param offset The offset of the read.
+     */
+    private void recordTailRead(long offset) {
+        int pinLength = this.config.getTailCachePinLength();
+        if (pinLength > 0 && offset >= this.metadata.getLength() - pinLength) {
+            this.lastTailReadGeneration.set(this.summary.getCurrentGeneration());
+        }
+    }
+
     //endregion
 
     //region Properties
@@ -326,16 +437,17 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      * Appends the given range of bytes at the given offset.
      *
      * @param offset The offset within the StreamSegment to append at.
-     * @param data   The range of bytes to append.
+     * @param data   A ByteBuf containing the range of bytes to append (its readable bytes). This is copied into the Cache.
      * @throws NullPointerException     If data is null.
      * @throws IllegalArgumentException If the operation would cause writing beyond the StreamSegment's Length.
      * @throws IllegalArgumentException If the offset is invalid (does not match the previous append offset).
      */
-    void append(long offset, byte[] data) {
+    void append(long offset, ByteBuf data) {
         Exceptions.checkNotClosed(this.closed, this);
         Preconditions.checkState(!isMerged(), "StreamSegment has been merged into a different one. Cannot append more ReadIndex entries.");
 
-        if (data.length == 0) {
+        int dataLength = data.readableBytes();
+        if (dataLength == 0) {
             // Nothing to do. Adding empty read entries will only make our system slower and harder to debug.
             return;
         }
@@ -344,13 +456,13 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         // Adding at the end means that we always need to "catch-up" with Length. Check to see if adding
         // this entry will make us catch up to it or not.
         long length = this.metadata.getLength();
-        long endOffset = offset + data.length;
+        long endOffset = offset + dataLength;
         Exceptions.checkArgument(endOffset <= length, "offset", "The given range of bytes (%d-%d) is beyond the StreamSegment Length (%d).", offset, endOffset, length);
 
         // Then append an entry for it in the ReadIndex. It's ok to insert into the cache outside of the lock here,
         // since there is no chance of competing with another write request for the same offset at the same time.
         this.cache.insert(new CacheKey(this.metadata.getId(), offset), data);
-        appendEntry(new CacheIndexEntry(offset, data.length));
+        appendEntry(new CacheIndexEntry(offset, dataLength));
     }
 
     /**
@@ -584,6 +696,10 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 // We have attempted to read beyond the end of the stream. Fail the read request with the appropriate message.
                 r.fail(new StreamSegmentSealedException(String.format("StreamSegment has been sealed at offset %d. There can be no more reads beyond this offset.", this.metadata.getLength())));
             } else {
+                if (entry.getType() == ReadResultEntryType.Cache) {
+                    this.metrics.cacheHit(entry.getRequestedReadLength());
+                }
+
                 if (!entry.getContent().isDone()) {
                     // Normally, all Future Reads are served from Cache, since they reflect data that has just been appended.
                     // However, it's possible that after recovery, we get a read for some data that we do not have in the
@@ -645,7 +761,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         val entryContents = nextEntry.getContent().join();
 
         ArrayList<InputStream> contents = new ArrayList<>();
-        contents.add(entryContents.getData());
+        contents.add(detach(entryContents));
         int readLength = entryContents.getLength();
         while (readLength < length) {
             // No need to search the index; from now on, we know each offset we are looking for is at the beginning of a cache entry.
@@ -741,6 +857,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             return null;
         }
 
+        recordTailRead(resultStartOffset);
         CompletableReadResultEntry result = null;
         // Check to see if we are trying to read beyond the last offset of a sealed StreamSegment.
         ReadAvailability ra = checkReadAvailability(resultStartOffset, false);
@@ -800,15 +917,22 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         CompletableReadResultEntry nextEntry = getSingleReadResultEntry(resultStartOffset, maxLength);
         if (nextEntry == null || !(nextEntry instanceof CacheReadResultEntry)) {
             // We can only coalesce CacheReadResultEntries.
+            if (nextEntry != null && nextEntry.getType() == ReadResultEntryType.Storage) {
+                // The Storage Read will be aligned, so that is how much will actually be read.
+                int storageReadLength = getReadAlignedLength(resultStartOffset, nextEntry.getRequestedReadLength());
+                this.metrics.cacheMiss(storageReadLength);
+                recordRead(resultStartOffset, storageReadLength, true);
+            }
+
             return nextEntry;
         }
 
         // Collect the contents of congruent Index Entries into a list, as long as we still encounter data in the cache.
-        ArrayList<InputStream> contents = new ArrayList<>();
+        ArrayList<ByteBuf> contents = new ArrayList<>();
         do {
             assert Futures.isSuccessful(nextEntry.getContent()) : "Found CacheReadResultEntry that is not completed yet: " + nextEntry;
             val entryContents = nextEntry.getContent().join();
-            contents.add(entryContents.getData());
+            contents.add(entryContents.getBuffer());
             readLength += entryContents.getLength();
             if (readLength >= this.config.getMemoryReadMinLength() || readLength >= maxLength) {
                 break;
@@ -817,8 +941,10 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             nextEntry = getSingleMemoryReadResultEntry(resultStartOffset + readLength, maxLength - readLength);
         } while (nextEntry != null);
 
-        // Coalesce the results into a single InputStream and return the result.
-        return new CacheReadResultEntry(resultStartOffset, new SequenceInputStream(Iterators.asEnumeration(contents.iterator())), readLength);
+        // Coalesce the results into a single ByteBuf (which takes over our references to its components) and return the result.
+        this.metrics.cacheHit(readLength);
+        recordRead(resultStartOffset, readLength, false);
+        return new CacheReadResultEntry(resultStartOffset, Unpooled.wrappedBuffer(contents.toArray(new ByteBuf[contents.size()])));
     }
 
     /**
@@ -955,7 +1081,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
 
         int length = (int) Math.min(maxLength, entry.getLength() - entryOffset);
         assert length > 0 : String.format("length{%d} <= 0. streamSegmentOffset = %d, maxLength = %d, entry.offset = %d, entry.length = %d", length, streamSegmentOffset, maxLength, entry.getStreamSegmentOffset(), entry.getLength());
-        byte[] data = this.cache.get(getCacheKey(entry));
+        ByteBuf data = this.cache.getBuffer(getCacheKey(entry));
         assert data != null : String.format("No Cache Entry could be retrieved for entry %s", entry);
 
         if (updateStats) {
@@ -964,7 +1090,29 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             entry.setGeneration(generation);
         }
 
-        return new CacheReadResultEntry(entry.getStreamSegmentOffset(), data, entryOffset, length);
+        // The slice shares its reference count with the whole entry, so releasing it will release the cache's view.
+        return new CacheReadResultEntry(streamSegmentOffset, data.slice(entryOffset, length));
+    }
+
+    /**
+     * Gets an InputStream with the given contents that remains valid after they have been released, and then releases them.
+     * Heap-backed contents are not copied.
+     */
+    private InputStream detach(ReadResultEntryContents contents) {
+        ByteBuf buffer = contents.getBuffer();
+        if (buffer == null) {
+            return contents.getData();
+        }
+
+        try {
+            if (buffer.hasArray()) {
+                return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), buffer.readableBytes());
+            } else {
+                return new ByteArrayInputStream(ByteBufUtil.getBytes(buffer));
+            }
+        } finally {
+            contents.release();
+        }
     }
 
     /**
@@ -1067,6 +1215,105 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
 
     //endregion
 
+    //region Storage Read-Ahead
+
+    /**
+     * Records that a read was served (from the Cache or Storage) at the given offset, for the purpose of detecting
+     * sequential access patterns. If a number of consecutive reads have been sequential, at least one of them had to go
+     * to Storage and they are not at the tail of the Segment, Storage reads are issued for the data following them (up
+     * to the configured read-ahead length), which will be inserted into the Cache upon completion. This allows catch-up
+     * readers to be served from memory instead of having to wait for a Storage round-trip for every read.
+     *
+     * @param offset      The offset of the read.
+     * @param length      The length of the read.
+     * @param fromStorage True if the read is served from Storage, false if from the Cache.
+     */
+    private void recordRead(long offset, int length, boolean fromStorage) {
+        int readAheadLength = this.config.getStorageReadAheadLength();
+        if (readAheadLength <= 0) {
+            // Read-ahead is disabled.
+            return;
+        }
+
+        long storageLength = this.metadata.getStorageLength();
+        ArrayList<StorageReadManager.Request> readAheadRequests = new ArrayList<>();
+        synchronized (this.lock) {
+            if (offset > this.lastReadOffset && offset <= this.lastReadEndOffset) {
+                // This read picked up at (or before) where the last one left off.
+                this.sequentialReadCount++;
+                this.sequentialStorageRead |= fromStorage;
+            } else {
+                this.sequentialReadCount = 0;
+                this.sequentialStorageRead = fromStorage;
+                this.readAheadEndOffset = 0;
+            }
+
+            this.lastReadOffset = offset;
+            this.lastReadEndOffset = offset + length;
+            if (this.sequentialReadCount < SEQUENTIAL_READ_THRESHOLD
+                    || !this.sequentialStorageRead
+                    || this.lastReadEndOffset >= storageLength
+                    || this.lastReadEndOffset < this.readAheadEndOffset - readAheadLength / 2) {
+                // Not a sequential Storage reader, nothing left in Storage to read or we already have plenty of data read ahead.
+                return;
+            }
+
+            if (this.cacheUtilizationProvider.getCacheUtilization() >= READ_AHEAD_MAX_CACHE_UTILIZATION) {
+                log.debug("{}: Not reading ahead due to cache pressure (Offset = {}).", this.traceObjectId, this.lastReadEndOffset);
+                return;
+            }
+
+            long readAheadOffset = Math.max(this.lastReadEndOffset, this.readAheadEndOffset);
+            this.readAheadEndOffset = Math.min(this.lastReadEndOffset + readAheadLength, storageLength);
+            collectReadAheadRequests(readAheadOffset, this.readAheadEndOffset, readAheadRequests);
+        }
+
+        for (StorageReadManager.Request r : readAheadRequests) {
+            log.debug("{}: ReadAhead (Offset = {}, Length = {}).", this.traceObjectId, r.getOffset(), r.getLength());
+            this.storageReadManager.execute(r);
+        }
+    }
+
+    /**
+     * Creates Storage read requests for the ranges between the given offsets that are not already in the index.
+     *
+     * @param startOffset The offset to begin at.
+     * @param endOffset   The offset to end at (exclusive).
+     * @param requests    A List to add the requests to.
+     */
+    @GuardedBy("lock")
+    private void collectReadAheadRequests(long startOffset, long endOffset, List<StorageReadManager.Request> requests) {
+        long offset = startOffset;
+        while (offset < endOffset) {
+            ReadIndexEntry indexEntry = this.indexEntries.getFloor(offset);
+            if (indexEntry != null && indexEntry.getLastStreamSegmentOffset() >= offset) {
+                // We already have this (or it is being merged in); skip over it.
+                offset = indexEntry.getLastStreamSegmentOffset() + 1;
+                continue;
+            }
+
+            int length = (int) Math.min(endOffset - offset, Integer.MAX_VALUE);
+            length = getReadAlignedLength(offset, getLengthUntilNextEntry(offset, length));
+            requests.add(createReadAheadRequest(offset, length));
+            offset += length;
+        }
+    }
+
+    private StorageReadManager.Request createReadAheadRequest(long offset, int length) {
+        Consumer<StorageReadManager.Result> doneCallback = result -> {
+            if (!result.isDerived()) {
+                // Derived results are sub-portions of other requests, which will insert them into the cache themselves.
+                insert(offset, result.getData());
+            }
+        };
+
+        Consumer<Throwable> failureCallback = ex ->
+                log.debug("{}: ReadAhead failed (Offset = {}, Length = {}). {}", this.traceObjectId, offset, length, ex.toString());
+        return new StorageReadManager.Request(offset, length, doneCallback, failureCallback, this.config.getStorageReadDefaultTimeout());
+    }
+
+    //endregion
+
     //region ReadAvailability
 
     private enum ReadAvailability {
@@ -120,7 +120,7 @@ public class ServiceBuilder implements AutoCloseable {
         this.storageExecutor = executorBuilder.apply(serviceConfig.getStorageThreadPoolSize(), "storage-io");
         this.threadPoolMetrics = new SegmentStoreMetrics.ThreadPool(this.coreExecutor);
 
-        this.cacheManager = new CacheManager(serviceConfig.getCachePolicy(), this.coreExecutor);
+        this.cacheManager = new CacheManager(serviceConfig.getCachePolicy(), this::getCacheStorageUtilization, this.coreExecutor);
     }
 
     //endregion
@@ -279,7 +279,8 @@ public class ServiceBuilder implements AutoCloseable {
 
     private SegmentContainerRegistry createSegmentContainerRegistry() {
         SegmentContainerFactory containerFactory = getSingleton(this.containerFactory, this::createSegmentContainerFactory);
-        return new StreamSegmentContainerRegistry(containerFactory, this.coreExecutor);
+        ServiceConfig serviceConfig = this.serviceBuilderConfig.getConfig(ServiceConfig::builder);
+        return new StreamSegmentContainerRegistry(containerFactory, serviceConfig.getContainerRecoveryConcurrency(), this.coreExecutor);
     }
 
     protected OperationLogFactory createOperationLogFactory() {
@@ -288,6 +289,11 @@ public class ServiceBuilder implements AutoCloseable {
         return new DurableLogFactory(durableLogConfig, dataLogFactory, this.coreExecutor);
     }
 
+    private double getCacheStorageUtilization() {
+        CacheFactory cacheFactory = this.cacheFactory.get();
+        return cacheFactory == null ? 0 : cacheFactory.getStorageUtilization();
+    }
+
     private <T> T getSingleton(AtomicReference<T> instance, Function<ComponentSetup, T> creator) {
         if (instance.get() == null) {
             instance.set(creator.apply(new ComponentSetup(this)));
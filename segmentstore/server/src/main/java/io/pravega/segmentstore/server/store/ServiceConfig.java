@@ -28,6 +28,7 @@ public class ServiceConfig {
     //region Config Names
 
     public static final Property<Integer> CONTAINER_COUNT = Property.named("containerCount");
+    public static final Property<Integer> CONTAINER_RECOVERY_CONCURRENCY = Property.named("containerRecoveryConcurrency", 10);
     public static final Property<Integer> THREAD_POOL_SIZE = Property.named("threadPoolSize", 30);
     public static final Property<Integer> STORAGE_THREAD_POOL_SIZE = Property.named("storageThreadPoolSize", 20);
     public static final Property<Integer> LISTENING_PORT = Property.named("listeningPort", 12345);
@@ -41,6 +42,7 @@ public class ServiceConfig {
     public static final Property<String> CLUSTER_NAME = Property.named("clusterName", "pravega-cluster");
     public static final Property<DataLogType> DATALOG_IMPLEMENTATION = Property.named("dataLogImplementation", DataLogType.INMEMORY);
     public static final Property<StorageType> STORAGE_IMPLEMENTATION = Property.named("storageImplementation", StorageType.INMEMORY);
+    public static final Property<CacheType> CACHE_IMPLEMENTATION = Property.named("cacheImplementation", CacheType.ROCKSDB);
     public static final Property<Boolean> READONLY_SEGMENT_STORE = Property.named("readOnlySegmentStore", false);
     public static final Property<Boolean> ENABLE_TLS = Property.named("enableTls", false);
     public static final Property<String> CERT_FILE = Property.named("certFile", "");
@@ -48,6 +50,14 @@ public class ServiceConfig {
     public static final Property<Long> CACHE_POLICY_MAX_SIZE = Property.named("cacheMaxSize", 16L * 1024 * 1024 * 1024);
     public static final Property<Integer> CACHE_POLICY_MAX_TIME = Property.named("cacheMaxTimeSeconds", 30 * 60);
     public static final Property<Integer> CACHE_POLICY_GENERATION_TIME = Property.named("cacheGenerationTimeSeconds", 5);
+    public static final Property<Integer> NETTY_EVENT_LOOP_THREADS = Property.named("nettyEventLoopThreads", 0);
+    public static final Property<Integer> NETTY_ALLOCATOR_ARENAS = Property.named("nettyAllocatorArenas", 0);
+    public static final Property<Integer> NETTY_WRITE_BUFFER_LOW_WATER_MARK = Property.named("nettyWriteBufferLowWaterMark", 32 * 1024);
+    public static final Property<Integer> NETTY_WRITE_BUFFER_HIGH_WATER_MARK = Property.named("nettyWriteBufferHighWaterMark", 64 * 1024);
+    public static final Property<Boolean> NETTY_TCP_NO_DELAY = Property.named("nettyTcpNoDelay", true);
+    public static final Property<Integer> NETTY_SEND_BUFFER_SIZE = Property.named("nettySendBufferSize", 0);
+    public static final Property<Integer> NETTY_RECEIVE_BUFFER_SIZE = Property.named("nettyReceiveBufferSize", 0);
+    public static final Property<Integer> NETTY_BACKLOG = Property.named("nettyBacklog", 100);
 
     public static final String COMPONENT_CODE = "pravegaservice";
 
@@ -89,6 +99,18 @@ public class ServiceConfig {
         INMEMORY
     }
 
+    public enum CacheType {
+        /**
+         * Cache is implemented by a fixed-capacity pool of direct (off-heap) memory.
+         */
+        DIRECTMEMORY,
+
+        /**
+         * Cache is implemented by a local RocksDB instance (memory with disk spillover).
+         */
+        ROCKSDB
+    }
+
     //endregion
 
     //region Members
@@ -99,6 +121,12 @@ public class ServiceConfig {
     @Getter
     private final int containerCount;
 
+    /**
+     * The maximum number of containers that can be recovering at the same time.
+     */
+    @Getter
+    private final int containerRecoveryConcurrency;
+
     /**
      * The number of threads in the core Segment Store Thread Pool.
      */
@@ -184,6 +212,12 @@ public class ServiceConfig {
     @Getter
     private final StorageType storageImplementation;
 
+    /**
+     * The Type of Cache Implementation to use.
+     */
+    @Getter
+    private final CacheType cacheImplementation;
+
     /**
      * Whether this SegmentStore instance is Read-Only (i.e., it can only process reads from Storage and nothing else).
      * Note that if this is set to 'true', then many other settings will not apply. The most important other one to set
@@ -216,6 +250,54 @@ public class ServiceConfig {
     @Getter
     private final CachePolicy cachePolicy;
 
+    /**
+     * The number of Netty event loop threads serving client connections (0 means Netty's default).
+     */
+    @Getter
+    private final int nettyEventLoopThreads;
+
+    /**
+     * The number of arenas for the pooled allocator used by client connections (0 means the shared default allocator).
+     */
+    @Getter
+    private final int nettyAllocatorArenas;
+
+    /**
+     * The number of pending outbound bytes below which a connection becomes writable again.
+     */
+    @Getter
+    private final int nettyWriteBufferLowWaterMark;
+
+    /**
+     * The number of pending outbound bytes above which a connection becomes unwritable.
+     */
+    @Getter
+    private final int nettyWriteBufferHighWaterMark;
+
+    /**
+     * Whether to set TCP_NODELAY on client connections.
+     */
+    @Getter
+    private final boolean nettyTcpNoDelay;
+
+    /**
+     * The SO_SNDBUF size for client connections (0 means the operating system default).
+     */
+    @Getter
+    private final int nettySendBufferSize;
+
+    /**
+     * The SO_RCVBUF size for client connections (0 means the operating system default).
+     */
+    @Getter
+    private final int nettyReceiveBufferSize;
+
+    /**
+     * The maximum length of the queue of incoming connections waiting to be accepted.
+     */
+    @Getter
+    private final int nettyBacklog;
+
     //endregion
 
     //region Constructor
@@ -227,6 +309,11 @@ public class ServiceConfig {
      */
     private ServiceConfig(TypedProperties properties) throws ConfigurationException {
         this.containerCount = properties.getInt(CONTAINER_COUNT);
+        this.containerRecoveryConcurrency = properties.getInt(CONTAINER_RECOVERY_CONCURRENCY);
+        if (this.containerRecoveryConcurrency <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", CONTAINER_RECOVERY_CONCURRENCY));
+        }
+
         this.coreThreadPoolSize = properties.getInt(THREAD_POOL_SIZE);
         this.storageThreadPoolSize = properties.getInt(STORAGE_THREAD_POOL_SIZE);
         this.listeningPort = properties.getInt(LISTENING_PORT);
@@ -259,6 +346,7 @@ public class ServiceConfig {
         this.clusterName = properties.get(CLUSTER_NAME);
         this.dataLogTypeImplementation = properties.getEnum(DATALOG_IMPLEMENTATION, DataLogType.class);
         this.storageImplementation = properties.getEnum(STORAGE_IMPLEMENTATION, StorageType.class);
+        this.cacheImplementation = properties.getEnum(CACHE_IMPLEMENTATION, CacheType.class);
         this.readOnlySegmentStore = properties.getBoolean(READONLY_SEGMENT_STORE);
         this.enableTls = properties.getBoolean(ENABLE_TLS);
         this.keyFile = properties.get(KEY_FILE);
@@ -267,6 +355,21 @@ public class ServiceConfig {
         int cachePolicyMaxTime = properties.getInt(CACHE_POLICY_MAX_TIME);
         int cachePolicyGenerationTime = properties.getInt(CACHE_POLICY_GENERATION_TIME);
         this.cachePolicy = new CachePolicy(cachePolicyMaxSize, Duration.ofSeconds(cachePolicyMaxTime), Duration.ofSeconds(cachePolicyGenerationTime));
+        this.nettyEventLoopThreads = getNonNegativeInt(properties, NETTY_EVENT_LOOP_THREADS);
+        this.nettyAllocatorArenas = getNonNegativeInt(properties, NETTY_ALLOCATOR_ARENAS);
+        this.nettyWriteBufferLowWaterMark = getNonNegativeInt(properties, NETTY_WRITE_BUFFER_LOW_WATER_MARK);
+        this.nettyWriteBufferHighWaterMark = getNonNegativeInt(properties, NETTY_WRITE_BUFFER_HIGH_WATER_MARK);
+        if (this.nettyWriteBufferLowWaterMark > this.nettyWriteBufferHighWaterMark) {
+            throw new ConfigurationException(String.format("Property '%s' must not be larger than '%s'.",
+                    NETTY_WRITE_BUFFER_LOW_WATER_MARK, NETTY_WRITE_BUFFER_HIGH_WATER_MARK));
+        }
+        this.nettyTcpNoDelay = properties.getBoolean(NETTY_TCP_NO_DELAY);
+        this.nettySendBufferSize = getNonNegativeInt(properties, NETTY_SEND_BUFFER_SIZE);
+        this.nettyReceiveBufferSize = getNonNegativeInt(properties, NETTY_RECEIVE_BUFFER_SIZE);
+        this.nettyBacklog = properties.getInt(NETTY_BACKLOG);
+        if (this.nettyBacklog <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", NETTY_BACKLOG));
+        }
     }
 
     /**
@@ -280,6 +383,14 @@ public class ServiceConfig {
 
     //endregion
 
+    private static int getNonNegativeInt(TypedProperties properties, Property<Integer> property) throws ConfigurationException {
+        int value = properties.getInt(property);
+        if (value < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", property));
+        }
+        return value;
+    }
+
     @SneakyThrows(UnknownHostException.class)
     private static String getHostAddress() {
         return Inet4Address.getLocalHost().getHostAddress();
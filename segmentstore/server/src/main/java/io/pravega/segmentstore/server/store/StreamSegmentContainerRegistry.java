@@ -12,6 +12,8 @@ package io.pravega.segmentstore.server.store;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.Service;
 import io.pravega.common.Exceptions;
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.concurrent.Futures;
 import io.pravega.common.concurrent.Services;
 import io.pravega.common.function.Callbacks;
 import io.pravega.segmentstore.contracts.ContainerNotFoundException;
@@ -20,12 +22,14 @@ import io.pravega.segmentstore.server.SegmentContainer;
 import io.pravega.segmentstore.server.SegmentContainerFactory;
 import io.pravega.segmentstore.server.SegmentContainerRegistry;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import javax.annotation.concurrent.GuardedBy;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -33,6 +37,11 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Registry for SegmentContainers.
+ *
+ * Starting a SegmentContainer involves recovering it from its DurableLog, which can be expensive. In order to not overwhelm
+ * the system when many SegmentContainers are started at once (i.e., upon a Segment Store restart), at most a configurable
+ * number of SegmentContainers will be started concurrently; the others will be queued up and started in order as
+ * previous ones complete their startup.
  */
 @Slf4j
 class StreamSegmentContainerRegistry implements SegmentContainerRegistry {
@@ -42,25 +51,48 @@ class StreamSegmentContainerRegistry implements SegmentContainerRegistry {
     private final ConcurrentHashMap<Integer, ContainerWithHandle> containers;
     private final Executor executor;
     private final AtomicBoolean closed;
+    private final int maxConcurrentStarts;
+    @GuardedBy("pendingStarts")
+    private final ArrayDeque<PendingStart> pendingStarts;
+    @GuardedBy("pendingStarts")
+    private int activeStartCount;
 
     //endregion
 
     //region Constructor
 
     /**
-     * Creates a new instance of the StreamSegmentContainerRegistry.
+     * Creates a new instance of the StreamSegmentContainerRegistry which does not limit the number of SegmentContainers
+     * that can be started concurrently.
      *
      * @param containerFactory The SegmentContainerFactory to use.
      * @param executor         The Executor to use for async tasks.
      * @throws NullPointerException If any of the arguments are null.
      */
     StreamSegmentContainerRegistry(SegmentContainerFactory containerFactory, Executor executor) {
+        this(containerFactory, Integer.MAX_VALUE, executor);
+    }
+
+    /**
+     * Creates a new instance of the StreamSegmentContainerRegistry.
+     *
+     * @param containerFactory    The SegmentContainerFactory to use.
+     * @param maxConcurrentStarts The maximum number of SegmentContainers that can be starting up (recovering) at any
+     *                            given time.
+     * @param executor            The Executor to use for async tasks.
+     * @throws NullPointerException     If any of the arguments are null.
+     * @throws IllegalArgumentException If maxConcurrentStarts is not positive.
+     */
+    StreamSegmentContainerRegistry(SegmentContainerFactory containerFactory, int maxConcurrentStarts, Executor executor) {
         Preconditions.checkNotNull(containerFactory, "containerFactory");
         Preconditions.checkNotNull(executor, "executor");
+        Preconditions.checkArgument(maxConcurrentStarts > 0, "maxConcurrentStarts must be a positive integer.");
 
         this.factory = containerFactory;
         this.executor = executor;
+        this.maxConcurrentStarts = maxConcurrentStarts;
         this.containers = new ConcurrentHashMap<>();
+        this.pendingStarts = new ArrayDeque<>();
         this.closed = new AtomicBoolean();
     }
 
@@ -71,6 +103,15 @@ class StreamSegmentContainerRegistry implements SegmentContainerRegistry {
     @Override
     public void close() {
         if (!this.closed.getAndSet(true)) {
+            // Cancel all starts that have not yet begun.
+            ArrayList<PendingStart> toCancel;
+            synchronized (this.pendingStarts) {
+                toCancel = new ArrayList<>(this.pendingStarts);
+                this.pendingStarts.clear();
+            }
+
+            toCancel.forEach(ps -> ps.result.completeExceptionally(new ObjectClosedException(this)));
+
             // Close all open containers and notify their handles - as this was an unrequested stop.
             ArrayList<ContainerWithHandle> toClose = new ArrayList<>(this.containers.values());
             for (ContainerWithHandle c : toClose) {
@@ -162,8 +203,61 @@ class StreamSegmentContainerRegistry implements SegmentContainerRegistry {
                 () -> unregisterContainer(newContainer),
                 ex -> handleContainerFailure(newContainer, ex),
                 this.executor);
-        return Services.startAsync(newContainer.container, this.executor)
-                       .thenApply(v -> newContainer.handle);
+        return scheduleStart(newContainer.container)
+                .thenApply(v -> newContainer.handle);
+    }
+
+    /**
+     * Queues up the given SegmentContainer to be started, and starts it if we are not at capacity.
+     *
+     * @param container The SegmentContainer to start.
+     * @return A CompletableFuture that will be completed when the SegmentContainer has started.
+     */
+    private CompletableFuture<Void> scheduleStart(SegmentContainer container) {
+        PendingStart ps = new PendingStart(container, new CompletableFuture<>());
+        synchronized (this.pendingStarts) {
+            this.pendingStarts.addLast(ps);
+        }
+
+        startPendingContainers();
+        return ps.result;
+    }
+
+    /**
+     * Starts as many queued up SegmentContainers as allowed by maxConcurrentStarts.
+     */
+    private void startPendingContainers() {
+        while (true) {
+            PendingStart next;
+            synchronized (this.pendingStarts) {
+                if (this.activeStartCount >= this.maxConcurrentStarts || this.pendingStarts.isEmpty()) {
+                    return;
+                }
+
+                next = this.pendingStarts.removeFirst();
+                this.activeStartCount++;
+            }
+
+            log.info("Starting SegmentContainer {}.", next.container.getId());
+            CompletableFuture<Void> startFuture = startContainer(next.container);
+            startFuture.whenCompleteAsync((r, ex) -> {
+                synchronized (this.pendingStarts) {
+                    this.activeStartCount--;
+                }
+
+                startPendingContainers();
+            }, this.executor);
+            Futures.completeAfter(() -> startFuture, next.result);
+        }
+    }
+
+    private CompletableFuture<Void> startContainer(SegmentContainer container) {
+        try {
+            return Services.startAsync(container, this.executor);
+        } catch (Throwable ex) {
+            // The container may have been stopped before we got a chance to start it.
+            return Futures.failedFuture(ex);
+        }
     }
 
     private void handleContainerFailure(ContainerWithHandle containerWithHandle, Throwable exception) {
@@ -207,6 +301,16 @@ class StreamSegmentContainerRegistry implements SegmentContainerRegistry {
 
     //endregion
 
+    //region PendingStart
+
+    @RequiredArgsConstructor
+    private static class PendingStart {
+        final SegmentContainer container;
+        final CompletableFuture<Void> result;
+    }
+
+    //endregion
+
     //region SegmentContainerHandle
 
     @RequiredArgsConstructor
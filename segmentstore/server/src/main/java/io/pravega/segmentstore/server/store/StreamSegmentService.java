@@ -10,6 +10,7 @@
 package io.pravega.segmentstore.server.store;
 
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
 import io.pravega.common.LoggerHelpers;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
@@ -22,6 +23,7 @@ import io.pravega.segmentstore.server.SegmentContainerRegistry;
 import io.pravega.shared.segment.SegmentToContainerMapper;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -73,6 +75,22 @@ public class StreamSegmentService implements StreamSegmentStore {
                 "appendWithOffset", streamSegmentName, offset, data.length, attributeUpdates);
     }
 
+    @Override
+    public CompletableFuture<Void> append(String streamSegmentName, ByteBuf data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        return invoke(
+                streamSegmentName,
+                container -> container.append(streamSegmentName, data, attributeUpdates, timeout),
+                "append", streamSegmentName, data.readableBytes(), attributeUpdates);
+    }
+
+    @Override
+    public CompletableFuture<Void> append(String streamSegmentName, long offset, ByteBuf data, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
+        return invoke(
+                streamSegmentName,
+                container -> container.append(streamSegmentName, offset, data, attributeUpdates, timeout),
+                "appendWithOffset", streamSegmentName, offset, data.readableBytes(), attributeUpdates);
+    }
+
     @Override
     public CompletableFuture<Void> updateAttributes(String streamSegmentName, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         return invoke(
@@ -121,6 +139,14 @@ public class StreamSegmentService implements StreamSegmentStore {
                 "mergeTransaction", targetStreamSegment, sourceStreamSegment);
     }
 
+    @Override
+    public CompletableFuture<Void> mergeStreamSegments(String targetStreamSegment, List<String> sourceStreamSegments, Duration timeout) {
+        return invoke(
+                targetStreamSegment,
+                container -> container.mergeStreamSegments(targetStreamSegment, sourceStreamSegments, timeout),
+                "mergeStreamSegments", targetStreamSegment, sourceStreamSegments);
+    }
+
     @Override
     public CompletableFuture<Long> sealStreamSegment(String streamSegmentName, Duration timeout) {
         return invoke(
@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import lombok.Cleanup;
 import org.junit.Assert;
@@ -229,6 +230,48 @@ public class CacheManagerTests extends ThreadPooledTestSuite {
         cm.applyCachePolicy();
     }
 
+    /**
+     * Tests the ability of the CacheManager to evict entries (and report the cache as full) when the underlying Cache
+     * storage is running out of capacity, even if the cache size is within the policy limits.
+     */
+    @Test
+    public void testStorageUtilization() {
+        final CachePolicy policy = new CachePolicy(1024, Duration.ofHours(1000), Duration.ofHours(1));
+        AtomicReference<Double> storageUtilization = new AtomicReference<>(0.5);
+        @Cleanup
+        TestCacheManager cm = new TestCacheManager(policy, storageUtilization::get, executorService());
+        TestClient client = new TestClient();
+        cm.register(client);
+
+        // Advance the current generation a few times, without exceeding any limits.
+        AtomicInteger currentGeneration = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            client.setCacheStatus(1, 0, currentGeneration.get());
+            client.setUpdateGenerationsImpl((current, oldest) -> {
+                Assert.assertEquals("Not expecting a change for oldestGeneration while storage has capacity.", 0, (int) oldest);
+                return 0L;
+            });
+            cm.applyCachePolicy();
+            currentGeneration.incrementAndGet();
+        }
+
+        Assert.assertTrue("Unexpected cache utilization when storage has capacity.", cm.getCacheUtilization() < 1);
+
+        // Now report the storage as (almost) full. Even though the size reported by the client is tiny, we expect the
+        // oldest generation to advance.
+        storageUtilization.set(0.99);
+        Assert.assertTrue("Expected cache utilization to exceed 1 when storage is full.", cm.getCacheUtilization() > 1);
+        AtomicInteger oldestGeneration = new AtomicInteger();
+        client.setCacheStatus(1, 0, currentGeneration.get());
+        client.setUpdateGenerationsImpl((current, oldest) -> {
+            oldestGeneration.set(oldest);
+            storageUtilization.set(0.5);
+            return 1L;
+        });
+        cm.applyCachePolicy();
+        AssertExtensions.assertGreaterThan("Expected oldest generation to advance when storage is full.", 0, oldestGeneration.get());
+    }
+
     private static class TestClient implements CacheManager.Client {
         private CacheManager.CacheStatus currentStatus;
         private BiFunction<Integer, Integer, Long> updateGenerationsImpl = (current, oldest) -> -1L;
@@ -10,6 +10,7 @@
 package io.pravega.segmentstore.server;
 
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.DoubleSupplier;
 
 /**
  * Exposes the applyCachePolicy method in the CacheManager.
@@ -19,6 +20,10 @@ public class TestCacheManager extends CacheManager {
         super(policy, executorService);
     }
 
+    public TestCacheManager(CachePolicy policy, DoubleSupplier storageUtilization, ScheduledExecutorService executorService) {
+        super(policy, storageUtilization, executorService);
+    }
+
     @Override
     public void applyCachePolicy() {
         super.applyCachePolicy();
@@ -30,6 +30,7 @@ import io.pravega.segmentstore.contracts.ReadResultEntryType;
 import io.pravega.segmentstore.contracts.SegmentProperties;
 import io.pravega.segmentstore.contracts.StreamSegmentMergedException;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
+import io.pravega.segmentstore.contracts.StreamSegmentNotSealedException;
 import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
 import io.pravega.segmentstore.contracts.StreamSegmentStore;
 import io.pravega.segmentstore.contracts.TooManyActiveSegmentsException;
@@ -971,6 +972,74 @@ public class StreamSegmentContainerTests extends ThreadPooledTestSuite {
         context.container.stopAsync().awaitTerminated();
     }
 
+    /**
+     * Tests the mergeStreamSegments method, which merges several Transactions into their parent at once.
+     */
+    @Test
+    public void testTransactionBatchOperations() throws Exception {
+        @Cleanup
+        TestContext context = new TestContext();
+        context.container.startAsync().awaitRunning();
+
+        // 1. Create the StreamSegments.
+        ArrayList<String> segmentNames = createSegments(context);
+        HashMap<String, ArrayList<String>> transactionsBySegment = createTransactions(segmentNames, context);
+        activateAllSegments(segmentNames, context);
+        transactionsBySegment.values().forEach(s -> activateAllSegments(s, context));
+
+        // 2. Add some appends.
+        HashMap<String, Long> lengths = new HashMap<>();
+        HashMap<String, ByteArrayOutputStream> segmentContents = new HashMap<>();
+        appendToParentsAndTransactions(segmentNames, transactionsBySegment, lengths, segmentContents, context);
+
+        // 3. A batch with a Transaction that is not sealed is rejected, and none of its Transactions is merged.
+        String segmentName = segmentNames.get(0);
+        ArrayList<String> transactionNames = transactionsBySegment.get(segmentName);
+        context.container.sealStreamSegment(transactionNames.get(0), TIMEOUT).join();
+        AssertExtensions.assertThrows(
+                "mergeStreamSegments allowed a Transaction that is not sealed to be merged.",
+                () -> context.container.mergeStreamSegments(segmentName, transactionNames, TIMEOUT),
+                ex -> ex instanceof StreamSegmentNotSealedException);
+        for (String transactionName : transactionNames) {
+            Assert.assertFalse("A Transaction was merged as part of a rejected batch.",
+                    context.container.getStreamSegmentInfo(transactionName, false, TIMEOUT).join().isDeleted());
+        }
+
+        Assert.assertEquals("Unexpected length for the parent of a rejected batch.", (long) lengths.get(segmentName),
+                context.container.getStreamSegmentInfo(segmentName, false, TIMEOUT).join().getLength());
+
+        // 4. Merge all the Transactions, one batch per parent.
+        ArrayList<CompletableFuture<Void>> mergeFutures = new ArrayList<>();
+        for (Map.Entry<String, ArrayList<String>> e : transactionsBySegment.entrySet()) {
+            String parentName = e.getKey();
+            mergeFutures.add(Futures.allOf(e.getValue().stream()
+                                               .map(transactionName -> context.container.sealStreamSegment(transactionName, TIMEOUT))
+                                               .collect(Collectors.toList()))
+                                    .thenCompose(v -> context.container.mergeStreamSegments(parentName, e.getValue(), TIMEOUT)));
+            for (String transactionName : e.getValue()) {
+                lengths.put(parentName, lengths.get(parentName) + lengths.get(transactionName));
+                lengths.remove(transactionName);
+                segmentContents.get(parentName).write(segmentContents.get(transactionName).toByteArray());
+                segmentContents.remove(transactionName);
+            }
+        }
+
+        Futures.allOf(mergeFutures).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        // 5. Merging the same batch again is rejected, as its Transactions are merged already.
+        AssertExtensions.assertThrows(
+                "mergeStreamSegments allowed the same Transactions to be merged twice.",
+                () -> context.container.mergeStreamSegments(segmentName, transactionNames, TIMEOUT),
+                ex -> ex instanceof StreamSegmentMergedException || ex instanceof StreamSegmentNotExistsException);
+
+        // 6. Verify the contents of the parents, which have the Transactions in the order in which they were given.
+        checkReadIndex(segmentContents, lengths, context);
+        waitForSegmentsInStorage(segmentNames, context).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        checkStorage(segmentContents, lengths, context);
+
+        context.container.stopAsync().awaitTerminated();
+    }
+
     /**
      * Tests the ability to perform future (tail) reads. Scenarios tested include:
      * * Regular appends
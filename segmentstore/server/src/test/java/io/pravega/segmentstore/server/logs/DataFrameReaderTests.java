@@ -90,6 +90,53 @@ public class DataFrameReaderTests extends ThreadPooledTestSuite {
         }
     }
 
+    /**
+     * Tests the ability to read from a DataLog that contains both compressed and uncompressed DataFrames.
+     */
+    @Test
+    public void testReadsMixedCompression() throws Exception {
+        final int recordCount = 100;
+        final int frameSize = 64 * 1024;
+        ArrayList<TestLogItem> records = new ArrayList<>();
+        ArrayList<byte[]> rawRecords = DataFrameTestHelpers.generateRecords(recordCount, LARGE_RECORD_MIN_SIZE, LARGE_RECORD_MAX_SIZE);
+        for (int i = 0; i < recordCount; i++) {
+            // Make every other batch of records compressible.
+            byte[] data = rawRecords.get(i);
+            if ((i / 10) % 2 == 0) {
+                for (int j = 0; j < data.length; j++) {
+                    data[j] = (byte) ('a' + j % 16);
+                }
+            }
+
+            records.add(new TestLogItem(i, data));
+        }
+
+        try (TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, frameSize, executorService())) {
+            dataLog.initialize(TIMEOUT);
+
+            BiConsumer<Throwable, DataFrameBuilder.CommitArgs> errorCallback = (ex, a) ->
+                    Assert.fail(String.format("Unexpected error occurred upon commit. %s", ex));
+
+            // Alternate between compressed and uncompressed DataFrameBuilders, as would happen if the config changed.
+            int batchSize = recordCount / 4;
+            for (int i = 0; i < records.size(); i += batchSize) {
+                val args = new DataFrameBuilder.Args(Callbacks::doNothing, Callbacks::doNothing, errorCallback, executorService());
+                args.setCompression((i / batchSize) % 2 == 0 ? DataFrame.CompressionType.DEFLATE : DataFrame.CompressionType.NONE);
+                try (DataFrameBuilder<TestLogItem> b = new DataFrameBuilder<>(dataLog, SERIALIZER, args)) {
+                    for (int j = i; j < i + batchSize; j++) {
+                        b.append(records.get(j));
+                    }
+                    b.flush();
+                }
+            }
+
+            TestSerializer logItemFactory = new TestSerializer();
+            DataFrameReader<TestLogItem> reader = new DataFrameReader<>(dataLog, logItemFactory, CONTAINER_ID);
+            List<TestLogItem> readItems = readAll(reader);
+            checkReadResult(records, new HashSet<>(), readItems);
+        }
+    }
+
     /**
      * Tests the case when we begin reading from a DataFrame which begins with a partial record. That record needs to
      * be dropped (not returned). DataFrameReader should always return full records.
@@ -24,6 +24,10 @@ import org.junit.rules.Timeout;
  */
 public class DataFrameTests {
     private static final int ENTRY_HEADER_SIZE = 5; // This is a copy of DataFrame.EntryHeader.HeaderSize, but that's not accessible from here.
+    private static final int MAX_FRAME_SIZE = 2 * 1024 * 1024;
+    private static final int MAX_RECORD_COUNT = 4500;
+    private static final int MIN_RECORD_SIZE = 0;
+    private static final int MAX_RECORD_SIZE = 1024;
     @Rule
     public Timeout globalTimeout = Timeout.seconds(10);
 
@@ -33,14 +37,37 @@ public class DataFrameTests {
      */
     @Test
     public void testSerialization() throws Exception {
-        int maxFrameSize = 2 * 1024 * 1024;
-        int maxRecordCount = 4500;
-        int minRecordSize = 0;
-        int maxRecordSize = 1024;
-        List<ByteArraySegment> allRecords = DataFrameTestHelpers.generateRecords(maxRecordCount, minRecordSize, maxRecordSize, ByteArraySegment::new);
+        List<ByteArraySegment> allRecords = DataFrameTestHelpers.generateRecords(MAX_RECORD_COUNT, MIN_RECORD_SIZE, MAX_RECORD_SIZE, ByteArraySegment::new);
+        for (DataFrame.CompressionType compression : DataFrame.CompressionType.values()) {
+            // Random data does not compress, so we expect the frame to be full regardless of compression.
+            DataFrame writeFrame = testSerialization(allRecords, compression);
+            AssertExtensions.assertGreaterThan("Unexpected frame length for " + compression, MAX_FRAME_SIZE - MAX_RECORD_SIZE, writeFrame.getLength());
+        }
+    }
+
+    /**
+     * Tests the ability to compress a DataFrame upon sealing, and read it back.
+     */
+    @Test
+    public void testSerializationCompressed() throws Exception {
+        List<ByteArraySegment> allRecords = DataFrameTestHelpers.generateRecords(MAX_RECORD_COUNT, MIN_RECORD_SIZE, MAX_RECORD_SIZE, r -> {
+            for (int i = 0; i < r.length; i++) {
+                r[i] = (byte) ('a' + i % 16);
+            }
+            return new ByteArraySegment(r);
+        });
+
+        DataFrame writeFrame = testSerialization(allRecords, DataFrame.CompressionType.DEFLATE);
+        AssertExtensions.assertLessThan("Expected DataFrame to be compressed.", MAX_FRAME_SIZE / 10, writeFrame.getLength());
+
+        // The same data should not be compressed if not requested.
+        writeFrame = testSerialization(allRecords, DataFrame.CompressionType.NONE);
+        AssertExtensions.assertGreaterThan("Unexpected compressed DataFrame.", MAX_FRAME_SIZE - MAX_RECORD_SIZE, writeFrame.getLength());
+    }
 
+    private DataFrame testSerialization(List<ByteArraySegment> allRecords, DataFrame.CompressionType compression) throws Exception {
         // Append some records.
-        DataFrame writeFrame = DataFrame.ofSize(maxFrameSize);
+        DataFrame writeFrame = new DataFrame(new ByteArraySegment(new byte[MAX_FRAME_SIZE]), compression);
         int recordsAppended = appendRecords(allRecords, writeFrame);
         AssertExtensions.assertGreaterThan("Did not append enough records. Test may not be valid.", allRecords.size() / 2, recordsAppended);
         writeFrame.seal();
@@ -51,6 +78,7 @@ public class DataFrameTests {
         // Read them back, by deserializing the frame.
         val contents = DataFrame.read(frameData.getReader(), frameData.getLength(), writeFrame.getAddress());
         DataFrameTestHelpers.checkReadRecords(contents, allRecords, b -> b);
+        return writeFrame;
     }
 
     /**
@@ -0,0 +1,262 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import io.pravega.common.Exceptions;
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.function.Callbacks;
+import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.server.TestDurableDataLog;
+import io.pravega.segmentstore.storage.DataLogNotAvailableException;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.ErrorInjector;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the ReadAheadDataFrameReader class.
+ */
+public class ReadAheadDataFrameReaderTests extends ThreadPooledTestSuite {
+    private static final int CONTAINER_ID = 1234567;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int RECORD_COUNT = 200;
+    private static final int RECORD_MIN_SIZE = 0;
+    private static final int RECORD_MAX_SIZE = 2048;
+    private static final int FRAME_SIZE = 512;
+    private static final Serializer<TestLogItem> SERIALIZER = new TestLogItem.TestLogItemSerializer();
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+
+    /**
+     * Tests the ability to read everything, in order, using various read-ahead lengths (including ones that are smaller
+     * than a single record) and various Executors: inline, a separate thread and one that rejects the background
+     * reader (in which case the consumer must be able to make progress by itself).
+     */
+    @Test
+    public void testReads() throws Exception {
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(RECORD_COUNT, RECORD_MIN_SIZE, RECORD_MAX_SIZE, 0);
+        @Cleanup
+        TestDurableDataLog dataLog = createDataLog(records);
+        @Cleanup("shutdown")
+        ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor();
+        Executor rejectingExecutor = r -> {
+            throw new RejectedExecutionException();
+        };
+        for (Executor executor : Arrays.asList(executorService(), backgroundExecutor, rejectingExecutor)) {
+            for (int readAheadLength : new int[]{1, FRAME_SIZE, RECORD_MAX_SIZE * 10, Integer.MAX_VALUE}) {
+                @Cleanup
+                val reader = new ReadAheadDataFrameReader<TestLogItem>(
+                        new DataFrameReader<>(dataLog, new TestSerializer(), CONTAINER_ID), readAheadLength, executor, "Test");
+                List<TestLogItem> readItems = readAll(reader);
+                Assert.assertEquals("Unexpected number of items read for readAheadLength " + readAheadLength, records.size(), readItems.size());
+                for (int i = 0; i < records.size(); i++) {
+                    Assert.assertEquals("Unexpected Sequence Number.", records.get(i).getSequenceNumber(), readItems.get(i).getSequenceNumber());
+                    Assert.assertArrayEquals("Unexpected read data.", records.get(i).getData(), readItems.get(i).getData());
+                }
+
+                Assert.assertNull("Not expecting any more items after the end of the log has been reached.", reader.getNext());
+            }
+        }
+    }
+
+    /**
+     * Tests the case when the underlying DataFrameReader fails. The ReadAheadDataFrameReader must return all the records
+     * read prior to the failure and then throw the exception.
+     */
+    @Test
+    public void testReadsWithDataLogFailure() throws Exception {
+        final int failReadAfter = 20;
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(RECORD_COUNT, RECORD_MIN_SIZE, RECORD_MAX_SIZE, 0);
+        @Cleanup
+        TestDurableDataLog dataLog = createDataLog(records);
+        ErrorInjector<Exception> readErrorInjector = new ErrorInjector<>(
+                count -> count >= failReadAfter,
+                () -> new DataLogNotAvailableException("intentional getNext exception"));
+        dataLog.setReadErrorInjectors(null, readErrorInjector);
+
+        @Cleanup
+        val reader = new ReadAheadDataFrameReader<TestLogItem>(
+                new DataFrameReader<>(dataLog, new TestSerializer(), CONTAINER_ID), Integer.MAX_VALUE, executorService(), "Test");
+        int readCount = 0;
+        try {
+            while (reader.getNext() != null) {
+                readCount++;
+            }
+
+            Assert.fail("Expected an exception but none got thrown.");
+        } catch (Exception ex) {
+            Assert.assertEquals("Unexpected exception.", readErrorInjector.getLastCycleException(), Exceptions.unwrap(ex));
+        }
+
+        AssertExtensions.assertGreaterThan("Expected some records to be read before the failure.", 0, readCount);
+        AssertExtensions.assertLessThan("Not expecting all records to be read.", records.size(), readCount);
+    }
+
+    /**
+     * Tests the ability to close the reader before the end of the log has been reached.
+     */
+    @Test
+    public void testClose() throws Exception {
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(RECORD_COUNT, RECORD_MIN_SIZE, RECORD_MAX_SIZE, 0);
+        @Cleanup
+        TestDurableDataLog dataLog = createDataLog(records);
+        val reader = new ReadAheadDataFrameReader<TestLogItem>(
+                new DataFrameReader<>(dataLog, new TestSerializer(), CONTAINER_ID), FRAME_SIZE, executorService(), "Test");
+        Assert.assertNotNull("Expected a record to be read.", reader.getNext());
+        reader.close();
+        AssertExtensions.assertThrows(
+                "getNext() worked after close().",
+                reader::getNext,
+                ex -> ex instanceof ObjectClosedException);
+    }
+
+    /**
+     * Tests the case when a read-ahead task runs while the consumer is reading from the DataFrameReader by itself (here,
+     * a task that the Executor rejected, but still ran). Only one of them may read from the DataFrameReader at any time.
+     */
+    @Test
+    public void testReadAheadDuringInlineRead() throws Exception {
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(RECORD_COUNT, RECORD_MIN_SIZE, RECORD_MAX_SIZE, 0);
+        @Cleanup
+        TestDurableDataLog dataLog = createDataLog(records);
+        List<Runnable> readAheadTasks = Collections.synchronizedList(new ArrayList<>());
+        Executor executor = r -> {
+            readAheadTasks.add(r);
+            throw new RejectedExecutionException();
+        };
+        val source = new BlockingDataFrameReader(dataLog);
+        @Cleanup
+        val reader = new ReadAheadDataFrameReader<TestLogItem>(source, Integer.MAX_VALUE, executor, "Test");
+        Assert.assertEquals("Expected a read-ahead to be attempted.", 1, readAheadTasks.size());
+
+        // The consumer reads by itself, as the read-ahead was rejected. While it is reading, run the read-ahead task.
+        CompletableFuture<DataFrameRecord<TestLogItem>> firstRead = CompletableFuture.supplyAsync(() -> {
+            try {
+                return reader.getNext();
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, executorService());
+        source.readStarted.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        readAheadTasks.get(0).run();
+        Assert.assertFalse("Not expecting the inline read to be complete.", firstRead.isDone());
+        source.release.complete(null);
+
+        Assert.assertEquals("Unexpected first record.", records.get(0).getSequenceNumber(),
+                firstRead.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).getItem().getSequenceNumber());
+        List<TestLogItem> readItems = readAll(reader);
+        Assert.assertEquals("Unexpected number of items read.", records.size() - 1, readItems.size());
+        for (int i = 0; i < readItems.size(); i++) {
+            Assert.assertEquals("Unexpected Sequence Number.", records.get(i + 1).getSequenceNumber(), readItems.get(i).getSequenceNumber());
+        }
+
+        Assert.assertEquals("Not expecting concurrent reads from the DataFrameReader.", 1, source.maxConcurrentReads.get());
+    }
+
+    /**
+     * Tests the case when the consumer runs on the only thread of the Executor that the read-aheads are scheduled on.
+     * The consumer must not wait for a read-ahead that cannot run until it is done.
+     */
+    @Test
+    public void testConsumerOnReadAheadExecutor() throws Exception {
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(RECORD_COUNT, RECORD_MIN_SIZE, RECORD_MAX_SIZE, 0);
+        @Cleanup
+        TestDurableDataLog dataLog = createDataLog(records);
+        @Cleanup("shutdown")
+        ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+        List<TestLogItem> readItems = CompletableFuture.supplyAsync(() -> {
+            try (val reader = new ReadAheadDataFrameReader<TestLogItem>(
+                    new DataFrameReader<>(dataLog, new TestSerializer(), CONTAINER_ID), FRAME_SIZE, singleThreadExecutor, "Test")) {
+                return readAll(reader);
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, singleThreadExecutor).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals("Unexpected number of items read.", records.size(), readItems.size());
+        for (int i = 0; i < records.size(); i++) {
+            Assert.assertEquals("Unexpected Sequence Number.", records.get(i).getSequenceNumber(), readItems.get(i).getSequenceNumber());
+        }
+    }
+
+    private TestDurableDataLog createDataLog(List<TestLogItem> records) throws Exception {
+        TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, executorService());
+        dataLog.initialize(TIMEOUT);
+        BiConsumer<Throwable, DataFrameBuilder.CommitArgs> errorCallback = (ex, a) ->
+                Assert.fail(String.format("Unexpected error occurred upon commit. %s", ex));
+        val args = new DataFrameBuilder.Args(Callbacks::doNothing, Callbacks::doNothing, errorCallback, executorService());
+        try (DataFrameBuilder<TestLogItem> b = new DataFrameBuilder<>(dataLog, SERIALIZER, args)) {
+            for (TestLogItem r : records) {
+                b.append(r);
+            }
+
+            b.flush();
+        }
+
+        return dataLog;
+    }
+
+    private List<TestLogItem> readAll(ReadAheadDataFrameReader<TestLogItem> reader) throws Exception {
+        ArrayList<TestLogItem> result = new ArrayList<>();
+        DataFrameRecord<TestLogItem> dataFrameRecord;
+        while ((dataFrameRecord = reader.getNext()) != null) {
+            result.add(dataFrameRecord.getItem());
+        }
+
+        return result;
+    }
+
+    /**
+     * A DataFrameReader that records how many threads read from it at once, and whose reads block until released.
+     */
+    private static class BlockingDataFrameReader extends DataFrameReader<TestLogItem> {
+        final CompletableFuture<Void> readStarted = new CompletableFuture<>();
+        final CompletableFuture<Void> release = new CompletableFuture<>();
+        final AtomicInteger maxConcurrentReads = new AtomicInteger();
+        private final AtomicInteger concurrentReads = new AtomicInteger();
+
+        BlockingDataFrameReader(TestDurableDataLog dataLog) throws Exception {
+            super(dataLog, new TestSerializer(), CONTAINER_ID);
+        }
+
+        @Override
+        public DataFrameRecord<TestLogItem> getNext() throws DataCorruptionException, DurableDataLogException {
+            this.maxConcurrentReads.accumulateAndGet(this.concurrentReads.incrementAndGet(), Math::max);
+            try {
+                this.readStarted.complete(null);
+                this.release.join();
+                return super.getNext();
+            } finally {
+                this.concurrentReads.decrementAndGet();
+            }
+        }
+    }
+}
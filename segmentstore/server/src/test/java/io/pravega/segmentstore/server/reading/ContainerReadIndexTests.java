@@ -40,6 +40,7 @@ import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -47,6 +48,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -108,6 +110,28 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         checkReadIndex("PostAppend", segmentContents, context);
     }
 
+    /**
+     * Tests the basic append-read functionality of the ContainerReadIndex with every supported type of entry index.
+     */
+    @Test
+    public void testAppendReadIndexTypes() throws Exception {
+        for (ReadIndexConfig.IndexType indexType : ReadIndexConfig.IndexType.values()) {
+            ReadIndexConfig config = ReadIndexConfig
+                    .builder()
+                    .with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, 0)
+                    .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, 1024)
+                    .with(ReadIndexConfig.INDEX_TYPE, indexType)
+                    .build();
+
+            @Cleanup
+            TestContext context = new TestContext(config, CachePolicy.INFINITE);
+            ArrayList<Long> segmentIds = createSegments(context);
+            HashMap<Long, ByteArrayOutputStream> segmentContents = new HashMap<>();
+            appendData(segmentIds, segmentContents, context);
+            checkReadIndex("PostAppend[" + indexType + "]", segmentContents, context);
+        }
+    }
+
     /**
      * Tests the ability for the ReadIndex to batch multiple index entries together into a bigger read. This test
      * writes a lot of very small appends to the index, then issues a full read (from the beginning) while configuring
@@ -768,6 +792,75 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         checkReadIndex("PostAppend", segmentContents, context);
     }
 
+    /**
+     * Tests the ability to read ahead from Storage when a Segment is read sequentially, and to not do so otherwise.
+     */
+    @Test
+    public void testStorageReadAhead() throws Exception {
+        final int alignment = 1024;
+        final int readAheadLength = 4 * alignment;
+        final int segmentLength = 32 * alignment;
+        final int sequentialReadThreshold = 3; // Read-ahead kicks in after this many sequential Storage reads.
+        ReadIndexConfig config = ReadIndexConfig.builder()
+                .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, alignment)
+                .with(ReadIndexConfig.STORAGE_READ_AHEAD_LENGTH, readAheadLength)
+                .build();
+
+        @Cleanup
+        TestContext context = new TestContext(config, CachePolicy.INFINITE);
+        long sequentialSegmentId = createSegment(0, context);
+        long randomSegmentId = createSegment(1, context);
+        createSegmentsInStorage(context);
+        byte[] segmentData = new byte[segmentLength];
+        new Random(0).nextBytes(segmentData);
+        for (long segmentId : new long[]{sequentialSegmentId, randomSegmentId}) {
+            UpdateableSegmentMetadata sm = context.metadata.getStreamSegmentMetadata(segmentId);
+            val handle = context.storage.openWrite(sm.getName()).join();
+            context.storage.write(handle, 0, new ByteArrayInputStream(segmentData), segmentData.length, TIMEOUT).join();
+            sm.setStorageLength(segmentLength);
+            sm.setLength(segmentLength);
+        }
+
+        Set<CacheKey> insertedKeys = Collections.synchronizedSet(new HashSet<>());
+        context.cacheFactory.cache.insertCallback = insertedKeys::add;
+
+        // Sequential reads: after the first few reads, everything should be served from the Cache, as long as we give
+        // the read-ahead a chance to complete.
+        for (int offset = 0; offset < segmentLength; offset += alignment) {
+            ReadResultEntryType expectedType = offset < sequentialReadThreshold * alignment ? ReadResultEntryType.Storage : ReadResultEntryType.Cache;
+            ReadResultEntryType actualType = readAndVerify(sequentialSegmentId, offset, alignment, segmentData, context);
+            Assert.assertEquals("Unexpected entry type for sequential read at offset " + offset, expectedType, actualType);
+            if (offset + alignment < segmentLength && offset + alignment >= sequentialReadThreshold * alignment) {
+                CacheKey nextKey = new CacheKey(sequentialSegmentId, offset + alignment);
+                TestUtils.await(() -> insertedKeys.contains(nextKey), 10, TIMEOUT.toMillis());
+            }
+        }
+
+        // Non-sequential reads: nothing should be read ahead.
+        int[] randomOffsets = new int[]{10, 2, 20, 5, 30, 15};
+        for (int i : randomOffsets) {
+            int offset = i * alignment;
+            ReadResultEntryType actualType = readAndVerify(randomSegmentId, offset, alignment, segmentData, context);
+            Assert.assertEquals("Unexpected entry type for random read at offset " + offset, ReadResultEntryType.Storage, actualType);
+        }
+
+        val randomSegmentKeys = insertedKeys.stream().filter(k -> k.getStreamSegmentId() == randomSegmentId).collect(Collectors.toList());
+        Assert.assertEquals("Unexpected number of cache entries for random reads.", randomOffsets.length, randomSegmentKeys.size());
+    }
+
+    private ReadResultEntryType readAndVerify(long segmentId, int offset, int length, byte[] expectedData, TestContext context) throws Exception {
+        @Cleanup
+        ReadResult result = context.readIndex.read(segmentId, offset, length, TIMEOUT);
+        ReadResultEntry entry = result.next();
+        entry.requestContent(TIMEOUT);
+        ReadResultEntryContents contents = entry.getContent().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        byte[] readData = new byte[contents.getLength()];
+        StreamHelpers.readAll(contents.getData(), readData, 0, readData.length);
+        AssertExtensions.assertArrayEquals("Unexpected data read at offset " + offset, expectedData, offset, readData, 0, readData.length);
+        Assert.assertEquals("Unexpected read length at offset " + offset, length, readData.length);
+        return entry.getType();
+    }
+
     /**
      * Tests the ability to evict entries from the ReadIndex under various conditions:
      * * If an entry is aged out
@@ -807,8 +900,13 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         final int preStorageEntryCount = entriesPerSegment - postStorageEntryCount; // 75% of the entries are before the StorageOffset.
         CachePolicy cachePolicy = new CachePolicy(cacheMaxSize, Duration.ofMillis(1000 * 2 * entriesPerSegment), Duration.ofMillis(1000));
 
-        // To properly test this, we want predictable storage reads.
-        ReadIndexConfig config = ReadIndexConfig.builder().with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, appendSize).build();
+        // To properly test this, we want predictable storage reads (and no read-ahead, since we read sequentially). We
+        // also read at the tail of one of the segments, which must not pin any of its entries (see testTailCachePinning).
+        ReadIndexConfig config = ReadIndexConfig.builder()
+                .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, appendSize)
+                .with(ReadIndexConfig.STORAGE_READ_AHEAD_LENGTH, 0)
+                .with(ReadIndexConfig.TAIL_CACHE_PIN_LENGTH, 0)
+                .build();
 
         ArrayList<CacheKey> removedKeys = new ArrayList<>();
         @Cleanup
@@ -950,6 +1048,112 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         }
     }
 
+    /**
+     * Tests the ability to keep the tail of a Segment that is being read at its tail in the Cache, while evicting the data
+     * of other Segments, and to release it once the Segment is no longer being read at its tail.
+     */
+    @Test
+    public void testTailCachePinning() throws Exception {
+        final int appendSize = 100;
+        final int entriesPerSegment = 10;
+        final int pinnedEntryCount = 3;
+        CachePolicy cachePolicy = new CachePolicy(Long.MAX_VALUE, Duration.ofMillis(3000), Duration.ofMillis(1000));
+        ReadIndexConfig config = ReadIndexConfig.builder()
+                .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, appendSize)
+                .with(ReadIndexConfig.STORAGE_READ_AHEAD_LENGTH, 0)
+                .with(ReadIndexConfig.TAIL_CACHE_PIN_LENGTH, pinnedEntryCount * appendSize)
+                .build();
+
+        ArrayList<CacheKey> removedKeys = new ArrayList<>();
+        @Cleanup
+        TestContext context = new TestContext(config, cachePolicy);
+        context.cacheFactory.cache.removeCallback = removedKeys::add;
+
+        // One Segment is being read at its tail, and the other one was read by a catch-up reader. All of their data is
+        // in Storage, so it is all eligible for eviction.
+        long tailSegmentId = createSegment(0, context);
+        long coldSegmentId = createSegment(1, context);
+        for (long segmentId : Arrays.asList(tailSegmentId, coldSegmentId)) {
+            for (int i = 0; i < entriesPerSegment; i++) {
+                appendSingleWrite(segmentId, new byte[appendSize], context);
+            }
+
+            UpdateableSegmentMetadata sm = context.metadata.getStreamSegmentMetadata(segmentId);
+            sm.setStorageLength(sm.getLength());
+        }
+
+        // Keep reading at the tail while the cache ages out everything else.
+        UpdateableSegmentMetadata tailSegment = context.metadata.getStreamSegmentMetadata(tailSegmentId);
+        for (int i = 0; i < cachePolicy.getMaxGenerations() * 2; i++) {
+            @Cleanup
+            ReadResult result = context.readIndex.read(tailSegmentId, tailSegment.getLength() - appendSize, appendSize, TIMEOUT);
+            Assert.assertEquals("Unexpected tail read type.", ReadResultEntryType.Cache, result.next().getType());
+            context.cacheManager.applyCachePolicy();
+        }
+
+        Assert.assertEquals("Expected all the catch-up data to be evicted.",
+                entriesPerSegment, removedKeys.stream().filter(key -> key.getStreamSegmentId() == coldSegmentId).count());
+        Assert.assertEquals("Expected all but the pinned tail entries to be evicted.",
+                entriesPerSegment - pinnedEntryCount, removedKeys.stream().filter(key -> key.getStreamSegmentId() == tailSegmentId).count());
+        @Cleanup
+        ReadResult pinnedRead = context.readIndex.read(tailSegmentId, tailSegment.getLength() - pinnedEntryCount * appendSize, appendSize, TIMEOUT);
+        Assert.assertEquals("Expected the pinned tail to be served from the cache.", ReadResultEntryType.Cache, pinnedRead.next().getType());
+
+        // Once no longer read at its tail, the Segment's tail is evicted as any other data (we append to the other Segment
+        // to keep the cache generations moving).
+        for (int i = 0; i < cachePolicy.getMaxGenerations() * 3; i++) {
+            appendSingleWrite(coldSegmentId, new byte[appendSize], context);
+            context.cacheManager.applyCachePolicy();
+        }
+
+        Assert.assertEquals("Expected the tail entries to be evicted once no longer read.",
+                entriesPerSegment, removedKeys.stream().filter(key -> key.getStreamSegmentId() == tailSegmentId).count());
+    }
+
+    /**
+     * Tests that the tail of a Segment that is being read at its tail is not pinned in the Cache while the Cache is full,
+     * so that the Cache can be brought back under its maximum size.
+     */
+    @Test
+    public void testTailCachePinningWithFullCache() throws Exception {
+        final int appendSize = 100;
+        final int entriesPerSegment = 10;
+        final int pinnedEntryCount = 3;
+        CachePolicy cachePolicy = new CachePolicy(appendSize, Duration.ofMillis(3000), Duration.ofMillis(1000));
+        ReadIndexConfig config = ReadIndexConfig.builder()
+                .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, appendSize)
+                .with(ReadIndexConfig.STORAGE_READ_AHEAD_LENGTH, 0)
+                .with(ReadIndexConfig.TAIL_CACHE_PIN_LENGTH, pinnedEntryCount * appendSize)
+                .build();
+
+        ArrayList<CacheKey> removedKeys = new ArrayList<>();
+        @Cleanup
+        TestContext context = new TestContext(config, cachePolicy);
+        context.cacheFactory.cache.removeCallback = removedKeys::add;
+
+        // The Segment holds many times more data than the Cache may hold, all of which is in Storage.
+        long segmentId = createSegment(0, context);
+        for (int i = 0; i < entriesPerSegment; i++) {
+            appendSingleWrite(segmentId, new byte[appendSize], context);
+        }
+
+        UpdateableSegmentMetadata sm = context.metadata.getStreamSegmentMetadata(segmentId);
+        sm.setStorageLength(sm.getLength());
+
+        // Keep reading at the tail: nothing may be pinned while the Cache is over its maximum size.
+        for (int i = 0; i < cachePolicy.getMaxGenerations() * 2; i++) {
+            @Cleanup
+            ReadResult result = context.readIndex.read(segmentId, sm.getLength() - appendSize, appendSize, TIMEOUT);
+            result.next();
+            context.cacheManager.applyCachePolicy();
+        }
+
+        Assert.assertEquals("Expected all the entries to be evicted while the cache is full.",
+                entriesPerSegment, removedKeys.stream().filter(key -> key.getStreamSegmentId() == segmentId).count());
+        Assert.assertTrue("Expected the cache to be brought back under its maximum size.",
+                context.cacheManager.getCacheUtilization() < 1);
+    }
+
     // region Scenario-based tests
 
     /**
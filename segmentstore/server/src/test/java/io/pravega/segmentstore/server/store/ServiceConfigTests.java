@@ -9,6 +9,8 @@
  */
 package io.pravega.segmentstore.server.store;
 
+import io.pravega.common.util.ConfigurationException;
+import io.pravega.test.common.AssertExtensions;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -54,4 +56,49 @@ public class ServiceConfigTests {
                         && cfg3.getListeningPort() != cfg3.getPublishedPort());
     }
 
+    @Test
+    public void testNettySettings() {
+        ServiceConfig defaults = ServiceConfig.builder()
+                .with(ServiceConfig.CONTAINER_COUNT, 1)
+                .build();
+        Assert.assertEquals(0, defaults.getNettyEventLoopThreads());
+        Assert.assertEquals(0, defaults.getNettyAllocatorArenas());
+        Assert.assertTrue(defaults.isNettyTcpNoDelay());
+        Assert.assertEquals(100, defaults.getNettyBacklog());
+
+        ServiceConfig cfg = ServiceConfig.builder()
+                .with(ServiceConfig.CONTAINER_COUNT, 1)
+                .with(ServiceConfig.NETTY_EVENT_LOOP_THREADS, 16)
+                .with(ServiceConfig.NETTY_ALLOCATOR_ARENAS, 16)
+                .with(ServiceConfig.NETTY_WRITE_BUFFER_LOW_WATER_MARK, 1024 * 1024)
+                .with(ServiceConfig.NETTY_WRITE_BUFFER_HIGH_WATER_MARK, 4 * 1024 * 1024)
+                .with(ServiceConfig.NETTY_TCP_NO_DELAY, false)
+                .with(ServiceConfig.NETTY_SEND_BUFFER_SIZE, 256 * 1024)
+                .with(ServiceConfig.NETTY_RECEIVE_BUFFER_SIZE, 512 * 1024)
+                .with(ServiceConfig.NETTY_BACKLOG, 1000)
+                .build();
+        Assert.assertEquals(16, cfg.getNettyEventLoopThreads());
+        Assert.assertEquals(16, cfg.getNettyAllocatorArenas());
+        Assert.assertEquals(1024 * 1024, cfg.getNettyWriteBufferLowWaterMark());
+        Assert.assertEquals(4 * 1024 * 1024, cfg.getNettyWriteBufferHighWaterMark());
+        Assert.assertFalse(cfg.isNettyTcpNoDelay());
+        Assert.assertEquals(256 * 1024, cfg.getNettySendBufferSize());
+        Assert.assertEquals(512 * 1024, cfg.getNettyReceiveBufferSize());
+        Assert.assertEquals(1000, cfg.getNettyBacklog());
+
+        AssertExtensions.assertThrows("Negative thread count was accepted.",
+                () -> ServiceConfig.builder()
+                        .with(ServiceConfig.CONTAINER_COUNT, 1)
+                        .with(ServiceConfig.NETTY_EVENT_LOOP_THREADS, -1)
+                        .build(),
+                ex -> ex instanceof ConfigurationException);
+        AssertExtensions.assertThrows("Low water mark above the high water mark was accepted.",
+                () -> ServiceConfig.builder()
+                        .with(ServiceConfig.CONTAINER_COUNT, 1)
+                        .with(ServiceConfig.NETTY_WRITE_BUFFER_LOW_WATER_MARK, 1024 * 1024)
+                        .with(ServiceConfig.NETTY_WRITE_BUFFER_HIGH_WATER_MARK, 1024)
+                        .build(),
+                ex -> ex instanceof ConfigurationException);
+    }
+
 }
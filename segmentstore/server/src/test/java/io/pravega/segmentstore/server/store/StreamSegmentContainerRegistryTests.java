@@ -24,10 +24,12 @@ import io.pravega.segmentstore.server.SegmentContainerFactory;
 import io.pravega.segmentstore.server.ServiceListeners;
 import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.IntentionalException;
+import io.pravega.test.common.TestUtils;
 import io.pravega.test.common.ThreadPooledTestSuite;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -232,22 +234,68 @@ public class StreamSegmentContainerRegistryTests extends ThreadPooledTestSuite {
 
     //region TestContainerFactory
 
+    /**
+     * Tests the ability to limit the number of SegmentContainers that are starting up concurrently.
+     */
+    @Test
+    public void testStartConcurrency() throws Exception {
+        final int containerCount = 5;
+        final int maxConcurrentStarts = 2;
+        TestContainerFactory factory = new TestContainerFactory(null, null, true);
+        @Cleanup
+        StreamSegmentContainerRegistry registry = new StreamSegmentContainerRegistry(factory, maxConcurrentStarts, executorService());
+
+        List<CompletableFuture<ContainerHandle>> handleFutures = new ArrayList<>();
+        for (int containerId = 0; containerId < containerCount; containerId++) {
+            handleFutures.add(registry.startContainer(containerId, TIMEOUT));
+        }
+
+        Assert.assertEquals("Unexpected number of containers created.", containerCount, factory.createdContainers.size());
+        for (int i = 0; i < containerCount; i++) {
+            TestContainer c = factory.createdContainers.get(i);
+            Service.State expectedState = i < maxConcurrentStarts ? Service.State.STARTING : Service.State.NEW;
+            Assert.assertEquals("Unexpected state for container " + i, expectedState, c.state());
+
+            // Complete this container's startup. The next one in line should begin its startup shortly after.
+            Assert.assertFalse("Container start future completed before the container was started.", handleFutures.get(i).isDone());
+            c.completeStart();
+            handleFutures.get(i).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            if (i + maxConcurrentStarts < containerCount) {
+                TestContainer next = factory.createdContainers.get(i + maxConcurrentStarts);
+                TestUtils.await(() -> next.state() == Service.State.STARTING, 10, TIMEOUT.toMillis());
+            }
+        }
+
+        for (TestContainer c : factory.createdContainers) {
+            Assert.assertEquals("Unexpected final state for container " + c.getId(), Service.State.RUNNING, c.state());
+        }
+    }
+
     private class TestContainerFactory implements SegmentContainerFactory {
         private final Exception startException;
         private final ReusableLatch startReleaseSignal;
+        private final boolean manualStart;
+        private final List<TestContainer> createdContainers = Collections.synchronizedList(new ArrayList<>());
 
         TestContainerFactory() {
-            this(null, null);
+            this(null, null, false);
         }
 
         TestContainerFactory(Exception startException, ReusableLatch startReleaseSignal) {
+            this(startException, startReleaseSignal, false);
+        }
+
+        TestContainerFactory(Exception startException, ReusableLatch startReleaseSignal, boolean manualStart) {
             this.startException = startException;
             this.startReleaseSignal = startReleaseSignal;
+            this.manualStart = manualStart;
         }
 
         @Override
         public SegmentContainer createStreamSegmentContainer(int containerId) {
-            return new TestContainer(containerId, this.startException, this.startReleaseSignal);
+            TestContainer c = new TestContainer(containerId, this.startException, this.startReleaseSignal, this.manualStart);
+            this.createdContainers.add(c);
+            return c;
         }
     }
 
@@ -261,15 +309,21 @@ public class StreamSegmentContainerRegistryTests extends ThreadPooledTestSuite {
         private final ReusableLatch closeReleaseSignal;
         private Exception stopException;
         private final AtomicBoolean closed;
+        private final boolean manualStart;
         private ReusableLatch stopSignal;
 
-        TestContainer(int id, Exception startException, ReusableLatch closeReleaseSignal) {
+        TestContainer(int id, Exception startException, ReusableLatch closeReleaseSignal, boolean manualStart) {
             this.id = id;
             this.startException = startException;
             this.closeReleaseSignal = closeReleaseSignal;
+            this.manualStart = manualStart;
             this.closed = new AtomicBoolean();
         }
 
+        void completeStart() {
+            notifyStarted();
+        }
+
         public void fail(Exception ex) {
             this.stopException = ex;
             stopAsync();
@@ -303,6 +357,11 @@ public class StreamSegmentContainerRegistryTests extends ThreadPooledTestSuite {
 
         @Override
         protected void doStart() {
+            if (this.manualStart) {
+                // The test will invoke completeStart() when ready.
+                return;
+            }
+
             executorService().execute(() -> {
                 if (this.startException != null) {
                     notifyFailed(this.startException);
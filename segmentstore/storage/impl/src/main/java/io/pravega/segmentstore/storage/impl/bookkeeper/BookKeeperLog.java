@@ -69,6 +69,8 @@ import org.apache.zookeeper.data.Stat;
  * Fencing and Rollovers:
  * * This is done according to the protocol described here: https://bookkeeper.apache.org/docs/r4.4.0/bookkeeperLedgers2Logs.html
  * * See JavaDocs for the initialize() method (Open-Fence) and the rollover() method (for Rollovers) for details.
+ * * Once the active Ledger is half full, a Standby Ledger is created and added to the Log Metadata ahead of time, so that
+ * the actual rollover does not need to wait on BookKeeper or ZooKeeper. See provisionStandbyLedger() for details.
  * <p>
  * Reading the log
  * * Reading the log can only be done from the beginning. There is no random-access available.
@@ -82,6 +84,11 @@ class BookKeeperLog implements DurableDataLog {
     //region Members
 
     private static final long REPORT_INTERVAL = 1000;
+    /**
+     * The fraction of BookKeeperConfig.getBkLedgerMaxSize() that the active Ledger needs to reach before we provision
+     * a Standby Ledger.
+     */
+    private static final double STANDBY_LEDGER_THRESHOLD = 0.5;
     private final String logNodePath;
     private final CuratorFramework zkClient;
     private final BookKeeper bookKeeper;
@@ -93,6 +100,8 @@ class BookKeeperLog implements DurableDataLog {
     @GuardedBy("lock")
     private WriteLedger writeLedger;
     @GuardedBy("lock")
+    private WriteLedger standbyLedger;
+    @GuardedBy("lock")
     private LogMetadata logMetadata;
     private final WriteQueue writes;
     private final SequentialAsyncProcessor writeProcessor;
@@ -159,11 +168,14 @@ class BookKeeperLog implements DurableDataLog {
             this.rolloverProcessor.close();
             this.writeProcessor.close();
 
-            // Close active ledger.
+            // Close active and standby ledgers.
             WriteLedger writeLedger;
+            WriteLedger standbyLedger;
             synchronized (this.lock) {
                 writeLedger = this.writeLedger;
+                standbyLedger = this.standbyLedger;
                 this.writeLedger = null;
+                this.standbyLedger = null;
                 this.logMetadata = null;
             }
 
@@ -171,11 +183,11 @@ class BookKeeperLog implements DurableDataLog {
             this.writes.close().forEach(w -> w.fail(new CancellationException("BookKeeperLog has been closed."), true));
 
             if (writeLedger != null) {
-                try {
-                    Ledgers.close(writeLedger.ledger);
-                } catch (DurableDataLogException bkEx) {
-                    log.error("{}: Unable to close LedgerHandle for Ledger {}.", this.traceObjectId, writeLedger.ledger.getId(), bkEx);
-                }
+                closeLedger(writeLedger.ledger);
+            }
+
+            if (standbyLedger != null) {
+                closeLedger(standbyLedger.ledger);
             }
 
             log.info("{}: Closed.", this.traceObjectId);
@@ -819,13 +831,17 @@ class BookKeeperLog implements DurableDataLog {
     /**
      * Triggers an asynchronous rollover, if the current Write Ledger has exceeded its maximum length.
      * The rollover protocol is as follows:
-     * 1. Create a new ledger.
-     * 2. Create an in-memory copy of the metadata and add the new ledger to it.
-     * 3. Update the metadata in ZooKeeper using compare-and-set.
-     * 3.1 If the update fails, the newly created ledger is deleted and the operation stops.
-     * 4. Swap in-memory pointers to the active Write Ledger (all future writes will go to the new ledger).
-     * 5. Close the previous ledger (and implicitly seal it).
-     * 5.1 If closing fails, there is nothing we can do. We've already opened a new ledger and new writes are going to it.
+     * 1. Get the Standby Ledger. If there isn't one, provision it now (see provisionStandbyLedger()).
+     * 1.1 If provisioning fails, the operation stops.
+     * 2. Swap in-memory pointers to the active Write Ledger (all future writes will go to the new ledger). The Log Metadata
+     * already contains the new ledger, so no ZooKeeper update is needed.
+     * 3. Trigger the Write Processor, so that writes that did not fit in the old ledger can be issued to the new one as
+     * soon as the writes in flight to the old ledger complete.
+     * 4. Close the previous ledger (and implicitly seal it).
+     * 4.1 If closing fails, there is nothing we can do. We've already opened a new ledger and new writes are going to it.
+     *
+     * If no rollover is needed yet, but the current Write Ledger is past STANDBY_LEDGER_THRESHOLD, this will provision
+     * the Standby Ledger so that the next rollover does not need to wait for it.
      *
      * NOTE: this method is not thread safe and is not meant to be executed concurrently. It should only be invoked as
      * part of the Rollover Processor.
@@ -843,25 +859,25 @@ class BookKeeperLog implements DurableDataLog {
             // Nothing to do. Trigger the write processor just in case this rollover was invoked because the write
             // processor got a pointer to a LedgerHandle that was just closed by a previous run of the rollover processor.
             this.writeProcessor.runAsync();
+            if (l.getLength() >= this.config.getBkLedgerMaxSize() * STANDBY_LEDGER_THRESHOLD) {
+                // Getting close to the limit. Prepare the next ledger now, while there is no rush.
+                provisionStandbyLedger();
+            }
+
             LoggerHelpers.traceLeave(log, this.traceObjectId, "rollover", traceId, false);
             return;
         }
 
         try {
-            // Create new ledger.
-            LedgerHandle newLedger = Ledgers.create(this.bookKeeper, this.config);
-            log.debug("{}: Rollover: created new ledger {}.", this.traceObjectId, newLedger.getId());
+            // Get the next ledger. This should already be provisioned, unless we filled up the current one very quickly.
+            provisionStandbyLedger();
 
-            // Update the metadata.
-            LogMetadata metadata = getLogMetadata();
-            metadata = updateMetadata(metadata, newLedger, false);
-            LedgerMetadata ledgerMetadata = metadata.getLedger(newLedger.getId());
-            assert ledgerMetadata != null : "cannot find newly added ledger metadata";
-            log.debug("{}: Rollover: updated metadata '{}.", this.traceObjectId, metadata);
-
-            // Update pointers to the new ledger and metadata.
+            // Update pointers to the new ledger.
+            WriteLedger newLedger;
             LedgerHandle oldLedger;
             synchronized (this.lock) {
+                newLedger = this.standbyLedger;
+                Exceptions.checkNotClosed(newLedger == null, this);
                 oldLedger = this.writeLedger.ledger;
                 if (!oldLedger.isClosed()) {
                     // Only mark the old ledger as Rolled Over if it is still open. Otherwise it means it was closed
@@ -869,15 +885,18 @@ class BookKeeperLog implements DurableDataLog {
                     this.writeLedger.setRolledOver(true);
                 }
 
-                this.writeLedger = new WriteLedger(newLedger, ledgerMetadata);
-                this.logMetadata = metadata;
+                this.writeLedger = newLedger;
+                this.standbyLedger = null;
             }
 
+            // The new ledger is ready to accept writes; there is no need to wait for the old one to close.
+            this.writeProcessor.runAsync();
+
             // Close the old ledger. This must be done outside of the lock, otherwise the pending writes (and their callbacks)
             // will be invoked within the lock, thus likely candidates for deadlocks.
             Ledgers.close(oldLedger);
-            log.info("{}: Rollover: swapped ledger and metadata pointers (Old = {}, New = {}) and closed old ledger.",
-                    this.traceObjectId, oldLedger.getId(), newLedger.getId());
+            log.info("{}: Rollover: swapped ledger pointers (Old = {}, New = {}) and closed old ledger.",
+                    this.traceObjectId, oldLedger.getId(), newLedger.ledger.getId());
         } finally {
             // It's possible that we have writes in the queue that didn't get picked up because they exceeded the predicted
             // ledger length. Invoke the Write Processor to execute them.
@@ -886,6 +905,57 @@ class BookKeeperLog implements DurableDataLog {
         }
     }
 
+    /**
+     * Provisions the Standby Ledger, if there isn't one already. The protocol is as follows:
+     * 1. Create a new ledger.
+     * 2. Create an in-memory copy of the metadata and add the new ledger to it.
+     * 3. Update the metadata in ZooKeeper using compare-and-set.
+     * 3.1 If the update fails, the newly created ledger is deleted and the operation stops.
+     * 4. Swap in-memory pointers to the metadata and set the Standby Ledger.
+     *
+     * Since the new ledger is added to the metadata after the active ledger, and nothing is written to it until after
+     * the rollover, a recovery that happens in the meantime will simply find an empty ledger at the end of the Log, which
+     * is no different than the empty ledger that every initialize() creates (and fences out upon the next one).
+     *
+     * NOTE: this method is not thread safe and is not meant to be executed concurrently. It should only be invoked as
+     * part of the Rollover Processor.
+     *
+     * @throws DurableDataLogException If the ledger could not be created or the metadata could not be updated.
+     */
+    private void provisionStandbyLedger() throws DurableDataLogException {
+        synchronized (this.lock) {
+            if (this.standbyLedger != null) {
+                // Already provisioned.
+                return;
+            }
+        }
+
+        // Create new ledger.
+        LedgerHandle newLedger = Ledgers.create(this.bookKeeper, this.config);
+        log.debug("{}: Created standby ledger {}.", this.traceObjectId, newLedger.getId());
+
+        // Update the metadata.
+        LogMetadata metadata = updateMetadata(getLogMetadata(), newLedger, false);
+        LedgerMetadata ledgerMetadata = metadata.getLedger(newLedger.getId());
+        assert ledgerMetadata != null : "cannot find newly added ledger metadata";
+
+        boolean closed;
+        synchronized (this.lock) {
+            closed = this.closed.get();
+            if (!closed) {
+                this.standbyLedger = new WriteLedger(newLedger, ledgerMetadata);
+                this.logMetadata = metadata;
+            }
+        }
+
+        if (closed) {
+            // We got closed while doing this; close() did not know about this ledger.
+            closeLedger(newLedger);
+        } else {
+            log.info("{}: Provisioned standby ledger {} (Metadata = {}).", this.traceObjectId, newLedger.getId(), metadata);
+        }
+    }
+
     /**
      * Determines which Ledger Ids are safe to delete from BookKeeper.
      *
@@ -919,6 +989,14 @@ class BookKeeperLog implements DurableDataLog {
         this.metrics.queueStats(this.writes.getStatistics());
     }
 
+    private void closeLedger(LedgerHandle ledger) {
+        try {
+            Ledgers.close(ledger);
+        } catch (DurableDataLogException bkEx) {
+            log.error("{}: Unable to close LedgerHandle for Ledger {}.", this.traceObjectId, ledger.getId(), bkEx);
+        }
+    }
+
     private LogMetadata getLogMetadata() {
         synchronized (this.lock) {
             return this.logMetadata;
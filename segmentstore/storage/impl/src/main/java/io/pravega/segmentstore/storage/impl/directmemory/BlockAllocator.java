@@ -0,0 +1,313 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.directmemory;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.pravega.common.Exceptions;
+import io.pravega.segmentstore.storage.CacheFullException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Manages a pool of direct-memory Slabs, each divided into fixed-size Blocks, and hands out Blocks to its callers.
+ *
+ * Slabs are allocated on demand (up to the configured maximum) and are never returned to the operating system until this
+ * object is closed. A Block is identified by its Address, which is a non-negative integer that uniquely identifies its
+ * Slab and its position within that Slab. Freed Blocks are kept in a LIFO free list so that recently used (and thus
+ * likely CPU-cached or at least paged-in) Blocks are reused first.
+ */
+@Slf4j
+@ThreadSafe
+class BlockAllocator implements AutoCloseable {
+    //region Members
+
+    private static final String LOG_ID = "BlockAllocator";
+    private final int blockSize;
+    private final int blocksPerSlab;
+    private final int maxSlabCount;
+    private final AtomicReferenceArray<ByteBuffer> slabs;
+    @GuardedBy("this")
+    private int slabCount;
+    @GuardedBy("this")
+    private int[] freeBlocks;
+    @GuardedBy("this")
+    private int freeBlockCount;
+    @GuardedBy("this")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the BlockAllocator class.
+     *
+     * @param config The configuration to use.
+     */
+    BlockAllocator(DirectMemoryCacheConfig config) {
+        Preconditions.checkNotNull(config, "config");
+        this.blockSize = config.getBlockSize();
+        this.blocksPerSlab = config.getSlabSize() / config.getBlockSize();
+        this.maxSlabCount = (int) (config.getMaxSize() / config.getSlabSize());
+        this.slabs = new AtomicReferenceArray<>(this.maxSlabCount);
+        this.freeBlocks = new int[0];
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            for (int i = 0; i < this.slabCount; i++) {
+                // Direct ByteBuffers are released when they are garbage collected; the best we can do is drop our references.
+                this.slabs.set(i, null);
+            }
+
+            this.freeBlocks = new int[0];
+            this.freeBlockCount = 0;
+        }
+
+        log.info("{}: Closed.", LOG_ID);
+    }
+
+    //endregion
+
+    //region Properties
+
+    /**
+     * Gets a value indicating the size of a Block, in bytes.
+     */
+    int getBlockSize() {
+        return this.blockSize;
+    }
+
+    /**
+     * Gets a value indicating the number of bytes that are currently handed out to callers (whole Blocks).
+     */
+    synchronized long getUsedBytes() {
+        return ((long) this.slabCount * this.blocksPerSlab - this.freeBlockCount) * this.blockSize;
+    }
+
+    /**
+     * Gets a value indicating the number of bytes that have been allocated from direct memory so far.
+     */
+    synchronized long getAllocatedBytes() {
+        return (long) this.slabCount * this.blocksPerSlab * this.blockSize;
+    }
+
+    /**
+     * Gets a value indicating the maximum number of bytes that can be allocated from direct memory.
+     */
+    long getMaxBytes() {
+        return (long) this.maxSlabCount * this.blocksPerSlab * this.blockSize;
+    }
+
+    /**
+     * Gets the number of Blocks that are required in order to store the given number of bytes.
+     *
+     * @param length The number of bytes.
+     * @return The number of Blocks.
+     */
+    int getBlockCount(int length) {
+        return length / this.blockSize + (length % this.blockSize == 0 ? 0 : 1);
+    }
+
+    //endregion
+
+    //region Allocation
+
+    /**
+     * Allocates enough Blocks to store the given number of bytes.
+     *
+     * @param length The number of bytes to allocate.
+     * @return An array containing the Addresses of the allocated Blocks.
+     * @throws CacheFullException If there are not enough free Blocks and no more Slabs can be allocated.
+     */
+    int[] allocate(int length) {
+        Preconditions.checkArgument(length >= 0, "length must be a non-negative number.");
+        int blockCount = getBlockCount(length);
+        int[] result = new int[blockCount];
+        if (blockCount == 0) {
+            return result;
+        }
+
+        synchronized (this) {
+            Exceptions.checkNotClosed(this.closed, this);
+            while (this.freeBlockCount < blockCount && this.slabCount < this.maxSlabCount) {
+                allocateSlab();
+            }
+
+            if (this.freeBlockCount < blockCount) {
+                throw new CacheFullException(String.format("Unable to allocate %d bytes (%d Blocks); %d Blocks available.",
+                        length, blockCount, this.freeBlockCount));
+            }
+
+            this.freeBlockCount -= blockCount;
+            System.arraycopy(this.freeBlocks, this.freeBlockCount, result, 0, blockCount);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the given Blocks to the pool. The Blocks must have been obtained via allocate() and they must not be used
+     * after this method returns.
+     *
+     * @param blocks The Addresses of the Blocks to release.
+     */
+    void release(int[] blocks) {
+        if (blocks.length == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            if (this.closed) {
+                // Everything has already been released.
+                return;
+            }
+
+            assert this.freeBlockCount + blocks.length <= this.freeBlocks.length : "attempted to release more Blocks than allocated";
+            System.arraycopy(blocks, 0, this.freeBlocks, this.freeBlockCount, blocks.length);
+            this.freeBlockCount += blocks.length;
+        }
+    }
+
+    @GuardedBy("this")
+    private void allocateSlab() {
+        int slabId = this.slabCount;
+        this.slabs.set(slabId, ByteBuffer.allocateDirect(this.blocksPerSlab * this.blockSize));
+        this.slabCount++;
+
+        // Make room for the new Blocks in the free list and add them so that the lowest Address is handed out first.
+        this.freeBlocks = Arrays.copyOf(this.freeBlocks, this.slabCount * this.blocksPerSlab);
+        int firstAddress = slabId * this.blocksPerSlab;
+        for (int i = this.blocksPerSlab - 1; i >= 0; i--) {
+            this.freeBlocks[this.freeBlockCount++] = firstAddress + i;
+        }
+
+        log.info("{}: Allocated Slab {} ({} Blocks of {} bytes).", LOG_ID, slabId, this.blocksPerSlab, this.blockSize);
+    }
+
+    //endregion
+
+    //region Data Access
+
+    /**
+     * Copies data from the given array into the given Blocks.
+     *
+     * @param blocks The Addresses of the Blocks to write to. These must be enough to fit the given length.
+     * @param source The array to copy from.
+     * @param offset The offset within the array to start copying from.
+     * @param length The number of bytes to copy.
+     */
+    void write(int[] blocks, byte[] source, int offset, int length) {
+        assert getBlockCount(length) <= blocks.length : "not enough Blocks to write to";
+        int index = 0;
+        while (length > 0) {
+            int blockLength = Math.min(length, this.blockSize);
+            getBlock(blocks[index]).put(source, offset, blockLength);
+            offset += blockLength;
+            length -= blockLength;
+            index++;
+        }
+    }
+
+    /**
+     * Copies the readable bytes of the given ByteBuf into the given Blocks. The ByteBuf's reader index is not changed.
+     *
+     * @param blocks The Addresses of the Blocks to write to. These must be enough to fit the given length.
+     * @param source The ByteBuf to copy from.
+     * @param length The number of bytes to copy, starting at the ByteBuf's reader index.
+     */
+    void write(int[] blocks, ByteBuf source, int length) {
+        assert getBlockCount(length) <= blocks.length : "not enough Blocks to write to";
+        int sourceIndex = source.readerIndex();
+        int index = 0;
+        while (length > 0) {
+            int blockLength = Math.min(length, this.blockSize);
+            ByteBuffer block = getBlock(blocks[index]);
+            block.limit(block.position() + blockLength);
+            source.getBytes(sourceIndex, block);
+            sourceIndex += blockLength;
+            length -= blockLength;
+            index++;
+        }
+    }
+
+    /**
+     * Copies data from the given Blocks into the given array.
+     *
+     * @param blocks       The Addresses of the Blocks to read from.
+     * @param length       The number of bytes to copy, starting at the beginning of the first Block.
+     * @param target       The array to copy into.
+     * @param targetOffset The offset within the array to start copying at.
+     */
+    void read(int[] blocks, int length, byte[] target, int targetOffset) {
+        assert getBlockCount(length) <= blocks.length : "not enough Blocks to read from";
+        int index = 0;
+        while (length > 0) {
+            int blockLength = Math.min(length, this.blockSize);
+            getBlock(blocks[index]).get(target, targetOffset, blockLength);
+            targetOffset += blockLength;
+            length -= blockLength;
+            index++;
+        }
+    }
+
+    /**
+     * Gets read-only ByteBuffers that map the contents of the given Blocks, without copying any data. The contents of
+     * the returned ByteBuffers will change if the Blocks are released and handed out again, so the caller must ensure
+     * that does not happen while it is using them.
+     *
+     * @param blocks The Addresses of the Blocks to map.
+     * @param length The number of bytes to map, starting at the beginning of the first Block.
+     * @return An array of ByteBuffers, one for each Block touched by length. All but the last ByteBuffer span a whole Block.
+     */
+    ByteBuffer[] getBuffers(int[] blocks, int length) {
+        assert getBlockCount(length) <= blocks.length : "not enough Blocks to map";
+        ByteBuffer[] result = new ByteBuffer[getBlockCount(length)];
+        for (int i = 0; i < result.length; i++) {
+            ByteBuffer block = getBlock(blocks[i]);
+            int blockLength = Math.min(length, this.blockSize);
+            block.limit(block.position() + blockLength);
+            result[i] = block.asReadOnlyBuffer();
+            length -= blockLength;
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets a ByteBuffer that is positioned at the beginning of the given Block and spans the whole Block. The returned
+     * ByteBuffer is independent of any other ByteBuffer returned by this method, so it is safe to modify its position.
+     */
+    private ByteBuffer getBlock(int address) {
+        ByteBuffer slab = this.slabs.get(address / this.blocksPerSlab);
+        Exceptions.checkNotClosed(slab == null, this);
+        int position = (address % this.blocksPerSlab) * this.blockSize;
+        ByteBuffer result = slab.duplicate();
+        result.limit(position + this.blockSize).position(position);
+        return result;
+    }
+
+    //endregion
+}
@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.directmemory;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.AbstractReferenceCounted;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.pravega.common.Exceptions;
+import io.pravega.common.Timer;
+import io.pravega.common.function.Callbacks;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.storage.Cache;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache that stores its entries in direct (off-heap) memory, using Blocks handed out by a (shared) BlockAllocator.
+ *
+ * Only the index (Key to Block Addresses) is kept on the Java heap; the payloads themselves do not contribute to GC
+ * pressure. Each Entry is reference-counted: the Cache holds one reference for as long as the Entry is in the index, and
+ * every reader (get() or getBuffer()) holds another one while it accesses the Entry's Blocks. The Blocks are returned to
+ * the BlockAllocator only when the last reference is released, which means that a view returned by getBuffer() remains
+ * valid even if its Entry is removed or replaced in the meantime. The lock only protects the index itself.
+ */
+@Slf4j
+@ThreadSafe
+class DirectMemoryCache implements Cache {
+    //region Members
+
+    @Getter
+    private final String id;
+    private final String logId;
+    private final BlockAllocator allocator;
+    @GuardedBy("lock")
+    private final HashMap<Key, Entry> entries;
+    private final ReadWriteLock lock;
+    private final AtomicBoolean closed;
+    private final Consumer<String> closeCallback;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the DirectMemoryCache class.
+     *
+     * @param id            The Cache Id.
+     * @param allocator     The BlockAllocator to use for storing data.
+     * @param closeCallback A callback to invoke when the cache is closed.
+     */
+    DirectMemoryCache(String id, BlockAllocator allocator, Consumer<String> closeCallback) {
+        Exceptions.checkNotNullOrEmpty(id, "id");
+        this.id = id;
+        this.logId = String.format("DirectMemoryCache[%s]", id);
+        this.allocator = Preconditions.checkNotNull(allocator, "allocator");
+        this.closeCallback = closeCallback;
+        this.entries = new HashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.closed = new AtomicBoolean();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (this.closed.compareAndSet(false, true)) {
+            ArrayList<Entry> toRelease;
+            this.lock.writeLock().lock();
+            try {
+                toRelease = new ArrayList<>(this.entries.values());
+                this.entries.clear();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            toRelease.forEach(Entry::release);
+            log.info("{}: Closed.", this.logId);
+
+            Consumer<String> callback = this.closeCallback;
+            if (callback != null) {
+                Callbacks.invokeSafely(callback, this.id, null);
+            }
+        }
+    }
+
+    //endregion
+
+    //region Cache Implementation
+
+    @Override
+    public void insert(Key key, byte[] data) {
+        insert(key, data, 0, data.length);
+    }
+
+    @Override
+    public void insert(Key key, ByteArraySegment data) {
+        insert(key, data.array(), data.arrayOffset(), data.getLength());
+    }
+
+    @Override
+    public void insert(Key key, ByteBuf data) {
+        // Copy straight from the given ByteBuf into our Blocks; there is no need to make an intermediate copy of it.
+        int length = data.readableBytes();
+        insert(key, length, blocks -> this.allocator.write(blocks, data, length));
+    }
+
+    private void insert(Key key, byte[] data, int offset, int length) {
+        insert(key, length, blocks -> this.allocator.write(blocks, data, offset, length));
+    }
+
+    private void insert(Key key, int length, Consumer<int[]> writeBlocks) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Timer timer = new Timer();
+
+        // Allocate and copy the data outside of the lock; nobody else can see these Blocks until we publish them.
+        int[] blocks = this.allocator.allocate(length);
+        Entry oldEntry;
+        try {
+            writeBlocks.accept(blocks);
+            this.lock.writeLock().lock();
+            try {
+                Exceptions.checkNotClosed(this.closed.get(), this);
+                oldEntry = this.entries.put(key, new Entry(blocks, length));
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        } catch (Throwable ex) {
+            this.allocator.release(blocks);
+            throw ex;
+        }
+
+        if (oldEntry != null) {
+            // Any reader still accessing the old entry holds its own reference to it, so its Blocks will only be freed
+            // once they are done.
+            oldEntry.release();
+        }
+
+        DirectMemoryMetrics.insert(timer.getElapsedMillis());
+    }
+
+    @Override
+    public byte[] get(Key key) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Timer timer = new Timer();
+        byte[] result = null;
+        Entry entry = retainEntry(key);
+        if (entry != null) {
+            try {
+                result = new byte[entry.length];
+                this.allocator.read(entry.blocks, entry.length, result, 0);
+            } finally {
+                entry.release();
+            }
+        }
+
+        DirectMemoryMetrics.get(timer.getElapsedMillis());
+        return result;
+    }
+
+    @Override
+    public ByteBuf getBuffer(Key key) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Timer timer = new Timer();
+        ByteBuf result = null;
+        Entry entry = retainEntry(key);
+        if (entry != null) {
+            // The reference we just acquired is handed over to the EntryBuffer, which releases it when it is deallocated.
+            try {
+                result = new EntryBuffer(entry, wrap(entry));
+            } catch (Throwable ex) {
+                entry.release();
+                throw ex;
+            }
+        }
+
+        DirectMemoryMetrics.get(timer.getElapsedMillis());
+        return result;
+    }
+
+    @Override
+    public void remove(Key key) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Entry entry;
+        this.lock.writeLock().lock();
+        try {
+            entry = this.entries.remove(key);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+
+        if (entry != null) {
+            entry.release();
+        }
+    }
+
+    /**
+     * Gets the Entry associated with the given Key and acquires a reference to it. The caller must release that reference
+     * when done.
+     */
+    private Entry retainEntry(Key key) {
+        this.lock.readLock().lock();
+        try {
+            // While we hold the lock, the Entry is in the index and thus has at least one reference (the Cache's).
+            Entry entry = this.entries.get(key);
+            return entry == null ? null : entry.retain();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    //endregion
+
+    //region Entry
+
+    /**
+     * Reference-counted pointer to the Blocks that make up a Cache Entry. The Blocks are returned to the BlockAllocator
+     * when the last reference is released.
+     */
+    private class Entry extends AbstractReferenceCounted {
+        private final int[] blocks;
+        private final int length;
+
+        Entry(int[] blocks, int length) {
+            this.blocks = blocks;
+            this.length = length;
+        }
+
+        @Override
+        public Entry retain() {
+            super.retain();
+            return this;
+        }
+
+        @Override
+        public Entry touch(Object hint) {
+            return this;
+        }
+
+        @Override
+        protected void deallocate() {
+            DirectMemoryCache.this.allocator.release(this.blocks);
+        }
+    }
+
+    //endregion
+
+    //region EntryBuffer
+
+    /**
+     * Read-only ByteBuf that maps the Blocks of an Entry (without copying them) and holds a reference to that Entry
+     * until it is deallocated.
+     */
+    private static class EntryBuffer extends CompositeByteBuf {
+        private final Entry entry;
+
+        EntryBuffer(Entry entry, ByteBuf[] components) {
+            super(UnpooledByteBufAllocator.DEFAULT, true, Math.max(2, components.length), components);
+            this.entry = entry;
+        }
+
+        @Override
+        protected void deallocate() {
+            super.deallocate();
+            this.entry.release();
+        }
+    }
+
+    private ByteBuf[] wrap(Entry entry) {
+        ByteBuffer[] buffers = this.allocator.getBuffers(entry.blocks, entry.length);
+        ByteBuf[] result = new ByteBuf[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            result[i] = Unpooled.wrappedBuffer(buffers[i]);
+        }
+
+        return result;
+    }
+
+    //endregion
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.directmemory;
+
+import io.pravega.common.util.ConfigBuilder;
+import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.InvalidPropertyValueException;
+import io.pravega.common.util.Property;
+import io.pravega.common.util.TypedProperties;
+import lombok.Getter;
+
+/**
+ * Configuration for the Direct Memory (off-heap) Cache.
+ */
+public class DirectMemoryCacheConfig {
+    //region Config Names
+
+    public static final Property<Long> MAX_SIZE = Property.named("maxSize", 4L * 1024 * 1024 * 1024);
+    public static final Property<Integer> SLAB_SIZE = Property.named("slabSize", 16 * 1024 * 1024);
+    public static final Property<Integer> BLOCK_SIZE = Property.named("blockSize", 4 * 1024);
+    private static final String COMPONENT_CODE = "directmemorycache";
+
+    //endregion
+
+    //region Members
+
+    /**
+     * The maximum amount of direct memory (in bytes) that can be allocated by all the Caches created by the same factory.
+     * This is a hard limit; once it is reached, further insertions will fail until some entries are removed.
+     */
+    @Getter
+    private final long maxSize;
+
+    /**
+     * The size of a Slab (in bytes). Slabs are the unit of allocation from direct memory; they are allocated on demand
+     * (up to MaxSize) and are never released until the factory is closed.
+     */
+    @Getter
+    private final int slabSize;
+
+    /**
+     * The size of a Block (in bytes). Each Slab is divided into equally-sized Blocks, which are the unit of allocation
+     * for Cache Entries. Every Cache Entry will occupy a whole number of Blocks.
+     */
+    @Getter
+    private final int blockSize;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the DirectMemoryCacheConfig class.
+     *
+     * @param properties The TypedProperties object to read Properties from.
+     */
+    private DirectMemoryCacheConfig(TypedProperties properties) throws ConfigurationException {
+        this.maxSize = properties.getLong(MAX_SIZE);
+        this.slabSize = properties.getInt(SLAB_SIZE);
+        this.blockSize = properties.getInt(BLOCK_SIZE);
+        if (this.blockSize <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a positive integer.",
+                    BLOCK_SIZE, this.blockSize));
+        }
+
+        if (this.slabSize < this.blockSize || this.slabSize % this.blockSize != 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a multiple of %s (%d).",
+                    SLAB_SIZE, this.slabSize, BLOCK_SIZE, this.blockSize));
+        }
+
+        if (this.maxSize < this.slabSize) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be greater than or equal to %s (%d).",
+                    MAX_SIZE, this.maxSize, SLAB_SIZE, this.slabSize));
+        }
+
+        if (this.maxSize / this.blockSize > Integer.MAX_VALUE) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) is too large for %s (%d); at most %d Blocks can be allocated.",
+                    MAX_SIZE, this.maxSize, BLOCK_SIZE, this.blockSize, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Creates a new ConfigBuilder that can be used to create instances of this class.
+     *
+     * @return A new Builder for this class.
+     */
+    public static ConfigBuilder<DirectMemoryCacheConfig> builder() {
+        return new ConfigBuilder<>(COMPONENT_CODE, DirectMemoryCacheConfig::new);
+    }
+
+    //endregion
+}
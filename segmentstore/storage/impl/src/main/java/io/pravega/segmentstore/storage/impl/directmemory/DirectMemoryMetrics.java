@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.directmemory;
+
+import io.pravega.shared.MetricsNames;
+import io.pravega.shared.metrics.Gauge;
+import io.pravega.shared.metrics.MetricsProvider;
+import io.pravega.shared.metrics.OpStatsLogger;
+import io.pravega.shared.metrics.StatsLogger;
+
+/**
+ * Metrics for the Direct Memory Cache.
+ */
+final class DirectMemoryMetrics {
+    private static final StatsLogger STATS_LOGGER = MetricsProvider.createStatsLogger("directmemory");
+    private static final OpStatsLogger INSERT_LATENCY = STATS_LOGGER.createStats(MetricsNames.CACHE_INSERT_LATENCY);
+    private static final OpStatsLogger GET_LATENCY = STATS_LOGGER.createStats(MetricsNames.CACHE_GET_LATENCY);
+
+    static void insert(long elapsedMillis) {
+        INSERT_LATENCY.reportSuccessValue(elapsedMillis);
+    }
+
+    static void get(long elapsedMillis) {
+        GET_LATENCY.reportSuccessValue(elapsedMillis);
+    }
+
+    /**
+     * Direct memory utilization metrics for a BlockAllocator.
+     */
+    static final class Storage implements AutoCloseable {
+        private final Gauge usedBytes;
+        private final Gauge allocatedBytes;
+
+        Storage(BlockAllocator allocator) {
+            this.usedBytes = STATS_LOGGER.registerGauge(MetricsNames.CACHE_STORAGE_USED_BYTES, allocator::getUsedBytes);
+            this.allocatedBytes = STATS_LOGGER.registerGauge(MetricsNames.CACHE_STORAGE_ALLOCATED_BYTES, allocator::getAllocatedBytes);
+        }
+
+        @Override
+        public void close() {
+            this.usedBytes.close();
+            this.allocatedBytes.close();
+        }
+    }
+}
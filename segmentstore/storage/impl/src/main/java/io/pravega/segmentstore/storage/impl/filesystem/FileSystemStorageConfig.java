@@ -24,6 +24,9 @@ public class FileSystemStorageConfig {
     //region Config Names
 
     public static final Property<String> ROOT = Property.named("root", "/fs/");
+    public static final Property<Boolean> USE_MAPPED_READS = Property.named("useMappedReads", false);
+    public static final Property<Long> MAPPED_CACHE_SIZE = Property.named("mappedCacheSizeBytes", 1024 * 1024 * 1024L);
+    public static final Property<Integer> MAPPED_REGION_SIZE = Property.named("mappedRegionSizeBytes", 64 * 1024 * 1024);
     public static final String COMPONENT_CODE = "filesystem";
 
     //endregion
@@ -37,6 +40,24 @@ public class FileSystemStorageConfig {
     @Getter
     private final String root;
 
+    /**
+     * Whether to serve reads from sealed Segments using memory-mapped regions of their files.
+     */
+    @Getter
+    private final boolean useMappedReads;
+
+    /**
+     * The maximum number of bytes that may be memory-mapped at any given time.
+     */
+    @Getter
+    private final long mappedCacheSize;
+
+    /**
+     * The size of each memory-mapped region. Files are mapped in regions of this size, aligned to multiples of it.
+     */
+    @Getter
+    private final int mappedRegionSize;
+
     //endregion
 
     //region Constructor
@@ -48,6 +69,17 @@ public class FileSystemStorageConfig {
      */
     private FileSystemStorageConfig(TypedProperties properties) throws ConfigurationException {
         this.root = properties.get(ROOT);
+        this.useMappedReads = properties.getBoolean(USE_MAPPED_READS);
+        this.mappedCacheSize = properties.getLong(MAPPED_CACHE_SIZE);
+        if (this.mappedCacheSize <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAPPED_CACHE_SIZE));
+        }
+
+        this.mappedRegionSize = properties.getInt(MAPPED_REGION_SIZE);
+        if (this.mappedRegionSize <= 0 || this.mappedRegionSize > this.mappedCacheSize) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer no larger than '%s'.",
+                    MAPPED_REGION_SIZE, MAPPED_CACHE_SIZE));
+        }
     }
 
     /**
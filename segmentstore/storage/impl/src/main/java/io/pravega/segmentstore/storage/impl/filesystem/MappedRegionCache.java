@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filesystem;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A bounded cache of read-only, memory-mapped regions of Segment files.
+ *
+ * Files are mapped in fixed-size regions, aligned to multiples of the region size. The total number of bytes mapped at
+ * any given time is bounded; once exceeded, the least recently used regions are evicted. Regions for a Segment must be
+ * invalidated whenever its file may change (i.e., upon deletion, unsealing or concatenation).
+ *
+ * Evicted or invalidated regions are no longer handed out, and their mappings are released once the last outstanding
+ * reference to them goes away (which is done by the garbage collector, since explicitly unmapping a MappedByteBuffer
+ * requires internal JDK APIs and would be unsafe while a read is still in progress).
+ */
+@Slf4j
+@ThreadSafe
+class MappedRegionCache {
+    //region Members
+
+    private final long maxSize;
+    private final int regionSize;
+    @GuardedBy("regions")
+    private final LinkedHashMap<RegionKey, MappedByteBuffer> regions;
+    @GuardedBy("regions")
+    private long mappedSize;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the MappedRegionCache class.
+     *
+     * @param maxSize    The maximum number of bytes that may be mapped at any given time.
+     * @param regionSize The size of each region.
+     */
+    MappedRegionCache(long maxSize, int regionSize) {
+        Preconditions.checkArgument(regionSize > 0, "regionSize must be a positive integer.");
+        Preconditions.checkArgument(maxSize >= regionSize, "maxSize must be at least regionSize.");
+        this.maxSize = maxSize;
+        this.regionSize = regionSize;
+        this.regions = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Copies data from the given file into the given buffer, using (and mapping, if necessary) the regions that contain it.
+     * The caller must ensure that the file is not modified while this is in progress, and that the requested range is
+     * within the bounds of the file.
+     *
+     * @param segmentName  The name of the Segment the file belongs to.
+     * @param path         The path of the file.
+     * @param fileLength   The current length of the file.
+     * @param offset       The offset within the file to read at.
+     * @param buffer       The buffer to copy the data to.
+     * @param bufferOffset The offset within the buffer to copy the data at.
+     * @param length       The number of bytes to copy.
+     * @throws IOException If the file could not be mapped.
+     */
+    void read(String segmentName, Path path, long fileLength, long offset, byte[] buffer, int bufferOffset, int length) throws IOException {
+        Preconditions.checkArgument(offset >= 0 && offset + length <= fileLength, "Read range is not within the bounds of the file.");
+        while (length > 0) {
+            long regionOffset = offset - offset % this.regionSize;
+            int regionLength = (int) Math.min(this.regionSize, fileLength - regionOffset);
+            ByteBuffer region = getRegion(new RegionKey(segmentName, regionOffset), path, regionLength).duplicate();
+            region.position((int) (offset - regionOffset));
+            int bytesRead = Math.min(length, region.remaining());
+            region.get(buffer, bufferOffset, bytesRead);
+            offset += bytesRead;
+            bufferOffset += bytesRead;
+            length -= bytesRead;
+        }
+    }
+
+    /**
+     * Evicts all the regions of the given Segment.
+     *
+     * @param segmentName The name of the Segment.
+     */
+    void invalidate(String segmentName) {
+        synchronized (this.regions) {
+            Iterator<Map.Entry<RegionKey, MappedByteBuffer>> iterator = this.regions.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<RegionKey, MappedByteBuffer> e = iterator.next();
+                if (e.getKey().segmentName.equals(segmentName)) {
+                    this.mappedSize -= e.getValue().capacity();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of bytes that are currently mapped by this cache.
+     */
+    @VisibleForTesting
+    long getMappedSize() {
+        synchronized (this.regions) {
+            return this.mappedSize;
+        }
+    }
+
+    private MappedByteBuffer getRegion(RegionKey key, Path path, int regionLength) throws IOException {
+        synchronized (this.regions) {
+            MappedByteBuffer existing = this.regions.get(key);
+            if (existing != null && existing.capacity() >= regionLength) {
+                return existing;
+            }
+        }
+
+        // Either not mapped yet or the file has grown since (which is only possible for the last region of the file).
+        // Map it (outside of the lock, as this involves I/O).
+        MappedByteBuffer region;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            region = channel.map(FileChannel.MapMode.READ_ONLY, key.regionOffset, regionLength);
+        }
+
+        log.trace("Mapped region {} of {} ({} bytes).", key.regionOffset, key.segmentName, regionLength);
+        synchronized (this.regions) {
+            MappedByteBuffer existing = this.regions.get(key);
+            if (existing != null && existing.capacity() >= regionLength) {
+                // Someone else beat us to it.
+                return existing;
+            }
+
+            MappedByteBuffer replaced = this.regions.put(key, region);
+            if (replaced != null) {
+                this.mappedSize -= replaced.capacity();
+            }
+
+            this.mappedSize += region.capacity();
+            evictIfNeeded(key);
+            return region;
+        }
+    }
+
+    @GuardedBy("regions")
+    private void evictIfNeeded(RegionKey keep) {
+        Iterator<Map.Entry<RegionKey, MappedByteBuffer>> iterator = this.regions.entrySet().iterator();
+        while (this.mappedSize > this.maxSize && iterator.hasNext()) {
+            Map.Entry<RegionKey, MappedByteBuffer> e = iterator.next();
+            if (!e.getKey().equals(keep)) {
+                this.mappedSize -= e.getValue().capacity();
+                iterator.remove();
+            }
+        }
+    }
+
+    //endregion
+
+    @Data
+    private static class RegionKey {
+        private final String segmentName;
+        private final long regionOffset;
+    }
+}
@@ -10,6 +10,7 @@
 package io.pravega.segmentstore.storage.impl.rocksdb;
 
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
 import io.pravega.common.Exceptions;
 import io.pravega.common.Timer;
 import io.pravega.common.function.Callbacks;
@@ -168,6 +169,19 @@ class RocksDBCache implements Cache {
         insert(key, data.getCopy());
     }
 
+    @Override
+    public void insert(Key key, ByteBuf data) {
+        int length = data.readableBytes();
+        if (data.hasArray() && data.arrayOffset() + data.readerIndex() == 0 && data.array().length == length) {
+            // RocksDB copies the data before put() returns, so if the ByteBuf wraps an entire array, we can use it directly.
+            insert(key, data.array());
+        } else {
+            byte[] array = new byte[length];
+            data.getBytes(data.readerIndex(), array);
+            insert(key, array);
+        }
+    }
+
     @Override
     public byte[] get(Key key) {
         ensureInitializedAndNotClosed();
@@ -13,6 +13,7 @@ import io.pravega.common.ObjectClosedException;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.RetriesExhaustedException;
+import io.pravega.segmentstore.storage.DataLogInitializationException;
 import io.pravega.segmentstore.storage.DataLogNotAvailableException;
 import io.pravega.segmentstore.storage.DurableDataLog;
 import io.pravega.segmentstore.storage.DurableDataLogException;
@@ -309,6 +310,36 @@ public abstract class BookKeeperLogTests extends DurableDataLogTestBase {
         }
     }
 
+    /**
+     * Tests the ability of BookKeeperLog to provision a Standby Ledger ahead of a rollover and to use it when the rollover
+     * does happen.
+     */
+    @Test
+    public void testStandbyLedger() throws Exception {
+        TreeMap<LogAddress, byte[]> writeData = new TreeMap<>(Comparator.comparingLong(LogAddress::getSequence));
+        try (BookKeeperLog log = (BookKeeperLog) createDurableDataLog()) {
+            log.initialize(TIMEOUT);
+            int initialLedgerCount = log.loadMetadata().getLedgers().size();
+
+            // Fill up the first ledger past the standby threshold, but not enough to cause a rollover.
+            int writtenLength = appendSequentially(log, MAX_LEDGER_SIZE / 2, writeData);
+            Assert.assertTrue("Unexpected rollover.", writtenLength < MAX_LEDGER_SIZE);
+
+            // The standby ledger should be added to the metadata, without any rollover.
+            TestUtils.await(() -> getLedgerCount(log) == initialLedgerCount + 1, 10, TIMEOUT.toMillis());
+
+            // Continue writing; this should roll over into the standby ledger and then provision a new one.
+            appendSequentially(log, 2 * MAX_LEDGER_SIZE, writeData);
+            TestUtils.await(() -> getLedgerCount(log) >= initialLedgerCount + 2, 10, TIMEOUT.toMillis());
+        }
+
+        // Verify data.
+        try (DurableDataLog log = createDurableDataLog()) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+        }
+    }
+
     /**
      * Tests the ability of BookKeeperLog to automatically remove empty ledgers during initialization.
      */
@@ -368,6 +399,22 @@ public abstract class BookKeeperLogTests extends DurableDataLogTestBase {
         return THREAD_POOL_SIZE;
     }
 
+    private int appendSequentially(DurableDataLog log, int minLength, TreeMap<LogAddress, byte[]> writeData) throws Exception {
+        int writtenLength = 0;
+        while (writtenLength < minLength) {
+            byte[] data = getWriteData();
+            writeData.put(log.append(new ByteArraySegment(data), TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS), data);
+            writtenLength += data.length;
+        }
+
+        return writtenLength;
+    }
+
+    @SneakyThrows(DataLogInitializationException.class)
+    private int getLedgerCount(BookKeeperLog log) {
+        return log.loadMetadata().getLedgers().size();
+    }
+
     private static void stopFirstBookie() {
         BK_SERVICE.get().stopBookie(0);
     }
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.directmemory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.storage.Cache;
+import io.pravega.segmentstore.storage.CacheFullException;
+import io.pravega.segmentstore.storage.CacheTestBase;
+import io.pravega.test.common.AssertExtensions;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.Cleanup;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for DirectMemoryCache.
+ */
+public class DirectMemoryCacheTests extends CacheTestBase {
+    private static final int BLOCK_SIZE = 32;
+    private static final int SLAB_SIZE = BLOCK_SIZE * 1024;
+    private static final long MAX_SIZE = SLAB_SIZE * 128;
+    private static final DirectMemoryCacheConfig CONFIG = DirectMemoryCacheConfig
+            .builder()
+            .with(DirectMemoryCacheConfig.BLOCK_SIZE, BLOCK_SIZE)
+            .with(DirectMemoryCacheConfig.SLAB_SIZE, SLAB_SIZE)
+            .with(DirectMemoryCacheConfig.MAX_SIZE, MAX_SIZE)
+            .build();
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(30);
+    private final AtomicReference<DirectMemoryCacheFactory> factory = new AtomicReference<>();
+
+    @Before
+    public void setUp() {
+        this.factory.set(new DirectMemoryCacheFactory(CONFIG));
+    }
+
+    @After
+    public void tearDown() {
+        this.factory.getAndSet(null).close();
+    }
+
+    @Override
+    protected Cache createCache(String cacheId) {
+        return this.factory.get().getCache(cacheId);
+    }
+
+    /**
+     * Tests the ability to store entries that span multiple Blocks (and partial Blocks), including ByteArraySegments
+     * that do not start at the beginning of their backing array.
+     */
+    @Test
+    public void testMultiBlockEntries() {
+        @Cleanup
+        Cache cache = createCache("cache");
+        for (int length = 0; length < BLOCK_SIZE * 5; length++) {
+            byte[] data = new byte[length + 1];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) (length + i);
+            }
+
+            TestKey key = new TestKey(length);
+            cache.insert(key, new ByteArraySegment(data, 1, length));
+            byte[] expected = new ByteArraySegment(data, 1, length).getCopy();
+            Assert.assertArrayEquals("Unexpected contents for entry of length " + length, expected, cache.get(key));
+        }
+    }
+
+    /**
+     * Tests the behavior when the direct memory pool is exhausted, and that removing or overwriting entries releases
+     * the memory they used.
+     */
+    @Test
+    public void testCapacity() {
+        @Cleanup
+        Cache cache = createCache("cache");
+        DirectMemoryCacheFactory f = this.factory.get();
+        final int entrySize = SLAB_SIZE;
+        final int entryCount = (int) (MAX_SIZE / entrySize);
+        Assert.assertEquals("Unexpected utilization for empty cache.", 0, f.getStorageUtilization(), 0);
+
+        for (int i = 0; i < entryCount; i++) {
+            cache.insert(new TestKey(i), new byte[entrySize]);
+        }
+
+        Assert.assertEquals("Unexpected utilization for full cache.", 1, f.getStorageUtilization(), 0);
+        AssertExtensions.assertThrows(
+                "insert() worked when the cache was full.",
+                () -> cache.insert(new TestKey(entryCount), new byte[1]),
+                ex -> ex instanceof CacheFullException);
+
+        // Removing an entry should free up space.
+        cache.remove(new TestKey(0));
+        Assert.assertEquals("Unexpected utilization after removal.", 1 - 1.0 / entryCount, f.getStorageUtilization(), 0);
+        cache.insert(new TestKey(entryCount), new byte[entrySize / 2]);
+
+        // Overwriting an entry with a smaller one should free up space too.
+        cache.insert(new TestKey(1), new byte[entrySize / 2]);
+        Assert.assertEquals("Unexpected utilization after overwrite.", 1 - 1.0 / entryCount, f.getStorageUtilization(), 0);
+
+        for (int i = 0; i <= entryCount; i++) {
+            cache.remove(new TestKey(i));
+        }
+
+        Assert.assertEquals("Unexpected utilization after removing all entries.", 0, f.getStorageUtilization(), 0);
+    }
+
+    /**
+     * Tests that closing a Cache releases all the memory it used, without affecting other Caches from the same factory.
+     */
+    @Test
+    public void testCloseReleasesMemory() {
+        DirectMemoryCacheFactory f = this.factory.get();
+        @Cleanup
+        Cache cache1 = createCache("cache1");
+        Cache cache2 = createCache("cache2");
+        cache1.insert(new TestKey(1), new byte[SLAB_SIZE]);
+        cache2.insert(new TestKey(1), new byte[SLAB_SIZE]);
+        cache2.insert(new TestKey(2), new byte[SLAB_SIZE]);
+        Assert.assertEquals("Unexpected utilization.", 3.0 * SLAB_SIZE / MAX_SIZE, f.getStorageUtilization(), 0);
+
+        cache2.close();
+        Assert.assertEquals("Unexpected utilization after closing a Cache.", (double) SLAB_SIZE / MAX_SIZE, f.getStorageUtilization(), 0);
+        Assert.assertEquals("Unexpected contents of other Cache.", SLAB_SIZE, cache1.get(new TestKey(1)).length);
+    }
+
+    /**
+     * Tests the getBuffer() method, and verifies that the returned views remain valid (and keep their memory allocated)
+     * until released, even if the entry is removed or replaced in the meantime.
+     */
+    @Test
+    public void testGetBuffer() {
+        @Cleanup
+        Cache cache = createCache("cache");
+        DirectMemoryCacheFactory f = this.factory.get();
+        final int length = BLOCK_SIZE * 3 + 1;
+        byte[] data1 = new byte[length];
+        byte[] data2 = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data1[i] = (byte) i;
+            data2[i] = (byte) (i + 1);
+        }
+
+        TestKey key = new TestKey(1);
+        cache.insert(key, data1);
+        double utilization = f.getStorageUtilization();
+        ByteBuf buffer = cache.getBuffer(key);
+        Assert.assertTrue("Expected a direct buffer.", buffer.isDirect());
+        Assert.assertArrayEquals("Unexpected buffer contents.", data1, ByteBufUtil.getBytes(buffer));
+
+        // Overwrite the entry; the buffer should still point to the original data.
+        cache.insert(key, data2);
+        Assert.assertEquals("Replaced entry was freed while still referenced.", 2 * utilization, f.getStorageUtilization(), 0);
+        cache.remove(key);
+        cache.insert(new TestKey(2), data2);
+        Assert.assertArrayEquals("Buffer contents changed after entry was replaced and removed.", data1, ByteBufUtil.getBytes(buffer));
+
+        // Releasing the buffer should free its memory.
+        buffer.release();
+        Assert.assertEquals("Unexpected utilization after releasing buffer.", utilization, f.getStorageUtilization(), 0);
+        Assert.assertNull("Unexpected buffer for removed entry.", cache.getBuffer(key));
+    }
+
+    @RequiredArgsConstructor
+    @EqualsAndHashCode(callSuper = false)
+    private static class TestKey extends Cache.Key {
+        private final int id;
+
+        @Override
+        public byte[] serialize() {
+            return new byte[]{(byte) this.id};
+        }
+    }
+}
@@ -10,6 +10,7 @@
 package io.pravega.segmentstore.storage.impl.filesystem;
 
 import io.pravega.common.io.FileHelpers;
+import io.pravega.common.util.ConfigBuilder;
 import io.pravega.segmentstore.contracts.BadOffsetException;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
 import io.pravega.segmentstore.storage.AsyncStorageWrapper;
@@ -18,9 +19,13 @@ import io.pravega.segmentstore.storage.impl.IdempotentStorageTestBase;
 import io.pravega.segmentstore.storage.rolling.RollingStorageTestBase;
 import io.pravega.shared.metrics.MetricsConfig;
 import io.pravega.shared.metrics.MetricsProvider;
+import io.pravega.test.common.AssertExtensions;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import lombok.Cleanup;
 import lombok.val;
 import org.junit.After;
 import org.junit.Assert;
@@ -37,16 +42,15 @@ import static io.pravega.test.common.AssertExtensions.assertThrows;
 public class FileSystemStorageTest extends IdempotentStorageTestBase {
     @Rule
     public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
-    private File baseDir = null;
-    private FileSystemStorageConfig adapterConfig;
+    protected File baseDir = null;
+    protected FileSystemStorageConfig adapterConfig;
 
     @Before
     public void setUp() throws Exception {
         this.baseDir = Files.createTempDirectory("test_nfs").toFile().getAbsoluteFile();
         MetricsConfig metricsConfig = MetricsConfig.builder().with(MetricsConfig.ENABLE_STATISTICS, true).build();
         MetricsProvider.initialize(metricsConfig);
-        this.adapterConfig = FileSystemStorageConfig
-                .builder()
+        this.adapterConfig = configBuilder()
                 .with(FileSystemStorageConfig.ROOT, this.baseDir.getAbsolutePath())
                 .build();
     }
@@ -57,6 +61,10 @@ public class FileSystemStorageTest extends IdempotentStorageTestBase {
         baseDir = null;
     }
 
+    protected ConfigBuilder<FileSystemStorageConfig> configBuilder() {
+        return FileSystemStorageConfig.builder();
+    }
+
     //region Write tests with metrics checks
     /**
      * Tests the write() method.
@@ -137,6 +145,82 @@ public class FileSystemStorageTest extends IdempotentStorageTestBase {
         return new AsyncStorageWrapper(new FileSystemStorage(this.adapterConfig), executorService());
     }
 
+    //region MappedReadsTests
+
+    /**
+     * Runs all the FileSystemStorage tests with memory-mapped reads enabled.
+     */
+    public static class MappedReadsTests extends FileSystemStorageTest {
+        private static final int REGION_SIZE = 16;
+
+        @Override
+        protected ConfigBuilder<FileSystemStorageConfig> configBuilder() {
+            return FileSystemStorageConfig
+                    .builder()
+                    .with(FileSystemStorageConfig.USE_MAPPED_READS, true)
+                    .with(FileSystemStorageConfig.MAPPED_REGION_SIZE, REGION_SIZE)
+                    .with(FileSystemStorageConfig.MAPPED_CACHE_SIZE, 4L * REGION_SIZE);
+        }
+
+        /**
+         * Verifies that mapped regions of a deleted Segment are not used for a new Segment with the same name.
+         */
+        @Test
+        public void testDeleteAndRecreate() throws Exception {
+            final String segmentName = "foo_mapped";
+            @Cleanup
+            val s = new FileSystemStorage(this.adapterConfig);
+            s.initialize(DEFAULT_EPOCH);
+            for (int i = 0; i < 3; i++) {
+                byte[] data = new byte[REGION_SIZE * 3 + i];
+                Arrays.fill(data, (byte) i);
+                s.create(segmentName);
+                val writeHandle = s.openWrite(segmentName);
+                s.write(writeHandle, 0, new ByteArrayInputStream(data), data.length);
+                s.seal(writeHandle);
+
+                // Read across region boundaries.
+                byte[] readBuffer = new byte[data.length];
+                val readHandle = s.openRead(segmentName);
+                int readLength = REGION_SIZE + 1;
+                for (int offset = 0; offset < data.length; offset += readLength) {
+                    int length = Math.min(readLength, data.length - offset);
+                    Assert.assertEquals(length, s.read(readHandle, offset, readBuffer, offset, length));
+                }
+
+                Assert.assertArrayEquals("Unexpected data read for iteration " + i, data, readBuffer);
+                s.delete(writeHandle);
+            }
+        }
+
+        /**
+         * Verifies that the MappedRegionCache does not map more than allowed.
+         */
+        @Test
+        public void testMappedRegionCacheEviction() throws Exception {
+            final int maxRegions = 2;
+            File file = new File(this.baseDir, "mapped_eviction");
+            byte[] data = new byte[REGION_SIZE * 5];
+            new Random(0).nextBytes(data);
+            Files.write(file.toPath(), data);
+
+            val cache = new MappedRegionCache(maxRegions * REGION_SIZE, REGION_SIZE);
+            for (int offset = 0; offset < data.length; offset += REGION_SIZE / 2) {
+                byte[] readBuffer = new byte[REGION_SIZE];
+                int length = Math.min(readBuffer.length, data.length - offset);
+                cache.read(file.getName(), file.toPath(), data.length, offset, readBuffer, 0, length);
+                AssertExtensions.assertArrayEquals("Unexpected data read at offset " + offset,
+                        data, offset, readBuffer, 0, length);
+                AssertExtensions.assertLessThanOrEqual("Mapped more than allowed.", maxRegions * REGION_SIZE, cache.getMappedSize());
+            }
+
+            cache.invalidate(file.getName());
+            Assert.assertEquals("Not expecting anything mapped after invalidation.", 0, cache.getMappedSize());
+        }
+    }
+
+    //endregion
+
     //region RollingStorageTests
 
     /**
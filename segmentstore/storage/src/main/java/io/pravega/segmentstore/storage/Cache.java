@@ -9,6 +9,8 @@
  */
 package io.pravega.segmentstore.storage;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.pravega.common.util.ByteArraySegment;
 
 /**
@@ -36,6 +38,21 @@ public interface Cache extends AutoCloseable {
      */
     void insert(Key key, ByteArraySegment data);
 
+    /**
+     * Inserts a new entry into the cache. The Cache does not hold on to the given ByteBuf (it copies whatever it needs
+     * from it before this method returns), so the caller remains the owner of it. Its reader index is not changed.
+     *
+     * The default implementation copies the readable bytes of data into a new array and invokes insert(Key, byte[]).
+     *
+     * @param key  The the key of the entry.
+     * @param data A ByteBuf containing the payload associated with the given key (its readable bytes).
+     */
+    default void insert(Key key, ByteBuf data) {
+        byte[] array = new byte[data.readableBytes()];
+        data.getBytes(data.readerIndex(), array);
+        insert(key, array);
+    }
+
     /**
      * Retrieves a cache entry with given key.
      *
@@ -44,6 +61,24 @@ public interface Cache extends AutoCloseable {
      */
     byte[] get(Key key);
 
+    /**
+     * Retrieves a read-only view of the cache entry with given key. As opposed from get(), implementations may return
+     * a view of their own memory instead of a copy of it.
+     *
+     * The caller owns one reference to the returned ByteBuf and must release it once it no longer needs it; until then,
+     * the contents of the ByteBuf will not change, even if the entry is removed or replaced in the meantime. Failure to
+     * release it may prevent the memory backing it from being reused.
+     *
+     * The default implementation wraps the result of get().
+     *
+     * @param key The key to search by.
+     * @return A ByteBuf containing the payload associated with the key, or null if no such entry exists.
+     */
+    default ByteBuf getBuffer(Key key) {
+        byte[] data = get(key);
+        return data == null ? null : Unpooled.wrappedBuffer(data);
+    }
+
     /**
      * Removes any cache entry that is associated with the given key.
      *
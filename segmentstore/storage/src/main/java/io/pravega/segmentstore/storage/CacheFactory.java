@@ -20,6 +20,16 @@ public interface CacheFactory extends AutoCloseable {
      */
     Cache getCache(String id);
 
+    /**
+     * Gets a value representing the ratio of the total storage capacity of this CacheFactory that is currently in use by
+     * all the Caches created by it. CacheFactories that do not have a bounded storage capacity always return 0.
+     *
+     * @return The storage utilization, as a number in the interval [0, 1].
+     */
+    default double getStorageUtilization() {
+        return 0;
+    }
+
     @Override
     void close();
 }
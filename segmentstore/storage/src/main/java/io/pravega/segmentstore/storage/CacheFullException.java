@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage;
+
+/**
+ * Exception that is thrown whenever a Cache with a bounded capacity does not have enough free space to accommodate an
+ * insertion.
+ */
+public class CacheFullException extends CacheException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new instance of the CacheFullException class.
+     *
+     * @param message The message to use.
+     */
+    public CacheFullException(String message) {
+        super(message);
+    }
+}
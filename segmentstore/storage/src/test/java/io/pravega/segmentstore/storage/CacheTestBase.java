@@ -9,6 +9,9 @@
  */
 package io.pravega.segmentstore.storage;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 import lombok.Cleanup;
@@ -39,6 +42,35 @@ public abstract class CacheTestBase {
         // Populate the cache.
         forAllCombinations(key -> cache.insert(key, getData(key)));
 
+        // Retrieve from the cache.
+        forAllCombinations(key -> {
+            byte[] expectedData = getData(key);
+            byte[] actualData = cache.get(key);
+            Assert.assertArrayEquals("Unexpected cache contents after insertion.", expectedData, actualData);
+
+            ByteBuf actualBuffer = cache.getBuffer(key);
+            Assert.assertArrayEquals("Unexpected cache buffer contents after insertion.", expectedData, ByteBufUtil.getBytes(actualBuffer));
+            actualBuffer.release();
+        });
+    }
+
+    /**
+     * Tests Insert functionality with various kinds of ByteBufs (entire arrays, array slices, direct and composite).
+     */
+    @Test
+    public void testInsertBuffer() {
+        @Cleanup
+        Cache cache = createCache(CACHE_ID);
+
+        // Populate the cache.
+        forAllCombinations(key -> {
+            ByteBuf buffer = getBuffer(key);
+            int readerIndex = buffer.readerIndex();
+            cache.insert(key, buffer);
+            Assert.assertEquals("Not expecting the reader index to change.", readerIndex, buffer.readerIndex());
+            buffer.release();
+        });
+
         // Retrieve from the cache.
         forAllCombinations(key -> {
             byte[] expectedData = getData(key);
@@ -62,6 +94,7 @@ public abstract class CacheTestBase {
         forAllCombinations(key -> {
             cache.remove(key);
             Assert.assertNull("Cache still had contents after removing key.", cache.get(key));
+            Assert.assertNull("Cache still had a buffer after removing key.", cache.getBuffer(key));
         });
     }
 
@@ -95,6 +128,23 @@ public abstract class CacheTestBase {
         return key.serialize();
     }
 
+    private ByteBuf getBuffer(CacheKey key) {
+        byte[] data = getData(key);
+        switch ((int) (key.segmentId % 4)) {
+            case 0:
+                return Unpooled.wrappedBuffer(data);
+            case 1:
+                byte[] padded = new byte[data.length + 2];
+                System.arraycopy(data, 0, padded, 1, data.length);
+                return Unpooled.wrappedBuffer(padded, 1, data.length);
+            case 2:
+                return Unpooled.directBuffer(data.length).writeBytes(data);
+            default:
+                int half = data.length / 2;
+                return Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(data, 0, half), Unpooled.wrappedBuffer(data, half, data.length - half));
+        }
+    }
+
     //region CacheKey
 
     @RequiredArgsConstructor
@@ -18,6 +18,15 @@ public final class MetricsNames {
     public static final String SEGMENT_READ_BYTES = "segmentstore.segment_read_bytes";            // Dynamic Counter
     public static final String SEGMENT_WRITE_BYTES = "segmentstore.segment_write_bytes";          // Dynamic Counter
     public static final String SEGMENT_WRITE_EVENTS = "segmentstore.segment_write_events";        // Dynamic Counter
+    public static final String SEGMENT_CACHE_HIT_BYTES = "segmentstore.segment_cache_hit_bytes";          // Dynamic Counter
+    public static final String SEGMENT_CACHE_MISS_BYTES = "segmentstore.segment_cache_miss_bytes";        // Dynamic Counter
+    public static final String SEGMENT_CACHE_EVICTED_BYTES = "segmentstore.segment_cache_evicted_bytes";  // Dynamic Counter
+
+    // Connection listener stats
+    public static final String CONNECTION_COUNT = "segmentstore.connection_count";                            // Gauge
+    public static final String CONNECTION_PENDING_OUTBOUND_BYTES = "segmentstore.connection_pending_outbound_bytes"; // Histogram
+    public static final String CONNECTION_TOTAL_PENDING_OUTBOUND_BYTES = "segmentstore.connection_total_pending_outbound_bytes"; // Gauge
+    public static final String EVENT_LOOP_TASK_LATENCY = "segmentstore.event_loop_task_latency_ms";           // Timer
 
     //storage stats
     public static final String STORAGE_READ_LATENCY = "tier2_read_latency_ms";   // Timer
@@ -28,6 +37,8 @@ public final class MetricsNames {
     //Cache (RocksDB) stats
     public static final String CACHE_INSERT_LATENCY = "cache_insert_latency";
     public static final String CACHE_GET_LATENCY = "cache_get_latency";
+    public static final String CACHE_STORAGE_USED_BYTES = "cache_storage_used_bytes";             // Gauge
+    public static final String CACHE_STORAGE_ALLOCATED_BYTES = "cache_storage_allocated_bytes";   // Gauge
 
     //DurableDataLog (Tier1) stats
     public static final String BK_TOTAL_WRITE_LATENCY = "bookkeeper_total_write_latency"; // Including Queue
@@ -61,6 +72,10 @@ public final class MetricsNames {
     public static final String OPERATION_COMMIT_MEMORY_LATENCY = "operation_commit_memory_latency_ms";
     public static final String OPERATION_LOG_SIZE = "operation_log_size";
     public static final String ACTIVE_SEGMENT_COUNT = "active_segments";
+    public static final String CONTAINER_RECOVERY_LATENCY = "container_recovery_latency_ms";          // Timer
+    public static final String CONTAINER_RECOVERY_DATA_FRAMES = "container_recovery_data_frames";    // Dynamic Gauge
+    public static final String CONTAINER_RECOVERY_OPERATIONS = "container_recovery_operations";      // Dynamic Gauge
+    public static final String CONTAINER_RECOVERY_BYTES = "container_recovery_bytes";                // Dynamic Gauge
 
     // General metrics
     public static final String CACHE_TOTAL_SIZE_BYTES = "cache_size_bytes";
@@ -74,6 +89,11 @@ public final class MetricsNames {
     public static final String SEAL_STREAM = "stream_sealed";       // Histogram
     public static final String DELETE_STREAM = "stream_deleted";    // Histogram
 
+    // Stream metadata cache (Static)
+    public static final String METADATA_CACHE_HITS = "metadata_cache_hits";     // Counter
+    public static final String METADATA_CACHE_MISSES = "metadata_cache_misses"; // Counter
+    public static final String METADATA_CACHE_SIZE = "metadata_cache_size";     // Gauge
+
     // Transaction request Operations (Dynamic)
     public static final String CREATE_TRANSACTION = "controller.transactions_created";   // Dynamic Counter
     public static final String COMMIT_TRANSACTION = "controller.transactions_committed"; // Dynamic Counter
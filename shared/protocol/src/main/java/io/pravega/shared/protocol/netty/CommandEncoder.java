@@ -22,6 +22,8 @@ import io.pravega.shared.protocol.netty.WireCommands.Event;
 import io.pravega.shared.protocol.netty.WireCommands.Flush;
 import io.pravega.shared.protocol.netty.WireCommands.Padding;
 import io.pravega.shared.protocol.netty.WireCommands.PartialEvent;
+import io.pravega.shared.protocol.netty.WireCommands.ReleaseWriter;
+import io.pravega.shared.protocol.netty.WireCommands.RemoveWriter;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
@@ -30,6 +32,7 @@ import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -63,33 +66,62 @@ import static io.pravega.shared.protocol.netty.WireCommands.TYPE_SIZE;
  * need to be parsed out of individual messages. Notably this includes the event number of the last
  * event in the block, so that it can be acknowledged.
  *
+ * Appends are tracked per writer (not per segment), so any number of writers (including several for the same
+ * segment) may share a connection. The size of each writer's blocks is decided by that writer's AppendBatchSizeTracker.
+ * A writer's state is held until it is removed with a RemoveWriter (or, for servers that do not support it, a local-only
+ * ReleaseWriter).
  */
 @NotThreadSafe
-@RequiredArgsConstructor
 @Slf4j
 public class CommandEncoder extends MessageToByteEncoder<Object> {
     private static final byte[] LENGTH_PLACEHOLDER = new byte[4];
 
-    private final AppendBatchSizeTracker blockSizeSupplier;
-    private final HashMap<String, Session> setupSegments = new HashMap<>();
-    private String segmentBeingAppendedTo;
+    private final Function<UUID, AppendBatchSizeTracker> blockSizeSuppliers;
+    private final HashMap<UUID, Session> setupWriters = new HashMap<>();
+    private UUID writerBeingAppendedTo;
     private int currentBlockSize;
     private int bytesLeftInBlock;
 
     @Data
     private static final class Session {
         private final UUID id;
+        private final String segment;
         private long lastEventNumber = -1L;
         private int eventCount;
     }
 
+    /**
+     * Creates a new instance of the CommandEncoder class that uses the same AppendBatchSizeTracker for all writers.
+     *
+     * @param blockSizeSupplier The AppendBatchSizeTracker to use.
+     */
+    public CommandEncoder(AppendBatchSizeTracker blockSizeSupplier) {
+        this.blockSizeSuppliers = writerId -> blockSizeSupplier;
+    }
+
+    private CommandEncoder(Function<UUID, AppendBatchSizeTracker> blockSizeSuppliers) {
+        this.blockSizeSuppliers = Preconditions.checkNotNull(blockSizeSuppliers, "blockSizeSuppliers");
+    }
+
+    /**
+     * Creates a new instance of the CommandEncoder class that uses a separate AppendBatchSizeTracker for each writer.
+     *
+     * @param blockSizeSuppliers A function that returns the AppendBatchSizeTracker to use for a writer, given its id.
+     *                           It is invoked whenever a block is started for the writer (rather than once, when it
+     *                           is set up), so that the trackers are not retained by this encoder.
+     * @return The CommandEncoder.
+     */
+    public static CommandEncoder perWriter(Function<UUID, AppendBatchSizeTracker> blockSizeSuppliers) {
+        return new CommandEncoder(blockSizeSuppliers);
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
         log.trace("Encoding message to send over the wire {}", msg);
         if (msg instanceof Append) {
             Append append = (Append) msg;
-            Session session = setupSegments.get(append.segment);
-            if (session == null || !session.id.equals(append.getWriterId())) {
+            Session session = setupWriters.get(append.getWriterId());
+            if (session == null || !session.segment.equals(append.getSegment())) {
                 throw new InvalidMessageException("Sending appends without setting up the append.");
             }
             if (append.getEventNumber() <= session.lastEventNumber) {
@@ -106,13 +138,14 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
             } else {
                 Preconditions.checkState(bytesLeftInBlock == 0 || bytesLeftInBlock > TYPE_PLUS_LENGTH_SIZE,
                         "Bug in CommandEncoder.encode, block is too small.");
-                if (append.segment != segmentBeingAppendedTo) {
+                if (!session.id.equals(writerBeingAppendedTo)) {
                     breakFromAppend(out);
                 }
                 if (bytesLeftInBlock == 0) {
+                    AppendBatchSizeTracker blockSizeSupplier = blockSizeSuppliers.apply(session.id);
                     currentBlockSize = Math.max(TYPE_PLUS_LENGTH_SIZE, blockSizeSupplier.getAppendBlockSize());
                     bytesLeftInBlock = currentBlockSize;
-                    segmentBeingAppendedTo = append.segment;
+                    writerBeingAppendedTo = session.id;
                     writeMessage(new AppendBlock(session.id), out);
                     if (ctx != null) {
                         ctx.executor().schedule(new Flusher(ctx.channel(), currentBlockSize),
@@ -152,7 +185,14 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
             breakFromAppend(out);
             writeMessage((SetupAppend) msg, out);
             SetupAppend setup = (SetupAppend) msg;
-            setupSegments.put(setup.getSegment(), new Session(setup.getWriterId()));
+            setupWriters.put(setup.getWriterId(), new Session(setup.getWriterId(), setup.getSegment()));
+        } else if (msg instanceof RemoveWriter) {
+            RemoveWriter remove = (RemoveWriter) msg;
+            removeSession(remove.getWriterId(), remove.getSegment(), out);
+            writeMessage(remove, out);
+        } else if (msg instanceof ReleaseWriter) {
+            ReleaseWriter release = (ReleaseWriter) msg;
+            removeSession(release.getWriterId(), release.getSegment(), out);
         } else if (msg instanceof Flush) {
             Flush flush = (Flush) msg;
             if (currentBlockSize == flush.getBlockSize()) {
@@ -166,10 +206,20 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
         }
     }
 
+    private void removeSession(UUID writerId, String segment, ByteBuf out) {
+        Session session = setupWriters.get(writerId);
+        if (session != null && session.segment.equals(segment)) {
+            if (writerId.equals(writerBeingAppendedTo)) {
+                breakFromAppend(out);
+            }
+            setupWriters.remove(writerId);
+        }
+    }
+
     private void breakFromAppend(ByteBuf out) {
         if (bytesLeftInBlock != 0) {
             writeMessage(new Padding(bytesLeftInBlock - TYPE_PLUS_LENGTH_SIZE), out);
-            Session session = setupSegments.get(segmentBeingAppendedTo);
+            Session session = setupWriters.get(writerBeingAppendedTo);
             writeMessage(new AppendBlockEnd(session.id,
                     currentBlockSize - bytesLeftInBlock,
                     null,
@@ -179,7 +229,7 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
             currentBlockSize = 0;
             session.eventCount = 0;
         }
-        segmentBeingAppendedTo = null;
+        writerBeingAppendedTo = null;
     }
 
     @SneakyThrows(IOException.class)
@@ -63,6 +63,11 @@ public abstract class DelegatingReplyProcessor implements ReplyProcessor {
     public void segmentRead(WireCommands.SegmentRead data) {
         getNextReplyProcessor().segmentRead(data);
     }
+
+    @Override
+    public void segmentsRead(WireCommands.SegmentsRead segmentsRead) {
+        getNextReplyProcessor().segmentsRead(segmentsRead);
+    }
     
     @Override
     public void segmentAttributeUpdated(WireCommands.SegmentAttributeUpdated segmentAttributeUpdated) {
@@ -10,13 +10,19 @@
 package io.pravega.shared.protocol.netty;
 
 import io.pravega.shared.protocol.netty.WireCommands.MergeSegments;
+import io.pravega.shared.protocol.netty.WireCommands.MergeSegmentsBatch;
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.CreateSegments;
 import io.pravega.shared.protocol.netty.WireCommands.DeleteSegment;
+import io.pravega.shared.protocol.netty.WireCommands.DeleteSegments;
 import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
 import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
+import io.pravega.shared.protocol.netty.WireCommands.ReadSegments;
+import io.pravega.shared.protocol.netty.WireCommands.RemoveWriter;
 import io.pravega.shared.protocol.netty.WireCommands.SealSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SealSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.TruncateSegment;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentAttribute;
@@ -35,6 +41,11 @@ public abstract class DelegatingRequestProcessor implements RequestProcessor {
         getNextRequestProcessor().setupAppend(setupAppend);
     }
 
+    @Override
+    public void removeWriter(RemoveWriter removeWriter) {
+        getNextRequestProcessor().removeWriter(removeWriter);
+    }
+
     @Override
     public void append(Append append) {
         getNextRequestProcessor().append(append);
@@ -45,6 +56,11 @@ public abstract class DelegatingRequestProcessor implements RequestProcessor {
         getNextRequestProcessor().readSegment(readSegment);
     }
 
+    @Override
+    public void readSegments(ReadSegments readSegments) {
+        getNextRequestProcessor().readSegments(readSegments);
+    }
+
     @Override
     public void updateSegmentAttribute(UpdateSegmentAttribute updateSegmentAttribute) {
         getNextRequestProcessor().updateSegmentAttribute(updateSegmentAttribute);
@@ -65,6 +81,11 @@ public abstract class DelegatingRequestProcessor implements RequestProcessor {
         getNextRequestProcessor().createSegment(createStreamsSegment);
     }
 
+    @Override
+    public void createSegments(CreateSegments createSegments) {
+        getNextRequestProcessor().createSegments(createSegments);
+    }
+
     @Override
     public void updateSegmentPolicy(UpdateSegmentPolicy updateSegmentPolicy) {
         getNextRequestProcessor().updateSegmentPolicy(updateSegmentPolicy);
@@ -75,11 +96,21 @@ public abstract class DelegatingRequestProcessor implements RequestProcessor {
         getNextRequestProcessor().mergeSegments(mergeSegments);
     }
 
+    @Override
+    public void mergeSegmentsBatch(MergeSegmentsBatch mergeSegmentsBatch) {
+        getNextRequestProcessor().mergeSegmentsBatch(mergeSegmentsBatch);
+    }
+
     @Override
     public void sealSegment(SealSegment sealSegment) {
         getNextRequestProcessor().sealSegment(sealSegment);
     }
 
+    @Override
+    public void sealSegments(SealSegments sealSegments) {
+        getNextRequestProcessor().sealSegments(sealSegments);
+    }
+
     @Override
     public void truncateSegment(TruncateSegment truncateSegment) {
         getNextRequestProcessor().truncateSegment(truncateSegment);
@@ -90,6 +121,11 @@ public abstract class DelegatingRequestProcessor implements RequestProcessor {
         getNextRequestProcessor().deleteSegment(deleteSegment);
     }
 
+    @Override
+    public void deleteSegments(DeleteSegments deleteSegments) {
+        getNextRequestProcessor().deleteSegments(deleteSegments);
+    }
+
     @Override
     public void keepAlive(KeepAlive keepAlive) {
         getNextRequestProcessor().keepAlive(keepAlive);
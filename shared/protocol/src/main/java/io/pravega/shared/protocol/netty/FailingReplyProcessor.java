@@ -103,6 +103,11 @@ public abstract class FailingReplyProcessor implements ReplyProcessor {
     public void segmentRead(SegmentRead data) {
         throw new IllegalStateException("Unexpected operation: " + data);
     }
+
+    @Override
+    public void segmentsRead(WireCommands.SegmentsRead segmentsRead) {
+        throw new IllegalStateException("Unexpected operation: " + segmentsRead);
+    }
     
     @Override
     public void segmentAttributeUpdated(WireCommands.SegmentAttributeUpdated segmentAttributeUpdated) {
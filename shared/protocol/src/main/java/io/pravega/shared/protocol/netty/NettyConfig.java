@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+import com.google.common.base.Preconditions;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import java.io.Serializable;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Tuning parameters for the Netty event loops, allocators and channels used by the client and the Segment Store.
+ * A value of 0 for any of the thread count, arena count or socket buffer sizes means that Netty's (or the operating
+ * system's) default is used.
+ */
+@Data
+@Builder
+public class NettyConfig implements Serializable {
+    public static final NettyConfig DEFAULT = NettyConfig.builder().build();
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number of event loop threads (which handle all the IO for all the channels).
+     */
+    private final int eventLoopThreads;
+
+    /**
+     * The number of arenas (both heap and direct) for a dedicated pooled ByteBuf allocator. If 0, the Netty default
+     * allocator is used instead.
+     */
+    private final int allocatorArenas;
+
+    /**
+     * Once the number of bytes waiting to be written to a channel exceeds the high water mark, the channel becomes
+     * unwritable until that number falls below the low water mark.
+     */
+    private final int writeBufferLowWaterMark;
+    private final int writeBufferHighWaterMark;
+
+    /**
+     * TCP socket options.
+     */
+    private final boolean tcpNoDelay;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
+
+    /**
+     * The maximum number of incoming connections waiting to be accepted (only applies to servers).
+     */
+    private final int backlog;
+
+    public static final class NettyConfigBuilder {
+        private int writeBufferLowWaterMark = WriteBufferWaterMark.DEFAULT.low();
+        private int writeBufferHighWaterMark = WriteBufferWaterMark.DEFAULT.high();
+        private boolean tcpNoDelay = true;
+        private int backlog = 100;
+
+        public NettyConfig build() {
+            Preconditions.checkArgument(eventLoopThreads >= 0, "eventLoopThreads must be a non-negative integer.");
+            Preconditions.checkArgument(allocatorArenas >= 0, "allocatorArenas must be a non-negative integer.");
+            Preconditions.checkArgument(writeBufferLowWaterMark >= 0 && writeBufferLowWaterMark <= writeBufferHighWaterMark,
+                    "writeBufferLowWaterMark must be a non-negative integer no larger than writeBufferHighWaterMark.");
+            Preconditions.checkArgument(sendBufferSize >= 0, "sendBufferSize must be a non-negative integer.");
+            Preconditions.checkArgument(receiveBufferSize >= 0, "receiveBufferSize must be a non-negative integer.");
+            Preconditions.checkArgument(backlog > 0, "backlog must be a positive integer.");
+            return new NettyConfig(eventLoopThreads, allocatorArenas, writeBufferLowWaterMark, writeBufferHighWaterMark,
+                    tcpNoDelay, sendBufferSize, receiveBufferSize, backlog);
+        }
+    }
+
+    /**
+     * Creates the ByteBufAllocator to use for the channels. As allocators with dedicated arenas are expensive, this
+     * should be invoked once and the result shared between all channels.
+     *
+     * @return The allocator.
+     */
+    public ByteBufAllocator createAllocator() {
+        if (allocatorArenas == 0) {
+            return ByteBufAllocator.DEFAULT;
+        }
+        return new PooledByteBufAllocator(true, allocatorArenas, allocatorArenas, PooledByteBufAllocator.defaultPageSize(),
+                PooledByteBufAllocator.defaultMaxOrder());
+    }
+
+    /**
+     * Applies the channel options to the (client) channels created by the given Bootstrap.
+     *
+     * @param bootstrap The Bootstrap.
+     * @param allocator The allocator to use (see {@link #createAllocator()}).
+     */
+    public void applyTo(Bootstrap bootstrap, ByteBufAllocator allocator) {
+        bootstrap.option(ChannelOption.ALLOCATOR, allocator)
+                 .option(ChannelOption.WRITE_BUFFER_WATER_MARK, getWriteBufferWaterMark())
+                 .option(ChannelOption.TCP_NODELAY, tcpNoDelay);
+        if (sendBufferSize > 0) {
+            bootstrap.option(ChannelOption.SO_SNDBUF, sendBufferSize);
+        }
+        if (receiveBufferSize > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+        }
+    }
+
+    /**
+     * Applies the server channel options to the given ServerBootstrap, and the channel options to its (accepted) child
+     * channels.
+     *
+     * @param bootstrap The ServerBootstrap.
+     * @param allocator The allocator to use (see {@link #createAllocator()}).
+     */
+    public void applyTo(ServerBootstrap bootstrap, ByteBufAllocator allocator) {
+        bootstrap.option(ChannelOption.SO_BACKLOG, backlog)
+                 .option(ChannelOption.ALLOCATOR, allocator)
+                 .childOption(ChannelOption.ALLOCATOR, allocator)
+                 .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, getWriteBufferWaterMark())
+                 .childOption(ChannelOption.TCP_NODELAY, tcpNoDelay);
+        if (sendBufferSize > 0) {
+            bootstrap.childOption(ChannelOption.SO_SNDBUF, sendBufferSize);
+        }
+        if (receiveBufferSize > 0) {
+            bootstrap.childOption(ChannelOption.SO_RCVBUF, receiveBufferSize);
+        }
+    }
+
+    private WriteBufferWaterMark getWriteBufferWaterMark() {
+        return new WriteBufferWaterMark(writeBufferLowWaterMark, writeBufferHighWaterMark);
+    }
+}
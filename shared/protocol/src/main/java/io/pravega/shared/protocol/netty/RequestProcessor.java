@@ -10,14 +10,20 @@
 package io.pravega.shared.protocol.netty;
 
 import io.pravega.shared.protocol.netty.WireCommands.MergeSegments;
+import io.pravega.shared.protocol.netty.WireCommands.MergeSegmentsBatch;
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.CreateSegments;
 import io.pravega.shared.protocol.netty.WireCommands.DeleteSegment;
+import io.pravega.shared.protocol.netty.WireCommands.DeleteSegments;
 import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
 import io.pravega.shared.protocol.netty.WireCommands.Hello;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
 import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
+import io.pravega.shared.protocol.netty.WireCommands.ReadSegments;
+import io.pravega.shared.protocol.netty.WireCommands.RemoveWriter;
 import io.pravega.shared.protocol.netty.WireCommands.SealSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SealSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.TruncateSegment;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentAttribute;
@@ -33,7 +39,11 @@ public interface RequestProcessor {
 
     void append(Append append);
 
+    void removeWriter(RemoveWriter removeWriter);
+
     void readSegment(ReadSegment readSegment);
+
+    void readSegments(ReadSegments readSegments);
     
     void updateSegmentAttribute(UpdateSegmentAttribute updateSegmentAttribute);
     
@@ -43,14 +53,22 @@ public interface RequestProcessor {
 
     void createSegment(CreateSegment createSegment);
 
+    void createSegments(CreateSegments createSegments);
+
     void mergeSegments(MergeSegments mergeSegments);
 
+    void mergeSegmentsBatch(MergeSegmentsBatch mergeSegmentsBatch);
+
     void sealSegment(SealSegment sealSegment);
 
+    void sealSegments(SealSegments sealSegments);
+
     void truncateSegment(TruncateSegment truncateSegment);
 
     void deleteSegment(DeleteSegment deleteSegment);
 
+    void deleteSegments(DeleteSegments deleteSegments);
+
     void keepAlive(KeepAlive keepAlive);
 
     void updateSegmentPolicy(UpdateSegmentPolicy updateSegmentPolicy);
@@ -42,6 +42,9 @@ public enum WireCommandType {
     READ_SEGMENT(9, WireCommands.ReadSegment::readFrom),
     SEGMENT_READ(10, WireCommands.SegmentRead::readFrom),
 
+    READ_SEGMENTS(13, WireCommands.ReadSegments::readFrom),
+    SEGMENTS_READ(14, WireCommands.SegmentsRead::readFrom),
+
     GET_STREAM_SEGMENT_INFO(11, WireCommands.GetStreamSegmentInfo::readFrom),
     STREAM_SEGMENT_INFO(12, WireCommands.StreamSegmentInfo::readFrom),
     
@@ -79,6 +82,12 @@ public enum WireCommandType {
 
     AUTH_TOKEN_CHECK_FAILED(60, WireCommands.AuthTokenCheckFailed::readFrom),
 
+    CREATE_SEGMENTS(61, WireCommands.CreateSegments::readFrom),
+    SEAL_SEGMENTS(62, WireCommands.SealSegments::readFrom),
+    DELETE_SEGMENTS(63, WireCommands.DeleteSegments::readFrom),
+    MERGE_SEGMENTS_BATCH(64, WireCommands.MergeSegmentsBatch::readFrom),
+    REMOVE_WRITER(65, WireCommands.RemoveWriter::readFrom),
+
     KEEP_ALIVE(100, WireCommands.KeepAlive::readFrom);
 
     private final int code;
@@ -12,6 +12,7 @@ package io.pravega.shared.protocol.netty;
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.CorruptedFrameException;
 import java.io.DataInput;
@@ -20,8 +21,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import lombok.Data;
@@ -33,7 +36,8 @@ import static io.netty.buffer.Unpooled.wrappedBuffer;
  * The complete list of all commands that go over the wire between clients and the server.
  * Each command is self-contained providing both it's serialization and deserialization logic.
  * Commands are not nested and contain only primitive types. The types are serialized in the obvious
- * way using Java's DataOutput and DataInput. All data is written BigEndian.
+ * way using Java's DataOutput and DataInput. All data is written BigEndian. (The only exceptions are the
+ * batched read commands, which carry a list of the fields of the corresponding single-segment commands.)
  *
  * Because length and type are detected externally these are not necessary for the classes to
  * supply.
@@ -43,11 +47,26 @@ import static io.netty.buffer.Unpooled.wrappedBuffer;
  * Incompatible changes should instead create a new WireCommand object.
  */
 public final class WireCommands {
-    public static final int WIRE_VERSION = 5;
+    public static final int WIRE_VERSION = 8;
     public static final int OLDEST_COMPATIBLE_VERSION = 5;
     public static final int TYPE_SIZE = 4;
     public static final int TYPE_PLUS_LENGTH_SIZE = 8;
     public static final int MAX_WIRECOMMAND_SIZE = 0x007FFFFF; // 8MB
+    /**
+     * The first wire version that supports {@link ReadSegments} and {@link SegmentsRead}.
+     */
+    public static final int READ_SEGMENTS_VERSION = 6;
+    /**
+     * The first wire version that supports {@link CreateSegments}, {@link SealSegments}, {@link DeleteSegments} and
+     * {@link MergeSegmentsBatch}.
+     * Older servers close the connection upon receiving any of them, so they are only sent to newer ones.
+     */
+    public static final int BATCH_SEGMENT_RPCS_VERSION = 7;
+    /**
+     * The first wire version that supports {@link RemoveWriter}.
+     * Older servers close the connection upon receiving it, so it is only sent to newer ones.
+     */
+    public static final int WRITER_REMOVAL_VERSION = 8;
     
     public static final long NULL_ATTRIBUTE_VALUE = Long.MIN_VALUE; //This is the same as Attributes.NULL_ATTRIBUTE_VALUE
     
@@ -441,6 +460,40 @@ public final class WireCommands {
         }
     }
 
+    /**
+     * Tells the server that a writer previously set up with {@link SetupAppend} is done with the given segment, so
+     * that any state held for it on the connection can be released. The client only sends this once all of the writer's
+     * appends have been acknowledged (or failed), and does not set the writer up again on the same connection
+     * before then.
+     */
+    @Data
+    public static final class RemoveWriter implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.REMOVE_WRITER;
+        final long requestId;
+        final UUID writerId;
+        final String segment;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.removeWriter(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeLong(writerId.getMostSignificantBits());
+            out.writeLong(writerId.getLeastSignificantBits());
+            out.writeUTF(segment);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            UUID uuid = new UUID(in.readLong(), in.readLong());
+            String segment = in.readUTF();
+            return new RemoveWriter(requestId, uuid, segment);
+        }
+    }
+
     @Data
     public static final class AppendBlock implements WireCommand {
         final WireCommandType type = WireCommandType.APPEND_BLOCK;
@@ -709,7 +762,16 @@ public final class WireCommands {
             out.writeBoolean(endOfSegment);
             int dataLength = data.remaining();
             out.writeInt(dataLength);
-            out.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            if (data.hasArray()) {
+                out.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            } else if (out instanceof ByteBufOutputStream) {
+                // Direct buffer: copy it straight into the target ByteBuf, without going through the heap.
+                ((ByteBufOutputStream) out).buffer().writeBytes(data.duplicate());
+            } else {
+                byte[] array = new byte[dataLength];
+                data.duplicate().get(array);
+                out.write(array);
+            }
         }
 
         public static WireCommand readFrom(DataInput in, int length) throws IOException {
@@ -732,6 +794,82 @@ public final class WireCommands {
         }
     }
 
+    /**
+     * Reads from multiple Segments (which are expected to be owned by the same Segment Store) using a single request.
+     * Reads that can be served immediately are returned together in a {@link SegmentsRead} reply with the same request
+     * id; every other read is replied to individually, exactly as if it had been sent as a standalone {@link ReadSegment}.
+     */
+    @Data
+    public static final class ReadSegments implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.READ_SEGMENTS;
+        final long requestId;
+        final List<ReadSegment> reads;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.readSegments(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeInt(reads.size());
+            for (ReadSegment read : reads) {
+                read.writeFields(out);
+            }
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            int count = in.readInt();
+            if (count < 0 || count > length) {
+                throw new CorruptedFrameException("Invalid number of reads: " + count);
+            }
+            List<ReadSegment> reads = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                reads.add((ReadSegment) ReadSegment.readFrom(in, length));
+            }
+            return new ReadSegments(requestId, reads);
+        }
+    }
+
+    /**
+     * The combined reply to a {@link ReadSegments} request.
+     */
+    @Data
+    public static final class SegmentsRead implements Reply, WireCommand {
+        final WireCommandType type = WireCommandType.SEGMENTS_READ;
+        final long requestId;
+        final List<SegmentRead> reads;
+
+        @Override
+        public void process(ReplyProcessor cp) {
+            cp.segmentsRead(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeInt(reads.size());
+            for (SegmentRead read : reads) {
+                read.writeFields(out);
+            }
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            int count = in.readInt();
+            if (count < 0 || count > length) {
+                throw new CorruptedFrameException("Invalid number of reads: " + count);
+            }
+            List<SegmentRead> reads = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                reads.add((SegmentRead) SegmentRead.readFrom(in, length));
+            }
+            return new SegmentsRead(requestId, reads);
+        }
+    }
+
     @Data
     public static final class GetSegmentAttribute implements Request, WireCommand {
         final WireCommandType type = WireCommandType.GET_SEGMENT_ATTRIBUTE;
@@ -984,6 +1122,45 @@ public final class WireCommands {
         }
     }
 
+    /**
+     * Creates multiple Segments (which are expected to be owned by the same Segment Store) using a single request. Each of
+     * the contained {@link CreateSegment} requests is replied to individually, exactly as if it had been sent on its own
+     * (so each should have its own request id).
+     */
+    @Data
+    public static final class CreateSegments implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.CREATE_SEGMENTS;
+        final long requestId;
+        final List<CreateSegment> segments;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.createSegments(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeInt(segments.size());
+            for (CreateSegment request : segments) {
+                request.writeFields(out);
+            }
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            int count = in.readInt();
+            if (count < 0 || count > length) {
+                throw new CorruptedFrameException("Invalid number of segments: " + count);
+            }
+            List<CreateSegment> segments = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                segments.add((CreateSegment) CreateSegment.readFrom(in, length));
+            }
+            return new CreateSegments(requestId, segments);
+        }
+    }
+
     @Data
     public static final class UpdateSegmentPolicy implements Request, WireCommand {
 
@@ -1073,6 +1250,46 @@ public final class WireCommands {
         }
     }
 
+    /**
+     * Merges multiple Segments using a single request. The merges into the same target Segment are applied in the order
+     * in which they appear in the batch, each one once the previous one has completed, so that (for instance) a batch of
+     * Transactions is committed into their parent Segment in order. Each of the contained {@link MergeSegments} requests
+     * is replied to individually. See {@link CreateSegments}.
+     */
+    @Data
+    public static final class MergeSegmentsBatch implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.MERGE_SEGMENTS_BATCH;
+        final long requestId;
+        final List<MergeSegments> merges;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.mergeSegmentsBatch(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeInt(merges.size());
+            for (MergeSegments request : merges) {
+                request.writeFields(out);
+            }
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            int count = in.readInt();
+            if (count < 0 || count > length) {
+                throw new CorruptedFrameException("Invalid number of merges: " + count);
+            }
+            List<MergeSegments> merges = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                merges.add((MergeSegments) MergeSegments.readFrom(in, length));
+            }
+            return new MergeSegmentsBatch(requestId, merges);
+        }
+    }
+
     @Data
     public static final class SegmentsMerged implements Reply, WireCommand {
         final WireCommandType type = WireCommandType.SEGMENTS_MERGED;
@@ -1151,6 +1368,43 @@ public final class WireCommands {
         }
     }
 
+    /**
+     * Seals multiple Segments using a single request. See {@link CreateSegments}.
+     */
+    @Data
+    public static final class SealSegments implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.SEAL_SEGMENTS;
+        final long requestId;
+        final List<SealSegment> segments;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.sealSegments(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeInt(segments.size());
+            for (SealSegment request : segments) {
+                request.writeFields(out);
+            }
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            int count = in.readInt();
+            if (count < 0 || count > length) {
+                throw new CorruptedFrameException("Invalid number of segments: " + count);
+            }
+            List<SealSegment> segments = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                segments.add((SealSegment) SealSegment.readFrom(in, length));
+            }
+            return new SealSegments(requestId, segments);
+        }
+    }
+
     @Data
     public static final class TruncateSegment implements Request, WireCommand {
         final WireCommandType type = WireCommandType.TRUNCATE_SEGMENT;
@@ -1256,6 +1510,43 @@ public final class WireCommands {
         }
     }
 
+    /**
+     * Deletes multiple Segments using a single request. See {@link CreateSegments}.
+     */
+    @Data
+    public static final class DeleteSegments implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.DELETE_SEGMENTS;
+        final long requestId;
+        final List<DeleteSegment> segments;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.deleteSegments(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeInt(segments.size());
+            for (DeleteSegment request : segments) {
+                request.writeFields(out);
+            }
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            int count = in.readInt();
+            if (count < 0 || count > length) {
+                throw new CorruptedFrameException("Invalid number of segments: " + count);
+            }
+            List<DeleteSegment> segments = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                segments.add((DeleteSegment) DeleteSegment.readFrom(in, length));
+            }
+            return new DeleteSegments(requestId, segments);
+        }
+    }
+
     @Data
     public static final class KeepAlive implements Request, Reply, WireCommand {
         final WireCommandType type = WireCommandType.KEEP_ALIVE;
@@ -1296,6 +1587,21 @@ public final class WireCommands {
         }
     }
 
+    /**
+     * Releases the client-side encoder state of a writer when the server is too old to be sent a {@link RemoveWriter}.
+     */
+    @Data
+    public static final class ReleaseWriter implements WireCommand {
+        final WireCommandType type = WireCommandType.KEEP_ALIVE;
+        private final UUID writerId;
+        private final String segment;
+
+        @Override
+        public void writeFields(DataOutput out) {
+            throw new IllegalStateException("This command is not sent over the wire.");
+        }
+    }
+
     @Data
     public static final class AuthTokenCheckFailed implements Reply, WireCommand {
         final WireCommandType type = WireCommandType.AUTH_TOKEN_CHECK_FAILED;
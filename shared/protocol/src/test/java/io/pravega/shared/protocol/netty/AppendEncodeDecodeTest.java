@@ -17,7 +17,10 @@ import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.ResourceLeakDetector.Level;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
+import io.pravega.shared.protocol.netty.WireCommands.ReleaseWriter;
+import io.pravega.shared.protocol.netty.WireCommands.RemoveWriter;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
+import io.pravega.test.common.AssertExtensions;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -131,6 +134,59 @@ public class AppendEncodeDecodeTest {
         sendAndVerifyEvents(s2, c2, numEvents, size, numEvents);
     }
 
+    @Test
+    public void testMultipleWritersForSameSegment() throws Exception {
+        @Cleanup("release")
+        ByteBuf fakeNetwork = ByteBufAllocator.DEFAULT.buffer();
+        UUID c1 = new UUID(1, 1);
+        UUID c2 = new UUID(2, 2);
+        ArrayList<Object> received = setupAppend(streamName, c1, fakeNetwork);
+        setupAppend(streamName, c2, fakeNetwork);
+        for (int i = 0; i < 2; i++) {
+            append(streamName, c1, 0, i, 10, fakeNetwork);
+            append(streamName, c2, 0, i, 10, fakeNetwork);
+        }
+        encoder.encode(null, new KeepAlive(), fakeNetwork);
+        read(fakeNetwork, received);
+
+        // Switching between writers ends the current block.
+        assertEquals(5, received.size());
+        UUID[] expectedWriters = new UUID[] { c1, c2, c1, c2 };
+        for (int i = 0; i < expectedWriters.length; i++) {
+            Append append = (Append) received.get(i);
+            assertEquals(streamName, append.getSegment());
+            assertEquals(expectedWriters[i], append.getWriterId());
+            assertEquals(i / 2, append.getEventNumber());
+        }
+    }
+
+    @Test
+    public void testRemoveWriter() throws Exception {
+        @Cleanup("release")
+        ByteBuf fakeNetwork = ByteBufAllocator.DEFAULT.buffer();
+        UUID c1 = new UUID(1, 1);
+        UUID c2 = new UUID(2, 2);
+        ArrayList<Object> received = setupAppend(streamName, c1, fakeNetwork);
+        setupAppend(streamName, c2, fakeNetwork);
+        append(streamName, c1, 0, 0, 10, fakeNetwork);
+
+        // Removing a writer ends its current block, and both ends forget about it.
+        RemoveWriter removeWriter = new RemoveWriter(1, c1, streamName);
+        encoder.encode(null, removeWriter, fakeNetwork);
+        read(fakeNetwork, received);
+        assertEquals(2, received.size());
+        assertEquals(c1, ((Append) received.get(0)).getWriterId());
+        assertEquals(removeWriter, received.get(1));
+        AssertExtensions.assertThrows(InvalidMessageException.class, () -> append(streamName, c1, 0, 1, 10, fakeNetwork));
+        AssertExtensions.assertThrows(InvalidMessageException.class,
+                () -> appendDecoder.processCommand(new WireCommands.AppendBlock(c1)));
+
+        // Releasing a writer only affects the encoder.
+        encoder.encode(null, new ReleaseWriter(c2, streamName), fakeNetwork);
+        assertEquals(0, fakeNetwork.readableBytes());
+        AssertExtensions.assertThrows(InvalidMessageException.class, () -> append(streamName, c2, 0, 0, 10, fakeNetwork));
+    }
+
     private void sendAndVerifyEvents(String segment, UUID writerId, int numEvents, int eventSize,
             int expectedMessages) throws Exception {
         @Cleanup("release")
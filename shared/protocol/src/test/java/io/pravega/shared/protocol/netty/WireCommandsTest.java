@@ -11,6 +11,7 @@ package io.pravega.shared.protocol.netty;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.pravega.shared.protocol.netty.WireCommands.Event;
 import java.io.ByteArrayOutputStream;
@@ -18,6 +19,8 @@ import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.Data;
@@ -53,6 +56,11 @@ public class WireCommandsTest {
         testCommand(new WireCommands.SetupAppend(l, uuid, testString1, ""));
     }
 
+    @Test
+    public void testRemoveWriter() throws IOException {
+        testCommand(new WireCommands.RemoveWriter(l, uuid, testString1));
+    }
+
     @Test
     public void testAppendSetup() throws IOException {
         testCommand(new WireCommands.AppendSetup(l, testString1, uuid, l));
@@ -144,6 +152,32 @@ public class WireCommandsTest {
     @Test
     public void testSegmentRead() throws IOException {
         testCommand(new WireCommands.SegmentRead(testString1, l, true, false, buffer));
+
+        // Direct buffers must be serialized the same way, whether or not the target is a ByteBuf.
+        ByteBuffer direct = ByteBuffer.allocateDirect(buffer.remaining());
+        direct.put(buffer.duplicate()).flip();
+        WireCommands.SegmentRead directCommand = new WireCommands.SegmentRead(testString1, l, true, false, direct);
+        testCommand(directCommand);
+        ByteBuf target = Unpooled.buffer();
+        directCommand.writeFields(new ByteBufOutputStream(target));
+        WireCommand read = directCommand.getType().readFrom(new ByteBufInputStream(target), target.readableBytes());
+        assertEquals(directCommand, read);
+    }
+
+    @Test
+    public void testReadSegments() throws IOException {
+        testCommand(new WireCommands.ReadSegments(l, Arrays.asList(
+                new WireCommands.ReadSegment(testString1, l, i, ""),
+                new WireCommands.ReadSegment(testString2, l + 1, i + 1, "token"))));
+        testCommand(new WireCommands.ReadSegments(l, Collections.emptyList()));
+    }
+
+    @Test
+    public void testSegmentsRead() throws IOException {
+        testCommand(new WireCommands.SegmentsRead(l, Arrays.asList(
+                new WireCommands.SegmentRead(testString1, l, true, false, buffer),
+                new WireCommands.SegmentRead(testString2, l + 1, false, true, ByteBuffer.allocate(0)))));
+        testCommand(new WireCommands.SegmentsRead(l, Collections.emptyList()));
     }
     
     @Test
@@ -187,11 +221,27 @@ public class WireCommandsTest {
         testCommand(new WireCommands.SegmentCreated(l, testString1));
     }
 
+    @Test
+    public void testCreateSegments() throws IOException {
+        testCommand(new WireCommands.CreateSegments(l, Arrays.asList(
+                new WireCommands.CreateSegment(l + 1, testString1, b, i, ""),
+                new WireCommands.CreateSegment(l + 2, testString2, b, i + 1, "token"))));
+        testCommand(new WireCommands.CreateSegments(l, Collections.emptyList()));
+    }
+
     @Test
     public void testMergeSegments() throws IOException {
         testCommand(new WireCommands.MergeSegments(l, testString1, testString2, ""));
     }
 
+    @Test
+    public void testMergeSegmentsBatch() throws IOException {
+        testCommand(new WireCommands.MergeSegmentsBatch(l, Arrays.asList(
+                new WireCommands.MergeSegments(l + 1, testString1, testString2, ""),
+                new WireCommands.MergeSegments(l + 2, testString1, testString2 + "#1", "token"))));
+        testCommand(new WireCommands.MergeSegmentsBatch(l, Collections.emptyList()));
+    }
+
     @Test
     public void testSegmentsMerged() throws IOException {
         testCommand(new WireCommands.SegmentsMerged(l, testString1, testString2));
@@ -207,6 +257,14 @@ public class WireCommandsTest {
         testCommand(new WireCommands.SegmentSealed(l, testString1));
     }
 
+    @Test
+    public void testSealSegments() throws IOException {
+        testCommand(new WireCommands.SealSegments(l, Arrays.asList(
+                new WireCommands.SealSegment(l + 1, testString1, ""),
+                new WireCommands.SealSegment(l + 2, testString2, "token"))));
+        testCommand(new WireCommands.SealSegments(l, Collections.emptyList()));
+    }
+
     @Test
     public void testTruncateSegment() throws IOException {
         testCommand(new WireCommands.TruncateSegment(l, testString1, l + 1, ""));
@@ -232,6 +290,14 @@ public class WireCommandsTest {
         testCommand(new WireCommands.SegmentDeleted(l, testString1));
     }
 
+    @Test
+    public void testDeleteSegments() throws IOException {
+        testCommand(new WireCommands.DeleteSegments(l, Arrays.asList(
+                new WireCommands.DeleteSegment(l + 1, testString1, ""),
+                new WireCommands.DeleteSegment(l + 2, testString2, "token"))));
+        testCommand(new WireCommands.DeleteSegments(l, Collections.emptyList()));
+    }
+
     @Test
     public void testUpdateSegmentPolicy() throws IOException {
         testCommand(new WireCommands.UpdateSegmentPolicy(l, testString1, b, i, ""));
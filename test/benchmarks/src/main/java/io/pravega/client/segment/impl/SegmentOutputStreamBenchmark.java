@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.segment.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.pravega.client.netty.impl.ClientConnection;
+import io.pravega.client.stream.impl.PendingEvent;
+import io.pravega.client.stream.mock.MockConnectionFactoryImpl;
+import io.pravega.client.stream.mock.MockController;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.common.util.Retry;
+import io.pravega.shared.protocol.netty.Append;
+import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
+import io.pravega.shared.protocol.netty.CommandEncoder;
+import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import io.pravega.shared.protocol.netty.WireCommand;
+import io.pravega.shared.protocol.netty.WireCommands;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for SegmentOutputStreamImpl, measuring the client-side cost of issuing Appends (inflight tracking, batching
+ * and wire encoding) and processing their acknowledgements. The connection encodes everything it is given but never
+ * touches the network; acknowledgements are sent back on a separate thread, as they would be by a real connection.
+ *
+ * The state is shared by all the benchmark threads, so multi-threaded benchmarks exercise a single SegmentOutputStream
+ * concurrently (as happens when an EventStreamWriter is used by multiple application threads).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class SegmentOutputStreamBenchmark {
+    private static final String SEGMENT = "scope/stream/0";
+    private static final int EVENT_COUNT = 1000;
+    private static final int APPEND_BLOCK_SIZE = 256 * 1024;
+
+    /**
+     * The size of each event, in bytes.
+     */
+    @Param({"100", "1024", "10240"})
+    public int eventSize;
+
+    private ScheduledExecutorService executor;
+    private ScheduledExecutorService ackExecutor;
+    private MockConnectionFactoryImpl connectionFactory;
+    private SegmentOutputStreamImpl output;
+    private ByteBuffer data;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.executor = ExecutorServiceHelpers.newScheduledThreadPool(2, "benchmark");
+        this.ackExecutor = ExecutorServiceHelpers.newScheduledThreadPool(1, "benchmark-acks");
+        PravegaNodeUri uri = new PravegaNodeUri("endpoint", 12345);
+        this.connectionFactory = new MockConnectionFactoryImpl();
+        this.connectionFactory.setExecutor(this.executor);
+        this.connectionFactory.provideConnection(uri, new EncodingConnection(uri));
+        MockController controller = new MockController(uri.getEndpoint(), uri.getPort(), this.connectionFactory);
+        this.output = new SegmentOutputStreamImpl(SEGMENT, controller, this.connectionFactory, UUID.randomUUID(),
+                segment -> { }, Retry.withExpBackoff(1, 1, 2), "");
+
+        byte[] eventData = new byte[this.eventSize];
+        new Random(0).nextBytes(eventData);
+        this.data = ByteBuffer.wrap(eventData).asReadOnlyBuffer();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.output.close();
+        ExecutorServiceHelpers.shutdown(this.ackExecutor, this.executor);
+    }
+
+    /**
+     * Writes a number of events and then waits for all of them to be acknowledged.
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENT_COUNT)
+    public void writeAndFlush() throws Exception {
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            this.output.write(new PendingEvent(null, this.data.duplicate(), new CompletableFuture<>()));
+        }
+
+        this.output.flush();
+    }
+
+    /**
+     * Same as writeAndFlush, but from multiple threads at once.
+     */
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(EVENT_COUNT)
+    public void concurrentWriteAndFlush() throws Exception {
+        writeAndFlush();
+    }
+
+    /**
+     * ClientConnection that runs everything through a CommandEncoder (discarding the result) and acknowledges all Appends.
+     */
+    private class EncodingConnection implements ClientConnection {
+        private final PravegaNodeUri uri;
+        @GuardedBy("this")
+        private final EmbeddedChannel channel;
+        @GuardedBy("this")
+        private long lastAckedEventNumber = -1;
+
+        EncodingConnection(PravegaNodeUri uri) {
+            this.uri = uri;
+            this.channel = new EmbeddedChannel(new CommandEncoder(new FixedBatchSizeTracker()));
+        }
+
+        @Override
+        public void send(WireCommand cmd) {
+            encode(cmd);
+            if (cmd instanceof WireCommands.SetupAppend) {
+                WireCommands.SetupAppend setup = (WireCommands.SetupAppend) cmd;
+                reply(() -> connectionFactory.getProcessor(this.uri).appendSetup(
+                        new WireCommands.AppendSetup(setup.getRequestId(), setup.getSegment(), setup.getWriterId(), -1)));
+            }
+        }
+
+        @Override
+        public synchronized void send(Append append) {
+            // Acks are queued while holding the lock so that they are delivered in order.
+            encode(append);
+            long previousEventNumber = this.lastAckedEventNumber;
+            this.lastAckedEventNumber = append.getEventNumber();
+            reply(() -> connectionFactory.getProcessor(this.uri).dataAppended(
+                    new WireCommands.DataAppended(append.getWriterId(), append.getEventNumber(), previousEventNumber)));
+        }
+
+        @Override
+        public void sendAsync(WireCommand cmd) {
+            send(cmd);
+        }
+
+        @Override
+        public void sendAsync(List<Append> appends, CompletedCallback callback) {
+            appends.forEach(this::send);
+            callback.complete(null);
+        }
+
+        @Override
+        public synchronized void close() {
+            this.channel.finishAndReleaseAll();
+        }
+
+        private synchronized void encode(Object msg) {
+            this.channel.writeOutbound(msg);
+            ByteBuf encoded;
+            while ((encoded = this.channel.readOutbound()) != null) {
+                encoded.release();
+            }
+        }
+
+        private void reply(Runnable r) {
+            ackExecutor.execute(r);
+        }
+    }
+
+    /**
+     * AppendBatchSizeTracker that always asks for the same block size.
+     */
+    private static class FixedBatchSizeTracker implements AppendBatchSizeTracker {
+        @Override
+        public void recordAppend(long eventNumber, int size) {
+        }
+
+        @Override
+        public void recordAck(long eventNumber) {
+        }
+
+        @Override
+        public int getAppendBlockSize() {
+            return APPEND_BLOCK_SIZE;
+        }
+
+        @Override
+        public int getBatchTimeout() {
+            return 100;
+        }
+    }
+}
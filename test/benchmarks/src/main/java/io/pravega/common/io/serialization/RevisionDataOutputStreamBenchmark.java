@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.common.io.serialization;
+
+import io.pravega.common.io.EnhancedByteArrayOutputStream;
+import io.pravega.common.util.ByteArraySegment;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for VersionedSerializer/RevisionDataOutputStream, both for RandomAccessOutputStreams (where the length of
+ * each Revision is backfilled) and for regular OutputStreams (where the length must be calculated upfront).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class RevisionDataOutputStreamBenchmark {
+    private static final SampleSerializer SERIALIZER = new SampleSerializer();
+
+    /**
+     * The number of attributes in the sample object.
+     */
+    @Param({"1", "100"})
+    public int attributeCount;
+
+    /**
+     * The size of the payload of the sample object, in bytes.
+     */
+    @Param({"0", "1024"})
+    public int payloadSize;
+
+    private Sample sample;
+    private ByteArraySegment serialized;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Random random = new Random(0);
+        this.sample = new Sample();
+        this.sample.id = random.nextInt(Integer.MAX_VALUE);
+        this.sample.name = "scope/stream/segment";
+        this.sample.writerId = new UUID(random.nextLong(), random.nextLong());
+        this.sample.payload = new byte[this.payloadSize];
+        random.nextBytes(this.sample.payload);
+        this.sample.attributes = new ArrayList<>();
+        for (int i = 0; i < this.attributeCount; i++) {
+            this.sample.attributes.add(random.nextLong());
+        }
+
+        this.serialized = SERIALIZER.serialize(this.sample);
+    }
+
+    /**
+     * Serializes into a RandomAccessOutputStream.
+     */
+    @Benchmark
+    public int serializeRandomAccess() throws IOException {
+        EnhancedByteArrayOutputStream stream = new EnhancedByteArrayOutputStream();
+        SERIALIZER.serialize(stream, this.sample);
+        return stream.size();
+    }
+
+    /**
+     * Serializes into an OutputStream that does not support random access.
+     */
+    @Benchmark
+    public int serializeNonSeekable() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        SERIALIZER.serialize(stream, this.sample);
+        return stream.size();
+    }
+
+    /**
+     * Deserializes a previously serialized object.
+     */
+    @Benchmark
+    public Sample deserialize() throws IOException {
+        Sample result = new Sample();
+        SERIALIZER.deserialize(this.serialized, result);
+        return result;
+    }
+
+    //region Sample
+
+    public static class Sample {
+        private long id;
+        private String name;
+        private UUID writerId;
+        private byte[] payload;
+        private ArrayList<Long> attributes;
+    }
+
+    private static class SampleSerializer extends VersionedSerializer.Direct<Sample> {
+        @Override
+        protected byte getWriteVersion() {
+            return 0;
+        }
+
+        @Override
+        protected void declareVersions() {
+            version(0).revision(0, this::write00, this::read00);
+        }
+
+        private void write00(Sample s, RevisionDataOutput output) throws IOException {
+            if (output.requiresExplicitLength()) {
+                output.length(output.getCompactLongLength(s.id)
+                        + output.getUTFLength(s.name)
+                        + 2 * Long.BYTES
+                        + output.getCompactIntLength(s.payload.length) + s.payload.length
+                        + output.getCollectionLength(s.attributes, a -> Long.BYTES));
+            }
+
+            output.writeCompactLong(s.id);
+            output.writeUTF(s.name);
+            output.writeUUID(s.writerId);
+            output.writeArray(s.payload);
+            output.writeCollection(s.attributes, RevisionDataOutput::writeLong);
+        }
+
+        private void read00(RevisionDataInput input, Sample s) throws IOException {
+            s.id = input.readCompactLong();
+            s.name = input.readUTF();
+            s.writerId = input.readUUID();
+            s.payload = input.readArray();
+            s.attributes = input.readCollection(RevisionDataInput::readLong, ArrayList::new);
+        }
+    }
+
+    //endregion
+}
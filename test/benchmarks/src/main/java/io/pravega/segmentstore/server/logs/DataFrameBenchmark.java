@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.common.function.Callbacks;
+import io.pravega.segmentstore.server.TestDurableDataLog;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for DataFrameBuilder (serializing LogItems into DataFrames) and DataFrameReader (reading them back).
+ * Both use an in-memory DurableDataLog, so the results reflect the serialization cost and not any I/O.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class DataFrameBenchmark {
+    private static final int CONTAINER_ID = 1;
+    private static final int RECORD_COUNT = 1000;
+    private static final int FRAME_SIZE = 1024 * 1024;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final TestLogItem.TestLogItemSerializer SERIALIZER = new TestLogItem.TestLogItemSerializer();
+
+    /**
+     * The size of each record's payload, in bytes.
+     */
+    @Param({"100", "1024", "102400"})
+    public int recordSize;
+
+    private ScheduledExecutorService executor;
+    private ArrayList<TestLogItem> records;
+    private TestDurableDataLog populatedLog;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.executor = ExecutorServiceHelpers.newScheduledThreadPool(2, "benchmark");
+        Random random = new Random(0);
+        this.records = new ArrayList<>();
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            byte[] data = new byte[this.recordSize];
+            random.nextBytes(data);
+            this.records.add(new TestLogItem(i, data));
+        }
+
+        // Populate a log for the read benchmark.
+        this.populatedLog = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, this.executor);
+        this.populatedLog.initialize(TIMEOUT);
+        writeAll(this.populatedLog);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.populatedLog.close();
+        ExecutorServiceHelpers.shutdown(this.executor);
+    }
+
+    /**
+     * Serializes all records into a new log using a DataFrameBuilder and waits for all the DataFrames to be committed.
+     */
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public long write() throws Exception {
+        try (TestDurableDataLog log = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, this.executor)) {
+            log.initialize(TIMEOUT);
+            return writeAll(log);
+        }
+    }
+
+    /**
+     * Reads all records from a pre-populated log using a DataFrameReader.
+     */
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public long read() throws Exception {
+        long lastSequenceNumber = -1;
+        try (DataFrameReader<TestLogItem> reader = new DataFrameReader<>(this.populatedLog, SERIALIZER, CONTAINER_ID)) {
+            DataFrameRecord<TestLogItem> record;
+            while ((record = reader.getNext()) != null) {
+                lastSequenceNumber = record.getItem().getSequenceNumber();
+            }
+        }
+
+        return lastSequenceNumber;
+    }
+
+    private long writeAll(TestDurableDataLog log) throws Exception {
+        long lastSequenceNumber = this.records.get(this.records.size() - 1).getSequenceNumber();
+        CompletableFuture<Long> committed = new CompletableFuture<>();
+        val args = new DataFrameBuilder.Args(
+                Callbacks::doNothing,
+                c -> {
+                    if (c.getLastFullySerializedSequenceNumber() >= lastSequenceNumber) {
+                        committed.complete(c.getLastFullySerializedSequenceNumber());
+                    }
+                },
+                (ex, c) -> committed.completeExceptionally(ex),
+                this.executor);
+        try (DataFrameBuilder<TestLogItem> builder = new DataFrameBuilder<>(log, SERIALIZER, args)) {
+            for (TestLogItem r : this.records) {
+                builder.append(r);
+            }
+
+            builder.flush();
+        }
+
+        return committed.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import io.pravega.common.util.AvlTreeIndex;
+import io.pravega.common.util.ChunkedArrayIndex;
+import io.pravega.common.util.RedBlackTreeIndex;
+import io.pravega.common.util.SortedIndex;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the SortedIndex implementations that back a StreamSegmentReadIndex, using the same lookups that the
+ * read path performs (floor lookups for reads, exact and ceiling lookups for appends and merges).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class ReadIndexLookupBenchmark {
+    private static final int ENTRY_LENGTH = 4096;
+
+    /**
+     * The SortedIndex implementation to benchmark.
+     */
+    @Param({"AVL", "REDBLACK", "ARRAY"})
+    public IndexType indexType;
+
+    /**
+     * The number of entries in the index.
+     */
+    @Param({"1000", "100000"})
+    public int entryCount;
+
+    private SortedIndex<ReadIndexEntry> index;
+    private Random random;
+    private long maxOffset;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.index = this.indexType.creator.get();
+        for (int i = 0; i < this.entryCount; i++) {
+            this.index.put(new CacheIndexEntry((long) i * ENTRY_LENGTH, ENTRY_LENGTH));
+        }
+
+        this.maxOffset = (long) this.entryCount * ENTRY_LENGTH;
+        this.random = new Random(0);
+    }
+
+    /**
+     * Locates the entry containing a random offset, which is what every read does.
+     */
+    @Benchmark
+    public ReadIndexEntry getFloor() {
+        return this.index.getFloor(nextOffset());
+    }
+
+    /**
+     * Locates the entry that begins at a random entry boundary.
+     */
+    @Benchmark
+    public ReadIndexEntry get() {
+        return this.index.get(nextOffset() / ENTRY_LENGTH * ENTRY_LENGTH);
+    }
+
+    /**
+     * Locates the first entry at or after a random offset.
+     */
+    @Benchmark
+    public ReadIndexEntry getCeiling() {
+        return this.index.getCeiling(nextOffset());
+    }
+
+    private long nextOffset() {
+        return (long) (this.random.nextDouble() * this.maxOffset);
+    }
+
+    public enum IndexType {
+        AVL(AvlTreeIndex::new),
+        REDBLACK(RedBlackTreeIndex::new),
+        ARRAY(ChunkedArrayIndex::new);
+
+        private final Supplier<SortedIndex<ReadIndexEntry>> creator;
+
+        IndexType(Supplier<SortedIndex<ReadIndexEntry>> creator) {
+            this.creator = creator;
+        }
+    }
+}
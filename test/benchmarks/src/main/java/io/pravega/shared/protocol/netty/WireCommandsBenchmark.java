@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for encoding and decoding WireCommands: SegmentRead replies (read path) and batched Appends (write path).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class WireCommandsBenchmark {
+    private static final String SEGMENT = "scope/stream/0";
+    private static final int APPEND_COUNT = 1000;
+    private static final int APPEND_BLOCK_SIZE = 1024 * 1024;
+
+    /**
+     * The size of the payload of each command, in bytes.
+     */
+    @Param({"100", "1024", "102400"})
+    public int dataSize;
+
+    private byte[] data;
+    private ByteBuf out;
+    private WireCommands.SegmentRead segmentRead;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.data = new byte[this.dataSize];
+        new Random(0).nextBytes(this.data);
+        this.segmentRead = new WireCommands.SegmentRead(SEGMENT, 0, true, false, ByteBuffer.wrap(this.data));
+        this.out = Unpooled.directBuffer(APPEND_BLOCK_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.out.release();
+    }
+
+    /**
+     * Encodes a SegmentRead reply.
+     */
+    @Benchmark
+    public int encodeSegmentRead() throws Exception {
+        this.out.clear();
+        new CommandEncoder(new FixedBatchSizeTracker()).encode(null, this.segmentRead, this.out);
+        return this.out.readableBytes();
+    }
+
+    /**
+     * Encodes and then decodes a SegmentRead reply.
+     */
+    @Benchmark
+    public WireCommand encodeDecodeSegmentRead() throws Exception {
+        this.out.clear();
+        new CommandEncoder(new FixedBatchSizeTracker()).encode(null, this.segmentRead, this.out);
+        return CommandDecoder.parseCommand(this.out);
+    }
+
+    /**
+     * Encodes a sequence of Appends to the same segment, which the CommandEncoder batches into AppendBlocks.
+     */
+    @Benchmark
+    @OperationsPerInvocation(APPEND_COUNT)
+    public int encodeAppends() throws Exception {
+        UUID writerId = new UUID(0, 0);
+        CommandEncoder encoder = new CommandEncoder(new FixedBatchSizeTracker());
+        ByteBuf payload = Unpooled.wrappedBuffer(this.data);
+        int totalBytes = 0;
+        this.out.clear();
+        encoder.encode(null, new WireCommands.SetupAppend(0, writerId, SEGMENT, ""), this.out);
+        for (int i = 0; i < APPEND_COUNT; i++) {
+            encoder.encode(null, new Append(SEGMENT, writerId, i, payload.duplicate(), null), this.out);
+            if (this.out.readableBytes() >= APPEND_BLOCK_SIZE / 2) {
+                // Simulate the buffer being written to the socket.
+                totalBytes += this.out.readableBytes();
+                this.out.clear();
+            }
+        }
+
+        encoder.encode(null, new WireCommands.KeepAlive(), this.out);
+        return totalBytes + this.out.readableBytes();
+    }
+
+    /**
+     * AppendBatchSizeTracker that always asks for the same block size.
+     */
+    private static class FixedBatchSizeTracker implements AppendBatchSizeTracker {
+        @Override
+        public void recordAppend(long eventNumber, int size) {
+        }
+
+        @Override
+        public void recordAck(long eventNumber) {
+        }
+
+        @Override
+        public int getAppendBlockSize() {
+            return APPEND_BLOCK_SIZE / 4;
+        }
+
+        @Override
+        public int getBatchTimeout() {
+            return 100;
+        }
+    }
+}
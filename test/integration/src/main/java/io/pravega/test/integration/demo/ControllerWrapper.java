@@ -98,6 +98,7 @@ public class ControllerWrapper implements AutoCloseable {
                     .commitReaderGroupSize(1)
                     .abortReaderGroupName("abortStreamReaders")
                     .abortReaderGroupSize(1)
+                    .requestReaderGroupSize(1)
                     .commitCheckpointConfig(CheckpointConfig.periodic(10, 10))
                     .abortCheckpointConfig(CheckpointConfig.periodic(10, 10))
                     .build());